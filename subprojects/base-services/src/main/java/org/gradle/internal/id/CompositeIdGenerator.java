@@ -31,15 +31,23 @@ public class CompositeIdGenerator implements IdGenerator<Object> {
         return new CompositeId(scope, generator.generateId());
     }
     
-    private static class CompositeId implements Serializable {
+    public static class CompositeId implements Serializable {
         private final Object scope;
         private final Object id;
 
-        private CompositeId(Object scope, Object id) {
+        public CompositeId(Object scope, Object id) {
             this.id = id;
             this.scope = scope;
         }
 
+        public Object getScope() {
+            return scope;
+        }
+
+        public Object getId() {
+            return id;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (o == this) {
@@ -22,6 +22,7 @@ import org.gradle.internal.UncheckedException;
 
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A hierarchical {@link ServiceRegistry} implementation.
@@ -192,43 +193,63 @@ public class DefaultServiceRegistry extends AbstractServiceRegistry {
         <T> Factory<T> getFactory(Class<T> type);
     }
 
+    /**
+     * The services registered directly with this registry. Keeps an index from requested type to the services that can provide that type, which is
+     * built on demand, so that each type is matched against the registered services only once.
+     */
     private class OwnServices implements Provider {
-        private final List<Provider> providers = new ArrayList<Provider>();
+        private final List<SingletonService> providers = new ArrayList<SingletonService>();
+        private final Map<Class<?>, List<SingletonService>> servicesByType = new ConcurrentHashMap<Class<?>, List<SingletonService>>();
+        private final Map<Class<?>, List<SingletonService>> factoriesByType = new ConcurrentHashMap<Class<?>, List<SingletonService>>();
 
         public <T> Factory<T> getFactory(Class<T> type) {
-            Factory<T> match = null;
-            for (Provider provider : providers) {
-                Factory<T> factory = provider.getFactory(type);
-                if (factory != null) {
-                    if (match != null) {
-                        throw new ServiceLookupException(String.format("Multiple factories for objects of type %s available in %s.", type.getSimpleName(), DefaultServiceRegistry.this.toString()));
+            List<SingletonService> matches = factoriesByType.get(type);
+            if (matches == null) {
+                matches = new ArrayList<SingletonService>(1);
+                for (SingletonService provider : providers) {
+                    if (provider.isFactoryFor(type)) {
+                        matches.add(provider);
                     }
-                    match = factory;
                 }
+                factoriesByType.put(type, matches);
+            }
+            if (matches.isEmpty()) {
+                return null;
+            }
+            if (matches.size() > 1) {
+                throw new ServiceLookupException(String.format("Multiple factories for objects of type %s available in %s.", type.getSimpleName(), DefaultServiceRegistry.this.toString()));
             }
-            return match;
+            return matches.get(0).getFactory(type);
         }
 
         public <T> T getService(Class<T> serviceType) {
-            T match = null;
-            for (Provider provider : providers) {
-                T service = provider.getService(serviceType);
-                if (service != null) {
-                    if (match != null) {
-                        throw new ServiceLookupException(String.format("Multiple services of type %s available in %s.", serviceType.getSimpleName(), DefaultServiceRegistry.this.toString()));
+            List<SingletonService> matches = servicesByType.get(serviceType);
+            if (matches == null) {
+                matches = new ArrayList<SingletonService>(1);
+                for (SingletonService provider : providers) {
+                    if (provider.isServiceOf(serviceType)) {
+                        matches.add(provider);
                     }
-                    match = service;
                 }
+                servicesByType.put(serviceType, matches);
             }
-            return match;
+            if (matches.isEmpty()) {
+                return null;
+            }
+            if (matches.size() > 1) {
+                throw new ServiceLookupException(String.format("Multiple services of type %s available in %s.", serviceType.getSimpleName(), DefaultServiceRegistry.this.toString()));
+            }
+            return matches.get(0).getService(serviceType);
         }
 
         public void stop() {
             CompositeStoppable.stoppable(providers).stop();
         }
 
-        public void add(Provider provider) {
+        public void add(SingletonService provider) {
             this.providers.add(provider);
+            servicesByType.clear();
+            factoriesByType.clear();
         }
     }
 
@@ -268,25 +289,43 @@ public class DefaultServiceRegistry extends AbstractServiceRegistry {
             return String.format("Service %s", serviceType);
         }
 
+        /**
+         * Returns true if this provider provides a service of the given type. Does not create the service.
+         */
+        boolean isServiceOf(Class<?> serviceType) {
+            return serviceType.isAssignableFrom(this.serviceClass);
+        }
+
+        /**
+         * Returns true if this provider provides a factory for objects of the given type. Does not create the service.
+         */
+        boolean isFactoryFor(Class<?> elementType) {
+            if (!Factory.class.isAssignableFrom(serviceClass)) {
+                return false;
+            }
+            return isFactoryFor(serviceType, elementType);
+        }
+
         public <T> T getService(Class<T> serviceType) {
-            if (!serviceType.isAssignableFrom(this.serviceClass)) {
+            if (!isServiceOf(serviceType)) {
                 return null;
             }
             return serviceType.cast(getInstance());
         }
 
-
         public <T> Factory<T> getFactory(Class<T> elementType) {
-            if (!Factory.class.isAssignableFrom(serviceClass)) {
+            if (!isFactoryFor(elementType)) {
                 return null;
             }
-            return getFactory(serviceType, elementType);
+            @SuppressWarnings("unchecked")
+            Factory<T> f = getService(Factory.class);
+            return f;
         }
 
-        private <T> Factory<T> getFactory(Type type, Class<T> elementType) {
+        private boolean isFactoryFor(Type type, Class<?> elementType) {
             Class c = toClass(type);
             if (!Factory.class.isAssignableFrom(c)) {
-                return null;
+                return false;
             }
 
             if (type instanceof ParameterizedType) {
@@ -295,22 +334,19 @@ public class DefaultServiceRegistry extends AbstractServiceRegistry {
                 if (parameterizedType.getRawType().equals(Factory.class)) {
                     Type actualType = parameterizedType.getActualTypeArguments()[0];
                     if (actualType instanceof Class<?> && elementType.isAssignableFrom((Class<?>) actualType)) {
-                        @SuppressWarnings("unchecked")
-                        Factory<T> f = getService(Factory.class);
-                        return f;
+                        return true;
                     }
                 }
             }
 
             // Check if type extends Factory<? extends ElementType>
             for (Type interfaceType : c.getGenericInterfaces()) {
-                Factory<T> f = getFactory(interfaceType, elementType);
-                if (f != null) {
-                    return f;
+                if (isFactoryFor(interfaceType, elementType)) {
+                    return true;
                 }
             }
 
-            return null;
+            return false;
         }
 
         private Class toClass(Type type) {
@@ -265,6 +265,46 @@ public class DefaultServiceRegistryTest {
         }
     }
 
+    @Test
+    public void locatesServiceAddedAfterAFailedLookup() {
+        try {
+            registry.get(Runnable.class);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        final Runnable runnable = context.mock(Runnable.class);
+        registry.add(Runnable.class, runnable);
+
+        assertThat(registry.get(Runnable.class), sameInstance(runnable));
+    }
+
+    @Test
+    public void locatesFactoryAddedAfterAFailedLookup() {
+        try {
+            registry.getFactory(String.class);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        registry.add(StringFactory.class, new StringFactory() {
+            public String create() {
+                return "value";
+            }
+        });
+
+        assertThat(registry.getFactory(String.class).create(), equalTo("value"));
+    }
+
+    @Test
+    public void repeatedLookupsReturnSameInstance() {
+        assertThat(registry.get(Integer.class), sameInstance(registry.get(Integer.class)));
+        assertThat(registry.get(Number.class), sameInstance((Object) registry.get(Integer.class)));
+        assertThat(registry.getFactory(BigDecimal.class), sameInstance((Object) registry.getFactory(BigDecimal.class)));
+    }
+
     @Test
     public void returnsServiceInstancesManagedByNestedServiceRegistry() {
         final ServiceRegistry nested = context.mock(ServiceRegistry.class);
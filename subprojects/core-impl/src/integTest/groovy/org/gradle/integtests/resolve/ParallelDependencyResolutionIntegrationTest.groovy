@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.integtests.resolve
+
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+
+class ParallelDependencyResolutionIntegrationTest extends AbstractIntegrationSpec {
+    def "resolves the same graph with and without parallel meta-data prefetching"() {
+        given:
+        mavenRepo.module("org", "leaf", "1.0").publish()
+        mavenRepo.module("org", "leaf", "1.1").publish()
+        mavenRepo.module("org", "shared", "1.0").publish()
+        mavenRepo.module("org", "shared", "2.0").publish()
+        mavenRepo.module("org", "forced", "1.0").publish()
+        mavenRepo.module("org", "forced", "2.0").publish()
+        mavenRepo.module("org", "a", "1.0").dependsOn("org", "shared", "1.0").dependsOn("org", "leaf", "1.0").publish()
+        mavenRepo.module("org", "b", "1.0").dependsOn("org", "shared", "2.0").dependsOn("org", "forced", "2.0").publish()
+        mavenRepo.module("org", "c", "1.0").dependsOn("org", "a", "1.0").dependsOn("org", "b", "1.0").publish()
+
+        buildFile << """
+repositories { maven { url "${mavenRepo.uri}" } }
+configurations { compile }
+dependencies {
+    compile 'org:c:1.0'
+    compile 'org:leaf:1.0'
+}
+configurations.compile.resolutionStrategy {
+    force 'org:forced:1.0'
+    eachDependency { details ->
+        if (details.requested.name == 'leaf') {
+            details.useVersion '1.1'
+        }
+    }
+}
+task resolve << {
+    def modules = configurations.compile.incoming.resolutionResult.allModuleVersions.collect { "\${it.id} \${it.selectionReason.description}" }
+    file(project.property('outputFile')).text = (modules.sort() + configurations.compile.collect { it.name }).join('\\n')
+}
+"""
+
+        when:
+        executer.withArguments("--refresh-dependencies", "-PoutputFile=serial.txt")
+        run "resolve"
+
+        and:
+        executer.withArguments("--refresh-dependencies", "-PoutputFile=parallel.txt", "-Dorg.gradle.resolution.parallel=true")
+        run "resolve"
+
+        then:
+        def serial = file("serial.txt").text
+        serial.contains("org:forced:1.0")
+        serial.contains("org:leaf:1.1")
+        serial.contains("org:shared:2.0")
+        file("parallel.txt").text == serial
+    }
+}
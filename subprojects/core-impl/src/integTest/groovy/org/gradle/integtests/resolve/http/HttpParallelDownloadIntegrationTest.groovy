@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.integtests.resolve.http
+
+import org.gradle.integtests.fixtures.AbstractDependencyResolutionTest
+
+class HttpParallelDownloadIntegrationTest extends AbstractDependencyResolutionTest {
+    def "downloads meta-data and artifacts of a configuration concurrently"() {
+        server.start()
+        server.latency = 200
+
+        given:
+        def modules = (1..6).collect { mavenRepo().module("group", "module$it", "1.0").publish() }
+        server.allowGetOrHead("/repo", mavenRepo().rootDir)
+
+        and:
+        buildFile << """
+repositories {
+    maven { url "http://localhost:${server.port}/repo" }
+}
+configurations { compile }
+dependencies {
+    ${modules.collect { "compile 'group:${it.artifactId}:1.0'" }.join("\n    ")}
+}
+task listJars << {
+    assert configurations.compile.collect { it.name } == ${modules.collect { "${it.artifactId}-1.0.jar" as String }.inspect()}
+}
+"""
+
+        when:
+        executer.withArguments("-Dorg.gradle.resolution.parallel=true")
+
+        then:
+        succeeds "listJars"
+
+        and:
+        server.maxConcurrentRequests > 1
+    }
+}
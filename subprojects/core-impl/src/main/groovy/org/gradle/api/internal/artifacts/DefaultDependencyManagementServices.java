@@ -54,6 +54,7 @@ import org.gradle.api.internal.externalresource.cached.ByUrlCachedExternalResour
 import org.gradle.api.internal.externalresource.ivy.ArtifactAtRepositoryCachedArtifactIndex;
 import org.gradle.api.internal.externalresource.local.LocallyAvailableResourceFinder;
 import org.gradle.api.internal.externalresource.local.ivy.LocallyAvailableResourceFinderFactory;
+import org.gradle.api.internal.externalresource.transport.http.HttpTransferStatistics;
 import org.gradle.api.internal.file.FileResolver;
 import org.gradle.api.internal.file.IdentityFileResolver;
 import org.gradle.api.internal.file.TmpDirTemporaryFileProvider;
@@ -65,6 +66,7 @@ import org.gradle.api.internal.notations.api.NotationParser;
 import org.gradle.cache.CacheRepository;
 import org.gradle.initialization.ProjectAccessListener;
 import org.gradle.internal.SystemProperties;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.reflect.Instantiator;
 import org.gradle.internal.service.DefaultServiceRegistry;
 import org.gradle.internal.service.ServiceRegistry;
@@ -249,7 +251,8 @@ public class DefaultDependencyManagementServices extends DefaultServiceRegistry
                 get(LocalFileRepositoryCacheManager.class),
                 get(DownloadingRepositoryCacheManager.class),
                 new TmpDirTemporaryFileProvider(),
-                get(ByUrlCachedExternalResourceIndex.class)
+                get(ByUrlCachedExternalResourceIndex.class),
+                get(TopLevelDependencyManagementServices.class).get(HttpTransferStatistics.class)
         );
     }
 
@@ -265,7 +268,8 @@ public class DefaultDependencyManagementServices extends DefaultServiceRegistry
                 get(CacheLockingManager.class),
                 startParameterResolutionOverride,
                 get(BuildCommencedTimeProvider.class),
-                get(TopLevelDependencyManagementServices.class).get(InMemoryDependencyMetadataCache.class));
+                get(TopLevelDependencyManagementServices.class).get(InMemoryDependencyMetadataCache.class),
+                get(ExecutorFactory.class));
     }
 
     protected ArtifactDependencyResolver createArtifactDependencyResolver() {
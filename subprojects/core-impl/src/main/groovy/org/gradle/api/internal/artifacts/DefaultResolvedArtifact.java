@@ -36,6 +36,7 @@ public class DefaultResolvedArtifact implements ResolvedArtifact {
     private final String name;
     private final String type;
     private final String ext;
+    // The file may be requested by several threads at once, when artifacts are downloaded concurrently. Guarded by this
     private Factory<File> artifactSource;
     private File file;
 
@@ -115,7 +116,8 @@ public class DefaultResolvedArtifact implements ResolvedArtifact {
         return extraAttributes.get(Dependency.CLASSIFIER);
     }
     
-    public File getFile() {
+    public synchronized File getFile() {
+        // Threads that request the file while it is being downloaded wait for the download, rather than downloading it again
         if (file == null) {
             file = artifactSource.create();
             artifactSource = null;
@@ -17,6 +17,7 @@
 package org.gradle.api.internal.artifacts;
 
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.memcache.InMemoryDependencyMetadataCache;
+import org.gradle.api.internal.externalresource.transport.http.HttpTransferStatistics;
 import org.gradle.internal.service.DefaultServiceRegistry;
 
 public class DefaultTopLevelDependencyManagementServices extends DefaultServiceRegistry implements TopLevelDependencyManagementServices {
@@ -24,4 +25,8 @@ public class DefaultTopLevelDependencyManagementServices extends DefaultServiceR
     protected InMemoryDependencyMetadataCache createInMemoryDependencyMetadataCache() {
         return new InMemoryDependencyMetadataCache();
     }
+
+    protected HttpTransferStatistics createHttpTransferStatistics() {
+        return new HttpTransferStatistics();
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice;
+
+import org.gradle.api.Action;
+import org.gradle.api.artifacts.ResolvedArtifact;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Downloads the files of a set of resolved artifacts concurrently, using a bounded number of threads.
+ *
+ * <p>Each file is downloaded by {@link ResolvedArtifact#getFile()}, which stores it in the artifact cache. Failures are ignored here, and are reported when
+ * the file is next requested.</p>
+ *
+ * <p>Each worker runs through the given worker action, which sets up the resources the worker uses to resolve artifacts, such as its own repositories.
+ * When the artifacts cannot be resolved concurrently, no files are downloaded up front, and each file is downloaded by the thread that requests it.</p>
+ *
+ * <p>The calling thread must hold the cache lock. The lock is released while the files are being downloaded, so that the workers can take turns to use the cache.</p>
+ */
+public class ArtifactDownloadScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArtifactDownloadScheduler.class);
+    private final Action<Runnable> workerAction;
+    private final CacheLockingManager cacheLockingManager;
+    private final ExecutorFactory executorFactory;
+    private final int maxThreads;
+
+    /**
+     * Creates a scheduler which downloads each file on the thread that requests it.
+     */
+    public ArtifactDownloadScheduler() {
+        this(null, null, null, 1);
+    }
+
+    public ArtifactDownloadScheduler(Action<Runnable> workerAction, CacheLockingManager cacheLockingManager, ExecutorFactory executorFactory, int maxThreads) {
+        this.workerAction = workerAction;
+        this.cacheLockingManager = cacheLockingManager;
+        this.executorFactory = executorFactory;
+        this.maxThreads = maxThreads;
+    }
+
+    public void download(Collection<? extends ResolvedArtifact> artifacts) {
+        if (maxThreads < 2 || artifacts.size() < 2) {
+            // Nothing to be gained over downloading the files on the calling thread
+            return;
+        }
+
+        final Queue<ResolvedArtifact> queue = new ConcurrentLinkedQueue<ResolvedArtifact>(artifacts);
+        final int threads = Math.min(maxThreads, artifacts.size());
+        LOGGER.debug("Downloading {} artifacts using {} threads.", artifacts.size(), threads);
+        cacheLockingManager.longRunningOperation(String.format("Download %s artifacts", artifacts.size()), new Runnable() {
+            public void run() {
+                StoppableExecutor executor = executorFactory.create("Artifact downloader");
+                try {
+                    for (int i = 0; i < threads; i++) {
+                        executor.execute(new Runnable() {
+                            public void run() {
+                                workerAction.execute(new Runnable() {
+                                    public void run() {
+                                        ResolvedArtifact artifact;
+                                        while ((artifact = queue.poll()) != null) {
+                                            download(artifact);
+                                        }
+                                    }
+                                });
+                            }
+                        });
+                    }
+                } finally {
+                    // Waits for all files to be downloaded
+                    executor.stop();
+                }
+            }
+        });
+    }
+
+    private void download(ResolvedArtifact artifact) {
+        try {
+            artifact.getFile();
+        } catch (RuntimeException e) {
+            LOGGER.debug(String.format("Discarding download failure for %s.", artifact), e);
+        }
+    }
+}
@@ -29,6 +29,7 @@ import java.util.*;
 public class DefaultLenientConfiguration implements ResolvedConfigurationBuilder, LenientConfiguration {
     private final ResolvedDependency root;
     private CacheLockingManager cacheLockingManager;
+    private final ArtifactDownloadScheduler downloadScheduler;
     private final Configuration configuration;
     private final Map<ModuleDependency, ResolvedDependency> firstLevelDependencies = new LinkedHashMap<ModuleDependency, ResolvedDependency>();
     private final Set<ResolvedArtifact> artifacts = new LinkedHashSet<ResolvedArtifact>();
@@ -36,10 +37,11 @@ public class DefaultLenientConfiguration implements ResolvedConfigurationBuilder
     private final CachingDirectedGraphWalker<ResolvedDependency, ResolvedArtifact> walker
             = new CachingDirectedGraphWalker<ResolvedDependency, ResolvedArtifact>(new ResolvedDependencyArtifactsGraph());
 
-    public DefaultLenientConfiguration(Configuration configuration, ResolvedDependency root, CacheLockingManager cacheLockingManager) {
+    public DefaultLenientConfiguration(Configuration configuration, ResolvedDependency root, CacheLockingManager cacheLockingManager, ArtifactDownloadScheduler downloadScheduler) {
         this.configuration = configuration;
         this.root = root;
         this.cacheLockingManager = cacheLockingManager;
+        this.downloadScheduler = downloadScheduler;
     }
 
     public boolean hasError() {
@@ -113,6 +115,7 @@ public class DefaultLenientConfiguration implements ResolvedConfigurationBuilder
         final Set<ResolvedArtifact> allArtifacts = getAllArtifacts(dependencySpec);
         return cacheLockingManager.useCache("retrieve artifacts from " + configuration, new Factory<Set<ResolvedArtifact>>() {
             public Set<ResolvedArtifact> create() {
+                downloadScheduler.download(allArtifacts);
                 return CollectionUtils.filter(allArtifacts, new Spec<ResolvedArtifact>() {
                     public boolean isSatisfiedBy(ResolvedArtifact element) {
                         try {
@@ -131,6 +134,7 @@ public class DefaultLenientConfiguration implements ResolvedConfigurationBuilder
         final Set<File> files = new LinkedHashSet<File>();
         cacheLockingManager.useCache("resolve files from " + configuration, new Runnable() {
             public void run() {
+                downloadScheduler.download(artifacts);
                 for (ResolvedArtifact artifact : artifacts) {
                     File depFile = artifact.getFile();
                     if (depFile != null) {
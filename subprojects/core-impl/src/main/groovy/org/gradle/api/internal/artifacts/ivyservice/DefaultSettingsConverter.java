@@ -50,12 +50,21 @@ public class DefaultSettingsConverter implements SettingsConverter {
             resolveSettings.getResolvers().clear();
         }
 
-        resolveSettings.addResolver(defaultResolver);
-        resolveSettings.setDefaultResolver(defaultResolver.getName());
-        
+        addDefaultResolver(resolveSettings, defaultResolver);
         return resolveSettings;
     }
 
+    public IvySettings createForResolve(DependencyResolver defaultResolver) {
+        IvySettings settings = settingsFactory.create();
+        addDefaultResolver(settings, defaultResolver);
+        return settings;
+    }
+
+    private void addDefaultResolver(IvySettings settings, DependencyResolver defaultResolver) {
+        settings.addResolver(defaultResolver);
+        settings.setDefaultResolver(defaultResolver.getName());
+    }
+
     public IvySettings getForResolve() {
         if (resolveSettings == null) {
             resolveSettings = settingsFactory.create();
@@ -28,5 +28,10 @@ public interface SettingsConverter {
 
     IvySettings convertForResolve(DependencyResolver defaultResolver);
 
+    /**
+     * Creates a new set of resolve settings that is not shared with any other resolve, for use by a resolve that runs concurrently with others.
+     */
+    IvySettings createForResolve(DependencyResolver defaultResolver);
+
     IvySettings getForResolve();
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice;
+
+import org.gradle.api.Action;
+import org.gradle.api.artifacts.ModuleVersionSelector;
+import org.gradle.api.internal.artifacts.DependencyResolveDetailsInternal;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.DependencyMetaData;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.DependencyMetaDataPrefetcher;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Applies the dependency resolve rules, including forced versions, to each dependency before it is prefetched, in the same way as
+ * {@link VersionForcingDependencyToModuleResolver}, so that the module that is fetched is the one that is later resolved.
+ */
+public class VersionForcingDependencyMetaDataPrefetcher implements DependencyMetaDataPrefetcher {
+    private final DependencyMetaDataPrefetcher prefetcher;
+    private final Action<DependencyResolveDetailsInternal> rule;
+
+    public VersionForcingDependencyMetaDataPrefetcher(DependencyMetaDataPrefetcher prefetcher, Action<DependencyResolveDetailsInternal> rule) {
+        this.prefetcher = prefetcher;
+        this.rule = rule;
+    }
+
+    public void prefetch(Collection<? extends DependencyMetaData> dependencies) {
+        Map<ModuleVersionSelector, DependencyMetaData> substituted = new LinkedHashMap<ModuleVersionSelector, DependencyMetaData>();
+        for (DependencyMetaData dependency : dependencies) {
+            DefaultDependencyResolveDetails details = new DefaultDependencyResolveDetails(dependency.getRequested());
+            try {
+                rule.execute(details);
+            } catch (Throwable e) {
+                // The failure is reported when the dependency is resolved
+                continue;
+            }
+            DependencyMetaData target = details.isUpdated() ? dependency.withRequestedVersion(details.getTarget()) : dependency;
+            if (!substituted.containsKey(target.getRequested())) {
+                substituted.put(target.getRequested(), target);
+            }
+        }
+        if (!substituted.isEmpty()) {
+            prefetcher.prefetch(substituted.values());
+        }
+    }
+}
@@ -16,15 +16,20 @@
 package org.gradle.api.internal.artifacts.ivyservice.ivyresolve;
 
 import org.apache.ivy.core.resolve.ResolveData;
+import org.gradle.api.internal.artifacts.ivyservice.ArtifactDownloadScheduler;
 import org.gradle.api.internal.artifacts.ivyservice.DependencyToModuleResolver;
 
 class DefaultIvyAdapter implements IvyAdapter {
     private final ResolveData resolveData;
     private final DependencyToModuleResolver userResolver;
+    private final DependencyMetaDataPrefetcher prefetcher;
+    private final ArtifactDownloadScheduler downloadScheduler;
 
-    public DefaultIvyAdapter(ResolveData resolveData, DependencyToModuleResolver userResolverChain) {
+    public DefaultIvyAdapter(ResolveData resolveData, DependencyToModuleResolver userResolverChain, DependencyMetaDataPrefetcher prefetcher, ArtifactDownloadScheduler downloadScheduler) {
         this.resolveData = resolveData;
         userResolver = userResolverChain;
+        this.prefetcher = prefetcher;
+        this.downloadScheduler = downloadScheduler;
     }
 
     public ResolveData getResolveData() {
@@ -34,4 +39,12 @@ class DefaultIvyAdapter implements IvyAdapter {
     public DependencyToModuleResolver getDependencyToModuleResolver() {
         return userResolver;
     }
+
+    public DependencyMetaDataPrefetcher getDependencyMetaDataPrefetcher() {
+        return prefetcher;
+    }
+
+    public ArtifactDownloadScheduler getArtifactDownloadScheduler() {
+        return downloadScheduler;
+    }
 }
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve;
+
+import java.util.Collection;
+
+/**
+ * Fetches the meta-data for a batch of dependencies ahead of their resolution, so that the subsequent resolves can be served from the cache.
+ */
+public interface DependencyMetaDataPrefetcher {
+    /**
+     * Fetches the meta-data for the given dependencies. Failures are ignored, and are reported when the dependency is later resolved.
+     */
+    void prefetch(Collection<? extends DependencyMetaData> dependencies);
+}
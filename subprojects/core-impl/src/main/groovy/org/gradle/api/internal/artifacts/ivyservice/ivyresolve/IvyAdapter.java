@@ -16,10 +16,15 @@
 package org.gradle.api.internal.artifacts.ivyservice.ivyresolve;
 
 import org.apache.ivy.core.resolve.ResolveData;
+import org.gradle.api.internal.artifacts.ivyservice.ArtifactDownloadScheduler;
 import org.gradle.api.internal.artifacts.ivyservice.DependencyToModuleResolver;
 
 public interface IvyAdapter {
     ResolveData getResolveData();
 
     DependencyToModuleResolver getDependencyToModuleResolver();
+
+    DependencyMetaDataPrefetcher getDependencyMetaDataPrefetcher();
+
+    ArtifactDownloadScheduler getArtifactDownloadScheduler();
 }
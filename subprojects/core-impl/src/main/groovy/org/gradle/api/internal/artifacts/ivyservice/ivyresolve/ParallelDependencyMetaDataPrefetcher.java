@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve;
+
+import org.gradle.api.internal.artifacts.ivyservice.CacheLockingManager;
+import org.gradle.api.internal.artifacts.ivyservice.DefaultBuildableModuleVersionResolveResult;
+import org.gradle.api.internal.artifacts.ivyservice.DependencyToModuleResolver;
+import org.gradle.internal.Factory;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A {@link DependencyMetaDataPrefetcher} that resolves a batch of dependencies concurrently, using a bounded number of threads.
+ *
+ * <p>Each worker thread resolves dependencies using its own resolver, created by the given factory, as the resolvers are not thread-safe. The resolvers
+ * are created on the calling thread and are reused for later batches. Each dependency is resolved exactly as it would be when resolved on its own, so
+ * the repositories are searched in the same order and the same module is chosen. The results are discarded; the resolvers are expected to share a cache
+ * with the resolver used for the subsequent resolve of each dependency, so that it does not need to go back to the repositories.</p>
+ *
+ * <p>The calling thread must hold the cache lock. The lock is released while the batch is being fetched, so that the workers can take turns to use the cache.</p>
+ */
+public class ParallelDependencyMetaDataPrefetcher implements DependencyMetaDataPrefetcher {
+    public final static String TOGGLE_PROPERTY = "org.gradle.resolution.parallel";
+    public final static int DEFAULT_MAX_THREADS = 8;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelDependencyMetaDataPrefetcher.class);
+    private final Factory<? extends DependencyToModuleResolver> resolverFactory;
+    private final CacheLockingManager cacheLockingManager;
+    private final ExecutorFactory executorFactory;
+    private final int maxThreads;
+    private final List<DependencyToModuleResolver> resolvers = new ArrayList<DependencyToModuleResolver>();
+
+    public ParallelDependencyMetaDataPrefetcher(Factory<? extends DependencyToModuleResolver> resolverFactory, CacheLockingManager cacheLockingManager, ExecutorFactory executorFactory, int maxThreads) {
+        this.resolverFactory = resolverFactory;
+        this.cacheLockingManager = cacheLockingManager;
+        this.executorFactory = executorFactory;
+        this.maxThreads = maxThreads;
+    }
+
+    public static boolean isEnabled() {
+        return "true".equalsIgnoreCase(System.getProperty(TOGGLE_PROPERTY));
+    }
+
+    public void prefetch(final Collection<? extends DependencyMetaData> dependencies) {
+        if (dependencies.size() < 2 || maxThreads < 2) {
+            // Nothing to be gained over resolving the dependency on the calling thread
+            return;
+        }
+
+        LOGGER.debug("Prefetching meta-data for {} dependencies.", dependencies.size());
+        final int threads = Math.min(maxThreads, dependencies.size());
+        while (resolvers.size() < threads) {
+            resolvers.add(resolverFactory.create());
+        }
+        cacheLockingManager.longRunningOperation(String.format("Prefetch meta-data for %s dependencies", dependencies.size()), new Runnable() {
+            public void run() {
+                final Queue<DependencyMetaData> queue = new ConcurrentLinkedQueue<DependencyMetaData>(dependencies);
+                StoppableExecutor executor = executorFactory.create("Dependency meta-data prefetcher");
+                try {
+                    for (int i = 0; i < threads; i++) {
+                        final DependencyToModuleResolver resolver = resolvers.get(i);
+                        executor.execute(new Runnable() {
+                            public void run() {
+                                DependencyMetaData dependency;
+                                while ((dependency = queue.poll()) != null) {
+                                    prefetch(resolver, dependency);
+                                }
+                            }
+                        });
+                    }
+                } finally {
+                    // Waits for all dependencies to be fetched
+                    executor.stop();
+                }
+            }
+        });
+    }
+
+    private void prefetch(final DependencyToModuleResolver resolver, final DependencyMetaData dependency) {
+        try {
+            cacheLockingManager.useCache(String.format("Prefetch meta-data for %s", dependency.getRequested()), new Runnable() {
+                public void run() {
+                    resolver.resolve(dependency, new DefaultBuildableModuleVersionResolveResult());
+                }
+            });
+        } catch (RuntimeException e) {
+            // The dependency is resolved again later, which reports the failure
+            LOGGER.debug(String.format("Discarding prefetch failure for %s.", dependency.getRequested()), e);
+        }
+    }
+}
@@ -19,17 +19,23 @@ import org.apache.ivy.Ivy;
 import org.apache.ivy.core.resolve.ResolveData;
 import org.apache.ivy.core.resolve.ResolveOptions;
 import org.apache.ivy.core.settings.IvySettings;
+import org.gradle.api.Action;
 import org.gradle.api.artifacts.cache.ResolutionRules;
 import org.gradle.api.internal.artifacts.configurations.ConfigurationInternal;
+import org.gradle.api.internal.artifacts.ivyservice.ArtifactDownloadScheduler;
 import org.gradle.api.internal.artifacts.ivyservice.CacheLockingManager;
 import org.gradle.api.internal.artifacts.ivyservice.IvyFactory;
 import org.gradle.api.internal.artifacts.ivyservice.SettingsConverter;
+import org.gradle.api.internal.artifacts.ivyservice.VersionForcingDependencyMetaDataPrefetcher;
 import org.gradle.api.internal.artifacts.ivyservice.dynamicversions.ModuleResolutionCache;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.memcache.InMemoryDependencyMetadataCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.ModuleDescriptorCache;
+import org.gradle.api.internal.artifacts.repositories.FixedResolverArtifactRepository;
 import org.gradle.api.internal.artifacts.repositories.ResolutionAwareRepository;
 import org.gradle.api.internal.externalresource.cached.CachedArtifactIndex;
+import org.gradle.internal.Factory;
 import org.gradle.internal.TimeProvider;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.util.WrapUtil;
 
 public class ResolveIvyFactory {
@@ -41,13 +47,14 @@ public class ResolveIvyFactory {
     private final CacheLockingManager cacheLockingManager;
     private final StartParameterResolutionOverride startParameterResolutionOverride;
     private final TimeProvider timeProvider;
+    private final ExecutorFactory executorFactory;
     private InMemoryDependencyMetadataCache inMemoryCache;
 
     public ResolveIvyFactory(IvyFactory ivyFactory, SettingsConverter settingsConverter,
                              ModuleResolutionCache moduleResolutionCache, ModuleDescriptorCache moduleDescriptorCache,
                              CachedArtifactIndex artifactAtRepositoryCachedResolutionIndex,
                              CacheLockingManager cacheLockingManager, StartParameterResolutionOverride startParameterResolutionOverride,
-                             TimeProvider timeProvider, InMemoryDependencyMetadataCache inMemoryCache) {
+                             TimeProvider timeProvider, InMemoryDependencyMetadataCache inMemoryCache, ExecutorFactory executorFactory) {
         this.ivyFactory = ivyFactory;
         this.settingsConverter = settingsConverter;
         this.moduleResolutionCache = moduleResolutionCache;
@@ -57,16 +64,60 @@ public class ResolveIvyFactory {
         this.startParameterResolutionOverride = startParameterResolutionOverride;
         this.timeProvider = timeProvider;
         this.inMemoryCache = inMemoryCache;
+        this.executorFactory = executorFactory;
     }
 
-    public IvyAdapter create(ConfigurationInternal configuration, Iterable<? extends ResolutionAwareRepository> repositories) {
-        UserResolverChain userResolverChain = new UserResolverChain();
+    public IvyAdapter create(final ConfigurationInternal configuration, final Iterable<? extends ResolutionAwareRepository> repositories) {
         ResolutionRules resolutionRules = configuration.getResolutionStrategy().getResolutionRules();
         startParameterResolutionOverride.addResolutionRules(resolutionRules);
 
+        final UserResolverChain userResolverChain = new UserResolverChain();
         LoopbackDependencyResolver loopbackDependencyResolver = new LoopbackDependencyResolver(SettingsConverter.LOOPBACK_RESOLVER_NAME, userResolverChain, cacheLockingManager);
-
         IvySettings ivySettings = settingsConverter.convertForResolve(loopbackDependencyResolver);
+        ResolveData resolveData = addRepositories(userResolverChain, ivySettings, configuration, repositories);
+
+        DependencyMetaDataPrefetcher prefetcher;
+        ArtifactDownloadScheduler downloadScheduler;
+        if (ParallelDependencyMetaDataPrefetcher.isEnabled() && canResolveConcurrently(repositories)) {
+            // Each prefetch and download worker uses its own resolver chain, Ivy instance and repository resolvers, as none of these are thread-safe
+            final Factory<UserResolverChain> workerResolverFactory = new Factory<UserResolverChain>() {
+                public UserResolverChain create() {
+                    UserResolverChain workerResolverChain = new UserResolverChain();
+                    LoopbackDependencyResolver workerLoopbackResolver = new LoopbackDependencyResolver(SettingsConverter.LOOPBACK_RESOLVER_NAME, workerResolverChain, cacheLockingManager);
+                    IvySettings workerSettings = settingsConverter.createForResolve(workerLoopbackResolver);
+                    addRepositories(workerResolverChain, workerSettings, configuration, repositories);
+                    return workerResolverChain;
+                }
+            };
+            prefetcher = new ParallelDependencyMetaDataPrefetcher(workerResolverFactory, cacheLockingManager, executorFactory, ParallelDependencyMetaDataPrefetcher.DEFAULT_MAX_THREADS);
+            prefetcher = new VersionForcingDependencyMetaDataPrefetcher(prefetcher, configuration.getResolutionStrategy().getDependencyResolveRule());
+            Action<Runnable> downloadWorker = new Action<Runnable>() {
+                public void execute(Runnable worker) {
+                    userResolverChain.resolveArtifactsUsing(workerResolverFactory.create(), worker);
+                }
+            };
+            downloadScheduler = new ArtifactDownloadScheduler(downloadWorker, cacheLockingManager, executorFactory, ParallelDependencyMetaDataPrefetcher.DEFAULT_MAX_THREADS);
+        } else {
+            prefetcher = new NoOpDependencyMetaDataPrefetcher();
+            downloadScheduler = new ArtifactDownloadScheduler();
+        }
+
+        return new DefaultIvyAdapter(resolveData, userResolverChain, prefetcher, downloadScheduler);
+    }
+
+    /**
+     * Custom resolvers are supplied by the build as a single instance, which would be shared by all prefetch and download workers.
+     */
+    private boolean canResolveConcurrently(Iterable<? extends ResolutionAwareRepository> repositories) {
+        for (ResolutionAwareRepository repository : repositories) {
+            if (repository instanceof FixedResolverArtifactRepository) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ResolveData addRepositories(UserResolverChain userResolverChain, IvySettings ivySettings, ConfigurationInternal configuration, Iterable<? extends ResolutionAwareRepository> repositories) {
         userResolverChain.setSettings(ivySettings);
 
         Ivy ivy = ivyFactory.createIvy(ivySettings);
@@ -93,8 +144,7 @@ public class ResolveIvyFactory {
             localAwareRepository = inMemoryCache.cached(localAwareRepository);
             userResolverChain.add(localAwareRepository);
         }
-
-        return new DefaultIvyAdapter(resolveData, userResolverChain);
+        return resolveData;
     }
 
     private ResolveData createResolveData(Ivy ivy, String configurationName) {
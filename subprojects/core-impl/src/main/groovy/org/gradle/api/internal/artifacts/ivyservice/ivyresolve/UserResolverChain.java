@@ -32,6 +32,7 @@ public class UserResolverChain implements DependencyToModuleResolver {
 
     private final List<LocalAwareModuleVersionRepository> moduleVersionRepositories = new ArrayList<LocalAwareModuleVersionRepository>();
     private final List<String> moduleVersionRepositoryNames = new ArrayList<String>();
+    private final ThreadLocal<UserResolverChain> artifactResolverChain = new ThreadLocal<UserResolverChain>();
     private ResolverSettings settings;
 
     public void setSettings(ResolverSettings settings) {
@@ -43,6 +44,20 @@ public class UserResolverChain implements DependencyToModuleResolver {
         moduleVersionRepositoryNames.add(repository.getName());
     }
 
+    /**
+     * Runs the given action, resolving the artifacts of modules found by this chain on the calling thread using the repositories of the given chain.
+     * The given chain must have been created with the same repositories as this chain. This allows a worker thread to download artifacts without
+     * sharing the repositories of this chain, which are not thread-safe.
+     */
+    public void resolveArtifactsUsing(UserResolverChain chain, Runnable action) {
+        artifactResolverChain.set(chain);
+        try {
+            action.run();
+        } finally {
+            artifactResolverChain.remove();
+        }
+    }
+
     public void resolve(DependencyMetaData dependency, BuildableModuleVersionResolveResult result) {
         ModuleVersionSelector requested = dependency.getRequested();
         LOGGER.debug("Attempting to resolve module '{}' using repositories {}", requested, moduleVersionRepositoryNames);
@@ -54,7 +69,7 @@ public class UserResolverChain implements DependencyToModuleResolver {
             for (Throwable error : errors) {
                 LOGGER.debug("Discarding resolve failure.", error);
             }
-            result.resolved(latestResolved.module, new ModuleVersionRepositoryArtifactResolverAdapter(latestResolved.repository, latestResolved.moduleSource));
+            result.resolved(latestResolved.module, new ModuleVersionRepositoryArtifactResolverAdapter(latestResolved.repository, moduleVersionRepositories.indexOf(latestResolved.repository), latestResolved.moduleSource));
             return;
         }
         if (!errors.isEmpty()) {
@@ -146,17 +161,21 @@ public class UserResolverChain implements DependencyToModuleResolver {
         return comparison < 0 ? two : one;
     }
 
-    private static class ModuleVersionRepositoryArtifactResolverAdapter implements ArtifactResolver {
+    private class ModuleVersionRepositoryArtifactResolverAdapter implements ArtifactResolver {
         private final ModuleVersionRepository delegate;
+        private final int repositoryIndex;
         private final ModuleSource moduleSource;
 
-        public ModuleVersionRepositoryArtifactResolverAdapter(ModuleVersionRepository repository, ModuleSource moduleSource) {
+        public ModuleVersionRepositoryArtifactResolverAdapter(ModuleVersionRepository repository, int repositoryIndex, ModuleSource moduleSource) {
             this.delegate = repository;
+            this.repositoryIndex = repositoryIndex;
             this.moduleSource = moduleSource;
         }
 
         public void resolve(Artifact artifact, BuildableArtifactResolveResult result) {
-            delegate.resolve(artifact, result, moduleSource);
+            UserResolverChain chain = artifactResolverChain.get();
+            ModuleVersionRepository repository = chain == null ? delegate : chain.moduleVersionRepositories.get(repositoryIndex);
+            repository.resolve(artifact, result, moduleSource);
         }
     }
 
@@ -27,6 +27,8 @@ import java.util.Map;
 
 /**
 * By Szczepan Faber on 4/19/13
+*
+* Thread-safe, as the meta-data for a repository may be fetched by several threads at once.
 */
 class DependencyMetadataCache {
     private final Map<ModuleVersionSelector, CachedModuleVersionResult> localMetaData = new HashMap<ModuleVersionSelector, CachedModuleVersionResult>();
@@ -38,11 +40,11 @@ class DependencyMetadataCache {
         this.stats = stats;
     }
 
-    boolean supplyLocalMetaData(ModuleVersionSelector requested, BuildableModuleVersionMetaData result) {
+    synchronized boolean supplyLocalMetaData(ModuleVersionSelector requested, BuildableModuleVersionMetaData result) {
         return supply(requested, result, localMetaData, stats);
     }
 
-    boolean supplyMetaData(ModuleVersionSelector requested, BuildableModuleVersionMetaData result) {
+    synchronized boolean supplyMetaData(ModuleVersionSelector requested, BuildableModuleVersionMetaData result) {
         return supply(requested, result, metaData, stats);
     }
 
@@ -52,15 +54,15 @@ class DependencyMetadataCache {
             return false;
         }
         fromCache.supply(result);
-        stats.metadataServed++;
+        stats.metadataServed.incrementAndGet();
         return true;
     }
 
-    void newLocalDependencyResult(ModuleVersionSelector requested, BuildableModuleVersionMetaData result) {
+    synchronized void newLocalDependencyResult(ModuleVersionSelector requested, BuildableModuleVersionMetaData result) {
         newResult(requested, result, localMetaData);
     }
 
-    void newDependencyResult(ModuleVersionSelector requested, BuildableModuleVersionMetaData result) {
+    synchronized void newDependencyResult(ModuleVersionSelector requested, BuildableModuleVersionMetaData result) {
         newResult(requested, result, metaData);
     }
 
@@ -71,17 +73,17 @@ class DependencyMetadataCache {
         }
     }
 
-    public boolean supplyArtifact(ArtifactIdentifier id, BuildableArtifactResolveResult result) {
+    public synchronized boolean supplyArtifact(ArtifactIdentifier id, BuildableArtifactResolveResult result) {
         File fromCache = artifacts.get(id);
         if (fromCache != null) {
             result.resolved(fromCache);
-            stats.artifactsServed++;
+            stats.artifactsServed.incrementAndGet();
             return true;
         }
         return false;
     }
 
-    public void newArtifact(ArtifactIdentifier id, BuildableArtifactResolveResult result) {
+    public synchronized void newArtifact(ArtifactIdentifier id, BuildableArtifactResolveResult result) {
         artifacts.put(id, result.getFile());
     }
 }
\ No newline at end of file
@@ -43,11 +43,11 @@ public class InMemoryDependencyMetadataCache implements Stoppable {
         }
 
         DependencyMetadataCache dataCache = cachePerRepo.get(input.getId());
-        stats.reposWrapped++;
+        stats.reposWrapped.incrementAndGet();
         if (dataCache == null) {
             LOG.debug("Creating new in-memory cache for repo '{}' [{}].", input.getName(), input.getId());
             dataCache = new DependencyMetadataCache(stats);
-            stats.cacheInstances++;
+            stats.cacheInstances.incrementAndGet();
             cachePerRepo.put(input.getId(), dataCache);
         } else {
             LOG.debug("Reusing in-memory cache for repo '{}' [{}].", input.getName(), input.getId());
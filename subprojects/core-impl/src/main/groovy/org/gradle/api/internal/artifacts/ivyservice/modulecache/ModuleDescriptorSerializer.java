@@ -0,0 +1,398 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache;
+
+import org.apache.ivy.core.module.descriptor.*;
+import org.apache.ivy.core.module.id.ArtifactId;
+import org.apache.ivy.core.module.id.ModuleId;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.plugins.matcher.PatternMatcher;
+import org.apache.ivy.plugins.parser.ModuleDescriptorParser;
+import org.apache.ivy.plugins.parser.ParserSettings;
+import org.apache.ivy.plugins.repository.Resource;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.net.URL;
+import java.util.*;
+
+/**
+ * Reads and writes a {@link ModuleDescriptor} in a compact binary format, so that a cached descriptor can be loaded without parsing the ivy.xml.
+ *
+ * <p>Covers the same content as the ivy.xml written by {@link org.gradle.api.internal.artifacts.ivyservice.IvyXmlModuleDescriptorWriter}. Descriptors that use
+ * features not covered by this format, such as inherited descriptors, dependency mediators or namespaces, are not serialized. Use {@link #canSerialize(ModuleDescriptor)}
+ * to check.</p>
+ */
+public class ModuleDescriptorSerializer {
+    private static final int FORMAT_VERSION = 1;
+
+    public boolean canSerialize(ModuleDescriptor md) {
+        if (!(md instanceof DefaultModuleDescriptor)) {
+            return false;
+        }
+        DefaultModuleDescriptor descriptor = (DefaultModuleDescriptor) md;
+        return descriptor.getInheritedDescriptors().length == 0
+                && descriptor.getAllDependencyDescriptorMediators().getAllRules().isEmpty()
+                && (descriptor.getNamespace() == null || descriptor.getNamespace().getName().equals("system"));
+    }
+
+    public void write(DataOutput output, ModuleDescriptor md) throws IOException {
+        output.writeInt(FORMAT_VERSION);
+
+        ModuleRevisionId moduleRevisionId = md.getModuleRevisionId();
+        ModuleRevisionId resolvedModuleRevisionId = md.getResolvedModuleRevisionId();
+        writeString(output, moduleRevisionId.getOrganisation());
+        writeString(output, moduleRevisionId.getName());
+        writeString(output, resolvedModuleRevisionId.getBranch());
+        writeString(output, resolvedModuleRevisionId.getRevision());
+        writeMap(output, md.getQualifiedExtraAttributes());
+        writeString(output, md.getStatus());
+        // The ivy.xml publication date only has a resolution of seconds
+        output.writeLong(md.getResolvedPublicationDate().getTime() / 1000 * 1000);
+        output.writeBoolean(md.isDefault());
+        writeMap(output, md.getExtraAttributesNamespaces());
+        writeMap(output, md.getExtraInfo());
+        writeString(output, md.getHomePage());
+        writeString(output, md.getDescription());
+
+        License[] licenses = md.getLicenses();
+        output.writeInt(licenses.length);
+        for (License license : licenses) {
+            writeString(output, license.getName());
+            writeString(output, license.getUrl());
+        }
+
+        Configuration[] configurations = md.getConfigurations();
+        output.writeInt(configurations.length);
+        for (Configuration configuration : configurations) {
+            writeString(output, configuration.getName());
+            writeString(output, configuration.getVisibility().toString());
+            writeString(output, configuration.getDescription());
+            writeStrings(output, configuration.getExtends());
+            output.writeBoolean(configuration.isTransitive());
+            writeString(output, configuration.getDeprecated());
+            writeMap(output, configuration.getQualifiedExtraAttributes());
+        }
+
+        Artifact[] artifacts = md.getAllArtifacts();
+        output.writeInt(artifacts.length);
+        for (Artifact artifact : artifacts) {
+            writeString(output, artifact.getName());
+            writeString(output, artifact.getType());
+            writeString(output, artifact.getExt());
+            writeMap(output, artifact.getQualifiedExtraAttributes());
+            List<String> artifactConfigurations = new ArrayList<String>();
+            for (String configuration : md.getConfigurationsNames()) {
+                if (Arrays.asList(md.getArtifacts(configuration)).contains(artifact)) {
+                    artifactConfigurations.add(configuration);
+                }
+            }
+            writeStrings(output, artifactConfigurations.toArray(new String[artifactConfigurations.size()]));
+        }
+
+        DependencyDescriptor[] dependencies = md.getDependencies();
+        output.writeInt(dependencies.length);
+        for (DependencyDescriptor dependency : dependencies) {
+            writeDependency(output, dependency);
+        }
+
+        ExcludeRule[] excludeRules = md.getAllExcludeRules();
+        output.writeInt(excludeRules.length);
+        for (ExcludeRule excludeRule : excludeRules) {
+            writeArtifactId(output, excludeRule.getId());
+            writeString(output, excludeRule.getMatcher().getName());
+            writeMap(output, excludeRule.getQualifiedExtraAttributes());
+            writeStrings(output, excludeRule.getConfigurations());
+        }
+    }
+
+    private void writeDependency(DataOutput output, DependencyDescriptor dependency) throws IOException {
+        ModuleRevisionId dependencyRevisionId = dependency.getDependencyRevisionId();
+        writeString(output, dependencyRevisionId.getOrganisation());
+        writeString(output, dependencyRevisionId.getName());
+        writeString(output, dependencyRevisionId.getBranch());
+        writeString(output, dependencyRevisionId.getRevision());
+        writeMap(output, dependencyRevisionId.getQualifiedExtraAttributes());
+        ModuleRevisionId constraintRevisionId = dependency.getDynamicConstraintDependencyRevisionId();
+        boolean hasConstraint = !constraintRevisionId.equals(dependencyRevisionId);
+        output.writeBoolean(hasConstraint);
+        if (hasConstraint) {
+            writeString(output, constraintRevisionId.getBranch());
+            writeString(output, constraintRevisionId.getRevision());
+        }
+        output.writeBoolean(dependency.isForce());
+        output.writeBoolean(dependency.isChanging());
+        output.writeBoolean(dependency.isTransitive());
+
+        String[] moduleConfigurations = dependency.getModuleConfigurations();
+        output.writeInt(moduleConfigurations.length);
+        for (String moduleConfiguration : moduleConfigurations) {
+            writeString(output, moduleConfiguration);
+            writeStrings(output, dependency.getDependencyConfigurations(moduleConfiguration));
+        }
+
+        DependencyArtifactDescriptor[] artifacts = dependency.getAllDependencyArtifacts();
+        output.writeInt(artifacts.length);
+        for (DependencyArtifactDescriptor artifact : artifacts) {
+            writeString(output, artifact.getName());
+            writeString(output, artifact.getType());
+            writeString(output, artifact.getExt());
+            writeString(output, artifact.getUrl() == null ? null : artifact.getUrl().toString());
+            writeMap(output, artifact.getQualifiedExtraAttributes());
+            writeStrings(output, artifact.getConfigurations());
+        }
+
+        IncludeRule[] includeRules = dependency.getAllIncludeRules();
+        output.writeInt(includeRules.length);
+        for (IncludeRule includeRule : includeRules) {
+            writeArtifactId(output, includeRule.getId());
+            writeString(output, includeRule.getMatcher().getName());
+            writeMap(output, includeRule.getQualifiedExtraAttributes());
+            writeStrings(output, includeRule.getConfigurations());
+        }
+
+        ExcludeRule[] excludeRules = dependency.getAllExcludeRules();
+        output.writeInt(excludeRules.length);
+        for (ExcludeRule excludeRule : excludeRules) {
+            writeArtifactId(output, excludeRule.getId());
+            writeString(output, excludeRule.getMatcher().getName());
+            writeMap(output, excludeRule.getQualifiedExtraAttributes());
+            writeStrings(output, excludeRule.getConfigurations());
+        }
+    }
+
+    /**
+     * Reads a descriptor written by {@link #write(DataOutput, ModuleDescriptor)}. Returns null if the content was written using a different format version.
+     */
+    public ModuleDescriptor read(DataInput input, ModuleDescriptorParser parser, Resource resource, ParserSettings settings) throws IOException {
+        if (input.readInt() != FORMAT_VERSION) {
+            return null;
+        }
+
+        DefaultModuleDescriptor md = new DefaultModuleDescriptor(parser, resource);
+        md.setLastModified(resource.getLastModified());
+        String organisation = readString(input);
+        String name = readString(input);
+        String branch = readString(input);
+        String revision = readString(input);
+        md.setModuleRevisionId(ModuleRevisionId.newInstance(organisation, name, branch, revision, readMap(input)));
+        md.setStatus(readString(input));
+        md.setPublicationDate(new Date(input.readLong()));
+        md.setDefault(input.readBoolean());
+        for (Map.Entry<String, String> entry : readMap(input).entrySet()) {
+            md.addExtraAttributeNamespace(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, String> entry : readMap(input).entrySet()) {
+            md.addExtraInfo(entry.getKey(), entry.getValue());
+        }
+        md.setHomePage(readString(input));
+        md.setDescription(readString(input));
+
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            md.addLicense(new License(readString(input), readString(input)));
+        }
+
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            String configurationName = readString(input);
+            Configuration.Visibility visibility = Configuration.Visibility.getVisibility(readString(input));
+            String description = readString(input);
+            String[] extendsFrom = readStrings(input);
+            boolean transitive = input.readBoolean();
+            String deprecated = readString(input);
+            Configuration configuration = new Configuration(configurationName, visibility, description, extendsFrom, transitive, deprecated);
+            for (Map.Entry<String, String> entry : readMap(input).entrySet()) {
+                configuration.setExtraAttribute(entry.getKey(), entry.getValue());
+            }
+            md.addConfiguration(configuration);
+        }
+
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            String artifactName = readString(input);
+            String type = readString(input);
+            String ext = readString(input);
+            MDArtifact artifact = new MDArtifact(md, artifactName, type, ext, null, readMap(input));
+            for (String configuration : readStrings(input)) {
+                artifact.addConfiguration(configuration);
+                md.addArtifact(configuration, artifact);
+            }
+        }
+
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            md.addDependency(readDependency(input, md, settings));
+        }
+
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            ArtifactId id = readArtifactId(input);
+            DefaultExcludeRule excludeRule = new DefaultExcludeRule(id, readMatcher(input, settings), readMap(input));
+            for (String configuration : readStrings(input)) {
+                excludeRule.addConfiguration(configuration);
+            }
+            md.addExcludeRule(excludeRule);
+        }
+
+        return md;
+    }
+
+    private DependencyDescriptor readDependency(DataInput input, DefaultModuleDescriptor md, ParserSettings settings) throws IOException {
+        String organisation = readString(input);
+        String name = readString(input);
+        String branch = readString(input);
+        String revision = readString(input);
+        Map<String, String> extraAttributes = readMap(input);
+        ModuleRevisionId revisionId = ModuleRevisionId.newInstance(organisation, name, branch, revision, extraAttributes);
+        ModuleRevisionId constraintRevisionId;
+        if (input.readBoolean()) {
+            String branchConstraint = readString(input);
+            String revisionConstraint = readString(input);
+            constraintRevisionId = ModuleRevisionId.newInstance(organisation, name, branchConstraint, revisionConstraint, extraAttributes);
+        } else {
+            constraintRevisionId = ModuleRevisionId.newInstance(organisation, name, branch, revision, extraAttributes, false);
+        }
+        boolean force = input.readBoolean();
+        boolean changing = input.readBoolean();
+        boolean transitive = input.readBoolean();
+        DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(md, revisionId, constraintRevisionId, force, changing, transitive);
+
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            String moduleConfiguration = readString(input);
+            for (String dependencyConfiguration : readStrings(input)) {
+                dd.addDependencyConfiguration(moduleConfiguration, dependencyConfiguration);
+            }
+        }
+
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            String artifactName = readString(input);
+            String type = readString(input);
+            String ext = readString(input);
+            String url = readString(input);
+            DefaultDependencyArtifactDescriptor artifact = new DefaultDependencyArtifactDescriptor(dd, artifactName, type, ext, url == null ? null : new URL(url), readMap(input));
+            for (String configuration : readStrings(input)) {
+                artifact.addConfiguration(configuration);
+                dd.addDependencyArtifact(configuration, artifact);
+            }
+        }
+
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            ArtifactId id = readArtifactId(input);
+            DefaultIncludeRule includeRule = new DefaultIncludeRule(id, readMatcher(input, settings), readMap(input));
+            for (String configuration : readStrings(input)) {
+                includeRule.addConfiguration(configuration);
+                dd.addIncludeRule(configuration, includeRule);
+            }
+        }
+
+        count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            ArtifactId id = readArtifactId(input);
+            DefaultExcludeRule excludeRule = new DefaultExcludeRule(id, readMatcher(input, settings), readMap(input));
+            for (String configuration : readStrings(input)) {
+                excludeRule.addConfiguration(configuration);
+                dd.addExcludeRule(configuration, excludeRule);
+            }
+        }
+
+        return dd;
+    }
+
+    private void writeArtifactId(DataOutput output, ArtifactId id) throws IOException {
+        writeString(output, id.getModuleId().getOrganisation());
+        writeString(output, id.getModuleId().getName());
+        writeString(output, id.getName());
+        writeString(output, id.getType());
+        writeString(output, id.getExt());
+    }
+
+    private ArtifactId readArtifactId(DataInput input) throws IOException {
+        String organisation = readString(input);
+        String module = readString(input);
+        return new ArtifactId(new ModuleId(organisation, module), readString(input), readString(input), readString(input));
+    }
+
+    private PatternMatcher readMatcher(DataInput input, ParserSettings settings) throws IOException {
+        String matcherName = readString(input);
+        PatternMatcher matcher = settings.getMatcher(matcherName);
+        if (matcher == null) {
+            throw new IllegalArgumentException("unknown matcher " + matcherName);
+        }
+        return matcher;
+    }
+
+    private void writeMap(DataOutput output, Map<?, ?> map) throws IOException {
+        if (map == null) {
+            output.writeInt(0);
+            return;
+        }
+        output.writeInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeString(output, entry.getKey().toString());
+            writeString(output, entry.getValue() == null ? null : entry.getValue().toString());
+        }
+    }
+
+    private Map<String, String> readMap(DataInput input) throws IOException {
+        int count = input.readInt();
+        Map<String, String> map = new LinkedHashMap<String, String>();
+        for (int i = 0; i < count; i++) {
+            map.put(readString(input), readString(input));
+        }
+        return map;
+    }
+
+    private void writeStrings(DataOutput output, String[] values) throws IOException {
+        output.writeInt(values.length);
+        for (String value : values) {
+            writeString(output, value);
+        }
+    }
+
+    private String[] readStrings(DataInput input) throws IOException {
+        String[] values = new String[input.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString(input);
+        }
+        return values;
+    }
+
+    private void writeString(DataOutput output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes("UTF-8");
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private String readString(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+}
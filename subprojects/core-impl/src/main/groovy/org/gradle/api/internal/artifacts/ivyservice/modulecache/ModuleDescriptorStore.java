@@ -18,6 +18,7 @@ package org.gradle.api.internal.artifacts.ivyservice.modulecache;
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.plugins.parser.ParserSettings;
+import org.apache.ivy.plugins.repository.url.URLResource;
 import org.gradle.api.Action;
 import org.gradle.api.artifacts.ModuleVersionIdentifier;
 import org.gradle.api.internal.artifacts.ivyservice.IvyModuleDescriptorWriter;
@@ -27,16 +28,26 @@ import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.IvyXmlModu
 import org.gradle.api.internal.filestore.FileStoreEntry;
 import org.gradle.api.internal.filestore.PathKeyFileStore;
 import org.gradle.internal.UncheckedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.io.File;
+import java.io.*;
 import java.net.URL;
 
+/**
+ * Stores each cached module descriptor as an ivy.xml file. A binary copy of the descriptor is written alongside the ivy.xml, so that the descriptor can
+ * be loaded without parsing the XML. The ivy.xml remains the canonical copy: the binary copy is ignored when it does not match the ivy.xml it was
+ * written for.
+ */
 public class ModuleDescriptorStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModuleDescriptorStore.class);
 
     public static final String FILE_PATH_PATTERN = "module-metadata/%s/%s/%s/%s/ivy.xml";
+    public static final String BINARY_FILE_PATH_PATTERN = "module-metadata/%s/%s/%s/%s/descriptor.bin";
     private final IvyXmlModuleDescriptorParser parser;
     private final PathKeyFileStore pathKeyFileStore;
     private final IvyModuleDescriptorWriter ivyModuleDescriptorWriter;
+    private final ModuleDescriptorSerializer serializer = new ModuleDescriptorSerializer();
 
     public ModuleDescriptorStore(PathKeyFileStore pathKeyFileStore, IvyModuleDescriptorWriter ivyModuleDescriptorWriter, IvyXmlModuleDescriptorParser ivyXmlModuleDescriptorParser) {
         this.pathKeyFileStore = pathKeyFileStore;
@@ -47,15 +58,26 @@ public class ModuleDescriptorStore {
     public ModuleDescriptor getModuleDescriptor(ModuleVersionRepository repository, ModuleVersionIdentifier moduleVersionIdentifier) {
         String filePath = getFilePath(repository, moduleVersionIdentifier);
         final FileStoreEntry fileStoreEntry = pathKeyFileStore.get(filePath);
-        if (fileStoreEntry != null) {
-            return parseModuleDescriptorFile(fileStoreEntry.getFile());
+        if (fileStoreEntry == null) {
+            return null;
+        }
+        File moduleDescriptorFile = fileStoreEntry.getFile();
+        String binaryFilePath = getBinaryFilePath(repository, moduleVersionIdentifier);
+        FileStoreEntry binaryFileStoreEntry = pathKeyFileStore.get(binaryFilePath);
+        if (binaryFileStoreEntry != null) {
+            ModuleDescriptor moduleDescriptor = readBinaryModuleDescriptorFile(binaryFileStoreEntry.getFile(), moduleDescriptorFile);
+            if (moduleDescriptor != null) {
+                return moduleDescriptor;
+            }
         }
-        return null;
+        ModuleDescriptor moduleDescriptor = parseModuleDescriptorFile(moduleDescriptorFile);
+        writeBinaryModuleDescriptorFile(binaryFilePath, moduleDescriptor, fileStoreEntry);
+        return moduleDescriptor;
     }
 
     public FileStoreEntry putModuleDescriptor(ModuleVersionRepository repository, final ModuleDescriptor moduleDescriptor) {
         String filePath = getFilePath(repository, moduleDescriptor.getModuleRevisionId());
-        return pathKeyFileStore.add(filePath, new Action<File>() {
+        FileStoreEntry fileStoreEntry = pathKeyFileStore.add(filePath, new Action<File>() {
             public void execute(File moduleDescriptorFile) {
                 try {
                     ivyModuleDescriptorWriter.write(moduleDescriptor, moduleDescriptorFile);
@@ -64,6 +86,8 @@ public class ModuleDescriptorStore {
                 }
             }
         });
+        writeBinaryModuleDescriptorFile(getBinaryFilePath(repository, moduleDescriptor.getModuleRevisionId()), moduleDescriptor, fileStoreEntry);
+        return fileStoreEntry;
     }
 
     private ModuleDescriptor parseModuleDescriptorFile(File moduleDescriptorFile) {
@@ -76,6 +100,58 @@ public class ModuleDescriptorStore {
         }
     }
 
+    /**
+     * Returns null when the binary file was not written for the current content of the given ivy.xml, or cannot be read.
+     */
+    private ModuleDescriptor readBinaryModuleDescriptorFile(File binaryFile, File moduleDescriptorFile) {
+        ParserSettings settings = IvyContextualiser.getIvyContext().getSettings();
+        try {
+            DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(binaryFile)));
+            try {
+                if (inputStream.readLong() != moduleDescriptorFile.length() || inputStream.readLong() != moduleDescriptorFile.lastModified()) {
+                    return null;
+                }
+                URLResource resource = new URLResource(moduleDescriptorFile.toURI().toURL());
+                return serializer.read(inputStream, parser, resource, settings);
+            } finally {
+                inputStream.close();
+            }
+        } catch (Exception e) {
+            LOGGER.debug(String.format("Could not read binary module descriptor %s. Parsing %s instead.", binaryFile, moduleDescriptorFile), e);
+            return null;
+        }
+    }
+
+    /**
+     * The binary file is only an optimisation, so a descriptor that cannot be serialized, or a failure to write the file, leaves the ivy.xml to be parsed instead.
+     */
+    private void writeBinaryModuleDescriptorFile(String binaryFilePath, final ModuleDescriptor moduleDescriptor, final FileStoreEntry fileStoreEntry) {
+        if (!serializer.canSerialize(moduleDescriptor)) {
+            return;
+        }
+        try {
+            pathKeyFileStore.add(binaryFilePath, new Action<File>() {
+                public void execute(File binaryFile) {
+                    File moduleDescriptorFile = fileStoreEntry.getFile();
+                    try {
+                        DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(binaryFile)));
+                        try {
+                            outputStream.writeLong(moduleDescriptorFile.length());
+                            outputStream.writeLong(moduleDescriptorFile.lastModified());
+                            serializer.write(outputStream, moduleDescriptor);
+                        } finally {
+                            outputStream.close();
+                        }
+                    } catch (Exception e) {
+                        throw UncheckedException.throwAsUncheckedException(e);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            LOGGER.debug(String.format("Could not write binary module descriptor %s.", binaryFilePath), e);
+        }
+    }
+
     private String getFilePath(ModuleVersionRepository repository, ModuleRevisionId moduleRevisionId) {
         return String.format(FILE_PATH_PATTERN, moduleRevisionId.getOrganisation(), moduleRevisionId.getName(), moduleRevisionId.getRevision(), repository.getId());
     }
@@ -83,4 +159,12 @@ public class ModuleDescriptorStore {
     private String getFilePath(ModuleVersionRepository repository, ModuleVersionIdentifier moduleVersionIdentifier) {
         return String.format(FILE_PATH_PATTERN, moduleVersionIdentifier.getGroup(), moduleVersionIdentifier.getName(), moduleVersionIdentifier.getVersion(), repository.getId());
     }
+
+    private String getBinaryFilePath(ModuleVersionRepository repository, ModuleRevisionId moduleRevisionId) {
+        return String.format(BINARY_FILE_PATH_PATTERN, moduleRevisionId.getOrganisation(), moduleRevisionId.getName(), moduleRevisionId.getRevision(), repository.getId());
+    }
+
+    private String getBinaryFilePath(ModuleVersionRepository repository, ModuleVersionIdentifier moduleVersionIdentifier) {
+        return String.format(BINARY_FILE_PATH_PATTERN, moduleVersionIdentifier.getGroup(), moduleVersionIdentifier.getName(), moduleVersionIdentifier.getVersion(), repository.getId());
+    }
 }
\ No newline at end of file
@@ -32,6 +32,7 @@ import org.gradle.api.internal.artifacts.configurations.ConfigurationInternal;
 import org.gradle.api.internal.artifacts.ivyservice.*;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.*;
 import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.dependencies.EnhancedDependencyDescriptor;
+import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.dependencies.ProjectDependencyDescriptor;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,15 +46,20 @@ public class DependencyGraphBuilder {
     private final ModuleDescriptorConverter moduleDescriptorConverter;
     private final ResolvedArtifactFactory resolvedArtifactFactory;
     private final DependencyToModuleVersionIdResolver dependencyResolver;
+    private final DependencyMetaDataPrefetcher metaDataPrefetcher;
     private CacheLockingManager cacheLockingManager;
+    private final ArtifactDownloadScheduler downloadScheduler;
     private final InternalConflictResolver conflictResolver;
 
     public DependencyGraphBuilder(ModuleDescriptorConverter moduleDescriptorConverter, ResolvedArtifactFactory resolvedArtifactFactory, DependencyToModuleVersionIdResolver dependencyResolver,
-                                  ModuleConflictResolver conflictResolver, CacheLockingManager cacheLockingManager) {
+                                  DependencyMetaDataPrefetcher metaDataPrefetcher, ModuleConflictResolver conflictResolver, CacheLockingManager cacheLockingManager,
+                                  ArtifactDownloadScheduler downloadScheduler) {
         this.moduleDescriptorConverter = moduleDescriptorConverter;
         this.resolvedArtifactFactory = resolvedArtifactFactory;
         this.dependencyResolver = dependencyResolver;
+        this.metaDataPrefetcher = metaDataPrefetcher;
         this.cacheLockingManager = cacheLockingManager;
+        this.downloadScheduler = downloadScheduler;
         this.conflictResolver = new InternalConflictResolver(conflictResolver);
     }
 
@@ -65,7 +71,7 @@ public class DependencyGraphBuilder {
         ResolveState resolveState = new ResolveState(rootMetaData, configuration.getName(), dependencyResolver, resolveData);
         traverseGraph(resolveState);
 
-        DefaultLenientConfiguration result = new DefaultLenientConfiguration(configuration, resolveState.root.getResult(), cacheLockingManager);
+        DefaultLenientConfiguration result = new DefaultLenientConfiguration(configuration, resolveState.root.getResult(), cacheLockingManager, downloadScheduler);
         assembleResult(resolveState, result, listener);
 
         return result;
@@ -88,6 +94,7 @@ public class DependencyGraphBuilder {
                 // Calculate the outgoing edges of this configuration
                 dependencies.clear();
                 node.visitOutgoingDependencies(dependencies);
+                prefetchMetaData(resolveState, dependencies);
 
                 for (DependencyEdge dependency : dependencies) {
                     LOGGER.debug("Visiting dependency {}", dependency);
@@ -167,6 +174,24 @@ public class DependencyGraphBuilder {
         failureState.attachFailures(result);
     }
 
+    /**
+     * Fetches the meta-data for those outgoing edges that will need to be resolved from a repository, ahead of visiting the edges one at a time.
+     */
+    private void prefetchMetaData(ResolveState resolveState, List<DependencyEdge> dependencies) {
+        Map<ModuleRevisionId, DependencyMetaData> unresolved = new LinkedHashMap<ModuleRevisionId, DependencyMetaData>();
+        for (DependencyEdge dependency : dependencies) {
+            if (dependency.requiresResolve()) {
+                ModuleRevisionId selectorId = ResolveState.selectorId(dependency.dependencyDescriptor.getDependencyRevisionId());
+                if (!unresolved.containsKey(selectorId)) {
+                    unresolved.put(selectorId, dependency.dependencyMetaData);
+                }
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            metaDataPrefetcher.prefetch(unresolved.values());
+        }
+    }
+
     private static class FailureState {
         final Map<ModuleVersionSelector, BrokenDependency> failuresByRevisionId = new LinkedHashMap<ModuleVersionSelector, BrokenDependency>();
         final ConfigurationNode root;
@@ -290,6 +315,15 @@ public class DependencyGraphBuilder {
             return targetModuleRevision;
         }
 
+        /**
+         * Returns true if resolving this edge will need to look up the target module in a repository.
+         */
+        public boolean requiresResolve() {
+            return targetModuleRevision == null
+                    && !(dependencyDescriptor instanceof ProjectDependencyDescriptor)
+                    && !resolveState.hasSelector(dependencyDescriptor.getDependencyRevisionId());
+        }
+
         public void resolveModuleRevisionId() {
             if (targetModuleRevision == null) {
                 selector = resolveState.getSelector(dependencyMetaData, dependencyDescriptor.getDependencyRevisionId());
@@ -478,8 +512,12 @@ public class DependencyGraphBuilder {
             return configuration;
         }
 
+        public boolean hasSelector(ModuleRevisionId original) {
+            return selectors.containsKey(selectorId(original));
+        }
+
         public ModuleVersionSelectorResolveState getSelector(DependencyMetaData dependencyMetaData, ModuleRevisionId original) {
-            ModuleRevisionId selectorId = ModuleRevisionId.newInstance(original.getOrganisation(), original.getName(), original.getRevision());
+            ModuleRevisionId selectorId = selectorId(original);
             ModuleVersionSelectorResolveState resolveState = selectors.get(selectorId);
             if (resolveState == null) {
                 resolveState = new ModuleVersionSelectorResolveState(dependencyMetaData, getModule(selectorId.getModuleId()), resolver, this);
@@ -488,6 +526,10 @@ public class DependencyGraphBuilder {
             return resolveState;
         }
 
+        static ModuleRevisionId selectorId(ModuleRevisionId original) {
+            return ModuleRevisionId.newInstance(original.getOrganisation(), original.getName(), original.getRevision());
+        }
+
         public ConfigurationNode peek() {
             return queue.isEmpty() ? null : queue.getFirst();
         }
@@ -16,13 +16,18 @@
 
 package org.gradle.api.internal.externalresource.transport.http;
 
+import org.apache.http.HttpConnection;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.conn.ClientConnectionManager;
 import org.apache.http.impl.client.*;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
 import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.ExecutionContext;
+import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.EntityUtils;
 import org.gradle.api.UncheckedIOException;
 import org.slf4j.Logger;
@@ -32,21 +37,54 @@ import java.io.IOException;
 
 /**
  * Provides some convenience and unified logging.
+ *
+ * <p>May be used by several threads at once. Requests are sent over a pool of keep-alive connections, and each thread uses its own HTTP context.</p>
  */
 public class HttpClientHelper {
+    /**
+     * The minimum number of connections kept open to a given host, so that concurrent downloads are not serialized on the connection pool.
+     * The "http.maxConnections" system property can be used to raise this limit.
+     */
+    public static final int MIN_CONNECTIONS_PER_ROUTE = 8;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientHelper.class);
     private final HttpClient client;
-    private final BasicHttpContext httpContext = new BasicHttpContext();
+    private final HttpTransferStatistics statistics;
+    private final ThreadLocal<HttpContext> httpContext = new ThreadLocal<HttpContext>() {
+        @Override
+        protected HttpContext initialValue() {
+            return new BasicHttpContext();
+        }
+    };
 
     public HttpClientHelper(HttpSettings settings) {
+        this(settings, new HttpTransferStatistics());
+    }
+
+    public HttpClientHelper(HttpSettings settings, HttpTransferStatistics statistics) {
+        this.statistics = statistics;
         alwaysUseKeepAliveConnections();
 
         DefaultHttpClient client = new SystemDefaultHttpClient();
+        configureConnectionPool(client.getConnectionManager());
         new HttpClientConfigurer(settings).configure(client);
         this.client = new DecompressingHttpClient(client);
     }
 
+    private void configureConnectionPool(ClientConnectionManager connectionManager) {
+        if (connectionManager instanceof PoolingClientConnectionManager) {
+            PoolingClientConnectionManager pool = (PoolingClientConnectionManager) connectionManager;
+            if (pool.getDefaultMaxPerRoute() < MIN_CONNECTIONS_PER_ROUTE) {
+                pool.setDefaultMaxPerRoute(MIN_CONNECTIONS_PER_ROUTE);
+                pool.setMaxTotal(Math.max(pool.getMaxTotal(), 2 * MIN_CONNECTIONS_PER_ROUTE));
+            }
+        }
+    }
+
+    public HttpTransferStatistics getStatistics() {
+        return statistics;
+    }
+
     private void alwaysUseKeepAliveConnections() {
         // HttpClient 4.2.2 does not use the correct default value for "http.keepAlive" system property (default is "true").
         // HttpClient NTLM authentication fails badly when this property value is true.
@@ -104,11 +142,33 @@ public class HttpClientHelper {
     }
 
     public HttpResponse performHttpRequest(HttpRequestBase request) throws IOException {
+        HttpContext context = httpContext.get();
         // Without this, HTTP Client prohibits multiple redirects to the same location within the same context
-        httpContext.removeAttribute(DefaultRedirectStrategy.REDIRECT_LOCATIONS);
+        context.removeAttribute(DefaultRedirectStrategy.REDIRECT_LOCATIONS);
 
         LOGGER.debug("Performing HTTP {}: {}", request.getMethod(), request.getURI());
-        return client.execute(request, httpContext);
+        long start = System.nanoTime();
+        HttpResponse response = client.execute(request, context);
+        statistics.waited(System.nanoTime() - start);
+        statistics.request(wasConnectionReused(context));
+        if (response.getEntity() != null) {
+            response.setEntity(new StatisticsCollectingHttpEntity(response.getEntity(), statistics));
+        }
+        return response;
+    }
+
+    private boolean wasConnectionReused(HttpContext context) {
+        HttpConnection connection = (HttpConnection) context.getAttribute(ExecutionContext.HTTP_CONNECTION);
+        if (connection == null) {
+            return false;
+        }
+        try {
+            // The request count includes this request
+            return connection.getMetrics().getRequestCount() > 1;
+        } catch (RuntimeException e) {
+            // The connection has already been released back to the pool
+            return false;
+        }
     }
 
     private HttpResponse processResponse(String source, String method, HttpResponse response) {
@@ -34,7 +34,13 @@ public class HttpResourceAccessor implements ExternalResourceAccessor {
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpResourceAccessor.class);
     private final HttpClientHelper http;
 
-    private final List<ExternalResource> openResources = new ArrayList<ExternalResource>();
+    // Resources are tracked per thread, so that a thread does not close a resource that another thread is still reading from
+    private final ThreadLocal<List<ExternalResource>> openResources = new ThreadLocal<List<ExternalResource>>() {
+        @Override
+        protected List<ExternalResource> initialValue() {
+            return new ArrayList<ExternalResource>();
+        }
+    };
 
     public HttpResourceAccessor(HttpClientHelper http) {
         this.http = http;
@@ -49,7 +55,7 @@ public class HttpResourceAccessor implements ExternalResourceAccessor {
                 @Override
                 public void close() throws IOException {
                     super.close();
-                    HttpResourceAccessor.this.openResources.remove(this);
+                    HttpResourceAccessor.this.openResources.get().remove(this);
                 }
             };
 
@@ -67,11 +73,12 @@ public class HttpResourceAccessor implements ExternalResourceAccessor {
     }
 
     private HttpResponseResource recordOpenGetResource(HttpResponseResource httpResource) {
-        openResources.add(httpResource);
+        openResources.get().add(httpResource);
         return httpResource;
     }
 
     private void abortOpenResources() {
+        List<ExternalResource> openResources = this.openResources.get();
         for (ExternalResource openResource : openResources) {
             LOGGER.warn("Forcing close on abandoned resource: " + openResource);
             try {
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.externalresource.transport.http;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.internal.Stoppable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects statistics about the HTTP requests made to remote repositories during a build. Thread-safe.
+ */
+public class HttpTransferStatistics implements Stoppable {
+    private final static Logger LOG = Logging.getLogger(HttpTransferStatistics.class);
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong reusedConnections = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicLong networkWaitNanos = new AtomicLong();
+
+    /**
+     * Records a request, and whether it was sent over a connection that had already been used for an earlier request.
+     */
+    public void request(boolean reusedConnection) {
+        requests.incrementAndGet();
+        if (reusedConnection) {
+            reusedConnections.incrementAndGet();
+        }
+    }
+
+    public void received(long bytes) {
+        bytesReceived.addAndGet(bytes);
+    }
+
+    /**
+     * Records time spent blocked waiting for a response or for response content.
+     */
+    public void waited(long nanos) {
+        networkWaitNanos.addAndGet(nanos);
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getReusedConnections() {
+        return reusedConnections.get();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    /**
+     * Returns the total time, in milliseconds, that threads have spent waiting on the network. When requests are made concurrently, this may exceed the elapsed time.
+     */
+    public long getNetworkWaitMillis() {
+        return networkWaitNanos.get() / 1000000;
+    }
+
+    public void stop() {
+        if (getRequests() > 0) {
+            LOG.info("HTTP transfers finished. {}", this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Requests: %s, reused connections: %s, bytes received: %s, network wait: %sms", getRequests(), getReusedConnections(), getBytesReceived(), getNetworkWaitMillis());
+    }
+}
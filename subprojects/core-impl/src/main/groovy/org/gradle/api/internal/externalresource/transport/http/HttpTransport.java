@@ -37,10 +37,10 @@ public class HttpTransport implements RepositoryTransport {
 
     public HttpTransport(String name, PasswordCredentials credentials, RepositoryArtifactCache repositoryCacheManager,
                          ProgressLoggerFactory progressLoggerFactory, TemporaryFileProvider temporaryFileProvider,
-                         CachedExternalResourceIndex<String> cachedExternalResourceIndex) {
+                         CachedExternalResourceIndex<String> cachedExternalResourceIndex, HttpTransferStatistics statistics) {
         this.name = name;
         this.repositoryCacheManager = repositoryCacheManager;
-        repository = createRepository(credentials, progressLoggerFactory, temporaryFileProvider, cachedExternalResourceIndex);
+        repository = createRepository(credentials, progressLoggerFactory, temporaryFileProvider, cachedExternalResourceIndex, statistics);
     }
 
     public ExternalResourceRepository getRepository() {
@@ -48,8 +48,9 @@ public class HttpTransport implements RepositoryTransport {
     }
 
     private ExternalResourceRepository createRepository(PasswordCredentials credentials, ProgressLoggerFactory progressLoggerFactory,
-                                                        TemporaryFileProvider temporaryFileProvider, CachedExternalResourceIndex<String> cachedExternalResourceIndex) {
-        HttpClientHelper http = new HttpClientHelper(new DefaultHttpSettings(credentials));
+                                                        TemporaryFileProvider temporaryFileProvider, CachedExternalResourceIndex<String> cachedExternalResourceIndex,
+                                                        HttpTransferStatistics statistics) {
+        HttpClientHelper http = new HttpClientHelper(new DefaultHttpSettings(credentials), statistics);
         HttpResourceAccessor accessor = new HttpResourceAccessor(http);
         HttpResourceUploader uploader = new HttpResourceUploader(http);
         ProgressLoggingExternalResourceAccessor loggingAccessor = new ProgressLoggingExternalResourceAccessor(accessor, progressLoggerFactory);
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.externalresource.transport.http;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Counts the bytes read from a response entity, and the time spent waiting for them, into a {@link HttpTransferStatistics}.
+ */
+class StatisticsCollectingHttpEntity extends HttpEntityWrapper {
+    private final HttpTransferStatistics statistics;
+
+    StatisticsCollectingHttpEntity(HttpEntity wrapped, HttpTransferStatistics statistics) {
+        super(wrapped);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new StatisticsCollectingInputStream(super.getContent());
+    }
+
+    @Override
+    public void writeTo(OutputStream outstream) throws IOException {
+        InputStream instream = getContent();
+        try {
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = instream.read(buffer)) >= 0) {
+                outstream.write(buffer, 0, count);
+            }
+        } finally {
+            instream.close();
+        }
+    }
+
+    private class StatisticsCollectingInputStream extends FilterInputStream {
+        StatisticsCollectingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            int result = super.read();
+            statistics.waited(System.nanoTime() - start);
+            if (result >= 0) {
+                statistics.received(1);
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            int count = super.read(b, off, len);
+            statistics.waited(System.nanoTime() - start);
+            if (count > 0) {
+                statistics.received(count);
+            }
+            return count;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import org.gradle.cache.internal.FileLockManager
 import org.gradle.initialization.ProjectAccessListener
 import org.gradle.internal.Factory
 import org.gradle.internal.TimeProvider
+import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.internal.reflect.Instantiator
 import org.gradle.internal.service.ServiceRegistry
 import org.gradle.listener.ListenerManager
@@ -65,6 +66,7 @@ class DefaultDependencyManagementServicesTest extends Specification {
         _ * parent.get(ListenerManager) >> listenerManager
         _ * parent.get(FileLockManager) >> Mock(FileLockManager)
         _ * parent.get(TimeProvider) >> Mock(TimeProvider)
+        _ * parent.get(ExecutorFactory) >> Mock(ExecutorFactory)
         _ * parent.get(TemporaryFileProvider) >> Mock(TemporaryFileProvider)
         _ * parent.get(ProjectAccessListener) >> Mock(ProjectAccessListener)
         _ * parent.get(TopLevelDependencyManagementServices) >> Mock(TopLevelDependencyManagementServices)
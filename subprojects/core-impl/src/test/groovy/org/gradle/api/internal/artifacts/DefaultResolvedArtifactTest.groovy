@@ -22,6 +22,8 @@ import org.gradle.internal.Factory
 import org.gradle.util.Matchers
 import spock.lang.Specification
 
+import java.util.concurrent.atomic.AtomicInteger
+
 class DefaultResolvedArtifactTest extends Specification {
     final Factory artifactSource = Mock()
 
@@ -60,6 +62,26 @@ class DefaultResolvedArtifactTest extends Specification {
         artifact != differentAttributes
     }
 
+    def "resolves the file once when it is requested by several threads at once"() {
+        def file = new File("artifact.jar")
+        def resolveCount = new AtomicInteger()
+        Factory<File> slowArtifactSource = {
+            resolveCount.incrementAndGet()
+            Thread.sleep(100)
+            return file
+        } as Factory
+        def artifact = new DefaultResolvedArtifact(Mock(ResolvedDependency), ivyArtifact("name", "type", "ext", [:]), slowArtifactSource)
+        def results = Collections.synchronizedList([])
+
+        when:
+        def threads = (1..4).collect { Thread.start { results << artifact.file } }
+        threads*.join()
+
+        then:
+        resolveCount.get() == 1
+        results == [file] * 4
+    }
+
     def ivyArtifact(String name, String type, String extension, Map attributes) {
         Artifact artifact = Mock()
         _ * artifact.name >> name
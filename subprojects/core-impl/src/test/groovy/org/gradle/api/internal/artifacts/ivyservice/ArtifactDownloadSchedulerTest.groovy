@@ -0,0 +1,102 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice
+
+import org.gradle.api.Action
+import org.gradle.api.artifacts.ResolvedArtifact
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.concurrent.ExecutorFactory
+import spock.lang.Specification
+
+class ArtifactDownloadSchedulerTest extends Specification {
+    final CacheLockingManager cacheLockingManager = Mock()
+    final DefaultExecutorFactory executorFactory = new DefaultExecutorFactory()
+    final workers = Collections.synchronizedList(new ArrayList<Thread>())
+    final Action<Runnable> workerAction = { Runnable worker ->
+        workers << Thread.currentThread()
+        worker.run()
+    } as Action
+    final ArtifactDownloadScheduler scheduler = new ArtifactDownloadScheduler(workerAction, cacheLockingManager, executorFactory, 4)
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "downloads each artifact once on a worker thread while the cache lock is released"() {
+        def artifacts = (1..10).collect { Mock(ResolvedArtifact) }
+        def threads = Collections.synchronizedSet(new HashSet<Thread>())
+
+        when:
+        scheduler.download(artifacts)
+
+        then:
+        1 * cacheLockingManager.longRunningOperation(_, _ as Runnable) >> { String displayName, Runnable action -> action.run() }
+        artifacts.each { artifact ->
+            1 * artifact.getFile() >> {
+                threads << Thread.currentThread()
+                new File("file")
+            }
+        }
+
+        and:
+        !threads.empty
+        !threads.contains(Thread.currentThread())
+        workers.containsAll(threads)
+        workers.size() == new HashSet(workers).size()
+    }
+
+    def "does not download when only a single thread may be used"() {
+        ExecutorFactory executorFactory = Mock()
+        def artifact1 = Mock(ResolvedArtifact)
+        def artifact2 = Mock(ResolvedArtifact)
+        def scheduler = new ArtifactDownloadScheduler(workerAction, cacheLockingManager, executorFactory, 1)
+
+        when:
+        scheduler.download([artifact1, artifact2])
+
+        then:
+        0 * _._
+    }
+
+    def "does not download when artifacts cannot be resolved concurrently"() {
+        def artifact1 = Mock(ResolvedArtifact)
+        def artifact2 = Mock(ResolvedArtifact)
+        def scheduler = new ArtifactDownloadScheduler()
+
+        when:
+        scheduler.download([artifact1, artifact2])
+
+        then:
+        0 * _._
+    }
+
+    def "ignores failure to download an artifact"() {
+        def broken = Mock(ResolvedArtifact)
+        def ok = Mock(ResolvedArtifact)
+
+        given:
+        _ * cacheLockingManager.longRunningOperation(_, _ as Runnable) >> { String displayName, Runnable action -> action.run() }
+
+        when:
+        scheduler.download([broken, ok])
+
+        then:
+        1 * broken.getFile() >> { throw new RuntimeException("broken") }
+        1 * ok.getFile() >> new File("file")
+        noExceptionThrown()
+    }
+}
@@ -70,6 +70,25 @@ class DefaultSettingsConverterTest extends Specification {
         assert settings.resolvers.size() == 1
     }
 
+    public void createsResolveSettingsThatAreNotShared() {
+        given:
+        IvySettings otherSettings = new IvySettings()
+        _ * defaultResolver.getName() >> 'default'
+
+        when:
+        IvySettings shared = converter.convertForResolve(defaultResolver)
+        IvySettings settings = converter.createForResolve(defaultResolver)
+
+        then:
+        2 * ivySettingsFactory.create() >>> [ivySettings, otherSettings]
+
+        and:
+        shared.is(ivySettings)
+        settings.is(otherSettings)
+        settings.defaultResolver == defaultResolver
+        settings.resolvers.size() == 1
+    }
+
     public void testConvertForPublish() {
         when:
         IvySettings settings = converter.convertForPublish()
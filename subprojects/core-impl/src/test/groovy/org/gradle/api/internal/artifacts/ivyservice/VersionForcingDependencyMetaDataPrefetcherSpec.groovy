@@ -0,0 +1,92 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.ivyservice
+
+import org.gradle.api.Action
+import org.gradle.api.internal.artifacts.DefaultModuleVersionSelector
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.DependencyMetaData
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.DependencyMetaDataPrefetcher
+import spock.lang.Specification
+
+class VersionForcingDependencyMetaDataPrefetcherSpec extends Specification {
+    final target = Mock(DependencyMetaDataPrefetcher)
+
+    def "passes through dependencies that do not match any rule"() {
+        def dep1 = dependency('org', 'module1', '1.0')
+        def dep2 = dependency('org', 'module2', '1.0')
+        def prefetcher = new VersionForcingDependencyMetaDataPrefetcher(target, {} as Action)
+
+        when:
+        prefetcher.prefetch([dep1, dep2])
+
+        then:
+        1 * target.prefetch({ it as List == [dep1, dep2] })
+        0 * target._
+    }
+
+    def "prefetches the dependency selected by rule"() {
+        def dep = dependency('org', 'module', '0.5')
+        def modified = dependency('org', 'module', '1.0')
+        def force = { it.useVersion("1.0") } as Action
+        def prefetcher = new VersionForcingDependencyMetaDataPrefetcher(target, force)
+
+        when:
+        prefetcher.prefetch([dep])
+
+        then:
+        1 * dep.withRequestedVersion(DefaultModuleVersionSelector.newInstance("org", "module", "1.0")) >> modified
+        1 * target.prefetch({ it as List == [modified] })
+        0 * target._
+    }
+
+    def "prefetches each selected dependency once"() {
+        def dep1 = dependency('org', 'module', '0.5')
+        def dep2 = dependency('org', 'module', '1.0')
+        def force = { it.useVersion("1.0") } as Action
+        def prefetcher = new VersionForcingDependencyMetaDataPrefetcher(target, force)
+
+        when:
+        prefetcher.prefetch([dep1, dep2])
+
+        then:
+        1 * dep1.withRequestedVersion(DefaultModuleVersionSelector.newInstance("org", "module", "1.0")) >> dep2
+        1 * dep2.withRequestedVersion(DefaultModuleVersionSelector.newInstance("org", "module", "1.0")) >> dep2
+        1 * target.prefetch({ it as List == [dep2] })
+        0 * target._
+    }
+
+    def "does not prefetch dependency whose rule fails"() {
+        def broken = dependency('org', 'broken', '0.5')
+        def ok = dependency('org', 'module', '1.0')
+        def rule = { if (it.requested.name == 'broken') { throw new Error("Boo!") } } as Action
+        def prefetcher = new VersionForcingDependencyMetaDataPrefetcher(target, rule)
+
+        when:
+        prefetcher.prefetch([broken, ok])
+
+        then:
+        1 * target.prefetch({ it as List == [ok] })
+        0 * target._
+    }
+
+    def dependency(String group, String module, String version) {
+        Mock(DependencyMetaData) {
+            getRequested() >> new DefaultModuleVersionSelector(group, module, version)
+        }
+    }
+}
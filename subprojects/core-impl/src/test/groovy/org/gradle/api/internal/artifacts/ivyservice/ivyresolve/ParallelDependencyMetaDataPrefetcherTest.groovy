@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve
+
+import org.gradle.api.internal.artifacts.ivyservice.BuildableModuleVersionResolveResult
+import org.gradle.api.internal.artifacts.ivyservice.CacheLockingManager
+import org.gradle.api.internal.artifacts.ivyservice.DependencyToModuleResolver
+import org.gradle.internal.Factory
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.concurrent.ExecutorFactory
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentLinkedQueue
+
+class ParallelDependencyMetaDataPrefetcherTest extends Specification {
+    final resolved = new ConcurrentLinkedQueue<Map>()
+    int batch = 1
+    final Factory<DependencyToModuleResolver> resolverFactory = Mock()
+    final CacheLockingManager cacheLockingManager = Mock()
+    final DefaultExecutorFactory executorFactory = new DefaultExecutorFactory()
+    final ParallelDependencyMetaDataPrefetcher prefetcher = new ParallelDependencyMetaDataPrefetcher(resolverFactory, cacheLockingManager, executorFactory, 4)
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "resolves each dependency once using the cache lock of a worker thread"() {
+        def dependencies = (1..10).collect { Stub(DependencyMetaData) }
+        def threads = Collections.synchronizedSet(new HashSet<Thread>())
+
+        when:
+        prefetcher.prefetch(dependencies)
+
+        then:
+        4 * resolverFactory.create() >> { new RecordingResolver() }
+        1 * cacheLockingManager.longRunningOperation(_, _ as Runnable) >> { String displayName, Runnable action -> action.run() }
+        10 * cacheLockingManager.useCache(_, _ as Runnable) >> { String displayName, Runnable action ->
+            threads << Thread.currentThread()
+            action.run()
+        }
+
+        and:
+        resolved*.dependency as Set == dependencies as Set
+        resolved.size() == 10
+        !threads.contains(Thread.currentThread())
+    }
+
+    def "each resolver is used by one worker thread only and is reused for later batches"() {
+        given:
+        _ * cacheLockingManager.longRunningOperation(_, _ as Runnable) >> { String displayName, Runnable action -> action.run() }
+        _ * cacheLockingManager.useCache(_, _ as Runnable) >> { String displayName, Runnable action -> action.run() }
+
+        when:
+        prefetcher.prefetch((1..10).collect { Stub(DependencyMetaData) })
+        batch = 2
+        prefetcher.prefetch((1..10).collect { Stub(DependencyMetaData) })
+
+        then:
+        4 * resolverFactory.create() >> { new RecordingResolver() }
+
+        and:
+        resolved.size() == 20
+        resolved.groupBy { [it.resolver, it.batch] }.values().every { entries -> entries*.thread.unique().size() == 1 }
+    }
+
+    def "does not fetch a single dependency"() {
+        ExecutorFactory executorFactory = Mock()
+        def prefetcher = new ParallelDependencyMetaDataPrefetcher(resolverFactory, cacheLockingManager, executorFactory, 4)
+
+        when:
+        prefetcher.prefetch([Stub(DependencyMetaData)])
+
+        then:
+        0 * resolverFactory._
+        0 * cacheLockingManager._
+        0 * executorFactory._
+    }
+
+    def "ignores failure to fetch a dependency"() {
+        def broken = Stub(DependencyMetaData)
+        def ok = Stub(DependencyMetaData)
+
+        given:
+        _ * cacheLockingManager.longRunningOperation(_, _ as Runnable) >> { String displayName, Runnable action -> action.run() }
+        _ * cacheLockingManager.useCache(_, _ as Runnable) >> { String displayName, Runnable action -> action.run() }
+        _ * resolverFactory.create() >> { new RecordingResolver(broken) }
+
+        when:
+        prefetcher.prefetch([broken, ok])
+
+        then:
+        resolved*.dependency == [ok]
+        noExceptionThrown()
+    }
+
+    private class RecordingResolver implements DependencyToModuleResolver {
+        final DependencyMetaData broken
+
+        RecordingResolver(DependencyMetaData broken = null) {
+            this.broken = broken
+        }
+
+        void resolve(DependencyMetaData dependency, BuildableModuleVersionResolveResult result) {
+            if (dependency.is(broken)) {
+                throw new RuntimeException("broken")
+            }
+            resolved << [resolver: this, dependency: dependency, thread: Thread.currentThread(), batch: batch]
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.artifacts.ivyservice.ivyresolve
 
+import org.apache.ivy.core.module.descriptor.Artifact
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor
 import org.apache.ivy.core.module.id.ModuleRevisionId
@@ -25,6 +26,8 @@ import org.apache.ivy.plugins.version.VersionMatcher
 import org.gradle.api.artifacts.ModuleVersionIdentifier
 import org.gradle.api.artifacts.ModuleVersionSelector
 import org.gradle.api.internal.artifacts.DefaultModuleVersionIdentifier
+import org.gradle.api.internal.artifacts.ivyservice.ArtifactResolver
+import org.gradle.api.internal.artifacts.ivyservice.BuildableArtifactResolveResult
 import org.gradle.api.internal.artifacts.ivyservice.BuildableModuleVersionResolveResult
 import spock.lang.Specification
 
@@ -580,6 +583,42 @@ class UserResolverChainTest extends Specification {
         0 * result._
     }
 
+    def "resolves artifacts using the corresponding repository of another chain"() {
+        given:
+        def repo1 = Mock(LocalAwareModuleVersionRepository)
+        def repo2 = Mock(LocalAwareModuleVersionRepository)
+        resolver.add(repo1)
+        resolver.add(repo2)
+        def otherRepo1 = Mock(LocalAwareModuleVersionRepository)
+        def otherRepo2 = Mock(LocalAwareModuleVersionRepository)
+        def other = new UserResolverChain()
+        other.add(otherRepo1)
+        other.add(otherRepo2)
+        def artifact = Stub(Artifact)
+        def artifactResult = Stub(BuildableArtifactResolveResult)
+        ArtifactResolver artifactResolver = null
+
+        and:
+        _ * repo1.getLocalDependency(dependency, _) >> { dep, result -> result.missing() }
+        _ * repo2.getLocalDependency(dependency, _) >> { dep, result -> result.resolved(descriptor, true, moduleSource) }
+        _ * result.resolved(_, _) >> { metaData, source -> artifactResolver = source }
+        resolver.resolve(dependency, result)
+
+        when:
+        resolver.resolveArtifactsUsing(other, { artifactResolver.resolve(artifact, artifactResult) } as Runnable)
+
+        then:
+        1 * otherRepo2.resolve(artifact, artifactResult, moduleSource)
+        0 * repo2.resolve(_, _, _)
+
+        when:
+        artifactResolver.resolve(artifact, artifactResult)
+
+        then:
+        1 * repo2.resolve(artifact, artifactResult, moduleSource)
+        0 * otherRepo2.resolve(_, _, _)
+    }
+
     def descriptor(def version) {
         def descriptor = Stub(ModuleDescriptor)
         descriptor.resolvedModuleRevisionId >> ModuleRevisionId.newInstance("org", "module", version)
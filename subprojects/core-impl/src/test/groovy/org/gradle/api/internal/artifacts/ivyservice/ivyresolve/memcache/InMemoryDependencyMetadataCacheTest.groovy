@@ -62,8 +62,8 @@ class InMemoryDependencyMetadataCacheTest extends Specification {
         c1.cache == c3.cache //same repo id, same cache
         c2.cache != c1.cache
 
-        cache.stats.reposWrapped == 3
-        cache.stats.cacheInstances == 2
+        cache.stats.reposWrapped.get() == 3
+        cache.stats.cacheInstances.get() == 2
 
         cache.cachePerRepo.size() == 2
     }
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache
+
+import org.apache.ivy.core.module.descriptor.*
+import org.apache.ivy.core.module.id.ArtifactId
+import org.apache.ivy.core.module.id.ModuleId
+import org.apache.ivy.core.module.id.ModuleRevisionId
+import org.apache.ivy.core.settings.IvySettings
+import org.apache.ivy.plugins.matcher.ExactPatternMatcher
+import org.apache.ivy.plugins.repository.url.URLResource
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.IvyXmlModuleDescriptorParser
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class ModuleDescriptorSerializerTest extends Specification {
+    @Rule TestNameTestDirectoryProvider temporaryFolder
+    final serializer = new ModuleDescriptorSerializer()
+
+    def "can write and read module descriptor"() {
+        def md = new DefaultModuleDescriptor(ModuleRevisionId.newInstance("org.test", "projectA", "1.2", [buildNr: "815"]), "integration", new Date(1345204800000L))
+        md.addConfiguration(new Configuration("compile"))
+        md.addConfiguration(new Configuration("runtime", Configuration.Visibility.PRIVATE, "runtime classpath", ["compile"] as String[], false, null))
+        md.description = "a module"
+
+        def artifact = new MDArtifact(md, "projectA", "jar", "jar")
+        artifact.addConfiguration("runtime")
+        md.addArtifact("runtime", artifact)
+
+        def dependency = new DefaultDependencyDescriptor(md, ModuleRevisionId.newInstance("org.test", "projectB", "1.+"), false, true, false)
+        dependency.addDependencyConfiguration("compile", "default")
+        dependency.addDependencyConfiguration("runtime", "runtime")
+        def excludeRule = new DefaultExcludeRule(new ArtifactId(new ModuleId("org.other", "*"), "*", "*", "*"), ExactPatternMatcher.INSTANCE, [:])
+        excludeRule.addConfiguration("runtime")
+        dependency.addExcludeRule("runtime", excludeRule)
+        md.addDependency(dependency)
+
+        when:
+        def result = writeAndRead(md)
+
+        then:
+        result.moduleRevisionId == md.moduleRevisionId
+        result.extraAttributes == [buildNr: "815"]
+        result.status == "integration"
+        result.publicationDate == new Date(1345204800000L)
+        result.description == "a module"
+
+        result.configurationsNames as List == ["compile", "runtime"]
+        def runtime = result.getConfiguration("runtime")
+        runtime.visibility == Configuration.Visibility.PRIVATE
+        runtime.description == "runtime classpath"
+        runtime.extends as List == ["compile"]
+        !runtime.transitive
+
+        result.getArtifacts("runtime")*.name == ["projectA"]
+        result.getArtifacts("compile").length == 0
+
+        result.dependencies.length == 1
+        def resultDependency = result.dependencies[0]
+        resultDependency.dependencyRevisionId == dependency.dependencyRevisionId
+        resultDependency.changing
+        !resultDependency.transitive
+        resultDependency.moduleConfigurations as List == ["compile", "runtime"]
+        resultDependency.getDependencyConfigurations("runtime") as List == ["runtime"]
+        resultDependency.getExcludeRules("runtime")*.id == [excludeRule.id]
+        resultDependency.getExcludeRules("runtime")*.matcher == [ExactPatternMatcher.INSTANCE]
+    }
+
+    def "ignores content written using a different format version"() {
+        def outputStream = new ByteArrayOutputStream()
+        new DataOutputStream(outputStream).writeInt(0)
+
+        expect:
+        read(outputStream.toByteArray()) == null
+    }
+
+    def "cannot serialize descriptor that inherits from another descriptor"() {
+        def md = new DefaultModuleDescriptor(ModuleRevisionId.newInstance("org.test", "projectA", "1.2"), "integration", new Date())
+
+        expect:
+        serializer.canSerialize(md)
+
+        when:
+        md.addInheritedDescriptor(new DefaultExtendsDescriptor(ModuleRevisionId.newInstance("org.test", "parent", "1.0"), ModuleRevisionId.newInstance("org.test", "parent", "1.0"), "parent.xml", ["all"] as String[]))
+
+        then:
+        !serializer.canSerialize(md)
+    }
+
+    def writeAndRead(ModuleDescriptor md) {
+        def outputStream = new ByteArrayOutputStream()
+        def dataOutputStream = new DataOutputStream(outputStream)
+        serializer.write(dataOutputStream, md)
+        dataOutputStream.flush()
+        return read(outputStream.toByteArray())
+    }
+
+    def read(byte[] content) {
+        def resource = new URLResource(temporaryFolder.createFile("ivy.xml").toURI().toURL())
+        return serializer.read(new DataInputStream(new ByteArrayInputStream(content)), new IvyXmlModuleDescriptorParser(), resource, new IvySettings())
+    }
+}
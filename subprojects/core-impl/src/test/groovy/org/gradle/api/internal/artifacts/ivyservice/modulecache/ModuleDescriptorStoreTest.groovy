@@ -16,8 +16,10 @@
 
 package org.gradle.api.internal.artifacts.ivyservice.modulecache
 
+import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor
 import org.apache.ivy.core.module.id.ModuleRevisionId
+import org.gradle.api.GradleException
 import org.gradle.api.artifacts.ModuleVersionIdentifier
 import org.gradle.api.internal.artifacts.ivyservice.IvyModuleDescriptorWriter
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ModuleVersionRepository
@@ -78,4 +80,40 @@ class ModuleDescriptorStoreTest extends Specification {
         };
         1 * ivyModuleDescriptorWriter.write(moduleDescriptor, descriptorFile)
     }
+
+    def "putModuleDescriptor writes binary descriptor alongside ivy.xml"() {
+        def descriptor = new DefaultModuleDescriptor(ModuleRevisionId.newInstance("org.test", "testArtifact", "1.0"), "release", null)
+
+        when:
+        def entry = store.putModuleDescriptor(repository, descriptor);
+        then:
+        entry == fileStoreEntry
+        1 * pathKeyFileStore.add("module-metadata/org.test/testArtifact/1.0/repositoryId/ivy.xml", _) >> fileStoreEntry
+        1 * pathKeyFileStore.add("module-metadata/org.test/testArtifact/1.0/repositoryId/descriptor.bin", _)
+    }
+
+    def "putModuleDescriptor does not write binary descriptor for descriptor that cannot be serialized"() {
+        setup:
+        _ * moduleRevisionId.organisation >> "org.test"
+        _ * moduleRevisionId.name >> "testArtifact"
+        _ * moduleRevisionId.revision >> "1.0"
+        when:
+        def entry = store.putModuleDescriptor(repository, moduleDescriptor);
+        then:
+        entry == fileStoreEntry
+        1 * pathKeyFileStore.add("module-metadata/org.test/testArtifact/1.0/repositoryId/ivy.xml", _) >> fileStoreEntry
+        0 * pathKeyFileStore.add("module-metadata/org.test/testArtifact/1.0/repositoryId/descriptor.bin", _)
+    }
+
+    def "putModuleDescriptor ignores failure to write binary descriptor"() {
+        def descriptor = new DefaultModuleDescriptor(ModuleRevisionId.newInstance("org.test", "testArtifact", "1.0"), "release", null)
+
+        when:
+        def entry = store.putModuleDescriptor(repository, descriptor);
+        then:
+        entry == fileStoreEntry
+        1 * pathKeyFileStore.add("module-metadata/org.test/testArtifact/1.0/repositoryId/ivy.xml", _) >> fileStoreEntry
+        1 * pathKeyFileStore.add("module-metadata/org.test/testArtifact/1.0/repositoryId/descriptor.bin", _) >> { throw new GradleException("broken") }
+        noExceptionThrown()
+    }
 }
\ No newline at end of file
@@ -28,6 +28,7 @@ import org.gradle.api.internal.artifacts.DefaultModuleVersionSelector
 import org.gradle.api.internal.artifacts.DefaultResolvedArtifact
 import org.gradle.api.internal.artifacts.configurations.ConfigurationInternal
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.DefaultBuildableModuleVersionMetaData
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.DependencyMetaDataPrefetcher
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ModuleVersionMetaData
 import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.dependencies.EnhancedDependencyDescriptor
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.ResolvedConfigurationListener
@@ -52,9 +53,10 @@ class DependencyGraphBuilderTest extends Specification {
     final ResolveData resolveData = new ResolveData(resolveEngine, new ResolveOptions())
     final ModuleConflictResolver conflictResolver = Mock()
     final DependencyToModuleVersionIdResolver dependencyResolver = Mock()
+    final DependencyMetaDataPrefetcher prefetcher = Mock()
     final ResolvedConfigurationListener listener = Mock()
     final ModuleVersionMetaData root = revision('root')
-    final DependencyGraphBuilder builder = new DependencyGraphBuilder(moduleDescriptorConverter, resolvedArtifactFactory, dependencyResolver, conflictResolver, Stub(CacheLockingManager))
+    final DependencyGraphBuilder builder = new DependencyGraphBuilder(moduleDescriptorConverter, resolvedArtifactFactory, dependencyResolver, prefetcher, conflictResolver, Stub(CacheLockingManager), Stub(ArtifactDownloadScheduler))
 
     def setup() {
         config(root, 'root', 'default')
@@ -83,6 +85,29 @@ class DependencyGraphBuilderTest extends Specification {
         modules(result) == ids(a, b, c)
     }
 
+    def "prefetches meta-data for the outgoing dependencies of a configuration that have not been resolved"() {
+        given:
+        def a = revision("a")
+        def b = revision("b")
+        def c = revision("c")
+        traverses root, a
+        traverses root, b
+        traverses a, c
+        doesNotResolve b, c
+
+        when:
+        def result = builder.resolve(configuration, resolveData, listener)
+        result.rethrowFailure()
+
+        then:
+        1 * prefetcher.prefetch({ it*.requested*.name == ['a', 'b'] })
+        1 * prefetcher.prefetch({ it*.requested*.name == ['c'] })
+        0 * prefetcher._
+
+        and:
+        modules(result) == ids(a, b, c)
+    }
+
     def "correctly notifies the resolved configuration listener"() {
         given:
         def a = revision("a")
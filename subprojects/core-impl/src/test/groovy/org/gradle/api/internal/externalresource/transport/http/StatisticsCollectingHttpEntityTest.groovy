@@ -0,0 +1,58 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.externalresource.transport.http
+
+import org.apache.http.entity.StringEntity
+import spock.lang.Specification
+
+class StatisticsCollectingHttpEntityTest extends Specification {
+    final HttpTransferStatistics statistics = new HttpTransferStatistics()
+
+    def "counts bytes read from content"() {
+        def entity = new StatisticsCollectingHttpEntity(new StringEntity("some content"), statistics)
+
+        when:
+        def text = entity.content.text
+
+        then:
+        text == "some content"
+        statistics.bytesReceived == 12
+    }
+
+    def "counts bytes written to a stream"() {
+        def entity = new StatisticsCollectingHttpEntity(new StringEntity("some content"), statistics)
+        def outstr = new ByteArrayOutputStream()
+
+        when:
+        entity.writeTo(outstr)
+
+        then:
+        outstr.toString() == "some content"
+        statistics.bytesReceived == 12
+    }
+
+    def "records requests and reused connections"() {
+        when:
+        statistics.request(false)
+        statistics.request(true)
+        statistics.request(true)
+
+        then:
+        statistics.requests == 3
+        statistics.reusedConnections == 2
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api
+
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+
+class ParallelConfigurationIntegrationTest extends AbstractIntegrationSpec {
+
+    def setup() {
+        file("gradle.properties") << "org.gradle.parallelconfiguration=true"
+    }
+
+    def "configures all projects"() {
+        settingsFile << "include 'a', 'b', 'c', 'c:d'"
+        buildFile << """
+            allprojects { task foo }
+            gradle.projectsEvaluated {
+                assert gradle.rootProject.allprojects.every { it.state.executed }
+                println "configured: " + gradle.rootProject.allprojects.collect { it.path }.join(',')
+            }
+        """
+
+        when:
+        run("foo")
+
+        then:
+        output.contains("configured: :,:a,:b,:c,:c:d")
+        output.contains("Parallel project configuration is an incubating feature")
+        result.assertTasksExecuted(":foo", ":a:foo", ":b:foo", ":c:foo", ":c:d:foo")
+    }
+
+    def "parent project configures its children before they are evaluated"() {
+        settingsFile << "include 'a', 'b', 'b:c'"
+        buildFile << """
+            subprojects {
+                apply plugin: 'java'
+                ext.configuredBy = rootProject.path
+            }
+        """
+        file("a/build.gradle") << "assert configuredBy == ':'; sourceSets.main.java.srcDir 'other'"
+        file("b/build.gradle") << "assert configuredBy == ':'; subprojects { ext.configuredBy = project(':b').path }"
+        file("b/c/build.gradle") << "assert configuredBy == ':b'; sourceSets.main.java.srcDir 'other'"
+
+        expect:
+        succeeds("help")
+    }
+
+    def "honours evaluation dependencies between projects"() {
+        settingsFile << "include 'a', 'b', 'c'"
+        file("a/build.gradle") << """
+            evaluationDependsOn(':b')
+            assert project(':b').state.executed
+            assert project(':b').value == 'b'
+            project(':b') { ext.seenBy = ':a' }
+        """
+        file("b/build.gradle") << "Thread.sleep(200); ext.value = 'b'"
+        file("c/build.gradle") << """
+            evaluationDependsOn(':b')
+            assert project(':b').value == 'b'
+        """
+
+        expect:
+        succeeds("help")
+    }
+
+    def "can use project dependencies between projects"() {
+        settingsFile << "include 'api', 'impl'"
+        buildFile << "subprojects { apply plugin: 'java' }"
+        file("impl/build.gradle") << "dependencies { compile project(':api') }"
+        file("api/src/main/java/Person.java") << "public interface Person { String getName(); }"
+        file("impl/src/main/java/PersonImpl.java") << "public class PersonImpl implements Person { public String getName() { return null; } }"
+
+        expect:
+        succeeds("build")
+    }
+
+    def "captures the standard output of each project at its own level"() {
+        settingsFile << "include 'a', 'b', 'c'"
+        file("a/build.gradle") << """
+            logging.captureStandardOutput LogLevel.INFO
+            Thread.sleep(200)
+            println 'a: hidden'
+            Thread.sleep(200)
+            println 'a: also hidden'
+        """
+        file("b/build.gradle") << """
+            Thread.sleep(100)
+            println 'b: visible'
+            Thread.sleep(200)
+            println 'b: also visible'
+        """
+        file("c/build.gradle") << """
+            logging.captureStandardOutput LogLevel.DEBUG
+            Thread.sleep(300)
+            println 'c: hidden'
+        """
+        buildFile << """
+            task show << { println 'task output visible' }
+        """
+
+        when:
+        run("show")
+
+        then:
+        output.contains("b: visible")
+        output.contains("b: also visible")
+        output.contains("task output visible")
+        !output.contains("a: hidden")
+        !output.contains("a: also hidden")
+        !output.contains("c: hidden")
+    }
+
+    def "reports project that configures another project it does not declare a dependency on"() {
+        settingsFile << "include 'a', 'b'"
+        file("a/build.gradle") << "project(':b') { ext.foo = 'bar' }"
+
+        when:
+        fails("help")
+
+        then:
+        failure.assertHasDescription("A problem occurred evaluating project ':a'.")
+        failure.assertHasCause("Cannot configure project ':b' from project ':a', as projects are being configured in parallel. Use evaluationDependsOn(':b') to declare the dependency, or configure the projects sequentially.")
+    }
+
+    def "warns when project looks up another project it does not declare a dependency on"() {
+        settingsFile << "include 'a', 'b', 'c', 'c:d'"
+        file("a/build.gradle") << "println project(':b').path"
+        file("c/d/build.gradle") << """
+            assert project(':c').path == ':c'
+            evaluationDependsOn(':b')
+            assert project(':b').path == ':b'
+        """
+
+        when:
+        run("help")
+
+        then:
+        output.contains("Project ':a' looks up project ':b' without declaring a dependency on it, as projects are being configured in parallel.")
+        !output.contains("Project ':c:d' looks up")
+    }
+
+    def "reports circular evaluation dependencies"() {
+        settingsFile << "include 'a', 'b'"
+        file("a/build.gradle") << "evaluationDependsOn(':b')"
+        file("b/build.gradle") << "evaluationDependsOn(':a')"
+
+        when:
+        fails("help")
+
+        then:
+        failure.assertThatCause(org.hamcrest.Matchers.startsWith("Circular referencing during evaluation for project"))
+    }
+
+    def "does not configure remaining projects once a project fails"() {
+        settingsFile << "include 'a', 'a:b'"
+        file("a/build.gradle") << "throw new RuntimeException('broken')"
+        file("a/b/build.gradle") << "println 'configured :a:b'"
+
+        when:
+        fails("help")
+
+        then:
+        failure.assertHasDescription("A problem occurred evaluating project ':a'.")
+        failure.assertHasCause("broken")
+        !output.contains("configured :a:b")
+    }
+}
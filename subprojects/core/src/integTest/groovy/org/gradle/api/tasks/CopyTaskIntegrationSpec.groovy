@@ -67,4 +67,50 @@ class CopyTaskIntegrationSpec extends AbstractIntegrationSpec {
         then:
         file("build/resources", weirdFileName).exists()
     }
+
+    def "copies only the source files which changed since the previous execution"() {
+        given:
+        buildFile << """
+            task copy(type: Copy) {
+                from 'src'
+                into 'dest'
+            }
+        """
+        file('src/unchanged.txt') << 'unchanged'
+        file('src/changed.txt') << 'original'
+        run 'copy'
+
+        def unchanged = file('dest/unchanged.txt')
+        unchanged.setLastModified(unchanged.lastModified() - 10000)
+        def lastModified = unchanged.lastModified()
+
+        when:
+        file('src/changed.txt').text = 'modified'
+        run 'copy'
+
+        then:
+        file('dest/changed.txt').text == 'modified'
+        unchanged.text == 'unchanged'
+        unchanged.lastModified() == lastModified
+    }
+
+    def "sync removes the destination files of removed source files"() {
+        given:
+        buildFile << """
+            task sync(type: Sync) {
+                from 'src'
+                into 'dest'
+            }
+        """
+        file('src/kept.txt') << 'kept'
+        file('src/removed.txt') << 'removed'
+        run 'sync'
+
+        when:
+        file('src/removed.txt').delete()
+        run 'sync'
+
+        then:
+        file('dest').assertHasDescendants('kept.txt')
+    }
 }
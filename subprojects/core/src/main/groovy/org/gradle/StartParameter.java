@@ -76,6 +76,7 @@ public class StartParameter extends LoggingConfiguration implements Serializable
     private boolean recompileScripts;
     private int parallelThreadCount;
     private boolean configureOnDemand;
+    private boolean parallelConfiguration;
 
     /**
      * Sets the project's cache location. Set to null to use the default location.
@@ -154,6 +155,7 @@ public class StartParameter extends LoggingConfiguration implements Serializable
         p.refreshDependencies = refreshDependencies;
         p.parallelThreadCount = parallelThreadCount;
         p.configureOnDemand = configureOnDemand;
+        p.parallelConfiguration = parallelConfiguration;
 
         return p;
     }
@@ -661,6 +663,7 @@ public class StartParameter extends LoggingConfiguration implements Serializable
                 + ", refreshDependencies=" + refreshDependencies
                 + ", parallelThreadCount=" + parallelThreadCount
                 + ", configureOnDemand=" + configureOnDemand
+                + ", parallelConfiguration=" + parallelConfiguration
                 + '}';
     }
 
@@ -675,4 +678,22 @@ public class StartParameter extends LoggingConfiguration implements Serializable
     public void setConfigureOnDemand(boolean configureOnDemand) {
         this.configureOnDemand = configureOnDemand;
     }
+
+    /**
+     * If projects are configured in parallel. Only projects that do not configure each other can be configured this way.
+     */
+    @Incubating
+    public boolean isParallelConfiguration() {
+        return parallelConfiguration;
+    }
+
+    /**
+     * Specifies whether projects should be configured in parallel.
+     *
+     * @see #isParallelConfiguration()
+     */
+    @Incubating
+    public void setParallelConfiguration(boolean parallelConfiguration) {
+        this.parallelConfiguration = parallelConfiguration;
+    }
 }
\ No newline at end of file
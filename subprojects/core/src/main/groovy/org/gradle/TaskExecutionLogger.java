@@ -24,15 +24,14 @@ import org.gradle.api.tasks.TaskState;
 import org.gradle.logging.ProgressLogger;
 import org.gradle.logging.ProgressLoggerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A listener which logs the execution of tasks.
  */
 public class TaskExecutionLogger implements TaskExecutionListener {
-    // TODO:PARALLEL Seems to be some thread-safety issues here (get 'failed' logged for wrong task)
-    private final Map<Task, ProgressLogger> currentTasks = new HashMap<Task, ProgressLogger>();
+    private final Map<Task, ProgressLogger> currentTasks = new ConcurrentHashMap<Task, ProgressLogger>();
     private final ProgressLoggerFactory progressLoggerFactory;
 
     public TaskExecutionLogger(ProgressLoggerFactory progressLoggerFactory) {
@@ -41,6 +41,12 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
     }
 
     public <T> Class<? extends T> generate(Class<T> type) {
+        synchronized (GENERATED_CLASSES) {
+            return generateClass(type);
+        }
+    }
+
+    private <T> Class<? extends T> generateClass(Class<T> type) {
         Map<Class<?>, Class<?>> cache = GENERATED_CLASSES.get(getClass());
         if (cache == null) {
             // WeakHashMap won't work here. It keeps a strong reference to the mapping value, which is the generated class in this case
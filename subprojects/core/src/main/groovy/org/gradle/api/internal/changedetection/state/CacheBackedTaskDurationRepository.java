@@ -0,0 +1,36 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import org.gradle.api.Task;
+import org.gradle.cache.PersistentIndexedCache;
+
+public class CacheBackedTaskDurationRepository implements TaskDurationRepository {
+    private final PersistentIndexedCache<String, Long> taskDurationCache;
+
+    public CacheBackedTaskDurationRepository(TaskArtifactStateCacheAccess cacheAccess) {
+        taskDurationCache = cacheAccess.createCache("taskDurations", String.class, Long.class);
+    }
+
+    public Long getPreviousDuration(Task task) {
+        return taskDurationCache.get(task.getPath());
+    }
+
+    public void setDuration(Task task, long durationMillis) {
+        taskDurationCache.put(task.getPath(), durationMillis);
+    }
+}
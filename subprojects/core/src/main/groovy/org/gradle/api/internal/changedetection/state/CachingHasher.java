@@ -16,17 +16,23 @@
 package org.gradle.api.internal.changedetection.state;
 
 import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.internal.Factory;
 import org.gradle.messaging.serialize.DataStreamBackedSerializer;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class CachingHasher implements Hasher {
     private final PersistentIndexedCache<File, FileInfo> cache;
+    private final TaskArtifactStateCacheAccess cacheAccess;
     private final Hasher hasher;
     private long timestamp;
 
     public CachingHasher(Hasher hasher, TaskArtifactStateCacheAccess cacheAccess) {
         this.hasher = hasher;
+        this.cacheAccess = cacheAccess;
         cache = cacheAccess.createCache("fileHashes", File.class, FileInfo.class, new FileInfoSerializer());
     }
 
@@ -44,6 +50,51 @@ public class CachingHasher implements Hasher {
         return hash;
     }
 
+    /**
+     * Looks up all of the given files in the cache in a single pass, hashes those files that have changed as a single batch, then writes the new hashes
+     * back to the cache in a single pass. All of this happens in a single cache action, so that the locks are acquired once for the batch.
+     */
+    public List<byte[]> hash(final List<File> files) {
+        return cacheAccess.useCache("hash files", new Factory<List<byte[]>>() {
+            public List<byte[]> create() {
+                return hashBatch(files);
+            }
+        });
+    }
+
+    private List<byte[]> hashBatch(List<File> files) {
+        byte[][] hashes = new byte[files.size()][];
+        List<Integer> changedIndexes = new ArrayList<Integer>();
+        List<File> changedFiles = new ArrayList<File>();
+        List<FileInfo> changedInfo = new ArrayList<FileInfo>();
+
+        for (int i = 0; i < hashes.length; i++) {
+            File file = files.get(i);
+            FileInfo info = cache.get(file);
+            long length = file.length();
+            long timestamp = file.lastModified();
+            if (info != null && length == info.length && timestamp == info.timestamp) {
+                hashes[i] = info.hash;
+            } else {
+                changedIndexes.add(i);
+                changedFiles.add(file);
+                changedInfo.add(new FileInfo(null, length, timestamp));
+            }
+        }
+
+        if (!changedFiles.isEmpty()) {
+            List<byte[]> changedHashes = hasher.hash(changedFiles);
+            for (int i = 0; i < changedFiles.size(); i++) {
+                byte[] hash = changedHashes.get(i);
+                FileInfo info = changedInfo.get(i);
+                hashes[changedIndexes.get(i)] = hash;
+                cache.put(changedFiles.get(i), new FileInfo(hash, info.length, info.timestamp));
+            }
+        }
+
+        return Arrays.asList(hashes);
+    }
+
     public static class FileInfo implements Serializable {
         private final byte[] hash;
         private final long timestamp;
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.internal.file.collections.SimpleFileCollection;
+import org.gradle.messaging.serialize.DataStreamBackedSerializer;
+import org.gradle.util.ChangeListener;
+import org.gradle.util.NoOpChangeListener;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * A {@link FileCollectionSnapshot} that uses a packed representation, rather than an object per file. Files are sorted by parent directory and then name.
+ * Each distinct parent directory path is stored once, and the type and hash of each file are stored in fixed width arrays. Changes between
+ * two snapshots are calculated using a merge join over the sorted files.
+ *
+ * <p>A snapshot of another type is compared by path only, so each file it contains that is also contained in this snapshot is reported as changed.</p>
+ */
+class CompactFileCollectionSnapshot implements FileCollectionSnapshot {
+    static final byte DIRECTORY = 0;
+    static final byte FILE = 1;
+    static final byte MISSING = 2;
+    // A file of a snapshot of another type, whose content is not known
+    static final byte UNKNOWN = 3;
+
+    private transient String[] parents;
+    private transient int[] parentIndexes;
+    private transient String[] names;
+    private transient byte[] types;
+    private transient int hashWidth;
+    private transient byte[] hashes;
+
+    private CompactFileCollectionSnapshot(String[] parents, int[] parentIndexes, String[] names, byte[] types, int hashWidth, byte[] hashes) {
+        this.parents = parents;
+        this.parentIndexes = parentIndexes;
+        this.names = names;
+        this.types = types;
+        this.hashWidth = hashWidth;
+        this.hashes = hashes;
+    }
+
+    public static CompactFileCollectionSnapshot empty() {
+        return new Builder().build();
+    }
+
+    private int size() {
+        return names.length;
+    }
+
+    private String path(int index) {
+        return parents[parentIndexes[index]] + names[index];
+    }
+
+    private int compare(int index, CompactFileCollectionSnapshot other, int otherIndex) {
+        String parent = parents[parentIndexes[index]];
+        String otherParent = other.parents[other.parentIndexes[otherIndex]];
+        int result = parent.compareTo(otherParent);
+        if (result != 0) {
+            return result;
+        }
+        return names[index].compareTo(other.names[otherIndex]);
+    }
+
+    private boolean isUpToDate(int index, CompactFileCollectionSnapshot other, int otherIndex) {
+        if (types[index] != other.types[otherIndex] || types[index] == UNKNOWN) {
+            return false;
+        }
+        if (types[index] != FILE) {
+            return true;
+        }
+        if (hashWidth != other.hashWidth) {
+            return false;
+        }
+        int offset = index * hashWidth;
+        int otherOffset = otherIndex * hashWidth;
+        for (int i = 0; i < hashWidth; i++) {
+            if (hashes[offset + i] != other.hashes[otherOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private FileEntry entry(int index) {
+        byte[] hash = null;
+        if (types[index] == FILE) {
+            hash = new byte[hashWidth];
+            System.arraycopy(hashes, index * hashWidth, hash, 0, hashWidth);
+        }
+        return new FileEntry(types[index], hash);
+    }
+
+    public FileCollection getFiles() {
+        List<File> files = new ArrayList<File>();
+        for (int i = 0; i < size(); i++) {
+            if (types[i] == FILE) {
+                files.add(new File(path(i)));
+            }
+        }
+        return new SimpleFileCollection(files);
+    }
+
+    /**
+     * Returns the given snapshot, or for a snapshot of another type, a snapshot that contains its files with an unknown content.
+     */
+    private static CompactFileCollectionSnapshot compact(FileCollectionSnapshot snapshot) {
+        if (snapshot instanceof CompactFileCollectionSnapshot) {
+            return (CompactFileCollectionSnapshot) snapshot;
+        }
+        Builder builder = new Builder();
+        for (File file : snapshot.getFiles()) {
+            builder.add(file.getAbsolutePath(), UNKNOWN, null);
+        }
+        return builder.build();
+    }
+
+    public ChangeIterator<String> iterateChangesSince(FileCollectionSnapshot oldSnapshot) {
+        final CompactFileCollectionSnapshot other = compact(oldSnapshot);
+        return new ChangeIterator<String>() {
+            private final MergeJoin join = new MergeJoin(other);
+
+            public boolean next(final ChangeListener<String> listener) {
+                return join.next(new ChangeListener<Integer>() {
+                    public void added(Integer index) {
+                        listener.added(path(index));
+                    }
+
+                    public void removed(Integer otherIndex) {
+                        listener.removed(other.path(otherIndex));
+                    }
+
+                    public void changed(Integer index) {
+                        listener.changed(path(index));
+                    }
+                });
+            }
+        };
+    }
+
+    public Diff changesSince(FileCollectionSnapshot oldSnapshot) {
+        final CompactFileCollectionSnapshot other = compact(oldSnapshot);
+        return new Diff() {
+            public FileCollectionSnapshot applyTo(FileCollectionSnapshot snapshot) {
+                return applyTo(snapshot, new NoOpChangeListener<Merge>());
+            }
+
+            public FileCollectionSnapshot applyTo(FileCollectionSnapshot snapshot, ChangeListener<Merge> listener) {
+                CompactFileCollectionSnapshot target = compact(snapshot);
+                Map<String, FileEntry> newEntries = new HashMap<String, FileEntry>();
+                for (int i = 0; i < target.size(); i++) {
+                    newEntries.put(target.path(i), target.entry(i));
+                }
+
+                final MapMergeChangeListener<String, FileEntry> mergeListener = new MapMergeChangeListener<String, FileEntry>(listener, newEntries);
+                MergeJoin join = new MergeJoin(other);
+                ChangeListener<Integer> entryListener = new ChangeListener<Integer>() {
+                    public void added(Integer index) {
+                        mergeListener.added(new AbstractMap.SimpleEntry<String, FileEntry>(path(index), entry(index)));
+                    }
+
+                    public void removed(Integer otherIndex) {
+                        mergeListener.removed(new AbstractMap.SimpleEntry<String, FileEntry>(other.path(otherIndex), other.entry(otherIndex)));
+                    }
+
+                    public void changed(Integer index) {
+                        mergeListener.changed(new AbstractMap.SimpleEntry<String, FileEntry>(path(index), entry(index)));
+                    }
+                };
+                boolean more = true;
+                while (more) {
+                    more = join.next(entryListener);
+                }
+
+                Builder builder = new Builder();
+                for (Map.Entry<String, FileEntry> entry : newEntries.entrySet()) {
+                    builder.add(entry.getKey(), entry.getValue().type, entry.getValue().hash);
+                }
+                return builder.build();
+            }
+        };
+    }
+
+    private void writeObject(ObjectOutputStream outputStream) throws IOException {
+        outputStream.defaultWriteObject();
+        new SnapshotSerializer().write((DataOutput) outputStream, this);
+    }
+
+    private void readObject(ObjectInputStream inputStream) throws IOException, ClassNotFoundException {
+        inputStream.defaultReadObject();
+        CompactFileCollectionSnapshot snapshot = new SnapshotSerializer().read((DataInput) inputStream);
+        parents = snapshot.parents;
+        parentIndexes = snapshot.parentIndexes;
+        names = snapshot.names;
+        types = snapshot.types;
+        hashWidth = snapshot.hashWidth;
+        hashes = snapshot.hashes;
+    }
+
+    /**
+     * Writes the arrays of a snapshot. Strings are written as length prefixed UTF-8, as {@link DataOutput#writeUTF(String)} cannot write
+     * strings longer than 64KB.
+     */
+    static class SnapshotSerializer extends DataStreamBackedSerializer<CompactFileCollectionSnapshot> {
+        @Override
+        public CompactFileCollectionSnapshot read(DataInput dataInput) throws IOException {
+            String[] parents = new String[dataInput.readInt()];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = readString(dataInput);
+            }
+            int count = dataInput.readInt();
+            int[] parentIndexes = new int[count];
+            String[] names = new String[count];
+            for (int i = 0; i < count; i++) {
+                parentIndexes[i] = dataInput.readInt();
+                names[i] = readString(dataInput);
+            }
+            byte[] types = new byte[count];
+            dataInput.readFully(types);
+            int hashWidth = dataInput.readInt();
+            byte[] hashes = new byte[count * hashWidth];
+            dataInput.readFully(hashes);
+            return new CompactFileCollectionSnapshot(parents, parentIndexes, names, types, hashWidth, hashes);
+        }
+
+        @Override
+        public void write(DataOutput dataOutput, CompactFileCollectionSnapshot value) throws IOException {
+            dataOutput.writeInt(value.parents.length);
+            for (String parent : value.parents) {
+                writeString(dataOutput, parent);
+            }
+            dataOutput.writeInt(value.names.length);
+            for (int i = 0; i < value.names.length; i++) {
+                dataOutput.writeInt(value.parentIndexes[i]);
+                writeString(dataOutput, value.names[i]);
+            }
+            dataOutput.write(value.types);
+            dataOutput.writeInt(value.hashWidth);
+            dataOutput.write(value.hashes);
+        }
+
+        private static String readString(DataInput dataInput) throws IOException {
+            byte[] bytes = new byte[dataInput.readInt()];
+            dataInput.readFully(bytes);
+            return new String(bytes, "UTF-8");
+        }
+
+        private static void writeString(DataOutput dataOutput, String value) throws IOException {
+            byte[] bytes = value.getBytes("UTF-8");
+            dataOutput.writeInt(bytes.length);
+            dataOutput.write(bytes);
+        }
+    }
+
+    /**
+     * Walks the files of this snapshot and an older snapshot in order, reporting each added, removed or changed file as its index.
+     */
+    private class MergeJoin {
+        private final CompactFileCollectionSnapshot other;
+        private int index;
+        private int otherIndex;
+
+        private MergeJoin(CompactFileCollectionSnapshot other) {
+            this.other = other;
+        }
+
+        public boolean next(ChangeListener<Integer> listener) {
+            while (index < size() || otherIndex < other.size()) {
+                int result;
+                if (index == size()) {
+                    result = 1;
+                } else if (otherIndex == other.size()) {
+                    result = -1;
+                } else {
+                    result = compare(index, other, otherIndex);
+                }
+
+                if (result < 0) {
+                    listener.added(index++);
+                    return true;
+                }
+                if (result > 0) {
+                    listener.removed(otherIndex++);
+                    return true;
+                }
+                boolean upToDate = isUpToDate(index, other, otherIndex);
+                index++;
+                otherIndex++;
+                if (!upToDate) {
+                    listener.changed(index - 1);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class FileEntry {
+        private final byte type;
+        private final byte[] hash;
+
+        private FileEntry(byte type, byte[] hash) {
+            this.type = type;
+            this.hash = hash;
+        }
+    }
+
+    static class Builder {
+        private final List<BuilderEntry> entries = new ArrayList<BuilderEntry>();
+        private int hashWidth;
+
+        public void add(String path, byte type, byte[] hash) {
+            // The parent includes the trailing separator, so that the path can be reassembled by concatenation
+            int separator = path.lastIndexOf(File.separatorChar);
+            String parent = path.substring(0, separator + 1);
+            String name = path.substring(separator + 1);
+            if (type == FILE) {
+                if (hashWidth == 0) {
+                    hashWidth = hash.length;
+                } else if (hash.length != hashWidth) {
+                    throw new IllegalArgumentException(String.format("Expected a hash of %s bytes for '%s' but got %s bytes.", hashWidth, path, hash.length));
+                }
+            }
+            entries.add(new BuilderEntry(parent, name, type, hash));
+        }
+
+        public CompactFileCollectionSnapshot build() {
+            // Sort is stable, so the last entry added for a given path is the one that is kept
+            Collections.sort(entries);
+            List<BuilderEntry> unique = new ArrayList<BuilderEntry>(entries.size());
+            for (BuilderEntry entry : entries) {
+                if (!unique.isEmpty() && unique.get(unique.size() - 1).compareTo(entry) == 0) {
+                    unique.set(unique.size() - 1, entry);
+                } else {
+                    unique.add(entry);
+                }
+            }
+
+            List<String> parents = new ArrayList<String>();
+            int count = unique.size();
+            int[] parentIndexes = new int[count];
+            String[] names = new String[count];
+            byte[] types = new byte[count];
+            byte[] hashes = new byte[count * hashWidth];
+            for (int i = 0; i < count; i++) {
+                BuilderEntry entry = unique.get(i);
+                // Entries are sorted by parent, so each distinct parent is added once
+                if (parents.isEmpty() || !parents.get(parents.size() - 1).equals(entry.parent)) {
+                    parents.add(entry.parent);
+                }
+                parentIndexes[i] = parents.size() - 1;
+                names[i] = entry.name;
+                types[i] = entry.type;
+                if (entry.type == FILE) {
+                    System.arraycopy(entry.hash, 0, hashes, i * hashWidth, hashWidth);
+                }
+            }
+            return new CompactFileCollectionSnapshot(parents.toArray(new String[parents.size()]), parentIndexes, names, types, hashWidth, hashes);
+        }
+    }
+
+    private static class BuilderEntry implements Comparable<BuilderEntry> {
+        private final String parent;
+        private final String name;
+        private final byte type;
+        private final byte[] hash;
+
+        private BuilderEntry(String parent, String name, byte type, byte[] hash) {
+            this.parent = parent;
+            this.name = name;
+            this.type = type;
+            this.hash = hash;
+        }
+
+        public int compareTo(BuilderEntry other) {
+            int result = parent.compareTo(other.parent);
+            return result != 0 ? result : name.compareTo(other.name);
+        }
+    }
+}
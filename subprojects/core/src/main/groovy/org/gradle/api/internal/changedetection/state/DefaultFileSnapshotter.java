@@ -16,17 +16,19 @@
 
 package org.gradle.api.internal.changedetection.state;
 
+import org.gradle.api.file.EmptyFileVisitor;
 import org.gradle.api.file.FileCollection;
-import org.gradle.api.internal.file.collections.SimpleFileCollection;
-import org.gradle.util.ChangeListener;
-import org.gradle.util.NoOpChangeListener;
+import org.gradle.api.file.FileVisitDetails;
+import org.gradle.api.internal.file.VirtualFileVisitDetails;
 
 import java.io.File;
-import java.io.Serializable;
-import java.math.BigInteger;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class DefaultFileSnapshotter implements FileSnapshotter {
+    private static final int BATCH_SIZE = 1000;
     private final Hasher hasher;
 
     public DefaultFileSnapshotter(Hasher hasher) {
@@ -34,146 +36,53 @@ public class DefaultFileSnapshotter implements FileSnapshotter {
     }
 
     public FileCollectionSnapshot emptySnapshot() {
-        return new FileCollectionSnapshotImpl(new HashMap<String, FileSnapshot>());
+        return CompactFileCollectionSnapshot.empty();
     }
 
     public FileCollectionSnapshot snapshot(FileCollection sourceFiles) {
-        Map<String, FileSnapshot> snapshots = new HashMap<String, FileSnapshot>();
-        for (File file : sourceFiles.getAsFileTree()) {
-            if (file.isFile()) {
-                snapshots.put(file.getAbsolutePath(), new FileHashSnapshot(hasher.hash(file)));
-            } else if (file.isDirectory()) {
-                snapshots.put(file.getAbsolutePath(), new DirSnapshot());
-            } else {
-                snapshots.put(file.getAbsolutePath(), new MissingFileSnapshot());
-            }
-        }
-        return new FileCollectionSnapshotImpl(snapshots);
-    }
-
-    private interface FileSnapshot extends Serializable {
-        boolean isUpToDate(FileSnapshot snapshot);
-    }
-
-    private static class FileHashSnapshot implements FileSnapshot {
-        private final byte[] hash;
-
-        public FileHashSnapshot(byte[] hash) {
-            this.hash = hash;
-        }
-
-        public boolean isUpToDate(FileSnapshot snapshot) {
-            if (!(snapshot instanceof FileHashSnapshot)) {
-                return false;
-            }
-
-            FileHashSnapshot other = (FileHashSnapshot) snapshot;
-            return Arrays.equals(hash, other.hash);
-        }
-
-        @Override
-        public String toString() {
-            return new BigInteger(1, hash).toString(16);
-        }
-    }
-
-    private static class DirSnapshot implements FileSnapshot {
-        public boolean isUpToDate(FileSnapshot snapshot) {
-            return snapshot instanceof DirSnapshot;
-        }
-    }
-
-    private static class MissingFileSnapshot implements FileSnapshot {
-        public boolean isUpToDate(FileSnapshot snapshot) {
-            return snapshot instanceof MissingFileSnapshot;
-        }
-    }
-
-    private static class FileCollectionSnapshotImpl implements FileCollectionSnapshot {
-        private final Map<String, FileSnapshot> snapshots;
-
-        public FileCollectionSnapshotImpl(Map<String, FileSnapshot> snapshots) {
-            this.snapshots = snapshots;
-        }
-
-        public FileCollection getFiles() {
-            List<File> files = new ArrayList<File>();
-            for (Map.Entry<String, FileSnapshot> entry : snapshots.entrySet()) {
-                if (entry.getValue() instanceof FileHashSnapshot) {
-                    files.add(new File(entry.getKey()));
-                }
-            }
-            return new SimpleFileCollection(files);
-        }
-
-        public ChangeIterator<String> iterateChangesSince(FileCollectionSnapshot oldSnapshot) {
-            FileCollectionSnapshotImpl other = (FileCollectionSnapshotImpl) oldSnapshot;
-            final Map<String, FileSnapshot> otherSnapshots = new HashMap<String, FileSnapshot>(other.snapshots);
-            final Iterator<String> currentFiles = snapshots.keySet().iterator();
-
-            return new ChangeIterator<String>() {
-                private Iterator<String> removedFiles;
-
-                public boolean next(ChangeListener<String> listener) {
-                    while (currentFiles.hasNext()) {
-                        String currentFile = currentFiles.next();
-                        FileSnapshot otherFile = otherSnapshots.remove(currentFile);
-
-                        if (otherFile == null) {
-                            listener.added(currentFile);
-                            return true;
-                        } else if (!snapshots.get(currentFile).isUpToDate(otherFile)) {
-                            listener.changed(currentFile);
-                            return true;
-                        }
-                    }
-
-                    // Create a single iterator to use for all of the removed files
-                    if (removedFiles == null) {
-                        removedFiles = otherSnapshots.keySet().iterator();
+        final CompactFileCollectionSnapshot.Builder builder = new CompactFileCollectionSnapshot.Builder();
+        final List<File> batch = new ArrayList<File>();
+        final Set<File> seen = new HashSet<File>();
+        sourceFiles.getAsFileTree().visit(new EmptyFileVisitor() {
+            @Override
+            public void visitFile(FileVisitDetails fileDetails) {
+                if (fileDetails instanceof VirtualFileVisitDetails) {
+                    // Identify the content without copying it to the file system
+                    VirtualFileVisitDetails virtualFile = (VirtualFileVisitDetails) fileDetails;
+                    File file = virtualFile.getFileLocation();
+                    if (seen.add(file)) {
+                        builder.add(file.getAbsolutePath(), CompactFileCollectionSnapshot.FILE, virtualFile.getContentHash());
                     }
-
-                    if (removedFiles.hasNext()) {
-                        listener.removed(removedFiles.next());
-                        return true;
-                    }
-
-                    return false;
+                    return;
                 }
-            };
-        }
-
-        public Diff changesSince(final FileCollectionSnapshot oldSnapshot) {
-            final FileCollectionSnapshotImpl other = (FileCollectionSnapshotImpl) oldSnapshot;
-            return new Diff() {
-                public FileCollectionSnapshot applyTo(FileCollectionSnapshot snapshot) {
-                    return applyTo(snapshot, new NoOpChangeListener<Merge>());
-                }
-
-                public FileCollectionSnapshot applyTo(FileCollectionSnapshot snapshot, final ChangeListener<Merge> listener) {
-                    FileCollectionSnapshotImpl target = (FileCollectionSnapshotImpl) snapshot;
-                    final Map<String, FileSnapshot> newSnapshots = new HashMap<String, FileSnapshot>(target.snapshots);
-                    diff(snapshots, other.snapshots, new MapMergeChangeListener<String, FileSnapshot>(listener, newSnapshots));
-                    return new FileCollectionSnapshotImpl(newSnapshots);
+                File file = fileDetails.getFile();
+                if (!seen.add(file)) {
+                    return;
                 }
-            };
-        }
-
-        private void diff(Map<String, FileSnapshot> snapshots, Map<String, FileSnapshot> oldSnapshots,
-                          ChangeListener<Map.Entry<String, FileSnapshot>> listener) {
-            Map<String, FileSnapshot> otherSnapshots = new HashMap<String, FileSnapshot>(oldSnapshots);
-            for (Map.Entry<String, FileSnapshot> entry : snapshots.entrySet()) {
-                FileSnapshot otherFile = otherSnapshots.remove(entry.getKey());
-                if (otherFile == null) {
-                    listener.added(entry);
-                } else if (!entry.getValue().isUpToDate(otherFile)) {
-                    listener.changed(entry);
+                if (file.isFile()) {
+                    batch.add(file);
+                    if (batch.size() == BATCH_SIZE) {
+                        hashBatch(batch, builder);
+                    }
+                } else if (file.isDirectory()) {
+                    builder.add(file.getAbsolutePath(), CompactFileCollectionSnapshot.DIRECTORY, null);
+                } else {
+                    builder.add(file.getAbsolutePath(), CompactFileCollectionSnapshot.MISSING, null);
                 }
             }
-            for (Map.Entry<String, FileSnapshot> entry : otherSnapshots.entrySet()) {
-                listener.removed(entry);
-            }
-        }
+        });
+        hashBatch(batch, builder);
+        return builder.build();
+    }
 
+    private void hashBatch(List<File> batch, CompactFileCollectionSnapshot.Builder builder) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<byte[]> hashes = hasher.hash(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            builder.add(batch.get(i).getAbsolutePath(), CompactFileCollectionSnapshot.FILE, hashes.get(i));
+        }
+        batch.clear();
     }
 }
@@ -18,9 +18,19 @@ package org.gradle.api.internal.changedetection.state;
 import org.gradle.util.hash.HashUtil;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 public class DefaultHasher implements Hasher {
     public byte[] hash(File file) {
         return HashUtil.createHash(file, "MD5").asByteArray();
     }
+
+    public List<byte[]> hash(List<File> files) {
+        List<byte[]> hashes = new ArrayList<byte[]>(files.size());
+        for (File file : files) {
+            hashes.add(hash(file));
+        }
+        return hashes;
+    }
 }
\ No newline at end of file
@@ -25,11 +25,15 @@ import org.gradle.cache.internal.FileLockManager;
 import org.gradle.listener.LazyCreationProxy;
 
 import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
 
 public class DefaultTaskArtifactStateCacheAccess implements TaskArtifactStateCacheAccess {
     private final Gradle gradle;
     private final CacheRepository cacheRepository;
     private PersistentCache cache;
+    // Each cache file must be backed by a single cache instance
+    private final Map<String, PersistentIndexedCache> indexedCaches = new HashMap<String, PersistentIndexedCache>();
 
     public DefaultTaskArtifactStateCacheAccess(Gradle gradle, CacheRepository cacheRepository) {
         this.gradle = gradle;
@@ -54,7 +58,7 @@ public class DefaultTaskArtifactStateCacheAccess implements TaskArtifactStateCac
                 return getCache().createCache(cacheFile(cacheName), keyType, valueType);
             }
         };
-        return new LazyCreationProxy<PersistentIndexedCache>(PersistentIndexedCache.class, factory).getSource();
+        return getOrCreate(cacheName, factory);
     }
 
     public <K, V> PersistentIndexedCache<K, V> createCache(final String cacheName, final Class<K> keyType, final Class<V> valueType, final Serializer<V> valueSerializer) {
@@ -63,8 +67,16 @@ public class DefaultTaskArtifactStateCacheAccess implements TaskArtifactStateCac
                 return getCache().createCache(cacheFile(cacheName), keyType, valueSerializer);
             }
         };
-        return new LazyCreationProxy<PersistentIndexedCache>(PersistentIndexedCache.class, factory).getSource();
+        return getOrCreate(cacheName, factory);
+    }
 
+    private synchronized PersistentIndexedCache getOrCreate(String cacheName, Factory<PersistentIndexedCache> factory) {
+        PersistentIndexedCache indexedCache = indexedCaches.get(cacheName);
+        if (indexedCache == null) {
+            indexedCache = new LazyCreationProxy<PersistentIndexedCache>(PersistentIndexedCache.class, factory).getSource();
+            indexedCaches.put(cacheName, indexedCache);
+        }
+        return indexedCache;
     }
 
     private File cacheFile(String cacheName) {
@@ -16,7 +16,13 @@
 package org.gradle.api.internal.changedetection.state;
 
 import java.io.File;
+import java.util.List;
 
 public interface Hasher {
     byte[] hash(File file);
+
+    /**
+     * Hashes the given files. The hashes are returned in the same order as the files.
+     */
+    List<byte[]> hash(List<File> files);
 }
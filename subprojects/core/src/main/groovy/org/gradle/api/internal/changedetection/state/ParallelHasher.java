@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link Hasher} that hashes a batch of files concurrently, using a bounded number of threads.
+ *
+ * <p>The threads are shared by all batches, and are stopped when the given executor factory is stopped.</p>
+ */
+public class ParallelHasher implements Hasher {
+    private static final int MIN_FILES_PER_THREAD = 16;
+    private final Hasher hasher;
+    private final ExecutorFactory executorFactory;
+    private final int maxThreads;
+    private StoppableExecutor executor;
+
+    public ParallelHasher(Hasher hasher, ExecutorFactory executorFactory, int maxThreads) {
+        this.hasher = hasher;
+        this.executorFactory = executorFactory;
+        this.maxThreads = maxThreads;
+    }
+
+    public byte[] hash(File file) {
+        return hasher.hash(file);
+    }
+
+    public List<byte[]> hash(final List<File> files) {
+        int threads = Math.min(maxThreads, files.size() / MIN_FILES_PER_THREAD);
+        if (threads < 2) {
+            return hasher.hash(files);
+        }
+
+        final byte[][] hashes = new byte[files.size()][];
+        final CountDownLatch finished = new CountDownLatch(threads);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        StoppableExecutor executor = getExecutor();
+        for (int i = 0; i < threads; i++) {
+            final int thread = i;
+            final int threadCount = threads;
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        for (int index = thread; index < hashes.length && failure.get() == null; index += threadCount) {
+                            hashes[index] = hasher.hash(files.get(index));
+                        }
+                    } catch (Throwable throwable) {
+                        failure.compareAndSet(null, throwable);
+                    } finally {
+                        finished.countDown();
+                    }
+                }
+            });
+        }
+
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        if (failure.get() != null) {
+            throw UncheckedException.throwAsUncheckedException(failure.get());
+        }
+        return Arrays.asList(hashes);
+    }
+
+    private synchronized StoppableExecutor getExecutor() {
+        if (executor == null) {
+            executor = executorFactory.create("File hasher");
+        }
+        return executor;
+    }
+}
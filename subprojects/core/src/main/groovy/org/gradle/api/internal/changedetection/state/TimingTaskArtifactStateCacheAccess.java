@@ -0,0 +1,92 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.internal.Factory;
+import org.gradle.messaging.serialize.Serializer;
+
+/**
+ * A {@link TaskArtifactStateCacheAccess} decorator that records, per thread, how long the thread has spent waiting to acquire the cache lock.
+ */
+public class TimingTaskArtifactStateCacheAccess implements TaskArtifactStateCacheAccess {
+    private final TaskArtifactStateCacheAccess delegate;
+    private final ThreadLocal<WaitTime> waitTime = new ThreadLocal<WaitTime>() {
+        @Override
+        protected WaitTime initialValue() {
+            return new WaitTime();
+        }
+    };
+
+    public TimingTaskArtifactStateCacheAccess(TaskArtifactStateCacheAccess delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns the total time, in milliseconds, that the calling thread has spent waiting for the cache lock.
+     */
+    public long getLockWaitTime() {
+        return waitTime.get().millis;
+    }
+
+    public <T> T useCache(String operationDisplayName, final Factory<? extends T> action) {
+        final long start = System.currentTimeMillis();
+        return delegate.useCache(operationDisplayName, new Factory<T>() {
+            public T create() {
+                waitTime.get().millis += System.currentTimeMillis() - start;
+                return action.create();
+            }
+        });
+    }
+
+    public void useCache(String operationDisplayName, final Runnable action) {
+        final long start = System.currentTimeMillis();
+        delegate.useCache(operationDisplayName, new Runnable() {
+            public void run() {
+                waitTime.get().millis += System.currentTimeMillis() - start;
+                action.run();
+            }
+        });
+    }
+
+    public void longRunningOperation(String operationDisplayName, final Runnable action) {
+        final long[] finished = new long[1];
+        delegate.longRunningOperation(operationDisplayName, new Runnable() {
+            public void run() {
+                try {
+                    action.run();
+                } finally {
+                    finished[0] = System.currentTimeMillis();
+                }
+            }
+        });
+        // The lock is reacquired once the operation has finished
+        waitTime.get().millis += System.currentTimeMillis() - finished[0];
+    }
+
+    public <K, V> PersistentIndexedCache createCache(String cacheName, Class<K> keyType, Class<V> valueType) {
+        return delegate.createCache(cacheName, keyType, valueType);
+    }
+
+    public <K, V> PersistentIndexedCache<K, V> createCache(String cacheName, Class<K> keyType, Class<V> valueType, Serializer<V> valueSerializer) {
+        return delegate.createCache(cacheName, keyType, valueType, valueSerializer);
+    }
+
+    private static class WaitTime {
+        long millis;
+    }
+}
@@ -21,6 +21,7 @@ import org.gradle.api.PathValidation;
 import org.gradle.api.file.*;
 import org.gradle.api.internal.ProcessOperations;
 import org.gradle.api.internal.file.archive.TarFileTree;
+import org.gradle.api.internal.file.archive.ZipFileIndexCache;
 import org.gradle.api.internal.file.archive.ZipFileTree;
 import org.gradle.api.internal.file.collections.DefaultConfigurableFileCollection;
 import org.gradle.api.internal.file.collections.DefaultConfigurableFileTree;
@@ -49,13 +50,19 @@ public class DefaultFileOperations implements FileOperations, ProcessOperations
     private final FileResolver fileResolver;
     private final TaskResolver taskResolver;
     private final TemporaryFileProvider temporaryFileProvider;
+    private final ZipFileIndexCache zipFileIndexCache;
     private DeleteAction deleteAction;
     private final DefaultResourceHandler resourceHandler;
 
     public DefaultFileOperations(FileResolver fileResolver, TaskResolver taskResolver, TemporaryFileProvider temporaryFileProvider) {
+        this(fileResolver, taskResolver, temporaryFileProvider, new ZipFileIndexCache());
+    }
+
+    public DefaultFileOperations(FileResolver fileResolver, TaskResolver taskResolver, TemporaryFileProvider temporaryFileProvider, ZipFileIndexCache zipFileIndexCache) {
         this.fileResolver = fileResolver;
         this.taskResolver = taskResolver;
         this.temporaryFileProvider = temporaryFileProvider;
+        this.zipFileIndexCache = zipFileIndexCache;
         this.deleteAction = new DeleteActionImpl(fileResolver);
         this.resourceHandler = new DefaultResourceHandler(fileResolver);
     }
@@ -98,7 +105,7 @@ public class DefaultFileOperations implements FileOperations, ProcessOperations
     }
 
     public FileTree zipTree(Object zipPath) {
-        return new FileTreeAdapter(new ZipFileTree(file(zipPath), getExpandDir()));
+        return new FileTreeAdapter(new ZipFileTree(file(zipPath), getExpandDir(), zipFileIndexCache));
     }
 
     public FileTree tarTree(Object tarPath) {
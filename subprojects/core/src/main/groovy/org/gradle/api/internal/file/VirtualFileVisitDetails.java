@@ -0,0 +1,37 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file;
+
+import org.gradle.api.file.FileVisitDetails;
+
+import java.io.File;
+
+/**
+ * A {@link FileVisitDetails} whose content is not necessarily available in the file system, such as an entry of an archive.
+ * Allows the content to be identified without first copying it to the file system.
+ */
+public interface VirtualFileVisitDetails extends FileVisitDetails {
+    /**
+     * Returns the location that {@link #getFile()} would copy the content to, without copying it.
+     */
+    File getFileLocation();
+
+    /**
+     * Returns the MD5 hash of the content.
+     */
+    byte[] getContentHash();
+}
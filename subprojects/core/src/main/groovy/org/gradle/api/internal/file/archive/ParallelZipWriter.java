@@ -0,0 +1,510 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive;
+
+import org.apache.tools.zip.ZipOutputStream;
+import org.gradle.api.GradleException;
+import org.gradle.internal.CompositeStoppable;
+import org.gradle.internal.UncheckedException;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a ZIP file, compressing the entries concurrently. Entries are written to the file in the order in which they are added.
+ *
+ * <p>The content of each file entry is buffered in memory and compressed by a bounded number of worker threads, which run on the given
+ * executor. The caller is responsible for stopping the executor. An entry whose content is larger than {@link #MAX_BUFFERED_ENTRY_SIZE}
+ * is instead compressed directly into the file, once all the entries added before it have been written. Every file entry is written
+ * using the requested compression method, as {@link ZipOutputStream} does, even when compressing does not make the entry smaller.</p>
+ *
+ * <p>Entry names are encoded using the platform's default encoding, as {@link ZipOutputStream} does. ZIP64 extensions are not supported.</p>
+ */
+public class ParallelZipWriter implements Closeable {
+    static final int MAX_BUFFERED_ENTRY_SIZE = 4 * 1024 * 1024;
+    private static final long MAX_PENDING_SIZE = 64L * 1024 * 1024;
+    private static final long MAX_ZIP_VALUE = 0xFFFFFFFFL;
+
+    private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_FILE_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int CRC_OFFSET = 14;
+    private static final int UTF8_FLAG = 1 << 11;
+    private static final int VERSION_MADE_BY = (3 << 8) | 20;
+    private static final long DOS_TIME_MIN = (1 << 21) | (1 << 16);
+
+    private final File zipFile;
+    private final int method;
+    private final Charset encoding = Charset.defaultCharset();
+    private final boolean utf8 = encoding.name().equals("UTF-8");
+    private final FileOutputStream fileOutput;
+    private final CountingOutputStream output;
+    private final Executor executor;
+    private final int maxWorkers = Runtime.getRuntime().availableProcessors();
+    private final Object lock = new Object();
+    private final LinkedList<Entry> compressQueue = new LinkedList<Entry>();
+    private int workers;
+    private final LinkedList<Entry> pending = new LinkedList<Entry>();
+    private long pendingSize;
+    private final List<Entry> written = new ArrayList<Entry>();
+
+    /**
+     * @param method The compression method to use, either {@link ZipOutputStream#DEFLATED} or {@link ZipOutputStream#STORED}.
+     */
+    public ParallelZipWriter(File zipFile, int method, Executor executor) throws FileNotFoundException {
+        this.zipFile = zipFile;
+        this.method = method;
+        this.fileOutput = new FileOutputStream(zipFile);
+        this.output = new CountingOutputStream(new BufferedOutputStream(fileOutput, 64 * 1024));
+        this.executor = executor;
+    }
+
+    /**
+     * Adds a directory entry.
+     *
+     * @param path The path of the directory, without a trailing slash.
+     * @param unixMode The Unix mode of the directory, including the file type bits.
+     */
+    public void putDirectory(String path, long lastModified, int unixMode) throws IOException {
+        Entry entry = new Entry(path + '/', lastModified, unixMode, true);
+        entry.setData(ZipOutputStream.STORED, new byte[0], 0, 0);
+        entry.done.countDown();
+        pending.add(entry);
+        writeCompletedEntries();
+    }
+
+    /**
+     * Adds a file entry. The content of the entry should be written to the returned stream, which must then be closed before
+     * the next entry is added.
+     *
+     * @param unixMode The Unix mode of the file, including the file type bits.
+     */
+    public OutputStream putFile(String path, long lastModified, int unixMode) {
+        return new EntryOutputStream(new Entry(path, lastModified, unixMode, false));
+    }
+
+    /**
+     * Waits for all entries to be compressed and writes the remaining entries and the central directory.
+     */
+    public void close() throws IOException {
+        try {
+            while (!pending.isEmpty()) {
+                writeEntry(pending.removeFirst());
+            }
+            long centralDirectoryOffset = output.getCount();
+            for (Entry entry : written) {
+                writeCentralFileHeader(entry);
+            }
+            long centralDirectorySize = output.getCount() - centralDirectoryOffset;
+            checkZipValue(output.getCount());
+            writeInt(END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+            writeShort(0);
+            writeShort(0);
+            writeShort(written.size() & 0xFFFF);
+            writeShort(written.size() & 0xFFFF);
+            writeInt(centralDirectorySize);
+            writeInt(centralDirectoryOffset);
+            writeShort(0);
+            output.flush();
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * Discards the entries which have not been written yet and closes the file, without writing the central directory. The file is left
+     * incomplete. Entries which are currently being compressed are discarded once compressed.
+     */
+    public void abort() {
+        synchronized (lock) {
+            compressQueue.clear();
+        }
+        pending.clear();
+        CompositeStoppable.stoppable(output).stop();
+    }
+
+    private void submit(Entry entry) throws IOException {
+        pending.add(entry);
+        pendingSize += entry.contentLength;
+        if (method == ZipOutputStream.STORED) {
+            // Nothing to compress, so calculate the checksum directly
+            entry.compress(method);
+        } else {
+            boolean startWorker = false;
+            synchronized (lock) {
+                compressQueue.add(entry);
+                if (workers < maxWorkers) {
+                    workers++;
+                    startWorker = true;
+                }
+            }
+            if (startWorker) {
+                executor.execute(new CompressWorker());
+            }
+        }
+        writeCompletedEntries();
+        while (pendingSize > MAX_PENDING_SIZE) {
+            writeEntry(pending.removeFirst());
+        }
+    }
+
+    private void writeCompletedEntries() throws IOException {
+        while (!pending.isEmpty() && pending.getFirst().done.getCount() == 0) {
+            writeEntry(pending.removeFirst());
+        }
+    }
+
+    private void writeEntry(Entry entry) throws IOException {
+        try {
+            entry.done.await();
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        if (entry.failure != null) {
+            throw UncheckedException.throwAsUncheckedException(entry.failure);
+        }
+        pendingSize -= entry.contentLength;
+        writeLocalFileHeader(entry);
+        output.write(entry.data, 0, entry.dataLength);
+        entry.releaseData();
+        written.add(entry);
+    }
+
+    private void writeLocalFileHeader(Entry entry) throws IOException {
+        entry.offset = output.getCount();
+        checkZipValue(entry.offset);
+        checkZipValue(entry.size);
+        checkZipValue(entry.compressedSize);
+        writeInt(LOCAL_FILE_HEADER_SIGNATURE);
+        writeShort(entry.versionNeeded());
+        writeShort(utf8 ? UTF8_FLAG : 0);
+        writeShort(entry.method);
+        writeInt(entry.dosTime);
+        writeInt(entry.crc);
+        writeInt(entry.compressedSize);
+        writeInt(entry.size);
+        writeShort(entry.name.length);
+        writeShort(0);
+        output.write(entry.name);
+    }
+
+    private void writeCentralFileHeader(Entry entry) throws IOException {
+        writeInt(CENTRAL_FILE_HEADER_SIGNATURE);
+        writeShort(VERSION_MADE_BY);
+        writeShort(entry.versionNeeded());
+        writeShort(utf8 ? UTF8_FLAG : 0);
+        writeShort(entry.method);
+        writeInt(entry.dosTime);
+        writeInt(entry.crc);
+        writeInt(entry.compressedSize);
+        writeInt(entry.size);
+        writeShort(entry.name.length);
+        writeShort(0);
+        writeShort(0);
+        writeShort(0);
+        writeShort(0);
+        writeInt(entry.externalAttributes);
+        writeInt(entry.offset);
+        output.write(entry.name);
+    }
+
+    private void checkZipValue(long value) {
+        if (value > MAX_ZIP_VALUE) {
+            throw new GradleException(String.format("Cannot create ZIP '%s' as it is larger than 4GB.", zipFile));
+        }
+    }
+
+    private void writeShort(int value) throws IOException {
+        output.write(value & 0xFF);
+        output.write((value >>> 8) & 0xFF);
+    }
+
+    private void writeInt(long value) throws IOException {
+        writeShort((int) (value & 0xFFFF));
+        writeShort((int) ((value >>> 16) & 0xFFFF));
+    }
+
+    private static byte[] grow(byte[] buffer, int count, int size) {
+        byte[] newBuffer = new byte[size];
+        System.arraycopy(buffer, 0, newBuffer, 0, count);
+        return newBuffer;
+    }
+
+    private static long toDosTime(long time) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(time);
+        int year = calendar.get(Calendar.YEAR);
+        if (year < 1980) {
+            return DOS_TIME_MIN;
+        }
+        return ((year - 1980) << 25)
+                | ((calendar.get(Calendar.MONTH) + 1) << 21)
+                | (calendar.get(Calendar.DAY_OF_MONTH) << 16)
+                | (calendar.get(Calendar.HOUR_OF_DAY) << 11)
+                | (calendar.get(Calendar.MINUTE) << 5)
+                | (calendar.get(Calendar.SECOND) >> 1);
+    }
+
+    private class Entry {
+        final byte[] name;
+        final long dosTime;
+        final long externalAttributes;
+        final CountDownLatch done = new CountDownLatch(1);
+        int method;
+        long crc;
+        long size;
+        long compressedSize;
+        long offset;
+        byte[] content;
+        int contentLength;
+        byte[] data;
+        int dataLength;
+        Throwable failure;
+
+        Entry(String path, long lastModified, int unixMode, boolean directory) {
+            try {
+                name = path.getBytes(encoding.name());
+            } catch (UnsupportedEncodingException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+            dosTime = toDosTime(lastModified);
+            externalAttributes = ((long) unixMode << 16) | ((unixMode & 0200) == 0 ? 1 : 0) | (directory ? 0x10 : 0);
+        }
+
+        int versionNeeded() {
+            return method == ZipOutputStream.DEFLATED ? 20 : 10;
+        }
+
+        void setData(int method, byte[] data, int dataLength, int size) {
+            this.method = method;
+            this.data = data;
+            this.dataLength = dataLength;
+            this.compressedSize = dataLength;
+            this.size = size;
+        }
+
+        void releaseData() {
+            content = null;
+            data = null;
+        }
+
+        /**
+         * Calculates the checksum of the buffered content and compresses it using the given method. Called from a worker thread.
+         */
+        void compress(int method) {
+            try {
+                CRC32 checksum = new CRC32();
+                checksum.update(content, 0, contentLength);
+                crc = checksum.getValue();
+                if (method == ZipOutputStream.DEFLATED) {
+                    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                    try {
+                        deflater.setInput(content, 0, contentLength);
+                        deflater.finish();
+                        byte[] buffer = new byte[Math.max(64, contentLength / 2)];
+                        int length = 0;
+                        while (!deflater.finished()) {
+                            if (length == buffer.length) {
+                                buffer = grow(buffer, length, buffer.length * 2);
+                            }
+                            length += deflater.deflate(buffer, length, buffer.length - length);
+                        }
+                        setData(ZipOutputStream.DEFLATED, buffer, length, contentLength);
+                        content = null;
+                        return;
+                    } finally {
+                        deflater.end();
+                    }
+                }
+                setData(ZipOutputStream.STORED, content, contentLength, contentLength);
+            } catch (Throwable throwable) {
+                failure = throwable;
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+
+    private class CompressWorker implements Runnable {
+        public void run() {
+            while (true) {
+                Entry entry;
+                synchronized (lock) {
+                    entry = compressQueue.poll();
+                    if (entry == null) {
+                        workers--;
+                        return;
+                    }
+                }
+                entry.compress(method);
+            }
+        }
+    }
+
+    /**
+     * Buffers the content of an entry. Once the content grows beyond {@link #MAX_BUFFERED_ENTRY_SIZE}, writes all pending entries
+     * and then compresses the content of this entry directly into the file.
+     */
+    private class EntryOutputStream extends OutputStream {
+        private final Entry entry;
+        private byte[] buffer = new byte[8 * 1024];
+        private int count;
+        private CRC32 checksum;
+        private Deflater deflater;
+        private byte[] deflateBuffer;
+        private long dataStart;
+        private boolean closed;
+
+        EntryOutputStream(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (checksum == null && count + length > MAX_BUFFERED_ENTRY_SIZE) {
+                startDirectWrite();
+            }
+            if (checksum != null) {
+                writeDirect(bytes, offset, length);
+                return;
+            }
+            if (count + length > buffer.length) {
+                buffer = grow(buffer, count, Math.max(buffer.length * 2, count + length));
+            }
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (checksum == null) {
+                entry.content = buffer;
+                entry.contentLength = count;
+                submit(entry);
+            } else {
+                finishDirectWrite();
+            }
+        }
+
+        private void startDirectWrite() throws IOException {
+            while (!pending.isEmpty()) {
+                writeEntry(pending.removeFirst());
+            }
+            entry.method = method;
+            writeLocalFileHeader(entry);
+            dataStart = output.getCount();
+            checksum = new CRC32();
+            if (method == ZipOutputStream.DEFLATED) {
+                deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                deflateBuffer = new byte[64 * 1024];
+            }
+            byte[] buffered = buffer;
+            buffer = null;
+            writeDirect(buffered, 0, count);
+        }
+
+        private void writeDirect(byte[] bytes, int offset, int length) throws IOException {
+            checksum.update(bytes, offset, length);
+            entry.size += length;
+            if (deflater == null) {
+                output.write(bytes, offset, length);
+                return;
+            }
+            deflater.setInput(bytes, offset, length);
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+        }
+
+        private void deflate() throws IOException {
+            int length = deflater.deflate(deflateBuffer, 0, deflateBuffer.length);
+            output.write(deflateBuffer, 0, length);
+        }
+
+        private void finishDirectWrite() throws IOException {
+            if (deflater != null) {
+                try {
+                    deflater.finish();
+                    while (!deflater.finished()) {
+                        deflate();
+                    }
+                } finally {
+                    deflater.end();
+                }
+            }
+            entry.crc = checksum.getValue();
+            entry.compressedSize = output.getCount() - dataStart;
+            checkZipValue(entry.size);
+            checkZipValue(entry.compressedSize);
+            written.add(entry);
+
+            // Fill in the checksum and sizes in the local file header
+            output.flush();
+            ByteBuffer values = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+            values.putInt((int) entry.crc);
+            values.putInt((int) entry.compressedSize);
+            values.putInt((int) entry.size);
+            values.flip();
+            FileChannel channel = fileOutput.getChannel();
+            long position = entry.offset + CRC_OFFSET;
+            while (values.hasRemaining()) {
+                position += channel.write(values, position);
+            }
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+    }
+}
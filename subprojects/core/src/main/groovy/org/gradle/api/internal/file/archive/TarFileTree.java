@@ -19,10 +19,10 @@ import org.apache.tools.tar.TarEntry;
 import org.apache.tools.tar.TarInputStream;
 import org.gradle.api.GradleException;
 import org.gradle.api.InvalidUserDataException;
-import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.FileVisitor;
 import org.gradle.api.file.RelativePath;
 import org.gradle.api.internal.file.AbstractFileTreeElement;
+import org.gradle.api.internal.file.VirtualFileVisitDetails;
 import org.gradle.api.internal.file.collections.DirectoryFileTree;
 import org.gradle.api.internal.file.collections.FileSystemMirroringFileTree;
 import org.gradle.api.internal.file.collections.MinimalFileTree;
@@ -99,7 +99,7 @@ public class TarFileTree implements MinimalFileTree, FileSystemMirroringFileTree
         }
     }
 
-    private class DetailsImpl extends AbstractFileTreeElement implements FileVisitDetails {
+    private class DetailsImpl extends AbstractFileTreeElement implements VirtualFileVisitDetails {
         private final TarEntry entry;
         private final NoCloseTarInputStream tar;
         private final AtomicBoolean stopFlag;
@@ -122,12 +122,25 @@ public class TarFileTree implements MinimalFileTree, FileSystemMirroringFileTree
 
         public File getFile() {
             if (file == null) {
-                file = new File(tmpDir, entry.getName());
+                // Always extract the entry, as the resource may have changed since a previous visit and cannot be checked without reading it
+                file = getFileLocation();
                 copyTo(file);
+                file.setLastModified(getLastModified());
             }
             return file;
         }
 
+        public File getFileLocation() {
+            return new File(tmpDir, entry.getName());
+        }
+
+        public byte[] getContentHash() {
+            if (file != null) {
+                return HashUtil.createHash(file, "MD5").asByteArray();
+            }
+            return HashUtil.createHash(open(), "MD5").asByteArray();
+        }
+
         public long getLastModified() {
             return entry.getModTime().getTime();
         }
@@ -15,63 +15,106 @@
  */
 package org.gradle.api.internal.file.archive;
 
-import org.apache.tools.zip.*;
+import org.apache.tools.zip.UnixStat;
 import org.gradle.api.GradleException;
 import org.gradle.api.UncheckedIOException;
 import org.gradle.api.internal.file.copy.CopyAction;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.internal.file.copy.EmptyCopySpecVisitor;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 
 public class ZipCopySpecVisitor extends EmptyCopySpecVisitor {
-    private ZipOutputStream zipOutStr;
+    private final ExecutorFactory executorFactory;
+    private StoppableExecutor executor;
+    private ParallelZipWriter zipWriter;
     private File zipFile;
 
+    public ZipCopySpecVisitor(ExecutorFactory executorFactory) {
+        this.executorFactory = executorFactory;
+    }
+
     public void startVisit(CopyAction action) {
         ZipCopyAction archiveAction = (ZipCopyAction) action;
         zipFile = archiveAction.getArchivePath();
+        executor = executorFactory.create(String.format("compress entries of %s", zipFile.getName()));
+        boolean started = false;
         try {
-            zipOutStr = archiveAction.getCompressor().createArchiveOutputStream(zipFile);
+            zipWriter = new ParallelZipWriter(zipFile, archiveAction.getCompressor().getCompressedMethod(), executor);
+            started = true;
         } catch (Exception e) {
             throw new GradleException(String.format("Could not create ZIP '%s'.", zipFile), e);
+        } finally {
+            if (!started) {
+                abort();
+            }
         }
     }
 
     public void endVisit() {
         try {
-            zipOutStr.close();
+            zipWriter.close();
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         } finally {
-            zipOutStr = null;
+            zipWriter = null;
+            stopExecutor();
         }
     }
 
     public void visitFile(FileVisitDetails fileDetails) {
+        boolean added = false;
         try {
-            ZipEntry archiveEntry = new ZipEntry(fileDetails.getRelativePath().getPathString());
-            archiveEntry.setTime(fileDetails.getLastModified());
-            archiveEntry.setUnixMode(UnixStat.FILE_FLAG | fileDetails.getMode());
-            zipOutStr.putNextEntry(archiveEntry);
-            fileDetails.copyTo(zipOutStr);
-            zipOutStr.closeEntry();
+            OutputStream entryContent = zipWriter.putFile(fileDetails.getRelativePath().getPathString(), fileDetails.getLastModified(), UnixStat.FILE_FLAG | fileDetails.getMode());
+            fileDetails.copyTo(entryContent);
+            entryContent.close();
+            added = true;
         } catch (Exception e) {
             throw new GradleException(String.format("Could not add %s to ZIP '%s'.", fileDetails, zipFile), e);
+        } finally {
+            if (!added) {
+                abort();
+            }
         }
     }
 
     public void visitDir(FileVisitDetails dirDetails) {
+        boolean added = false;
         try {
-            // Trailing slash in name indicates that entry is a directory
-            ZipEntry archiveEntry = new ZipEntry(dirDetails.getRelativePath().getPathString() + '/');
-            archiveEntry.setTime(dirDetails.getLastModified());
-            archiveEntry.setUnixMode(UnixStat.DIR_FLAG | dirDetails.getMode());
-            zipOutStr.putNextEntry(archiveEntry);
-            zipOutStr.closeEntry();
+            zipWriter.putDirectory(dirDetails.getRelativePath().getPathString(), dirDetails.getLastModified(), UnixStat.DIR_FLAG | dirDetails.getMode());
+            added = true;
         } catch (Exception e) {
             throw new GradleException(String.format("Could not add %s to ZIP '%s'.", dirDetails, zipFile), e);
+        } finally {
+            if (!added) {
+                abort();
+            }
+        }
+    }
+
+    /**
+     * Discards the ZIP and stops compressing entries. The copy does not call {@link #endVisit()} once a visit has failed.
+     */
+    private void abort() {
+        try {
+            if (zipWriter != null) {
+                zipWriter.abort();
+            }
+        } finally {
+            zipWriter = null;
+            stopExecutor();
+        }
+    }
+
+    private void stopExecutor() {
+        try {
+            executor.stop();
+        } finally {
+            executor = null;
         }
     }
 
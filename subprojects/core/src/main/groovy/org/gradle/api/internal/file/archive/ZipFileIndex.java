@@ -0,0 +1,133 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive;
+
+import org.apache.tools.zip.ZipEntry;
+import org.apache.tools.zip.ZipFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * An index of the central directory of a ZIP file. The hash of the content of each entry is cached by the index once calculated. Indexes are
+ * cached by the {@link ZipFileIndexCache}.
+ */
+class ZipFileIndex {
+    // The estimated memory used by an entry, excluding its name: the entry and its fields, the name string and the content hash
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final long length;
+    private final long lastModified;
+    private final List<Entry> entries;
+    private final long estimatedSize;
+
+    private ZipFileIndex(long length, long lastModified, List<Entry> entries) {
+        this.length = length;
+        this.lastModified = lastModified;
+        this.entries = entries;
+        long size = 0;
+        for (Entry entry : entries) {
+            size += ENTRY_OVERHEAD_BYTES + 2 * entry.getName().length();
+        }
+        this.estimatedSize = size;
+    }
+
+    static ZipFileIndex read(File zipFile, long length, long lastModified) throws IOException {
+        ZipFile zip = new ZipFile(zipFile);
+        try {
+            // The iteration order of zip.getEntries() is based on the hash of the zip entry. This isn't much use
+            // to us. So, collect the entries in a map and iterate over them in alphabetical order.
+            Map<String, Entry> entriesByName = new TreeMap<String, Entry>();
+            Enumeration zipEntries = zip.getEntries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry zipEntry = (ZipEntry) zipEntries.nextElement();
+                entriesByName.put(zipEntry.getName(), new Entry(zipEntry));
+            }
+            return new ZipFileIndex(length, lastModified, new ArrayList<Entry>(entriesByName.values()));
+        } finally {
+            zip.close();
+        }
+    }
+
+    long getLength() {
+        return length;
+    }
+
+    long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Returns the estimated memory used by this index.
+     */
+    long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    /**
+     * Returns the entries of the ZIP file, in alphabetical order.
+     */
+    List<Entry> getEntries() {
+        return entries;
+    }
+
+    static class Entry {
+        private final String name;
+        private final boolean directory;
+        private final long size;
+        private final long time;
+        private final int unixMode;
+        private volatile byte[] contentHash;
+
+        Entry(ZipEntry zipEntry) {
+            name = zipEntry.getName();
+            directory = zipEntry.isDirectory();
+            size = zipEntry.getSize();
+            time = zipEntry.getTime();
+            unixMode = zipEntry.getUnixMode();
+        }
+
+        String getName() {
+            return name;
+        }
+
+        boolean isDirectory() {
+            return directory;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        long getTime() {
+            return time;
+        }
+
+        int getUnixMode() {
+            return unixMode;
+        }
+
+        byte[] getContentHash() {
+            return contentHash;
+        }
+
+        void setContentHash(byte[] contentHash) {
+            this.contentHash = contentHash;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.file.archive;
+
+import net.jcip.annotations.ThreadSafe;
+import org.gradle.internal.Stoppable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the {@link ZipFileIndex} of each ZIP file in memory for as long as the ZIP file is not modified, so that visiting a ZIP file which has
+ * not changed does not need to read it again. Also provides the lock that guards each directory that ZIP files are extracted to.
+ *
+ * <p>This is a global service, so the cache is shared by all builds of the build process. It is bounded by the estimated memory used by the
+ * cached indexes, and the least recently used indexes are discarded once the bound is exceeded.</p>
+ */
+@ThreadSafe
+public class ZipFileIndexCache implements Stoppable {
+    public static final long DEFAULT_MAX_CACHED_BYTES = 16 * 1024 * 1024;
+    private final long maxCachedBytes;
+    private final Map<File, ZipFileIndex> indexes = new LinkedHashMap<File, ZipFileIndex>(16, 0.75f, true);
+    // guarded by indexes
+    private long cachedBytes;
+    private final Map<File, Object> expandDirLocks = new HashMap<File, Object>();
+
+    public ZipFileIndexCache() {
+        this(DEFAULT_MAX_CACHED_BYTES);
+    }
+
+    public ZipFileIndexCache(long maxCachedBytes) {
+        this.maxCachedBytes = maxCachedBytes;
+    }
+
+    /**
+     * Returns the index for the given ZIP file, reading the file only when it has changed since it was last indexed.
+     */
+    ZipFileIndex get(File zipFile) throws IOException {
+        File key = zipFile.getAbsoluteFile();
+        long length = zipFile.length();
+        long lastModified = zipFile.lastModified();
+        synchronized (indexes) {
+            ZipFileIndex index = indexes.get(key);
+            if (index != null && index.getLength() == length && index.getLastModified() == lastModified) {
+                return index;
+            }
+        }
+        ZipFileIndex index = ZipFileIndex.read(zipFile, length, lastModified);
+        synchronized (indexes) {
+            ZipFileIndex previous = indexes.put(key, index);
+            if (previous != null) {
+                cachedBytes -= previous.getEstimatedSize();
+            }
+            cachedBytes += index.getEstimatedSize();
+            Iterator<ZipFileIndex> leastRecentlyUsed = indexes.values().iterator();
+            while (cachedBytes > maxCachedBytes && leastRecentlyUsed.hasNext()) {
+                cachedBytes -= leastRecentlyUsed.next().getEstimatedSize();
+                leastRecentlyUsed.remove();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the lock to hold while checking and cleaning the given directory that a ZIP file is extracted to.
+     */
+    Object getExpandDirLock(File expandDir) {
+        File key = expandDir.getAbsoluteFile();
+        synchronized (expandDirLocks) {
+            Object lock = expandDirLocks.get(key);
+            if (lock == null) {
+                lock = new Object();
+                expandDirLocks.put(key, lock);
+            }
+            return lock;
+        }
+    }
+
+    int size() {
+        synchronized (indexes) {
+            return indexes.size();
+        }
+    }
+
+    /**
+     * Discards the cached indexes.
+     */
+    public void stop() {
+        synchronized (indexes) {
+            indexes.clear();
+            cachedBytes = 0;
+        }
+    }
+}
@@ -20,34 +20,40 @@ import org.apache.tools.zip.ZipFile;
 import org.gradle.api.GradleException;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.UncheckedIOException;
-import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.FileVisitor;
 import org.gradle.api.file.RelativePath;
 import org.gradle.api.internal.file.AbstractFileTreeElement;
+import org.gradle.api.internal.file.VirtualFileVisitDetails;
 import org.gradle.api.internal.file.collections.DirectoryFileTree;
 import org.gradle.api.internal.file.collections.FileSystemMirroringFileTree;
 import org.gradle.api.internal.file.collections.MinimalFileTree;
 import org.gradle.internal.nativeplatform.filesystem.FileSystem;
 import org.gradle.util.DeprecationLogger;
+import org.gradle.util.GFileUtils;
 import org.gradle.util.hash.HashUtil;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Enumeration;
 import java.util.Iterator;
-import java.util.Map;
-import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ZipFileTree implements MinimalFileTree, FileSystemMirroringFileTree {
     private final File zipFile;
     private final File tmpDir;
+    private final File stateFile;
+    private final ZipFileIndexCache indexCache;
 
     public ZipFileTree(File zipFile, File tmpDir) {
+        this(zipFile, tmpDir, new ZipFileIndexCache());
+    }
+
+    public ZipFileTree(File zipFile, File tmpDir, ZipFileIndexCache indexCache) {
         this.zipFile = zipFile;
+        this.indexCache = indexCache;
         String expandDirName = String.format("%s_%s", zipFile.getName(), HashUtil.createCompactMD5(zipFile.getAbsolutePath()));
         this.tmpDir = new File(tmpDir, expandDirName);
+        this.stateFile = new File(tmpDir, expandDirName + ".state");
     }
 
     public String getDisplayName() {
@@ -72,23 +78,17 @@ public class ZipFileTree implements MinimalFileTree, FileSystemMirroringFileTree
         AtomicBoolean stopFlag = new AtomicBoolean();
 
         try {
-            ZipFile zip = new ZipFile(zipFile);
+            ZipFileIndex index = indexCache.get(zipFile);
+            LazyZipFile zip = new LazyZipFile();
+            ExpandDir expandDir = new ExpandDir(index);
             try {
-                // The iteration order of zip.getEntries() is based on the hash of the zip entry. This isn't much use
-                // to us. So, collect the entries in a map and iterate over them in alphabetical order.
-                Map<String, ZipEntry> entriesByName = new TreeMap<String, ZipEntry>();
-                Enumeration entries = zip.getEntries();
-                while (entries.hasMoreElements()) {
-                    ZipEntry entry = (ZipEntry) entries.nextElement();
-                    entriesByName.put(entry.getName(), entry);
-                }
-                Iterator<ZipEntry> sortedEntries = entriesByName.values().iterator();
+                Iterator<ZipFileIndex.Entry> sortedEntries = index.getEntries().iterator();
                 while (!stopFlag.get() && sortedEntries.hasNext()) {
-                    ZipEntry entry = sortedEntries.next();
+                    ZipFileIndex.Entry entry = sortedEntries.next();
                     if (entry.isDirectory()) {
-                        visitor.visitDir(new DetailsImpl(entry, zip, stopFlag));
+                        visitor.visitDir(new DetailsImpl(entry, zip, expandDir, stopFlag));
                     } else {
-                        visitor.visitFile(new DetailsImpl(entry, zip, stopFlag));
+                        visitor.visitFile(new DetailsImpl(entry, zip, expandDir, stopFlag));
                     }
                 }
             } finally {
@@ -99,15 +99,74 @@ public class ZipFileTree implements MinimalFileTree, FileSystemMirroringFileTree
         }
     }
 
-    private class DetailsImpl extends AbstractFileTreeElement implements FileVisitDetails {
-        private final ZipEntry entry;
-        private final ZipFile zip;
+    /**
+     * Opens the ZIP file the first time the content of one of its entries is read.
+     */
+    private class LazyZipFile {
+        private ZipFile zip;
+
+        InputStream getInputStream(String entryName) throws IOException {
+            if (zip == null) {
+                zip = new ZipFile(zipFile);
+            }
+            ZipEntry entry = zip.getEntry(entryName);
+            if (entry == null) {
+                throw new IOException(String.format("Entry %s not found in %s.", entryName, getDisplayName()));
+            }
+            return zip.getInputStream(entry);
+        }
+
+        void close() throws IOException {
+            if (zip != null) {
+                zip.close();
+            }
+        }
+    }
+
+    /**
+     * The directory that the entries of the ZIP file are extracted to. The files extracted by a previous visit are only kept when the ZIP file
+     * still has the path, length and last modified time that they were extracted from, which is recorded in a state file next to the directory.
+     */
+    private class ExpandDir {
+        private final ZipFileIndex index;
+        private boolean prepared;
+
+        ExpandDir(ZipFileIndex index) {
+            this.index = index;
+        }
+
+        /**
+         * Removes the files extracted from a different version of the ZIP file, the first time an entry is extracted during this visit. The state
+         * is checked while holding the lock for the directory, so that concurrent visits of the same version of the ZIP file do not remove each
+         * other's files.
+         */
+        synchronized void prepare() {
+            if (prepared) {
+                return;
+            }
+            prepared = true;
+            String state = String.format("%s:%s", index.getLength(), index.getLastModified());
+            synchronized (indexCache.getExpandDirLock(tmpDir)) {
+                if (stateFile.isFile() && GFileUtils.readFile(stateFile).equals(state)) {
+                    return;
+                }
+                GFileUtils.deleteDirectory(tmpDir);
+                GFileUtils.writeFile(state, stateFile);
+            }
+        }
+    }
+
+    private class DetailsImpl extends AbstractFileTreeElement implements VirtualFileVisitDetails {
+        private final ZipFileIndex.Entry entry;
+        private final LazyZipFile zip;
+        private final ExpandDir expandDir;
         private final AtomicBoolean stopFlag;
         private File file;
 
-        public DetailsImpl(ZipEntry entry, ZipFile zip, AtomicBoolean stopFlag) {
+        public DetailsImpl(ZipFileIndex.Entry entry, LazyZipFile zip, ExpandDir expandDir, AtomicBoolean stopFlag) {
             this.entry = entry;
             this.zip = zip;
+            this.expandDir = expandDir;
             this.stopFlag = stopFlag;
         }
 
@@ -121,12 +180,54 @@ public class ZipFileTree implements MinimalFileTree, FileSystemMirroringFileTree
 
         public File getFile() {
             if (file == null) {
-                file = new File(tmpDir, entry.getName());
-                copyTo(file);
+                file = getFileLocation();
+                expandDir.prepare();
+                // Only extract the entry when it has not already been completely extracted from the same ZIP file by a previous visit
+                if (entry.isDirectory()) {
+                    copyTo(file);
+                    file.setLastModified(entry.getTime());
+                } else if (!file.isFile() || file.length() != entry.getSize()) {
+                    extract(file);
+                }
             }
             return file;
         }
 
+        /**
+         * Extracts the entry to a temporary file next to the given file and renames it into place, so that a concurrent visit never uses a
+         * partially extracted file.
+         */
+        private void extract(File file) {
+            try {
+                GFileUtils.mkdirs(file.getParentFile());
+                File partial = File.createTempFile(file.getName(), ".part", file.getParentFile());
+                try {
+                    copyTo(partial);
+                    partial.setLastModified(entry.getTime());
+                    if (!partial.renameTo(file) && !(file.delete() && partial.renameTo(file))) {
+                        throw new IOException(String.format("Could not move '%s' to '%s'.", partial, file));
+                    }
+                } finally {
+                    partial.delete();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public File getFileLocation() {
+            return new File(tmpDir, entry.getName());
+        }
+
+        public byte[] getContentHash() {
+            byte[] hash = entry.getContentHash();
+            if (hash == null) {
+                hash = HashUtil.createHash(open(), "MD5").asByteArray();
+                entry.setContentHash(hash);
+            }
+            return hash;
+        }
+
         public long getLastModified() {
             return entry.getTime();
         }
@@ -141,7 +242,7 @@ public class ZipFileTree implements MinimalFileTree, FileSystemMirroringFileTree
 
         public InputStream open()  {
             try {
-                return zip.getInputStream(entry);
+                return zip.getInputStream(entry.getName());
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
             }
@@ -19,4 +19,6 @@ import java.io.File;
 
 public interface FileCopyAction extends CopyAction {
     File getDestinationDir();
+
+    SourceFileChanges getSourceFileChanges();
 }
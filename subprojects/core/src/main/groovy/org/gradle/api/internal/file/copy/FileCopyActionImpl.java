@@ -22,6 +22,7 @@ import java.io.File;
 
 public class FileCopyActionImpl extends CopyActionImpl implements FileCopyAction {
     private Object destDir;
+    private SourceFileChanges sourceFileChanges = new SourceFileChanges();
 
     public FileCopyActionImpl(FileResolver resolver, CopySpecVisitor visitor) {
         super(resolver, visitor);
@@ -36,4 +37,12 @@ public class FileCopyActionImpl extends CopyActionImpl implements FileCopyAction
     public File getDestinationDir() {
         return destDir == null ? null : getResolver().resolve(destDir);
     }
+
+    public SourceFileChanges getSourceFileChanges() {
+        return sourceFileChanges;
+    }
+
+    public void setSourceFileChanges(SourceFileChanges sourceFileChanges) {
+        this.sourceFileChanges = sourceFileChanges;
+    }
 }
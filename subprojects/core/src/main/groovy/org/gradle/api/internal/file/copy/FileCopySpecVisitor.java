@@ -26,30 +26,47 @@ import java.io.File;
  */
 public class FileCopySpecVisitor extends EmptyCopySpecVisitor {
     private File baseDestDir;
+    private SourceFileChanges sourceFileChanges;
+    private boolean skipUnchangedFiles;
     private boolean didWork;
 
     public void startVisit(CopyAction action) {
-        baseDestDir = ((FileCopyAction) action).getDestinationDir();
+        FileCopyAction fileCopyAction = (FileCopyAction) action;
+        baseDestDir = fileCopyAction.getDestinationDir();
         if (baseDestDir == null) {
             throw new InvalidUserDataException("No copy destination directory has been specified, use 'into' to specify a target directory.");
         }
+        sourceFileChanges = fileCopyAction.getSourceFileChanges();
+    }
+
+    @Override
+    public void visitSpec(ReadableCopySpec spec) {
+        // Copy actions may filter, rename or exclude files differently to the previous execution, so copy everything
+        skipUnchangedFiles = sourceFileChanges.isIncremental() && spec.getAllCopyActions().isEmpty();
     }
 
     public void visitFile(FileVisitDetails source) {
-        visitFileOrDir(source);
+        File target = source.getRelativePath().getFile(baseDestDir);
+        if (skipUnchangedFiles && isUnchanged(source, target)) {
+            return;
+        }
+        copyFile(source, target);
     }
 
     public void visitDir(FileVisitDetails source) {
-        visitFileOrDir(source);
+        File target = source.getRelativePath().getFile(baseDestDir);
+        copyFile(source, target);
     }
 
     public boolean getDidWork() {
         return didWork;
     }
 
-    private void visitFileOrDir(FileVisitDetails source) {
-        File target = source.getRelativePath().getFile(baseDestDir);
-        copyFile(source, target);
+    private boolean isUnchanged(FileVisitDetails source, File target) {
+        if (!(source instanceof SourceFileDetails) || !target.isFile()) {
+            return false;
+        }
+        return !sourceFileChanges.isOutOfDate(((SourceFileDetails) source).getSourceFile());
     }
 
     private void copyFile(FileTreeElement srcFile, File destFile) {
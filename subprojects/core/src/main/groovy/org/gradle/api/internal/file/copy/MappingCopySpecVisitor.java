@@ -23,6 +23,7 @@ import org.gradle.api.file.FileCopyDetails;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.RelativePath;
 import org.gradle.api.internal.file.AbstractFileTreeElement;
+import org.gradle.api.internal.file.VirtualFileVisitDetails;
 import org.gradle.internal.nativeplatform.filesystem.FileSystem;
 
 import java.io.*;
@@ -57,7 +58,7 @@ public class MappingCopySpecVisitor extends DelegatingCopySpecVisitor {
         getVisitor().visitFile(details);
     }
 
-    private static class FileVisitDetailsImpl extends AbstractFileTreeElement implements FileVisitDetails, FileCopyDetails {
+    private static class FileVisitDetailsImpl extends AbstractFileTreeElement implements SourceFileDetails, FileCopyDetails {
         private final FileVisitDetails fileDetails;
         private final ReadableCopySpec spec;
         private FileSystem fileSystem;
@@ -88,6 +89,13 @@ public class MappingCopySpecVisitor extends DelegatingCopySpecVisitor {
             }
         }
 
+        public File getSourceFile() {
+            if (fileDetails instanceof VirtualFileVisitDetails) {
+                return ((VirtualFileVisitDetails) fileDetails).getFileLocation();
+            }
+            return fileDetails.getFile();
+        }
+
         public boolean isDirectory() {
             return fileDetails.isDirectory();
         }
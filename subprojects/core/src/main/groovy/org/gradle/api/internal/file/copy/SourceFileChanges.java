@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.copy;
+
+import org.gradle.api.Action;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
+import org.gradle.api.tasks.incremental.InputFile;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The changes to the source files of a copy since the previous execution of the copy task. When the changes are not
+ * incremental, every source file is considered out of date.
+ */
+public class SourceFileChanges {
+    private final boolean incremental;
+    private final Set<File> outOfDate = new HashSet<File>();
+    private boolean removedFiles;
+
+    /**
+     * Creates changes that consider every source file out of date.
+     */
+    public SourceFileChanges() {
+        incremental = false;
+    }
+
+    public SourceFileChanges(IncrementalTaskInputs inputs) {
+        incremental = inputs.isIncremental();
+        if (!incremental) {
+            // Don't iterate over the inputs: everything is out of date
+            return;
+        }
+        inputs.outOfDate(new Action<InputFile>() {
+            public void execute(InputFile inputFile) {
+                outOfDate.add(inputFile.getFile().getAbsoluteFile());
+            }
+        });
+        inputs.removed(new Action<InputFile>() {
+            public void execute(InputFile inputFile) {
+                removedFiles = true;
+            }
+        });
+    }
+
+    /**
+     * Returns true when the out of date source files are known, so that unchanged source files can be skipped.
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public boolean isOutOfDate(File sourceFile) {
+        return !incremental || outOfDate.contains(sourceFile.getAbsoluteFile());
+    }
+
+    /**
+     * Returns true when source files may have been removed since the previous execution.
+     */
+    public boolean hasRemovedFiles() {
+        return !incremental || removedFiles;
+    }
+}
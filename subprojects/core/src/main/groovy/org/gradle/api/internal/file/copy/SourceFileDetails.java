@@ -0,0 +1,32 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.copy;
+
+import org.gradle.api.file.FileVisitDetails;
+
+import java.io.File;
+
+/**
+ * The details of a file being copied, which know the source file that the content is read from.
+ */
+interface SourceFileDetails extends FileVisitDetails {
+    /**
+     * Returns the source file of this element. For an archive entry, this is the location that the entry is extracted
+     * to, and the entry is not extracted.
+     */
+    File getSourceFile();
+}
@@ -29,6 +29,8 @@ import java.util.Set;
 public class SyncCopySpecVisitor extends DelegatingCopySpecVisitor {
     private final Set<RelativePath> visited = new HashSet<RelativePath>();
     private File baseDestDir;
+    private SourceFileChanges sourceFileChanges;
+    private boolean hasCopyActions;
     private boolean didWork;
 
     public SyncCopySpecVisitor(CopySpecVisitor visitor) {
@@ -36,10 +38,20 @@ public class SyncCopySpecVisitor extends DelegatingCopySpecVisitor {
     }
 
     public void startVisit(CopyAction action) {
-        baseDestDir = ((FileCopyAction) action).getDestinationDir();
+        FileCopyAction fileCopyAction = (FileCopyAction) action;
+        baseDestDir = fileCopyAction.getDestinationDir();
+        sourceFileChanges = fileCopyAction.getSourceFileChanges();
         getVisitor().startVisit(action);
     }
 
+    @Override
+    public void visitSpec(ReadableCopySpec spec) {
+        if (!spec.getAllCopyActions().isEmpty()) {
+            hasCopyActions = true;
+        }
+        getVisitor().visitSpec(spec);
+    }
+
     @Override
     public void visitDir(FileVisitDetails dirDetails) {
         visited.add(dirDetails.getRelativePath());
@@ -54,6 +66,25 @@ public class SyncCopySpecVisitor extends DelegatingCopySpecVisitor {
 
     @Override
     public void endVisit() {
+        if (mayHaveExtraFiles()) {
+            deleteExtraFiles();
+        }
+        visited.clear();
+        hasCopyActions = false;
+
+        getVisitor().endVisit();
+    }
+
+    /**
+     * The destination can only contain extra files when a source file has been removed since the previous execution,
+     * or when copy actions may map the source files to different destination files. Otherwise, the destination
+     * contains exactly the files copied by the previous execution, so there is no need to walk it.
+     */
+    private boolean mayHaveExtraFiles() {
+        return sourceFileChanges.hasRemovedFiles() || hasCopyActions;
+    }
+
+    private void deleteExtraFiles() {
         FileVisitor visitor = new FileVisitor() {
             public void visitDir(FileVisitDetails dirDetails) {
                 maybeDelete(dirDetails, true);
@@ -78,9 +109,6 @@ public class SyncCopySpecVisitor extends DelegatingCopySpecVisitor {
 
         MinimalFileTree walker = new DirectoryFileTree(baseDestDir).postfix();
         walker.visit(visitor);
-        visited.clear();
-
-        getVisitor().endVisit();
     }
 
     @Override
@@ -25,16 +25,16 @@ import org.gradle.internal.reflect.ObjectInstantiationException;
 import org.gradle.util.GUtil;
 
 import java.net.URL;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Hans Dockter
  */
 
 public class DefaultPluginRegistry implements PluginRegistry {
-    private final Map<String, Class<? extends Plugin>> idMappings = new HashMap<String, Class<? extends Plugin>>();
+    private final Map<String, Class<? extends Plugin>> idMappings = new ConcurrentHashMap<String, Class<? extends Plugin>>();
     private final DefaultPluginRegistry parent;
     private final ClassLoader classLoader;
     private final Instantiator instantiator;
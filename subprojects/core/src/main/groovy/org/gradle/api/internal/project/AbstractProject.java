@@ -49,6 +49,7 @@ import org.gradle.api.tasks.WorkResult;
 import org.gradle.configuration.ProjectEvaluator;
 import org.gradle.configuration.ScriptPlugin;
 import org.gradle.configuration.ScriptPluginFactory;
+import org.gradle.initialization.ProjectAccessListener;
 import org.gradle.groovy.scripts.ScriptSource;
 import org.gradle.internal.Factory;
 import org.gradle.internal.reflect.Instantiator;
@@ -83,6 +84,8 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
 
     private ProjectEvaluator projectEvaluator;
 
+    private ProjectAccessListener projectAccessListener;
+
     private ScriptSource buildScriptSource;
 
     private final File projectDir;
@@ -182,6 +185,7 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
         fileOperations = services.get(FileOperations.class);
         processOperations = services.get(ProcessOperations.class);
         projectEvaluator = services.get(ProjectEvaluator.class);
+        projectAccessListener = services.get(ProjectAccessListener.class);
         repositoryHandler = services.get(RepositoryHandler.class);
         configurationContainer = services.get(ConfigurationContainerInternal.class);
         pluginContainer = services.get(PluginContainer.class);
@@ -406,20 +410,40 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
     }
 
     public ProjectInternal project(String path) {
-        ProjectInternal project = findProject(path);
+        ProjectInternal project = lookupProject(path);
+        beforeLookingUp(project);
+        return project;
+    }
+
+    public ProjectInternal findProject(String path) {
+        ProjectInternal project = findProjectByPath(path);
+        if (project != null) {
+            beforeLookingUp(project);
+        }
+        return project;
+    }
+
+    private ProjectInternal lookupProject(String path) {
+        ProjectInternal project = findProjectByPath(path);
         if (project == null) {
             throw new UnknownProjectException(String.format("Project with path '%s' could not be found in %s.", path, this));
         }
         return project;
     }
 
-    public ProjectInternal findProject(String path) {
+    private ProjectInternal findProjectByPath(String path) {
         if (!isTrue(path)) {
             throw new InvalidUserDataException("A path must be specified!");
         }
         return projectRegistry.getProject(absoluteProjectPath(path));
     }
 
+    private void beforeLookingUp(ProjectInternal project) {
+        if (project != this) {
+            projectAccessListener.beforeLookingUpProject(project);
+        }
+    }
+
     public Set<Project> getAllprojects() {
         return new TreeSet<Project>(projectRegistry.getAllProjects(getPath()));
     }
@@ -438,11 +462,18 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
 
     public <T> Iterable<T> configure(Iterable<T> objects, Action<? super T> configureAction) {
         for (T object : objects) {
+            beforeConfiguring(object);
             configureAction.execute(object);
         }
         return objects;
     }
 
+    private void beforeConfiguring(Object object) {
+        if (object instanceof ProjectInternal && object != this) {
+            projectAccessListener.beforeConfiguringProject((ProjectInternal) object);
+        }
+    }
+
     public AntBuilder getAnt() {
         if (ant == null) {
             ant = createAntBuilder();
@@ -540,7 +571,7 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
         if (!isTrue(path)) {
             throw new InvalidUserDataException("You must specify a project!");
         }
-        dependsOnProjects.add(project(path));
+        dependsOnProjects.add(lookupProject(path));
         if (evaluateDependsOnProject) {
             evaluationDependsOn(path);
         }
@@ -557,12 +588,12 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
         if (!isTrue(path)) {
             throw new InvalidUserDataException("You must specify a project!");
         }
-        DefaultProject projectToEvaluate = (DefaultProject) project(path);
+        DefaultProject projectToEvaluate = (DefaultProject) lookupProject(path);
         return evaluationDependsOn(projectToEvaluate);
     }
 
     private Project evaluationDependsOn(DefaultProject projectToEvaluate) {
-        if (projectToEvaluate.getState().getExecuting()) {
+        if (projectToEvaluate.getState().isExecutingOnCurrentThread()) {
             throw new CircularReferenceException(String.format("Circular referencing during evaluation for %s.",
                     projectToEvaluate));
         }
@@ -846,10 +877,13 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
     }
 
     public Project project(String path, Closure configureClosure) {
-        return ConfigureUtil.configure(configureClosure, project(path));
+        ProjectInternal project = lookupProject(path);
+        beforeConfiguring(project);
+        return ConfigureUtil.configure(configureClosure, project);
     }
 
     public Object configure(Object object, Closure configureClosure) {
+        beforeConfiguring(object);
         return ConfigureUtil.configure(configureClosure, object);
     }
 
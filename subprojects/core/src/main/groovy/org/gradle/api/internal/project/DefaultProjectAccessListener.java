@@ -30,4 +30,10 @@ public class DefaultProjectAccessListener implements ProjectAccessListener {
     public void beforeResolvingProjectDependency(ProjectInternal dependencyProject) {
         dependencyProject.evaluate();
     }
+
+    public void beforeConfiguringProject(ProjectInternal targetProject) {
+    }
+
+    public void beforeLookingUpProject(ProjectInternal targetProject) {
+    }
 }
\ No newline at end of file
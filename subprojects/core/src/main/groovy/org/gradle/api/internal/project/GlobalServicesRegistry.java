@@ -22,12 +22,14 @@ import org.gradle.api.internal.classpath.DefaultModuleRegistry;
 import org.gradle.api.internal.classpath.DefaultPluginModuleRegistry;
 import org.gradle.api.internal.classpath.ModuleRegistry;
 import org.gradle.api.internal.classpath.PluginModuleRegistry;
+import org.gradle.api.internal.file.archive.ZipFileIndexCache;
 import org.gradle.cache.internal.*;
 import org.gradle.cli.CommandLineConverter;
 import org.gradle.initialization.ClassLoaderRegistry;
 import org.gradle.initialization.DefaultClassLoaderRegistry;
 import org.gradle.initialization.DefaultCommandLineConverter;
 import org.gradle.internal.Factory;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
 import org.gradle.internal.nativeplatform.ProcessEnvironment;
 import org.gradle.internal.nativeplatform.services.NativeServices;
 import org.gradle.internal.reflect.DirectInstantiator;
@@ -39,6 +41,7 @@ import org.gradle.listener.ListenerManager;
 import org.gradle.logging.LoggingServiceRegistry;
 import org.gradle.messaging.remote.MessagingServer;
 import org.gradle.messaging.remote.internal.MessagingServices;
+import org.gradle.messaging.remote.internal.ParameterSerializerRegistry;
 import org.gradle.util.ClassLoaderFactory;
 import org.gradle.util.DefaultClassLoaderFactory;
 
@@ -53,6 +56,7 @@ public class GlobalServicesRegistry extends DefaultServiceRegistry {
     public GlobalServicesRegistry(ServiceRegistry loggingServices) {
         super(loggingServices);
         add(NativeServices.getInstance());
+        add(new PluginGlobalServices(this));
     }
 
     protected CommandLineConverter<StartParameter> createCommandLine2StartParameterConverter() {
@@ -99,6 +103,10 @@ public class GlobalServicesRegistry extends DefaultServiceRegistry {
         return get(MessagingServices.class).get(MessagingServer.class);
     }
 
+    protected ParameterSerializerRegistry createParameterSerializerRegistry() {
+        return get(MessagingServices.class).get(ParameterSerializerRegistry.class);
+    }
+
     protected ClassGenerator createClassGenerator() {
         return new AsmBackedClassGenerator();
     }
@@ -107,7 +115,15 @@ public class GlobalServicesRegistry extends DefaultServiceRegistry {
         return new ClassGeneratorBackedInstantiator(get(ClassGenerator.class), new DirectInstantiator());
     }
 
+    protected FileLockContentionHandler createFileLockContentionHandler() {
+        return new DefaultFileLockContentionHandler(new DefaultExecutorFactory());
+    }
+
+    protected ZipFileIndexCache createZipFileIndexCache() {
+        return new ZipFileIndexCache();
+    }
+
     protected FileLockManager createFileLockManager() {
-        return new DefaultFileLockManager(new DefaultProcessMetaDataProvider(get(ProcessEnvironment.class)));
+        return new DefaultFileLockManager(new DefaultProcessMetaDataProvider(get(ProcessEnvironment.class)), get(FileLockContentionHandler.class));
     }
 }
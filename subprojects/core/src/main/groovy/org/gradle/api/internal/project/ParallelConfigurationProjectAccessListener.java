@@ -0,0 +1,40 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.project;
+
+import org.gradle.configuration.ParallelProjectEvaluator;
+
+/**
+ * Reports projects that configure other projects which may be evaluated concurrently, when projects are configured in parallel.
+ */
+public class ParallelConfigurationProjectAccessListener extends DefaultProjectAccessListener {
+    private final ParallelProjectEvaluator projectEvaluator;
+
+    public ParallelConfigurationProjectAccessListener(ParallelProjectEvaluator projectEvaluator) {
+        this.projectEvaluator = projectEvaluator;
+    }
+
+    @Override
+    public void beforeConfiguringProject(ProjectInternal targetProject) {
+        projectEvaluator.beforeConfiguringProject(targetProject);
+    }
+
+    @Override
+    public void beforeLookingUpProject(ProjectInternal targetProject) {
+        projectEvaluator.beforeLookingUpProject(targetProject);
+    }
+}
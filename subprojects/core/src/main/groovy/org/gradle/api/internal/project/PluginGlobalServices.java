@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.project;
+
+import org.gradle.initialization.ClassLoaderRegistry;
+import org.gradle.internal.Factory;
+import org.gradle.internal.service.DefaultServiceRegistry;
+import org.gradle.internal.service.ServiceLocator;
+import org.gradle.internal.service.ServiceRegistry;
+
+/**
+ * The global services contributed by the {@link PluginServiceRegistry} implementations of the plugins. The implementations are located on first use,
+ * as the plugins ClassLoader is not required by every use of the global services.
+ */
+class PluginGlobalServices extends DefaultServiceRegistry {
+    private final ServiceRegistry globalServices;
+    private boolean located;
+
+    PluginGlobalServices(ServiceRegistry globalServices) {
+        this.globalServices = globalServices;
+    }
+
+    @Override
+    public <T> T doGet(Class<T> serviceType) throws IllegalArgumentException {
+        locatePluginServices();
+        return super.doGet(serviceType);
+    }
+
+    @Override
+    public <T> Factory<T> getFactory(Class<T> type) {
+        locatePluginServices();
+        return super.getFactory(type);
+    }
+
+    private synchronized void locatePluginServices() {
+        if (located) {
+            return;
+        }
+        located = true;
+        ClassLoader pluginsClassLoader = globalServices.get(ClassLoaderRegistry.class).getPluginsClassLoader();
+        for (PluginServiceRegistry registry : new ServiceLocator(pluginsClassLoader).getAll(PluginServiceRegistry.class)) {
+            add(registry.createGlobalServices());
+        }
+    }
+}
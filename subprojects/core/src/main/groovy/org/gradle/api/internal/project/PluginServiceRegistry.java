@@ -0,0 +1,32 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.project;
+
+import org.gradle.internal.service.ServiceRegistry;
+
+/**
+ * Can be implemented by plugins to contribute services that are shared by all builds in a given process. Implementations are discovered using the Jar
+ * service locator mechanism (see {@link org.gradle.internal.service.ServiceLocator}).
+ */
+public interface PluginServiceRegistry {
+    /**
+     * Creates the services to add to the global services. The services are closed when the global services are closed, which happens when the
+     * process, such as the daemon, stops running builds.
+     */
+    ServiceRegistry createGlobalServices();
+}
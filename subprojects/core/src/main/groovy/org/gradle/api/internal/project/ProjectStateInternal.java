@@ -20,9 +20,10 @@ import org.gradle.api.ProjectState;
 import org.gradle.internal.UncheckedException;
 
 public class ProjectStateInternal implements ProjectState {
-    private boolean executing;
-    private boolean executed;
-    private Throwable failure;
+    private volatile boolean executing;
+    private volatile Thread executingThread;
+    private volatile boolean executed;
+    private volatile Throwable failure;
 
     public boolean getExecuted() {
         return executed;
@@ -44,6 +45,14 @@ public class ProjectStateInternal implements ProjectState {
 
     public void setExecuting(boolean executing) {
         this.executing = executing;
+        this.executingThread = executing ? Thread.currentThread() : null;
+    }
+
+    /**
+     * Returns true if the project is currently being evaluated by the calling thread.
+     */
+    public boolean isExecutingOnCurrentThread() {
+        return executing && executingThread == Thread.currentThread();
     }
 
     public boolean hasFailure() {
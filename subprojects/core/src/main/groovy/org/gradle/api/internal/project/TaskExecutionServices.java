@@ -27,6 +27,8 @@ import org.gradle.api.invocation.Gradle;
 import org.gradle.cache.CacheRepository;
 import org.gradle.execution.taskgraph.TaskPlanExecutor;
 import org.gradle.execution.taskgraph.TaskPlanExecutorFactory;
+import org.gradle.execution.taskgraph.TaskWorkerStatisticsListener;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.id.RandomLongIdGenerator;
 import org.gradle.internal.reflect.Instantiator;
 import org.gradle.internal.service.DefaultServiceRegistry;
@@ -44,23 +46,31 @@ public class TaskExecutionServices extends DefaultServiceRegistry {
     protected TaskExecuter createTaskExecuter() {
         TaskArtifactStateCacheAccess cacheAccess = get(TaskArtifactStateCacheAccess.class);
         TaskArtifactStateRepository repository = get(TaskArtifactStateRepository.class);
+        TaskExecuter executer = new ContextualisingTaskExecuter(
+                new SkipUpToDateTaskExecuter(repository,
+                        new CacheLockReleasingTaskExecuter(cacheAccess,
+                                new PostExecutionAnalysisTaskExecuter(
+                                        new ExecuteActionsTaskExecuter(
+                                                get(ListenerManager.class).getBroadcaster(TaskActionListener.class)
+                                        )))));
+        if (gradle.getStartParameter().getParallelThreadCount() != 0) {
+            // The durations are only used to schedule the tasks of a parallel build
+            executer = new RecordTaskDurationTaskExecuter(get(TaskDurationRepository.class), executer);
+        }
         return new ExecuteAtMostOnceTaskExecuter(
                 new SkipOnlyIfTaskExecuter(
                         new SkipTaskWithNoActionsExecuter(
                                 new SkipEmptySourceFilesTaskExecuter(
                                         new ValidatingTaskExecuter(
-                                                new CacheLockAcquiringTaskExecuter(cacheAccess,
-                                                        new ContextualisingTaskExecuter(
-                                                                new SkipUpToDateTaskExecuter(repository,
-                                                                        new CacheLockReleasingTaskExecuter(cacheAccess,
-                                                                                new PostExecutionAnalysisTaskExecuter(
-                                                                                        new ExecuteActionsTaskExecuter(
-                                                                                                get(ListenerManager.class).getBroadcaster(TaskActionListener.class)
-                                                                                        )))))))))));
+                                                new CacheLockAcquiringTaskExecuter(cacheAccess, executer))))));
     }
 
-    protected TaskArtifactStateCacheAccess createCacheAccess() {
-        return new DefaultTaskArtifactStateCacheAccess(gradle, get(CacheRepository.class));
+    protected TimingTaskArtifactStateCacheAccess createCacheAccess() {
+        return new TimingTaskArtifactStateCacheAccess(new DefaultTaskArtifactStateCacheAccess(gradle, get(CacheRepository.class)));
+    }
+
+    protected TaskDurationRepository createTaskDurationRepository() {
+        return new CacheBackedTaskDurationRepository(get(TaskArtifactStateCacheAccess.class));
     }
 
     protected TaskArtifactStateRepository createTaskArtifactStateRepository() {
@@ -68,7 +78,10 @@ public class TaskExecutionServices extends DefaultServiceRegistry {
 
         FileSnapshotter fileSnapshotter = new DefaultFileSnapshotter(
                 new CachingHasher(
-                        new DefaultHasher(),
+                        new ParallelHasher(
+                                new DefaultHasher(),
+                                get(ExecutorFactory.class),
+                                Runtime.getRuntime().availableProcessors()),
                         cacheAccess));
 
         FileSnapshotter outputFilesSnapshotter = new OutputFilesSnapshotter(fileSnapshotter, new RandomLongIdGenerator(), cacheAccess);
@@ -90,7 +103,9 @@ public class TaskExecutionServices extends DefaultServiceRegistry {
 
     protected TaskPlanExecutor createTaskExecutorFactory() {
         StartParameter startParameter = gradle.getStartParameter();
-        TaskArtifactStateCacheAccess cacheAccess = get(TaskArtifactStateCacheAccess.class);
-        return new TaskPlanExecutorFactory(cacheAccess, startParameter.getParallelThreadCount()).create();
+        TimingTaskArtifactStateCacheAccess cacheAccess = get(TimingTaskArtifactStateCacheAccess.class);
+        TaskWorkerStatisticsListener statisticsListener = get(ListenerManager.class).getBroadcaster(TaskWorkerStatisticsListener.class);
+        TaskDurationRepository taskDurationRepository = get(TaskDurationRepository.class);
+        return new TaskPlanExecutorFactory(cacheAccess, taskDurationRepository, statisticsListener, startParameter.getParallelThreadCount()).create();
     }
 }
@@ -141,7 +141,11 @@ public class TopLevelBuildServiceRegistry extends DefaultServiceRegistry impleme
                 new PluginsProjectConfigureActions(get(ClassLoaderRegistry.class).getPluginsClassLoader()),
                 new ResolveDeferredConfigurableAction()
         );
-        return new LifecycleProjectEvaluator(withActionsEvaluator);
+        ProjectEvaluator evaluator = new LifecycleProjectEvaluator(withActionsEvaluator);
+        if (startParameter.isParallelConfiguration()) {
+            return new ParallelProjectEvaluator(evaluator);
+        }
+        return evaluator;
     }
 
     protected ITaskFactory createITaskFactory() {
@@ -229,6 +233,9 @@ public class TopLevelBuildServiceRegistry extends DefaultServiceRegistry impleme
     }
 
     protected ProjectAccessListener createProjectAccessListener() {
+        if (startParameter.isParallelConfiguration()) {
+            return new ParallelConfigurationProjectAccessListener((ParallelProjectEvaluator) get(ProjectEvaluator.class));
+        }
         return new DefaultProjectAccessListener();
     }
 
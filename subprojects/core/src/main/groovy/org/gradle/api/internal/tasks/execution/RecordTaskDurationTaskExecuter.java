@@ -0,0 +1,46 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.execution;
+
+import org.gradle.api.internal.TaskInternal;
+import org.gradle.api.internal.changedetection.state.TaskDurationRepository;
+import org.gradle.api.internal.tasks.TaskExecuter;
+import org.gradle.api.internal.tasks.TaskStateInternal;
+
+/**
+ * A {@link TaskExecuter} which records how long the task took to execute. Must be run while the task artifact cache is locked.
+ *
+ * <p>The duration is only recorded when the task actually did work and did not fail, as the duration of an up-to-date or failed task
+ * says little about how long the task takes when it next does its work.</p>
+ */
+public class RecordTaskDurationTaskExecuter implements TaskExecuter {
+    private final TaskDurationRepository repository;
+    private final TaskExecuter executer;
+
+    public RecordTaskDurationTaskExecuter(TaskDurationRepository repository, TaskExecuter executer) {
+        this.repository = repository;
+        this.executer = executer;
+    }
+
+    public void execute(TaskInternal task, TaskStateInternal state) {
+        long start = System.currentTimeMillis();
+        executer.execute(task, state);
+        if (state.getDidWork() && state.getFailure() == null) {
+            repository.setDuration(task, System.currentTimeMillis() - start);
+        }
+    }
+}
@@ -19,6 +19,8 @@ package org.gradle.api.tasks;
 import org.gradle.api.internal.file.FileResolver;
 import org.gradle.api.internal.file.copy.FileCopyActionImpl;
 import org.gradle.api.internal.file.copy.FileCopySpecVisitor;
+import org.gradle.api.internal.file.copy.SourceFileChanges;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
 
 import java.io.File;
 
@@ -65,6 +67,20 @@ public class Copy extends AbstractCopyTask {
         copyAction = new FileCopyActionImpl(fileResolver, new FileCopySpecVisitor());
     }
 
+    /**
+     * Copies the files, skipping the source files which have not changed since the previous execution when this is
+     * possible.
+     */
+    @TaskAction
+    protected void copy(IncrementalTaskInputs inputs) {
+        getCopyAction().setSourceFileChanges(new SourceFileChanges(inputs));
+        try {
+            copy();
+        } finally {
+            getCopyAction().setSourceFileChanges(new SourceFileChanges());
+        }
+    }
+
     protected void configureRootSpec() {
         super.configureRootSpec();
         if (getCopyAction().getDestinationDir() == null) {
@@ -19,7 +19,9 @@ package org.gradle.api.tasks;
 import org.gradle.api.internal.file.FileResolver;
 import org.gradle.api.internal.file.copy.FileCopyActionImpl;
 import org.gradle.api.internal.file.copy.FileCopySpecVisitor;
+import org.gradle.api.internal.file.copy.SourceFileChanges;
 import org.gradle.api.internal.file.copy.SyncCopySpecVisitor;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
 
 import java.io.File;
 
@@ -34,6 +36,20 @@ public class Sync extends AbstractCopyTask {
         action = new FileCopyActionImpl(fileResolver, new SyncCopySpecVisitor(new FileCopySpecVisitor()));
     }
 
+    /**
+     * Copies the files, skipping the source files which have not changed since the previous execution when this is
+     * possible.
+     */
+    @TaskAction
+    protected void copy(IncrementalTaskInputs inputs) {
+        getCopyAction().setSourceFileChanges(new SourceFileChanges(inputs));
+        try {
+            copy();
+        } finally {
+            getCopyAction().setSourceFileChanges(new SourceFileChanges());
+        }
+    }
+
     @Override
     protected FileCopyActionImpl getCopyAction() {
         return action;
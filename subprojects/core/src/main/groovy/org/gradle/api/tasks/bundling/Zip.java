@@ -22,6 +22,7 @@ import org.gradle.api.internal.file.copy.CopyActionImpl;
 import org.gradle.api.internal.file.copy.ZipDeflatedCompressor;
 import org.gradle.api.internal.file.copy.ZipCompressor;
 import org.gradle.api.internal.file.copy.ZipStoredCompressor;
+import org.gradle.internal.concurrent.ExecutorFactory;
 
 import java.io.File;
 
@@ -71,7 +72,7 @@ public class Zip extends AbstractArchiveTask {
      */
     protected class ZipCopyActionImpl extends CopyActionImpl implements ZipCopyAction {
         public ZipCopyActionImpl(FileResolver fileResolver) {
-            super(fileResolver, new ZipCopySpecVisitor());
+            super(fileResolver, new ZipCopySpecVisitor(Zip.this.getServices().get(ExecutorFactory.class)));
         }
 
         public File getArchivePath() {
@@ -24,6 +24,8 @@ import org.gradle.internal.Factories;
 import org.gradle.internal.Factory;
 import org.gradle.internal.UncheckedException;
 import org.gradle.messaging.serialize.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -38,6 +40,8 @@ import static org.gradle.cache.internal.FileLockManager.LockMode.Exclusive;
 
 @ThreadSafe
 public class DefaultCacheAccess implements CacheAccess {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultCacheAccess.class);
+    private static final long REPORT_LOCK_WAIT_TIME = 1000;
     private final String cacheDiplayName;
     private final File lockFile;
     private final FileLockManager lockManager;
@@ -48,6 +52,16 @@ public class DefaultCacheAccess implements CacheAccess {
     private Thread owner;
     private FileLockManager.LockMode lockMode;
     private FileLock fileLock;
+    // The number of cache actions and file accesses in progress in the owner thread
+    private int operationCount;
+    private volatile boolean contended;
+    private long lockWaitTime;
+    private int lockHandoffCount;
+    private final Runnable whenContended = new Runnable() {
+        public void run() {
+            whenContended();
+        }
+    };
     private final ThreadLocal<CacheOperationStack> operationStack = new ThreadLocal<CacheOperationStack>() {
         @Override
         protected CacheOperationStack initialValue() {
@@ -76,8 +90,8 @@ public class DefaultCacheAccess implements CacheAccess {
             if (lockMode == FileLockManager.LockMode.None) {
                 return;
             }
-            fileLock = lockManager.lock(lockFile, lockMode, cacheDiplayName);
-            takeOwnership(String.format("Access %s", cacheDiplayName));
+            fileLock = acquireFileLock(lockMode, "");
+            takeOwnership(String.format("Access %s", cacheDiplayName), false);
         } finally {
             lock.unlock();
         }
@@ -99,6 +113,9 @@ public class DefaultCacheAccess implements CacheAccess {
                     fileLock = null;
                 }
             }
+            if (lockHandoffCount > 0 || lockWaitTime >= REPORT_LOCK_WAIT_TIME) {
+                LOGGER.info("Waited {} ms in total to lock the {}, and released the lock {} time(s) for other processes.", lockWaitTime, cacheDiplayName, lockHandoffCount);
+            }
         } finally {
             lock.unlock();
         }
@@ -117,13 +134,15 @@ public class DefaultCacheAccess implements CacheAccess {
             throw new UnsupportedOperationException("Not implemented yet.");
         }
 
-        takeOwnership(operationDisplayName);
+        takeOwnership(operationDisplayName, true);
         try {
             boolean wasStarted = onStartWork();
             try {
                 return factory.create();
             } finally {
-                if (wasStarted) {
+                // When another process is waiting, hand over the lock at the end of the outermost cache action, as the caches are still in use until
+                // then. An exclusive lock taken when the cache was opened is otherwise kept until the cache is closed, even when it had to be reacquired
+                if (isOutermostOperation() && (contended || wasStarted && lockMode != Exclusive)) {
                     onEndWork();
                 }
             }
@@ -132,7 +151,7 @@ public class DefaultCacheAccess implements CacheAccess {
         }
     }
 
-    private void takeOwnership(String operationDisplayName) {
+    private void takeOwnership(String operationDisplayName, boolean startOperation) {
         lock.lock();
         try {
             while (owner != null && owner != Thread.currentThread()) {
@@ -144,6 +163,18 @@ public class DefaultCacheAccess implements CacheAccess {
             }
             owner = Thread.currentThread();
             operationStack.get().pushCacheAction(operationDisplayName);
+            if (startOperation) {
+                operationCount++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isOutermostOperation() {
+        lock.lock();
+        try {
+            return operationCount == 1;
         } finally {
             lock.unlock();
         }
@@ -152,6 +183,7 @@ public class DefaultCacheAccess implements CacheAccess {
     private void releaseOwnership(String operationDisplayName) {
         lock.lock();
         try {
+            operationCount--;
             operationStack.get().popCacheAction(operationDisplayName);
             if (!operationStack.get().isInCacheAction()) {
                 owner = null;
@@ -174,11 +206,11 @@ public class DefaultCacheAccess implements CacheAccess {
 
         checkThreadIsOwner();
         boolean wasEnded = onEndWork();
-        parkOwner(operationDisplayName);
+        int parkedOperations = parkOwner(operationDisplayName);
         try {
             return action.create();
         } finally {
-            restoreOwner(operationDisplayName);
+            restoreOwner(operationDisplayName, parkedOperations);
             if (wasEnded) {
                 onStartWork();
             }
@@ -196,7 +228,7 @@ public class DefaultCacheAccess implements CacheAccess {
         }
     }
 
-    private void parkOwner(String operationDisplayName) {
+    private int parkOwner(String operationDisplayName) {
         lock.lock();
         try {
             if (owner != Thread.currentThread()) {
@@ -206,12 +238,17 @@ public class DefaultCacheAccess implements CacheAccess {
             condition.signalAll();
 
             operationStack.get().pushLongRunningOperation(operationDisplayName);
+
+            // Only the owner can have operations in progress
+            int parkedOperations = operationCount;
+            operationCount = 0;
+            return parkedOperations;
         } finally {
             lock.unlock();
         }
     }
 
-    private void restoreOwner(String description) {
+    private void restoreOwner(String description, int parkedOperations) {
         lock.lock();
         try {
             while (owner != null) {
@@ -223,6 +260,7 @@ public class DefaultCacheAccess implements CacheAccess {
             }
             owner = Thread.currentThread();
             operationStack.get().popLongRunningOperation(description);
+            operationCount = parkedOperations;
         } finally {
             lock.unlock();
         }
@@ -268,7 +306,7 @@ public class DefaultCacheAccess implements CacheAccess {
             return false;
         }
 
-        fileLock = lockManager.lock(lockFile, Exclusive, cacheDiplayName, operationStack.get().getDescription());
+        fileLock = acquireFileLock(Exclusive, operationStack.get().getDescription());
         for (MultiProcessSafePersistentIndexedCache<?, ?> cache : caches) {
             cache.onStartWork(operationStack.get().getDescription());
         }
@@ -287,33 +325,107 @@ public class DefaultCacheAccess implements CacheAccess {
             fileLock.close();
         } finally {
             fileLock = null;
+            contended = false;
         }
         return true;
     }
 
-    private FileLock getLock() {
+    private FileLock acquireFileLock(FileLockManager.LockMode mode, String operationDisplayName) {
+        long start = System.currentTimeMillis();
+        FileLock fileLock = lockManager.lock(lockFile, mode, cacheDiplayName, operationDisplayName, mode == Exclusive ? whenContended : null);
+        lockWaitTime += System.currentTimeMillis() - start;
+        return fileLock;
+    }
+
+    /**
+     * Called when another process would like to lock this cache. Releases the lock immediately when the cache is not being used, otherwise
+     * leaves it to the owner to release the lock at the end of its current cache action.
+     */
+    private void whenContended() {
         lock.lock();
         try {
-            if (Thread.currentThread() != owner || fileLock == null) {
+            if (fileLock == null) {
+                return;
+            }
+            LOGGER.debug("Another process would like to use the {}.", cacheDiplayName);
+            contended = true;
+            lockHandoffCount++;
+            if (operationCount > 0) {
+                return;
+            }
+            // Release the lock on behalf of the owner. The owner will reacquire it when it next uses the cache
+            Thread previousOwner = owner;
+            owner = Thread.currentThread();
+            try {
+                onEndWork();
+            } finally {
+                owner = previousOwner;
+                condition.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private FileLock startFileAccess() {
+        boolean reacquire;
+        lock.lock();
+        try {
+            if (Thread.currentThread() != owner) {
                 throw new IllegalStateException(String.format("The %s has not been locked.", cacheDiplayName));
             }
+            operationCount++;
+            reacquire = fileLock == null;
         } finally {
             lock.unlock();
         }
+        if (reacquire) {
+            // The lock was handed over to another process at the end of an earlier cache action
+            try {
+                onStartWork();
+            } catch (RuntimeException e) {
+                endFileAccess();
+                throw e;
+            }
+        }
         return fileLock;
     }
 
+    private void endFileAccess() {
+        lock.lock();
+        try {
+            operationCount--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     private class UnitOfWorkFileAccess extends AbstractFileAccess {
         public <T> T readFile(Factory<? extends T> action) throws LockTimeoutException {
-            return getLock().readFile(action);
+            FileLock fileLock = startFileAccess();
+            try {
+                return fileLock.readFile(action);
+            } finally {
+                endFileAccess();
+            }
         }
 
         public void updateFile(Runnable action) throws LockTimeoutException {
-            getLock().updateFile(action);
+            FileLock fileLock = startFileAccess();
+            try {
+                fileLock.updateFile(action);
+            } finally {
+                endFileAccess();
+            }
         }
 
         public void writeFile(Runnable action) throws LockTimeoutException {
-            getLock().writeFile(action);
+            FileLock fileLock = startFileAccess();
+            try {
+                fileLock.writeFile(action);
+            } finally {
+                endFileAccess();
+            }
         }
     }
 
@@ -31,6 +31,8 @@ import static org.gradle.cache.internal.FileLockManager.LockMode;
 
 public class DefaultCacheFactory implements Factory<CacheFactory> {
     private final Map<File, DirCacheReference> dirCaches = new HashMap<File, DirCacheReference>();
+    private final Map<File, Object> dirLocks = new HashMap<File, Object>();
+    private final Object lock = new Object();
     private final FileLockManager lockManager;
 
     public DefaultCacheFactory(FileLockManager fileLockManager) {
@@ -47,9 +49,22 @@ public class DefaultCacheFactory implements Factory<CacheFactory> {
     void onClose(Object cache) {
     }
 
+    private Object lockFor(File canonicalDir) {
+        synchronized (lock) {
+            Object dirLock = dirLocks.get(canonicalDir);
+            if (dirLock == null) {
+                dirLock = new Object();
+                dirLocks.put(canonicalDir, dirLock);
+            }
+            return dirLock;
+        }
+    }
+
     public void close() {
-        for (DirCacheReference dirCacheReference : dirCaches.values()) {
-            dirCacheReference.close();
+        synchronized (lock) {
+            for (DirCacheReference dirCacheReference : dirCaches.values()) {
+                dirCacheReference.close();
+            }
         }
     }
 
@@ -58,32 +73,44 @@ public class DefaultCacheFactory implements Factory<CacheFactory> {
 
         private DirCacheReference doOpenDir(File cacheDir, String displayName, CacheUsage usage, CacheValidator validator, Map<String, ?> properties, FileLockManager.LockMode lockMode, Action<? super PersistentCache> action) {
             File canonicalDir = GFileUtils.canonicalise(cacheDir);
-            DirCacheReference dirCacheReference = dirCaches.get(canonicalDir);
-            if (dirCacheReference == null) {
+            // Opening a cache can run its initializer, such as compiling a build script, so only hold the lock for this directory while
+            // doing so and let caches in other directories be opened concurrently
+            synchronized (lockFor(canonicalDir)) {
+                synchronized (lock) {
+                    DirCacheReference dirCacheReference = dirCaches.get(canonicalDir);
+                    if (dirCacheReference != null) {
+                        if (usage == CacheUsage.REBUILD && dirCacheReference.rebuiltBy != this) {
+                            throw new IllegalStateException(String.format("Cannot rebuild cache '%s' as it is already open.", cacheDir));
+                        }
+                        if (lockMode != dirCacheReference.lockMode) {
+                            throw new IllegalStateException(String.format("Cannot open cache '%s' with %s lock mode as it is already open with %s lock mode.", cacheDir, lockMode.toString().toLowerCase(), dirCacheReference.lockMode.toString().toLowerCase()));
+                        }
+                        if (!properties.equals(dirCacheReference.properties)) {
+                            throw new IllegalStateException(String.format("Cache '%s' is already open with different state.", cacheDir));
+                        }
+                        return addReference(dirCacheReference, usage);
+                    }
+                }
+
+                ReferencablePersistentCache cache;
                 if (lockMode.equals(LockMode.None)) {
                     // Create nested cache with LockMode#Exclusive (tb discussed) that is opened and closed on Demand in the DelegateOnDemandPersistentDirectoryCache.
                     DefaultPersistentDirectoryCache nestedCache = new DefaultPersistentDirectoryCache(canonicalDir, displayName, usage, validator, properties, LockMode.Exclusive, action, lockManager);
-                    DelegateOnDemandPersistentDirectoryCache onDemandDache = new DelegateOnDemandPersistentDirectoryCache(nestedCache);
-                    onDemandDache.open();
-                    dirCacheReference = new DirCacheReference(onDemandDache, properties, lockMode);
-                    dirCaches.put(canonicalDir, dirCacheReference);
+                    cache = new DelegateOnDemandPersistentDirectoryCache(nestedCache);
                 } else {
-                    ReferencablePersistentCache cache = new DefaultPersistentDirectoryCache(canonicalDir, displayName, usage, validator, properties, lockMode, action, lockManager);
-                    cache.open();
-                    dirCacheReference = new DirCacheReference(cache, properties, lockMode);
-                    dirCaches.put(canonicalDir, dirCacheReference);
+                    cache = new DefaultPersistentDirectoryCache(canonicalDir, displayName, usage, validator, properties, lockMode, action, lockManager);
                 }
-            } else {
-                if (usage == CacheUsage.REBUILD && dirCacheReference.rebuiltBy != this) {
-                    throw new IllegalStateException(String.format("Cannot rebuild cache '%s' as it is already open.", cacheDir));
-                }
-                if (lockMode != dirCacheReference.lockMode) {
-                    throw new IllegalStateException(String.format("Cannot open cache '%s' with %s lock mode as it is already open with %s lock mode.", cacheDir, lockMode.toString().toLowerCase(), dirCacheReference.lockMode.toString().toLowerCase()));
-                }
-                if (!properties.equals(dirCacheReference.properties)) {
-                    throw new IllegalStateException(String.format("Cache '%s' is already open with different state.", cacheDir));
+                cache.open();
+
+                synchronized (lock) {
+                    DirCacheReference dirCacheReference = new DirCacheReference(cache, properties, lockMode);
+                    dirCaches.put(canonicalDir, dirCacheReference);
+                    return addReference(dirCacheReference, usage);
                 }
             }
+        }
+
+        private DirCacheReference addReference(DirCacheReference dirCacheReference, CacheUsage usage) {
             if (usage == CacheUsage.REBUILD) {
                 dirCacheReference.rebuiltBy = this;
             }
@@ -96,15 +123,23 @@ public class DefaultCacheFactory implements Factory<CacheFactory> {
                 throw new UnsupportedOperationException("Initializer actions are not currently supported by the directory store implementation.");
             }
             File canonicalDir = GFileUtils.canonicalise(storeDir);
-            DirCacheReference dirCacheReference = dirCaches.get(canonicalDir);
-            if (dirCacheReference == null) {
+            synchronized (lockFor(canonicalDir)) {
+                synchronized (lock) {
+                    DirCacheReference dirCacheReference = dirCaches.get(canonicalDir);
+                    if (dirCacheReference != null) {
+                        dirCacheReference.addReference(this);
+                        return dirCacheReference.getCache();
+                    }
+                }
                 ReferencablePersistentCache cache = new DefaultPersistentDirectoryStore(canonicalDir, displayName, lockMode, lockManager);
                 cache.open();
-                dirCacheReference = new DirCacheReference(cache, Collections.<String, Object>emptyMap(), lockMode);
-                dirCaches.put(canonicalDir, dirCacheReference);
+                synchronized (lock) {
+                    DirCacheReference dirCacheReference = new DirCacheReference(cache, Collections.<String, Object>emptyMap(), lockMode);
+                    dirCaches.put(canonicalDir, dirCacheReference);
+                    dirCacheReference.addReference(this);
+                    return dirCacheReference.getCache();
+                }
             }
-            dirCacheReference.addReference(this);
-            return dirCacheReference.getCache();
         }
 
         public PersistentCache open(File cacheDir, String displayName, CacheUsage usage, CacheValidator cacheValidator, Map<String, ?> properties, LockMode lockMode, Action<? super PersistentCache> initializer) {
@@ -113,29 +148,37 @@ public class DefaultCacheFactory implements Factory<CacheFactory> {
         }
 
         public <E> PersistentStateCache<E> openStateCache(File cacheDir, CacheUsage usage, CacheValidator validator, Map<String, ?> properties, LockMode lockMode, Serializer<E> serializer) {
-            StateCacheReference<E> cacheReference = doOpenDir(cacheDir, null, usage, validator, properties, lockMode, null).getStateCache(serializer);
-            cacheReference.addReference(this);
-            return cacheReference.getCache();
+            DirCacheReference dirCacheReference = doOpenDir(cacheDir, null, usage, validator, properties, lockMode, null);
+            synchronized (lock) {
+                StateCacheReference<E> cacheReference = dirCacheReference.getStateCache(serializer);
+                cacheReference.addReference(this);
+                return cacheReference.getCache();
+            }
         }
 
         public <K, V> PersistentIndexedCache<K, V> openIndexedCache(File cacheDir, CacheUsage usage, CacheValidator validator, Map<String, ?> properties, LockMode lockMode, Serializer<V> serializer) {
             if (lockMode != LockMode.Exclusive) {
                 throw new UnsupportedOperationException(String.format("No %s mode indexed cache implementation is available.", lockMode));
             }
-            IndexedCacheReference<K, V> cacheReference = doOpenDir(cacheDir, null, usage, validator, properties, LockMode.Exclusive, null).getIndexedCache(serializer);
-            cacheReference.addReference(this);
-            return cacheReference.getCache();
+            DirCacheReference dirCacheReference = doOpenDir(cacheDir, null, usage, validator, properties, LockMode.Exclusive, null);
+            synchronized (lock) {
+                IndexedCacheReference<K, V> cacheReference = dirCacheReference.getIndexedCache(serializer);
+                cacheReference.addReference(this);
+                return cacheReference.getCache();
+            }
         }
 
         public void close() {
-            try {
-                List<BasicCacheReference<?>> caches = new ArrayList<BasicCacheReference<?>>(this.caches);
-                Collections.reverse(caches);
-                for (BasicCacheReference cache : caches) {
-                    cache.release(this);
+            synchronized (lock) {
+                try {
+                    List<BasicCacheReference<?>> caches = new ArrayList<BasicCacheReference<?>>(this.caches);
+                    Collections.reverse(caches);
+                    for (BasicCacheReference cache : caches) {
+                        cache.release(this);
+                    }
+                } finally {
+                    caches.clear();
                 }
-            } finally {
-                caches.clear();
             }
         }
     }
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.cache.internal;
+
+import org.gradle.api.UncheckedIOException;
+import org.gradle.internal.Stoppable;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exchanges lock requests between processes using UDP datagrams sent over the loopback interface. Each request is a single datagram holding
+ * the id of the requested lock. A lost request is not a problem, as a waiting process keeps sending requests until it acquires the lock.
+ */
+public class DefaultFileLockContentionHandler implements FileLockContentionHandler, Stoppable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultFileLockContentionHandler.class);
+    private static final byte PROTOCOL_VERSION = 1;
+    private static final int MESSAGE_SIZE = 9;
+
+    private final ExecutorFactory executorFactory;
+    private final Lock lock = new ReentrantLock();
+    private final Map<Long, Runnable> contendedActions = new HashMap<Long, Runnable>();
+    private DatagramSocket socket;
+    private StoppableExecutor listener;
+    private boolean stopped;
+
+    public DefaultFileLockContentionHandler(ExecutorFactory executorFactory) {
+        this.executorFactory = executorFactory;
+    }
+
+    public void start(long lockId, Runnable whenContended) {
+        lock.lock();
+        try {
+            assertNotStopped();
+            if (listener == null) {
+                final DatagramSocket socket = getSocket();
+                listener = executorFactory.create("File lock request listener");
+                listener.execute(new Runnable() {
+                    public void run() {
+                        receiveRequests(socket);
+                    }
+                });
+            }
+            contendedActions.put(lockId, whenContended);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void stop(long lockId) {
+        lock.lock();
+        try {
+            contendedActions.remove(lockId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int reservePort() {
+        lock.lock();
+        try {
+            assertNotStopped();
+            return getSocket().getLocalPort();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void pingOwner(int port, long lockId) {
+        DatagramSocket socket;
+        lock.lock();
+        try {
+            if (stopped) {
+                return;
+            }
+            socket = getSocket();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(MESSAGE_SIZE);
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeByte(PROTOCOL_VERSION);
+            output.writeLong(lockId);
+            output.flush();
+            socket.send(new DatagramPacket(bytes.toByteArray(), MESSAGE_SIZE, InetAddress.getByName(null), port));
+        } catch (IOException e) {
+            LOGGER.debug("Could not request lock {} from the process listening on port {}.", lockId, port);
+        }
+    }
+
+    private void receiveRequests(DatagramSocket socket) {
+        byte[] buffer = new byte[MESSAGE_SIZE];
+        while (true) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            long lockId;
+            try {
+                socket.receive(packet);
+                DataInputStream input = new DataInputStream(new ByteArrayInputStream(buffer, 0, packet.getLength()));
+                if (packet.getLength() != MESSAGE_SIZE || input.readByte() != PROTOCOL_VERSION) {
+                    continue;
+                }
+                lockId = input.readLong();
+            } catch (SocketException e) {
+                // Socket has been closed
+                return;
+            } catch (IOException e) {
+                LOGGER.debug("Could not receive a lock request.", e);
+                continue;
+            }
+
+            Runnable action;
+            lock.lock();
+            try {
+                action = contendedActions.get(lockId);
+            } finally {
+                lock.unlock();
+            }
+            if (action == null) {
+                continue;
+            }
+            try {
+                action.run();
+            } catch (Throwable throwable) {
+                LOGGER.warn("Could not handle a request for a file lock.", throwable);
+            }
+        }
+    }
+
+    private DatagramSocket getSocket() {
+        if (socket == null) {
+            try {
+                socket = new DatagramSocket(0, InetAddress.getByName(null));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return socket;
+    }
+
+    private void assertNotStopped() {
+        if (stopped) {
+            throw new IllegalStateException("This file lock contention handler has been stopped.");
+        }
+    }
+
+    public void stop() {
+        StoppableExecutor listener;
+        lock.lock();
+        try {
+            stopped = true;
+            contendedActions.clear();
+            if (socket != null) {
+                socket.close();
+            }
+            listener = this.listener;
+        } finally {
+            lock.unlock();
+        }
+        if (listener != null) {
+            listener.stop();
+        }
+    }
+}
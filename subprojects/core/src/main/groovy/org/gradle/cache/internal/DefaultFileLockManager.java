@@ -25,6 +25,7 @@ import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 
@@ -32,11 +33,16 @@ import java.util.concurrent.CopyOnWriteArraySet;
  * Uses file system locks on a lock file per target file. Each lock file is made up of 2 regions:
  *
  * <ul> <li>State region: 1 byte version field, 1 byte clean flag.</li> <li>Owner information region: 1 byte version field, utf-8 encoded owner process id, utf-8 encoded owner operation display
- * name.</li> </ul>
+ * name, 4 byte port that the owner listens on for lock requests, 8 byte lock id.</li> </ul>
+ *
+ * <p>A process that is waiting for a lock sends requests for the lock to its owner, using the port and id from the information region, so that the
+ * owner can release the lock at its next opportunity rather than when it has finished with the target file.</p>
  */
 public class DefaultFileLockManager implements FileLockManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultFileLockManager.class);
     private static final int DEFAULT_LOCK_TIMEOUT = 60000;
+    private static final long PING_INTERVAL = 1000L;
+    private static final long WAIT_INTERVAL = 50L;
     private static final byte STATE_REGION_PROTOCOL = 1;
     private static final int STATE_REGION_SIZE = 2;
     private static final int STATE_REGION_POS = 0;
@@ -47,14 +53,25 @@ public class DefaultFileLockManager implements FileLockManager {
     private final Set<File> lockedFiles = new CopyOnWriteArraySet<File>();
     private final ProcessMetaDataProvider metaDataProvider;
     private final int lockTimeoutMs;
+    private final FileLockContentionHandler contentionHandler;
+    private final Random lockIdGenerator = new Random();
 
     public DefaultFileLockManager(ProcessMetaDataProvider metaDataProvider) {
         this(metaDataProvider, DEFAULT_LOCK_TIMEOUT);
     }
 
     public DefaultFileLockManager(ProcessMetaDataProvider metaDataProvider, int lockTimeoutMs) {
+        this(metaDataProvider, lockTimeoutMs, new NoOpContentionHandler());
+    }
+
+    public DefaultFileLockManager(ProcessMetaDataProvider metaDataProvider, FileLockContentionHandler contentionHandler) {
+        this(metaDataProvider, DEFAULT_LOCK_TIMEOUT, contentionHandler);
+    }
+
+    public DefaultFileLockManager(ProcessMetaDataProvider metaDataProvider, int lockTimeoutMs, FileLockContentionHandler contentionHandler) {
         this.metaDataProvider = metaDataProvider;
         this.lockTimeoutMs = lockTimeoutMs;
+        this.contentionHandler = contentionHandler;
     }
 
     public FileLock lock(File target, LockMode mode, String targetDisplayName) throws LockTimeoutException {
@@ -62,6 +79,10 @@ public class DefaultFileLockManager implements FileLockManager {
     }
 
     public FileLock lock(File target, LockMode mode, String targetDisplayName, String operationDisplayName) {
+        return lock(target, mode, targetDisplayName, operationDisplayName, null);
+    }
+
+    public FileLock lock(File target, LockMode mode, String targetDisplayName, String operationDisplayName, Runnable whenContended) {
         if (mode == LockMode.None) {
             throw new UnsupportedOperationException(String.format("No %s mode lock implementation available.", mode));
         }
@@ -70,7 +91,7 @@ public class DefaultFileLockManager implements FileLockManager {
             throw new IllegalStateException(String.format("Cannot lock %s as it has already been locked by this process.", targetDisplayName));
         }
         try {
-            return new DefaultFileLock(canonicalTarget, mode, targetDisplayName, operationDisplayName);
+            return new DefaultFileLock(canonicalTarget, mode, targetDisplayName, operationDisplayName, whenContended);
         } catch (Throwable t) {
             lockedFiles.remove(canonicalTarget);
             throw UncheckedException.throwAsUncheckedException(t);
@@ -83,11 +104,14 @@ public class DefaultFileLockManager implements FileLockManager {
         private final LockMode mode;
         private final String displayName;
         private final String operationDisplayName;
+        private final Runnable whenContended;
         private java.nio.channels.FileLock lock;
         private RandomAccessFile lockFileAccess;
         private boolean integrityViolated;
+        private long lockId;
+        private boolean listening;
 
-        public DefaultFileLock(File target, LockMode mode, String displayName, String operationDisplayName) throws Throwable {
+        public DefaultFileLock(File target, LockMode mode, String displayName, String operationDisplayName, Runnable whenContended) throws Throwable {
             if (mode == LockMode.None) {
                 throw new UnsupportedOperationException("Locking mode None is not supported.");
             }
@@ -96,6 +120,7 @@ public class DefaultFileLockManager implements FileLockManager {
 
             this.displayName = displayName;
             this.operationDisplayName = operationDisplayName;
+            this.whenContended = whenContended;
             if (target.isDirectory()) {
                 lockFile = new File(target, target.getName() + ".lock");
             } else {
@@ -109,6 +134,7 @@ public class DefaultFileLockManager implements FileLockManager {
                 lock = lock(mode);
                 integrityViolated = !getUnlockedCleanly();
             } catch (Throwable t) {
+                stopListening();
                 // Also releases any locks
                 lockFileAccess.close();
                 throw t;
@@ -203,6 +229,7 @@ public class DefaultFileLockManager implements FileLockManager {
             }
             try {
                 LOGGER.debug("Releasing lock on {}.", displayName);
+                stopListening();
                 lockedFiles.remove(target);
                 // Also releases any locks
                 try {
@@ -225,35 +252,25 @@ public class DefaultFileLockManager implements FileLockManager {
             return mode;
         }
 
+        private void stopListening() {
+            if (listening) {
+                listening = false;
+                contentionHandler.stop(lockId);
+            }
+        }
+
         private java.nio.channels.FileLock lock(FileLockManager.LockMode lockMode) throws Throwable {
             LOGGER.debug("Waiting to acquire {} lock on {}.", lockMode.toString().toLowerCase(), displayName);
-            long timeout = System.currentTimeMillis() + lockTimeoutMs;
+            long start = System.currentTimeMillis();
+            long timeout = start + lockTimeoutMs;
 
             // Lock the state region, with the requested mode
             java.nio.channels.FileLock stateRegionLock = lockStateRegion(lockMode, timeout);
             if (stateRegionLock == null) {
                 // Can't acquire lock, get details of owner to include in the error message
-                String ownerPid = "unknown";
-                String ownerOperation = "unknown";
-                java.nio.channels.FileLock informationRegionLock = lockInformationRegion(LockMode.Shared, timeout);
-                if (informationRegionLock == null) {
-                    LOGGER.debug("Could not lock information region for {}. Ignoring.", displayName);
-                } else {
-                    try {
-                        if (lockFileAccess.length() <= INFORMATION_REGION_POS) {
-                            LOGGER.debug("Lock file for {} is too short to contain information region. Ignoring.", displayName);
-                        } else {
-                            lockFileAccess.seek(INFORMATION_REGION_POS);
-                            if (lockFileAccess.readByte() != INFORMATION_REGION_PROTOCOL) {
-                                throw new IllegalStateException(String.format("Unexpected lock protocol found in lock file '%s' for %s.", lockFile, displayName));
-                            }
-                            ownerPid = lockFileAccess.readUTF();
-                            ownerOperation = lockFileAccess.readUTF();
-                        }
-                    } finally {
-                        informationRegionLock.release();
-                    }
-                }
+                LockOwner owner = readOwner(timeout);
+                String ownerPid = owner == null ? "unknown" : owner.pid;
+                String ownerOperation = owner == null ? "unknown" : owner.operation;
 
                 throw new LockTimeoutException(String.format("Timeout waiting to lock %s. It is currently in use by another Gradle instance.%nOwner PID: %s%nOur PID: %s%nOwner Operation: %s%nOur operation: %s%nLock file: %s",
                         displayName, ownerPid, metaDataProvider.getProcessIdentifier(), ownerOperation, operationDisplayName, lockFile));
@@ -267,6 +284,11 @@ public class DefaultFileLockManager implements FileLockManager {
                     }
                 }
 
+                long waitTime = System.currentTimeMillis() - start;
+                if (waitTime >= PING_INTERVAL) {
+                    LOGGER.info("Waited {} ms for another process to release the lock on {}.", waitTime, displayName);
+                }
+
                 if (!stateRegionLock.isShared()) {
                     // We have an exclusive lock (whether we asked for it or not).
                     // Update the state region
@@ -276,6 +298,14 @@ public class DefaultFileLockManager implements FileLockManager {
                         lockFileAccess.writeByte(STATE_REGION_PROTOCOL);
                         lockFileAccess.writeBoolean(false);
                     }
+                    // Listen for requests from other processes for this lock
+                    int port = -1;
+                    if (whenContended != null) {
+                        port = contentionHandler.reservePort();
+                        lockId = lockIdGenerator.nextLong();
+                        contentionHandler.start(lockId, whenContended);
+                        listening = true;
+                    }
                     // Acquire an exclusive lock on the information region and write our details there
                     java.nio.channels.FileLock informationRegionLock = lockInformationRegion(LockMode.Exclusive, timeout);
                     if (informationRegionLock == null) {
@@ -287,6 +317,8 @@ public class DefaultFileLockManager implements FileLockManager {
                         lockFileAccess.writeByte(INFORMATION_REGION_PROTOCOL);
                         lockFileAccess.writeUTF(trimIfNecessary(metaDataProvider.getProcessIdentifier()));
                         lockFileAccess.writeUTF(trimIfNecessary(operationDisplayName));
+                        lockFileAccess.writeInt(port);
+                        lockFileAccess.writeLong(lockId);
                         lockFileAccess.setLength(lockFileAccess.getFilePointer());
                     } finally {
                         informationRegionLock.release();
@@ -310,7 +342,61 @@ public class DefaultFileLockManager implements FileLockManager {
         }
 
         private java.nio.channels.FileLock lockStateRegion(LockMode lockMode, long timeout) throws IOException, InterruptedException {
-            return lockRegion(lockMode, timeout, STATE_REGION_POS, STATE_REGION_SIZE);
+            long nextPing = 0;
+            do {
+                java.nio.channels.FileLock fileLock = lockFileAccess.getChannel().tryLock(STATE_REGION_POS, STATE_REGION_SIZE, lockMode == LockMode.Shared);
+                if (fileLock != null) {
+                    return fileLock;
+                }
+                // Ask the owner to release the lock, and keep asking in case it has since been acquired by some other process
+                long now = System.currentTimeMillis();
+                if (now >= nextPing) {
+                    pingOwner();
+                    nextPing = now + PING_INTERVAL;
+                }
+                Thread.sleep(WAIT_INTERVAL);
+            } while (System.currentTimeMillis() < timeout);
+            return null;
+        }
+
+        private void pingOwner() throws IOException, InterruptedException {
+            LockOwner owner = readOwner(0);
+            if (owner != null && owner.port > 0) {
+                LOGGER.debug("Requesting lock on {} from process {}.", displayName, owner.pid);
+                contentionHandler.pingOwner(owner.port, owner.lockId);
+            }
+        }
+
+        /**
+         * Reads the details of the current owner of the lock, or returns null if the details are not available.
+         */
+        private LockOwner readOwner(long timeout) throws IOException, InterruptedException {
+            java.nio.channels.FileLock informationRegionLock = lockInformationRegion(LockMode.Shared, timeout);
+            if (informationRegionLock == null) {
+                LOGGER.debug("Could not lock information region for {}. Ignoring.", displayName);
+                return null;
+            }
+            try {
+                if (lockFileAccess.length() <= INFORMATION_REGION_POS) {
+                    LOGGER.debug("Lock file for {} is too short to contain information region. Ignoring.", displayName);
+                    return null;
+                }
+                lockFileAccess.seek(INFORMATION_REGION_POS);
+                if (lockFileAccess.readByte() != INFORMATION_REGION_PROTOCOL) {
+                    throw new IllegalStateException(String.format("Unexpected lock protocol found in lock file '%s' for %s.", lockFile, displayName));
+                }
+                LockOwner owner = new LockOwner();
+                owner.pid = lockFileAccess.readUTF();
+                owner.operation = lockFileAccess.readUTF();
+                // Older versions do not write the port and lock id
+                if (lockFileAccess.length() - lockFileAccess.getFilePointer() >= 12) {
+                    owner.port = lockFileAccess.readInt();
+                    owner.lockId = lockFileAccess.readLong();
+                }
+                return owner;
+            } finally {
+                informationRegionLock.release();
+            }
         }
 
         private java.nio.channels.FileLock lockInformationRegion(LockMode lockMode, long timeout) throws IOException, InterruptedException {
@@ -318,14 +404,38 @@ public class DefaultFileLockManager implements FileLockManager {
         }
 
         private java.nio.channels.FileLock lockRegion(FileLockManager.LockMode lockMode, long timeout, long start, long size) throws IOException, InterruptedException {
-            do {
+            while (true) {
                 java.nio.channels.FileLock fileLock = lockFileAccess.getChannel().tryLock(start, size, lockMode == LockMode.Shared);
                 if (fileLock != null) {
                     return fileLock;
                 }
+                if (System.currentTimeMillis() >= timeout) {
+                    return null;
+                }
                 Thread.sleep(200L);
-            } while (System.currentTimeMillis() < timeout);
-            return null;
+            }
+        }
+    }
+
+    private static class LockOwner {
+        String pid;
+        String operation;
+        int port = -1;
+        long lockId;
+    }
+
+    private static class NoOpContentionHandler implements FileLockContentionHandler {
+        public void start(long lockId, Runnable whenContended) {
+        }
+
+        public void stop(long lockId) {
+        }
+
+        public int reservePort() {
+            return -1;
+        }
+
+        public void pingOwner(int port, long lockId) {
         }
     }
 }
\ No newline at end of file
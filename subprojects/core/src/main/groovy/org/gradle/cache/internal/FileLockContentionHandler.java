@@ -0,0 +1,44 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.cache.internal;
+
+/**
+ * Allows the process that holds a file lock to be told that another process is waiting to acquire the lock.
+ */
+public interface FileLockContentionHandler {
+    /**
+     * Starts listening for requests for the given lock. The given action is called, from some other thread, each time another process
+     * requests the lock.
+     */
+    void start(long lockId, Runnable whenContended);
+
+    /**
+     * Stops listening for requests for the given lock.
+     */
+    void stop(long lockId);
+
+    /**
+     * Returns the port that other processes should use to request locks held by this process, or -1 if requests are not supported.
+     */
+    int reservePort();
+
+    /**
+     * Tells the owner of the given lock that this process would like to acquire the lock. Does not block.
+     */
+    void pingOwner(int port, long lockId);
+}
@@ -39,6 +39,19 @@ public interface FileLockManager {
      */
     FileLock lock(File target, LockMode mode, String targetDisplayName, String operationDisplayName) throws LockTimeoutException;
 
+    /**
+     * Creates a locks for the given file with the given mode. Acquires a lock with the given mode, which is held until the lock is
+     * released by calling {@link org.gradle.cache.internal.FileLock#close()}. This method blocks until the lock can be acquired.
+     *
+     * @param target The file to be locked.
+     * @param mode The lock mode.
+     * @param targetDisplayName A display name for the target file. This is used in log and error messages.
+     * @param operationDisplayName A display name for the operation being performed on the target file. This is used in log and error messages.
+     * @param whenContended Called, from some other thread, when another process would like to acquire the lock. The caller should release the
+     * lock as soon as it can. May be null.
+     */
+    FileLock lock(File target, LockMode mode, String targetDisplayName, String operationDisplayName, Runnable whenContended) throws LockTimeoutException;
+
     enum LockMode {
         /**
          * No synchronisation is done.
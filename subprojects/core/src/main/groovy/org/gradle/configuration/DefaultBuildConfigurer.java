@@ -15,6 +15,7 @@
  */
 package org.gradle.configuration;
 
+import org.gradle.StartParameter;
 import org.gradle.api.Project;
 import org.gradle.api.internal.GradleInternal;
 import org.gradle.api.internal.project.ProjectInternal;
@@ -26,10 +27,18 @@ public class DefaultBuildConfigurer implements BuildConfigurer {
         if (gradle.getStartParameter().isConfigureOnDemand()) {
             SingleMessageLogger.informAboutIncubating("Configuration on demand");
             gradle.getRootProject().evaluate();
+        } else if (gradle.getStartParameter().isParallelConfiguration()) {
+            SingleMessageLogger.informAboutIncubating("Parallel project configuration");
+            new ParallelProjectConfigurer(getWorkerCount(gradle.getStartParameter())).configure(gradle.getRootProject().getAllprojects());
         } else {
             for (Project project : gradle.getRootProject().getAllprojects()) {
                 ((ProjectInternal) project).evaluate();
             }
         }
     }
+
+    private int getWorkerCount(StartParameter startParameter) {
+        int parallelThreadCount = startParameter.getParallelThreadCount();
+        return parallelThreadCount > 0 ? parallelThreadCount : Runtime.getRuntime().availableProcessors();
+    }
 }
\ No newline at end of file
@@ -37,7 +37,6 @@ public class LifecycleProjectEvaluator implements ProjectEvaluator {
     }
 
     public void evaluate(ProjectInternal project, ProjectStateInternal state) {
-        //TODO this is one of the places to look into thread safety when we implement parallel configuration
         if (state.getExecuted() || state.getExecuting()) {
             return;
         }
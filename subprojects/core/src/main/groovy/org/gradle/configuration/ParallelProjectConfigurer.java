@@ -0,0 +1,167 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configuration;
+
+import org.gradle.api.Project;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.concurrent.ExecutorFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Evaluates a set of projects using a pool of worker threads. A project is started only once its parent project has been evaluated, and
+ * projects are otherwise started in the given order. Stops starting projects once a project fails, and rethrows the first failure.
+ *
+ * @see ParallelProjectEvaluator
+ */
+class ParallelProjectConfigurer {
+    private static final Logger LOGGER = Logging.getLogger(ParallelProjectConfigurer.class);
+
+    private final int workerCount;
+
+    public ParallelProjectConfigurer(int workerCount) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Not a valid number of configuration workers: " + workerCount);
+        }
+        this.workerCount = workerCount;
+    }
+
+    public void configure(Collection<? extends Project> projects) {
+        ProjectQueue queue = new ProjectQueue(projects);
+        int numWorkers = Math.min(workerCount, projects.size());
+        LOGGER.debug("Using {} configuration worker threads", numWorkers);
+
+        DefaultExecutorFactory factory = new DefaultExecutorFactory();
+        try {
+            startWorkers(queue, numWorkers, factory);
+        } finally {
+            factory.stop();
+        }
+    }
+
+    private void startWorkers(ProjectQueue queue, int numWorkers, ExecutorFactory factory) {
+        for (int i = 0; i < numWorkers; i++) {
+            String workerName = "Configuration worker " + (i + 1);
+            factory.create(workerName).execute(new ConfigurationWorker(queue));
+        }
+    }
+
+    private static class ConfigurationWorker implements Runnable {
+        private final ProjectQueue queue;
+
+        private ConfigurationWorker(ProjectQueue queue) {
+            this.queue = queue;
+        }
+
+        public void run() {
+            ProjectInternal project;
+            while ((project = queue.take()) != null) {
+                boolean succeeded = false;
+                try {
+                    project.evaluate();
+                    succeeded = true;
+                } finally {
+                    // Release the other workers on any failure, including errors thrown by a build script
+                    if (succeeded) {
+                        queue.completed(project);
+                    } else {
+                        queue.abort();
+                    }
+                }
+            }
+        }
+    }
+
+    private static class ProjectQueue {
+        private final Lock lock = new ReentrantLock();
+        private final Condition projectsAvailable = lock.newCondition();
+        private final LinkedList<ProjectInternal> ready = new LinkedList<ProjectInternal>();
+        private final Map<Project, List<ProjectInternal>> waitingForParent = new HashMap<Project, List<ProjectInternal>>();
+        private int remaining;
+        private boolean aborted;
+
+        private ProjectQueue(Collection<? extends Project> projects) {
+            for (Project project : projects) {
+                Project parent = project.getParent();
+                if (parent == null || !projects.contains(parent)) {
+                    ready.add((ProjectInternal) project);
+                } else {
+                    List<ProjectInternal> children = waitingForParent.get(parent);
+                    if (children == null) {
+                        children = new ArrayList<ProjectInternal>();
+                        waitingForParent.put(parent, children);
+                    }
+                    children.add((ProjectInternal) project);
+                }
+            }
+            remaining = projects.size();
+        }
+
+        /**
+         * Returns the next project to evaluate, blocking until one is available. Returns null when there are no further projects to evaluate.
+         */
+        ProjectInternal take() {
+            lock.lock();
+            try {
+                while (!aborted && remaining > 0 && ready.isEmpty()) {
+                    projectsAvailable.awaitUninterruptibly();
+                }
+                if (aborted || ready.isEmpty()) {
+                    return null;
+                }
+                return ready.removeFirst();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void completed(ProjectInternal project) {
+            lock.lock();
+            try {
+                remaining--;
+                List<ProjectInternal> children = waitingForParent.remove(project);
+                if (children != null) {
+                    ready.addAll(children);
+                }
+                projectsAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void abort() {
+            lock.lock();
+            try {
+                aborted = true;
+                projectsAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configuration;
+
+import org.apache.commons.lang.StringUtils;
+import org.gradle.api.CircularReferenceException;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.internal.project.ProjectStateInternal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Allows projects to be evaluated by multiple threads at the same time. Each project is evaluated by a single thread, and any other thread that
+ * requires the project waits until that evaluation has completed. A project is not evaluated while one of its ancestors is being evaluated by
+ * some other thread, so that a project can configure its child projects before they are evaluated, as it can when projects are evaluated one
+ * after another.
+ *
+ * <p>Also keeps track of the projects being evaluated by each thread, so that a project which configures some other project that may be
+ * evaluated concurrently can be reported. A project may configure itself and its descendants, along with any project it has declared an
+ * evaluation dependency on. Looking up some other project, apart from an ancestor, is reported as a warning.</p>
+ */
+public class ParallelProjectEvaluator implements ProjectEvaluator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelProjectEvaluator.class);
+    private final ProjectEvaluator delegate;
+    private final Lock lock = new ReentrantLock();
+    private final Condition evaluationCompleted = lock.newCondition();
+    private final Map<ProjectInternal, Thread> evaluatingThreads = new HashMap<ProjectInternal, Thread>();
+    private final Map<Thread, ProjectInternal> awaitedProjects = new HashMap<Thread, ProjectInternal>();
+    private final Set<List<String>> reportedLookups = Collections.synchronizedSet(new HashSet<List<String>>());
+    private final ThreadLocal<LinkedList<Evaluation>> currentEvaluations = new ThreadLocal<LinkedList<Evaluation>>() {
+        @Override
+        protected LinkedList<Evaluation> initialValue() {
+            return new LinkedList<Evaluation>();
+        }
+    };
+
+    public ParallelProjectEvaluator(ProjectEvaluator delegate) {
+        this.delegate = delegate;
+    }
+
+    public void evaluate(ProjectInternal project, ProjectStateInternal state) {
+        LinkedList<Evaluation> evaluations = currentEvaluations.get();
+        if (!evaluations.isEmpty()) {
+            evaluations.getFirst().dependencies.add(project);
+        }
+        if (!claim(project, state)) {
+            return;
+        }
+
+        evaluations.addFirst(new Evaluation(project));
+        try {
+            delegate.evaluate(project, state);
+        } finally {
+            evaluations.removeFirst();
+            release(project);
+        }
+    }
+
+    /**
+     * Called before the project being evaluated by the current thread configures the given project.
+     *
+     * @throws InvalidUserDataException when the given project may be evaluated concurrently.
+     */
+    public void beforeConfiguringProject(ProjectInternal targetProject) {
+        LinkedList<Evaluation> evaluations = currentEvaluations.get();
+        if (evaluations.isEmpty()) {
+            return;
+        }
+        for (Evaluation evaluation : evaluations) {
+            if (evaluation.mayConfigure(targetProject)) {
+                return;
+            }
+        }
+        throw new InvalidUserDataException(String.format("Cannot configure %s from %s, as projects are being configured in parallel. "
+                + "Use evaluationDependsOn('%s') to declare the dependency, or configure the projects sequentially.",
+                targetProject, evaluations.getFirst().project, targetProject.getPath()));
+    }
+
+    /**
+     * Called before the project being evaluated by the current thread looks up the given project. Reports a warning when the given project
+     * may be evaluated concurrently, as what the lookup sees of it then depends on the order in which the projects happen to be configured.
+     */
+    public void beforeLookingUpProject(ProjectInternal targetProject) {
+        LinkedList<Evaluation> evaluations = currentEvaluations.get();
+        if (evaluations.isEmpty()) {
+            return;
+        }
+        for (Evaluation evaluation : evaluations) {
+            if (evaluation.mayConfigure(targetProject) || evaluation.isDescendantOf(targetProject)) {
+                return;
+            }
+        }
+        ProjectInternal project = evaluations.getFirst().project;
+        if (reportedLookups.add(Arrays.asList(project.getPath(), targetProject.getPath()))) {
+            LOGGER.warn(String.format("%s looks up %s without declaring a dependency on it, as projects are being configured in parallel. "
+                    + "The state of %s it sees may differ from one build to the next. Use evaluationDependsOn('%s') to declare the dependency.",
+                    StringUtils.capitalize(project.toString()), targetProject, targetProject, targetProject.getPath()));
+        }
+    }
+
+    private boolean claim(ProjectInternal project, ProjectStateInternal state) {
+        Thread currentThread = Thread.currentThread();
+        lock.lock();
+        try {
+            while (true) {
+                Thread owner = evaluatingThreads.get(project);
+                if (owner == currentThread) {
+                    // Circular evaluation within this thread, which the delegate takes care of
+                    return false;
+                }
+                if (owner != null) {
+                    if (waitsFor(owner, currentThread)) {
+                        throw new CircularReferenceException(String.format("Circular referencing during evaluation for %s.", project));
+                    }
+                    await(project);
+                    continue;
+                }
+                if (state.getExecuted()) {
+                    return false;
+                }
+
+                ProjectInternal ancestor = findAncestorEvaluatedElsewhere(project);
+                if (ancestor != null && !waitsFor(evaluatingThreads.get(ancestor), currentThread)) {
+                    await(ancestor);
+                    continue;
+                }
+
+                evaluatingThreads.put(project, currentThread);
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(ProjectInternal project) {
+        lock.lock();
+        try {
+            evaluatingThreads.remove(project);
+            evaluationCompleted.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ProjectInternal findAncestorEvaluatedElsewhere(ProjectInternal project) {
+        for (ProjectInternal ancestor = project.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+            Thread owner = evaluatingThreads.get(ancestor);
+            if (owner != null && owner != Thread.currentThread()) {
+                return ancestor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if the given thread is, directly or indirectly, waiting for a project that the target thread is evaluating.
+     */
+    private boolean waitsFor(Thread thread, Thread target) {
+        Set<Thread> seen = new HashSet<Thread>();
+        while (thread != null && seen.add(thread)) {
+            ProjectInternal awaited = awaitedProjects.get(thread);
+            if (awaited == null) {
+                return false;
+            }
+            thread = evaluatingThreads.get(awaited);
+            if (thread == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void await(ProjectInternal project) {
+        Thread currentThread = Thread.currentThread();
+        awaitedProjects.put(currentThread, project);
+        try {
+            evaluationCompleted.awaitUninterruptibly();
+        } finally {
+            awaitedProjects.remove(currentThread);
+        }
+    }
+
+    private static class Evaluation {
+        private final ProjectInternal project;
+        private final Set<ProjectInternal> dependencies = new HashSet<ProjectInternal>();
+
+        private Evaluation(ProjectInternal project) {
+            this.project = project;
+        }
+
+        boolean mayConfigure(ProjectInternal target) {
+            if (dependencies.contains(target)) {
+                return true;
+            }
+            for (ProjectInternal candidate = target; candidate != null; candidate = candidate.getParent()) {
+                if (candidate == project) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isDescendantOf(ProjectInternal target) {
+            for (ProjectInternal candidate = project.getParent(); candidate != null; candidate = candidate.getParent()) {
+                if (candidate == target) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -16,8 +16,10 @@
 
 package org.gradle.execution.taskgraph;
 
+import com.google.common.collect.Iterables;
 import org.gradle.api.CircularReferenceException;
 import org.gradle.api.Task;
+import org.gradle.api.internal.changedetection.state.TaskDurationRepository;
 import org.gradle.api.internal.tasks.CachingTaskDependencyResolveContext;
 import org.gradle.api.specs.Spec;
 import org.gradle.api.specs.Specs;
@@ -52,6 +54,7 @@ class DefaultTaskExecutionPlan implements TaskExecutionPlan {
 
     private TaskFailureHandler failureHandler = new RethrowingFailureHandler();
     private final List<String> runningProjects = new ArrayList<String>();
+    private boolean prioritiseLongestPaths;
 
     public void addToTaskGraph(Collection<? extends Task> tasks) {
         List<Task> queue = new ArrayList<Task>(tasks);
@@ -180,6 +183,7 @@ class DefaultTaskExecutionPlan implements TaskExecutionPlan {
             executionPlan.clear();
             failures.clear();
             runningProjects.clear();
+            prioritiseLongestPaths = false;
         } finally {
             lock.unlock();
         }
@@ -197,6 +201,42 @@ class DefaultTaskExecutionPlan implements TaskExecutionPlan {
         this.failureHandler = handler;
     }
 
+    public void prioritiseLongestPaths(TaskDurationRepository durations) {
+        lock.lock();
+        try {
+            Map<TaskInfo, List<TaskInfo>> dependents = new HashMap<TaskInfo, List<TaskInfo>>();
+            for (TaskInfo taskInfo : executionPlan.values()) {
+                for (TaskInfo dependency : Iterables.concat(taskInfo.getHardSuccessors(), taskInfo.getSoftSuccessors())) {
+                    List<TaskInfo> dependentsOfDependency = dependents.get(dependency);
+                    if (dependentsOfDependency == null) {
+                        dependentsOfDependency = new ArrayList<TaskInfo>();
+                        dependents.put(dependency, dependentsOfDependency);
+                    }
+                    dependentsOfDependency.add(taskInfo);
+                }
+            }
+
+            // Every task appears in the plan after the tasks it depends on, so visiting the plan in reverse visits dependents first
+            List<TaskInfo> reversePlan = new ArrayList<TaskInfo>(executionPlan.values());
+            Collections.reverse(reversePlan);
+            for (TaskInfo taskInfo : reversePlan) {
+                long longestDependentPath = 0;
+                List<TaskInfo> dependentsOfTask = dependents.get(taskInfo);
+                if (dependentsOfTask != null) {
+                    for (TaskInfo dependent : dependentsOfTask) {
+                        longestDependentPath = Math.max(longestDependentPath, dependent.getLongestPathDuration());
+                    }
+                }
+                Long duration = durations.getPreviousDuration(taskInfo.getTask());
+                // Count each task as taking at least 1ms, so that longer chains win when no durations are known
+                taskInfo.setLongestPathDuration(longestDependentPath + Math.max(1, duration == null ? 0 : duration));
+            }
+            prioritiseLongestPaths = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public TaskInfo getTaskToExecute() {
         lock.lock();
         try {
@@ -206,8 +246,13 @@ class DefaultTaskExecutionPlan implements TaskExecutionPlan {
                 for (TaskInfo taskInfo : executionPlan.values()) {
                     allTasksComplete = allTasksComplete && taskInfo.isComplete();
                     if (taskInfo.isReady() && taskInfo.allDependenciesComplete() && !runningProjects.contains(taskInfo.getTask().getProject().getPath())) {
-                        nextMatching = taskInfo;
-                        break;
+                        if (!prioritiseLongestPaths) {
+                            nextMatching = taskInfo;
+                            break;
+                        }
+                        if (nextMatching == null || taskInfo.getLongestPathDuration() > nextMatching.getLongestPathDuration()) {
+                            nextMatching = taskInfo;
+                        }
                     }
                 }
                 if (allTasksComplete) {
@@ -19,7 +19,9 @@ package org.gradle.execution.taskgraph;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
 import org.gradle.api.execution.TaskExecutionListener;
-import org.gradle.api.internal.changedetection.state.TaskArtifactStateCacheAccess;
+import org.gradle.api.tasks.TaskState;
+import org.gradle.api.internal.changedetection.state.TaskDurationRepository;
+import org.gradle.api.internal.changedetection.state.TimingTaskArtifactStateCacheAccess;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.internal.concurrent.DefaultExecutorFactory;
@@ -31,24 +33,38 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
-import static org.gradle.util.Clock.prettyTime;
-
+/**
+ * Executes tasks using a pool of worker threads, sized from the requested number of parallel threads. Workers do not hold the task artifact
+ * cache lock while a task executes; the task executer acquires it only for the short up-to-date check and history update steps.
+ *
+ * <p>Ready tasks are handed out longest remaining path first, using the task durations recorded by previous builds.</p>
+ *
+ * <p>Task execution listeners are not required to be thread-safe, so notifications to the listener are serialized.</p>
+ */
 class ParallelTaskPlanExecutor extends DefaultTaskPlanExecutor {
     private static final Logger LOGGER = Logging.getLogger(ParallelTaskPlanExecutor.class);
 
-    private final TaskArtifactStateCacheAccess stateCacheAccess;
+    private final TimingTaskArtifactStateCacheAccess stateCacheAccess;
+    private final TaskDurationRepository taskDurationRepository;
+    private final TaskWorkerStatisticsListener statisticsListener;
     private final int executorCount;
 
-    public ParallelTaskPlanExecutor(TaskArtifactStateCacheAccess cacheAccess, int numberOfParallelExecutors) {
+    public ParallelTaskPlanExecutor(TimingTaskArtifactStateCacheAccess cacheAccess, TaskDurationRepository taskDurationRepository,
+                                    TaskWorkerStatisticsListener statisticsListener, int numberOfParallelExecutors) {
         if (numberOfParallelExecutors < 1) {
             throw new IllegalArgumentException("Not a valid number of parallel executors: " + numberOfParallelExecutors);
         }
 
         this.stateCacheAccess = cacheAccess;
+        this.taskDurationRepository = taskDurationRepository;
+        this.statisticsListener = statisticsListener;
         this.executorCount = numberOfParallelExecutors;
     }
 
-    public void process(final TaskExecutionPlan taskExecutionPlan, final TaskExecutionListener taskListener) {
+    public void process(final TaskExecutionPlan taskExecutionPlan, TaskExecutionListener listener) {
+        final TaskExecutionListener taskListener = new SerializingTaskExecutionListener(listener);
+        // The cache is locked at this point, so load the previous task durations before releasing it
+        taskExecutionPlan.prioritiseLongestPaths(taskDurationRepository);
         stateCacheAccess.longRunningOperation("Executing all tasks", new Runnable() {
             public void run() {
                 DefaultExecutorFactory factory = new DefaultExecutorFactory();
@@ -64,15 +80,16 @@ class ParallelTaskPlanExecutor extends DefaultTaskPlanExecutor {
     }
 
     private void doProcess(TaskExecutionPlan taskExecutionPlan, TaskExecutionListener taskListener, ExecutorFactory factory) {
+        // Only one task per project executes at a time, so there is no point in using more workers than there are projects
         List<Project> projects = getAllProjects(taskExecutionPlan);
         int numExecutors = Math.min(executorCount, projects.size());
-        numExecutors = Math.min(numExecutors, 4);
 
-        LOGGER.info("Using {} parallel executor threads", numExecutors);
+        LOGGER.debug("Using {} parallel executor threads", numExecutors);
 
         for (int i = 0; i < numExecutors; i++) {
-            TaskExecutorWorker worker = new TaskExecutorWorker(taskExecutionPlan, taskListener);
-            StoppableExecutor executor = factory.create("Task worker " + (i+1));
+            String workerName = "Task worker " + (i + 1);
+            TaskExecutorWorker worker = new TaskExecutorWorker(workerName, taskExecutionPlan, taskListener);
+            StoppableExecutor executor = factory.create(workerName);
             // TODO A bunch more stuff to contextualise the thread
             executor.execute(worker);
         }
@@ -87,39 +104,51 @@ class ParallelTaskPlanExecutor extends DefaultTaskPlanExecutor {
     }
 
     private class TaskExecutorWorker implements Runnable {
+        private final String workerName;
         private final TaskExecutionPlan taskExecutionPlan;
         private final TaskExecutionListener taskListener;
         private long busyMs;
-        private long waitedForCacheMs;
+        private int taskCount;
 
-        private TaskExecutorWorker(TaskExecutionPlan taskExecutionPlan, TaskExecutionListener taskListener) {
+        private TaskExecutorWorker(String workerName, TaskExecutionPlan taskExecutionPlan, TaskExecutionListener taskListener) {
+            this.workerName = workerName;
             this.taskExecutionPlan = taskExecutionPlan;
             this.taskListener = taskListener;
         }
 
         public void run() {
             long start = System.currentTimeMillis();
+            long initialCacheWait = stateCacheAccess.getLockWaitTime();
             TaskInfo task;
             while((task = taskExecutionPlan.getTaskToExecute()) != null) {
-                executeTaskWithCacheLock(task);
+                executeTask(task);
             }
             long total = System.currentTimeMillis() - start;
-            LOGGER.info("Parallel worker [{}] stopped, busy: {}, idle: {}, waited for cache: {}", Thread.currentThread(), prettyTime(busyMs), prettyTime(total - busyMs), prettyTime(waitedForCacheMs));
+            long cacheWaitMs = stateCacheAccess.getLockWaitTime() - initialCacheWait;
+            statisticsListener.workerFinished(new TaskWorkerStatistics(workerName, taskCount, busyMs, total - busyMs, cacheWaitMs));
         }
 
-        private void executeTaskWithCacheLock(final TaskInfo taskInfo) {
-            final String taskPath = taskInfo.getTask().getPath();
-            LOGGER.info(taskPath + " (" + Thread.currentThread() + " - start");
-            final long start = System.currentTimeMillis();
-            stateCacheAccess.useCache("Executing " + taskPath, new Runnable() {
-                public void run() {
-                    waitedForCacheMs += System.currentTimeMillis() - start;
-                    processTask(taskInfo, taskExecutionPlan, taskListener);
-                }
-            });
+        private void executeTask(TaskInfo taskInfo) {
+            long start = System.currentTimeMillis();
+            processTask(taskInfo, taskExecutionPlan, taskListener);
             busyMs += System.currentTimeMillis() - start;
+            taskCount++;
+        }
+    }
+
+    private static class SerializingTaskExecutionListener implements TaskExecutionListener {
+        private final TaskExecutionListener delegate;
+
+        private SerializingTaskExecutionListener(TaskExecutionListener delegate) {
+            this.delegate = delegate;
+        }
+
+        public synchronized void beforeExecute(Task task) {
+            delegate.beforeExecute(task);
+        }
 
-            LOGGER.info(taskPath + " (" + Thread.currentThread() + ") - complete");
+        public synchronized void afterExecute(Task task, TaskState state) {
+            delegate.afterExecute(task, state);
         }
     }
 }
@@ -17,6 +17,7 @@
 package org.gradle.execution.taskgraph;
 
 import org.gradle.api.Task;
+import org.gradle.api.internal.changedetection.state.TaskDurationRepository;
 
 import java.util.List;
 
@@ -47,4 +48,11 @@ public interface TaskExecutionPlan {
      * @return The task, or null if no matching tasks remain.
      */
     TaskInfo getTaskToExecute();
+
+    /**
+     * Changes the order in which ready-to-execute tasks are provided by {@link #getTaskToExecute()}, so that the task with the longest estimated chain of
+     * dependent tasks is provided first. Durations are estimated from the previous execution of each task. Tasks with the same estimate are provided in execution order.
+     * @param durations The durations of the previous executions.
+     */
+    void prioritiseLongestPaths(TaskDurationRepository durations);
 }
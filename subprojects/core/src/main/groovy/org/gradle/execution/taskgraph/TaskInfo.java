@@ -32,6 +32,7 @@ class TaskInfo implements Comparable<TaskInfo> {
     private Throwable executionFailure;
     private final TreeSet<TaskInfo> hardSuccessors = new TreeSet<TaskInfo>();
     private final TreeSet<TaskInfo> softSuccessors = new TreeSet<TaskInfo>();
+    private long longestPathDuration;
 
     public TaskInfo(TaskInternal task) {
         this.task = task;
@@ -128,6 +129,17 @@ class TaskInfo implements Comparable<TaskInfo> {
         softSuccessors.add(toNode);
     }
 
+    /**
+     * Returns the estimated time, in milliseconds, to execute this task and the longest chain of tasks that depend on it.
+     */
+    public long getLongestPathDuration() {
+        return longestPathDuration;
+    }
+
+    public void setLongestPathDuration(long longestPathDuration) {
+        this.longestPathDuration = longestPathDuration;
+    }
+
     public int compareTo(TaskInfo otherInfo) {
         return task.compareTo(otherInfo.getTask());
     }
@@ -16,17 +16,23 @@
 
 package org.gradle.execution.taskgraph;
 
-import org.gradle.api.internal.changedetection.state.TaskArtifactStateCacheAccess;
+import org.gradle.api.internal.changedetection.state.TaskDurationRepository;
+import org.gradle.api.internal.changedetection.state.TimingTaskArtifactStateCacheAccess;
 import org.gradle.internal.Factory;
 import org.gradle.util.SingleMessageLogger;
 
 public class TaskPlanExecutorFactory implements Factory<TaskPlanExecutor> {
 
-    private final TaskArtifactStateCacheAccess taskArtifactStateCacheAccess;
+    private final TimingTaskArtifactStateCacheAccess taskArtifactStateCacheAccess;
+    private final TaskDurationRepository taskDurationRepository;
+    private final TaskWorkerStatisticsListener statisticsListener;
     private final int parallelThreads;
 
-    public TaskPlanExecutorFactory(TaskArtifactStateCacheAccess taskArtifactStateCacheAccess, int parallelThreads) {
+    public TaskPlanExecutorFactory(TimingTaskArtifactStateCacheAccess taskArtifactStateCacheAccess, TaskDurationRepository taskDurationRepository,
+                                   TaskWorkerStatisticsListener statisticsListener, int parallelThreads) {
         this.taskArtifactStateCacheAccess = taskArtifactStateCacheAccess;
+        this.taskDurationRepository = taskDurationRepository;
+        this.statisticsListener = statisticsListener;
         this.parallelThreads = parallelThreads;
     }
 
@@ -34,7 +40,7 @@ public class TaskPlanExecutorFactory implements Factory<TaskPlanExecutor> {
         ExecutionOptions options = new ExecutionOptions(parallelThreads);
         if (options.executeProjectsInParallel()) {
             SingleMessageLogger.informAboutIncubating("Parallel project execution");
-            return new ParallelTaskPlanExecutor(taskArtifactStateCacheAccess, options.numberOfParallelThreads());
+            return new ParallelTaskPlanExecutor(taskArtifactStateCacheAccess, taskDurationRepository, statisticsListener, options.numberOfParallelThreads());
         }
         return new DefaultTaskPlanExecutor();
 
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.taskgraph;
+
+import static org.gradle.util.Clock.prettyTime;
+
+/**
+ * The time a single parallel task worker spent executing tasks, idle, and waiting for the task artifact cache.
+ */
+public class TaskWorkerStatistics {
+    private final String workerName;
+    private final int taskCount;
+    private final long busyTime;
+    private final long idleTime;
+    private final long cacheWaitTime;
+
+    public TaskWorkerStatistics(String workerName, int taskCount, long busyTime, long idleTime, long cacheWaitTime) {
+        this.workerName = workerName;
+        this.taskCount = taskCount;
+        this.busyTime = busyTime;
+        this.idleTime = idleTime;
+        this.cacheWaitTime = cacheWaitTime;
+    }
+
+    public String getWorkerName() {
+        return workerName;
+    }
+
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    /**
+     * Returns the time, in milliseconds, this worker spent executing tasks. Includes the cache wait time.
+     */
+    public long getBusyTime() {
+        return busyTime;
+    }
+
+    /**
+     * Returns the time, in milliseconds, this worker spent waiting for a task to become ready.
+     */
+    public long getIdleTime() {
+        return idleTime;
+    }
+
+    /**
+     * Returns the time, in milliseconds, this worker spent waiting for the task artifact cache lock.
+     */
+    public long getCacheWaitTime() {
+        return cacheWaitTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: tasks: %s, busy: %s, idle: %s, waited for cache: %s", workerName, taskCount, prettyTime(busyTime), prettyTime(idleTime), prettyTime(cacheWaitTime));
+    }
+}
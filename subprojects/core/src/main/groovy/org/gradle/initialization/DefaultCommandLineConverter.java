@@ -55,6 +55,7 @@ public class DefaultCommandLineConverter extends AbstractCommandLineConverter<St
     private static final String PARALLEL_THREADS = "parallel-threads";
 
     private static final String CONFIGURE_ON_DEMAND = "configure-on-demand";
+    private static final String PARALLEL_CONFIGURATION = "parallel-configuration";
 
     private final CommandLineConverter<LoggingConfiguration> loggingConfigurationCommandLineConverter = new LoggingCommandLineConverter();
     private final SystemPropertiesCommandLineConverter systemPropertiesCommandLineConverter = new SystemPropertiesCommandLineConverter();
@@ -88,6 +89,7 @@ public class DefaultCommandLineConverter extends AbstractCommandLineConverter<St
         parser.option(PARALLEL).hasDescription("Build projects in parallel. Gradle will attempt to determine the optimal number of executor threads to use.").incubating();
         parser.option(PARALLEL_THREADS).hasArgument().hasDescription("Build projects in parallel, using the specified number of executor threads.").incubating();
         parser.option(CONFIGURE_ON_DEMAND).hasDescription("Only relevant projects are configured in this build run. This means faster build for large multi-project builds.").incubating();
+        parser.option(PARALLEL_CONFIGURATION).hasDescription("Configure projects in parallel. Projects may only configure their own child projects, or projects they declare an evaluation dependency on.").incubating();
     }
 
     @Override
@@ -201,6 +203,10 @@ public class DefaultCommandLineConverter extends AbstractCommandLineConverter<St
             startParameter.setConfigureOnDemand(true);
         }
 
+        if (options.hasOption(PARALLEL_CONFIGURATION)) {
+            startParameter.setParallelConfiguration(true);
+        }
+
         return startParameter;
     }
 
@@ -29,6 +29,7 @@ import org.gradle.configuration.BuildConfigurer;
 import org.gradle.execution.BuildExecuter;
 import org.gradle.initialization.buildsrc.BuildSourceBuilder;
 import org.gradle.initialization.layout.BuildLayoutFactory;
+import org.gradle.internal.Stoppable;
 import org.gradle.internal.reflect.Instantiator;
 import org.gradle.internal.service.ServiceRegistry;
 import org.gradle.invocation.DefaultGradle;
@@ -44,8 +45,8 @@ import java.util.Arrays;
 /**
  * @author Hans Dockter
  */
-public class DefaultGradleLauncherFactory implements GradleLauncherFactory {
-    private final ServiceRegistry sharedServices;
+public class DefaultGradleLauncherFactory implements GradleLauncherFactory, Stoppable {
+    private final GlobalServicesRegistry sharedServices;
     private final NestedBuildTracker tracker;
     private CommandLineConverter<StartParameter> commandLineConverter;
 
@@ -69,6 +70,13 @@ public class DefaultGradleLauncherFactory implements GradleLauncherFactory {
         GradleLauncher.injectCustomFactory(this);
     }
 
+    /**
+     * Closes the services shared by the builds of this factory. No further builds can be run.
+     */
+    public void stop() {
+        sharedServices.close();
+    }
+
     public void addListener(Object listener) {
         sharedServices.get(ListenerManager.class).addListener(listener);
     }
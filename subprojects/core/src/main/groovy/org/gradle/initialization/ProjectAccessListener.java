@@ -19,11 +19,13 @@ package org.gradle.initialization;
 import org.gradle.api.internal.project.ProjectInternal;
 
 /**
- * Internal interface, used by our configuration on demand mode.
+ * Internal interface, used by our configuration on demand and parallel configuration modes.
  *
  * by Szczepan Faber, created at: 2/5/13
  */
 public interface ProjectAccessListener {
     void beforeRequestingTaskByPath(ProjectInternal targetProject);
     void beforeResolvingProjectDependency(ProjectInternal dependencyProject);
+    void beforeConfiguringProject(ProjectInternal targetProject);
+    void beforeLookingUpProject(ProjectInternal targetProject);
 }
@@ -25,6 +25,7 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class BroadcastDispatch<T> implements Dispatch<MethodInvocation> {
@@ -42,16 +43,22 @@ public class BroadcastDispatch<T> implements Dispatch<MethodInvocation> {
     }
 
     public void add(Dispatch<MethodInvocation> dispatch) {
-        handlers.put(dispatch, dispatch);
+        synchronized (handlers) {
+            handlers.put(dispatch, dispatch);
+        }
     }
 
     public void add(T listener) {
-        handlers.put(listener, new ReflectionDispatch(listener));
+        synchronized (handlers) {
+            handlers.put(listener, new ReflectionDispatch(listener));
+        }
     }
 
     public void add(String methodName, Action<?> action) {
         assertIsMethod(methodName);
-        handlers.put(action, new ActionInvocationHandler(methodName, action));
+        synchronized (handlers) {
+            handlers.put(action, new ActionInvocationHandler(methodName, action));
+        }
     }
 
     private void assertIsMethod(String methodName) {
@@ -65,7 +72,9 @@ public class BroadcastDispatch<T> implements Dispatch<MethodInvocation> {
     }
 
     public void remove(Object listener) {
-        handlers.remove(listener);
+        synchronized (handlers) {
+            handlers.remove(listener);
+        }
     }
 
     private String getErrorMessage() {
@@ -76,7 +85,7 @@ public class BroadcastDispatch<T> implements Dispatch<MethodInvocation> {
     public void dispatch(MethodInvocation invocation) {
         try {
             ExceptionTrackingFailureHandler tracker = new ExceptionTrackingFailureHandler(LOGGER);
-            for (Dispatch<MethodInvocation> handler : new ArrayList<Dispatch<MethodInvocation>>(handlers.values())) {
+            for (Dispatch<MethodInvocation> handler : getHandlers()) {
                 try {
                     handler.dispatch(invocation);
                 } catch (UncheckedException e) {
@@ -91,6 +100,12 @@ public class BroadcastDispatch<T> implements Dispatch<MethodInvocation> {
         }
     }
 
+    private List<Dispatch<MethodInvocation>> getHandlers() {
+        synchronized (handlers) {
+            return new ArrayList<Dispatch<MethodInvocation>>(handlers.values());
+        }
+    }
+
     private class ActionInvocationHandler implements Dispatch<MethodInvocation> {
         private final String methodName;
         private final Action action;
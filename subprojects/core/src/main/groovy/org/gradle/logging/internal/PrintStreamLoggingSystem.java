@@ -22,23 +22,41 @@ import org.gradle.internal.TimeProvider;
 import org.gradle.util.LinePerThreadBufferingOutputStream;
 
 import java.io.PrintStream;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * A {@link LoggingSystem} which routes content written to a {@code PrintStream} to a {@link OutputEventListener}.
  * Generates a {@link StyledTextOutputEvent} instance when a line of text is written to the {@code PrintStream}.
  * Generates a {@link LogLevelChangeEvent} when the log level for this {@code LoggingSystem} is changed.
+ *
+ * <p>Each call to {@link #on}, {@link #off} or {@link #snapshot} pushes a capture owned by the calling thread, and {@link #restore} removes
+ * the capture for the given snapshot along with the later captures of the same thread. Text written by a thread is routed using that
+ * thread's most recent capture, or the most recent capture of any thread when it has none. This way threads which capture output at the
+ * same time, such as the workers that configure projects in parallel, don't restore each other's state.</p>
  */
 abstract class PrintStreamLoggingSystem implements LoggingSystem {
-    private final AtomicReference<StandardOutputListener> destination = new AtomicReference<StandardOutputListener>();
+    private final Object lock = new Object();
+    private final List<Capture> captures = new ArrayList<Capture>();
     private final PrintStream outstr = new LinePerThreadBufferingOutputStream(new Action<String>() {
         public void execute(String output) {
-            destination.get().onOutput(output);
+            LogLevel level;
+            StandardOutputListener original;
+            synchronized (lock) {
+                level = currentLevel(Thread.currentThread());
+                original = PrintStreamLoggingSystem.this.original;
+            }
+            if (level == null) {
+                original.onOutput(output);
+            } else {
+                listener.onOutput(output, level);
+            }
         }
     });
     private StandardOutputListener original;
     private LogLevel logLevel;
-    private final StandardOutputListener listener;
+    private final OutputEventDestination listener;
     private final OutputEventListener outputEventListener;
 
     protected PrintStreamLoggingSystem(OutputEventListener listener, String category, TimeProvider timeProvider) {
@@ -57,44 +75,82 @@ abstract class PrintStreamLoggingSystem implements LoggingSystem {
     protected abstract void set(PrintStream printStream);
 
     public Snapshot snapshot() {
-        return new SnapshotImpl(logLevel);
+        synchronized (lock) {
+            return push(new Capture(Thread.currentThread(), null, true));
+        }
     }
 
     public void restore(Snapshot state) {
-        SnapshotImpl snapshot = (SnapshotImpl) state;
-        install();
-        if (snapshot.logLevel == null) {
-            destination.set(original);
-        } else {
-            this.logLevel = snapshot.logLevel;
-            outputEventListener.onOutput(new LogLevelChangeEvent(snapshot.logLevel));
-            destination.set(listener);
+        Capture capture = (Capture) state;
+        outstr.flush();
+        synchronized (lock) {
+            int index = captures.indexOf(capture);
+            if (index < 0) {
+                return;
+            }
+            for (Iterator<Capture> iterator = captures.subList(index, captures.size()).iterator(); iterator.hasNext();) {
+                if (iterator.next().owner == capture.owner) {
+                    iterator.remove();
+                }
+            }
+            levelChanged();
         }
     }
 
     public Snapshot on(final LogLevel level) {
-        Snapshot snapshot = snapshot();
         install();
-        this.logLevel = level;
-        outputEventListener.onOutput(new LogLevelChangeEvent(logLevel));
-        destination.set(listener);
-        return snapshot;
+        synchronized (lock) {
+            Capture capture = push(new Capture(Thread.currentThread(), level, false));
+            levelChanged();
+            return capture;
+        }
     }
 
     public Snapshot off() {
-        Snapshot snapshot = snapshot();
-        if (original != null) {
-            outstr.flush();
-            destination.set(original);
-            logLevel = null;
+        outstr.flush();
+        synchronized (lock) {
+            Capture capture = push(new Capture(Thread.currentThread(), null, original == null));
+            levelChanged();
+            return capture;
         }
-        return snapshot;
+    }
+
+    private Capture push(Capture capture) {
+        captures.add(capture);
+        return capture;
+    }
+
+    private LogLevel currentLevel(Thread thread) {
+        Capture latest = null;
+        for (int i = captures.size() - 1; i >= 0; i--) {
+            Capture capture = captures.get(i);
+            if (capture.inherit) {
+                continue;
+            }
+            if (capture.owner == thread) {
+                return capture.logLevel;
+            }
+            if (latest == null) {
+                latest = capture;
+            }
+        }
+        return latest == null ? null : latest.logLevel;
+    }
+
+    private void levelChanged() {
+        LogLevel newLevel = currentLevel(null);
+        if (newLevel != null && newLevel != logLevel) {
+            outputEventListener.onOutput(new LogLevelChangeEvent(newLevel));
+        }
+        logLevel = newLevel;
     }
 
     private void install() {
-        if (original == null) {
-            PrintStream originalStream = get();
-            original = new PrintStreamDestination(originalStream);
+        synchronized (lock) {
+            if (original == null) {
+                PrintStream originalStream = get();
+                original = new PrintStreamDestination(originalStream);
+            }
         }
         outstr.flush();
         if (get() != outstr) {
@@ -114,15 +170,19 @@ abstract class PrintStreamLoggingSystem implements LoggingSystem {
         }
     }
 
-    private static class SnapshotImpl implements Snapshot {
+    private static class Capture implements Snapshot {
+        private final Thread owner;
         private final LogLevel logLevel;
+        private final boolean inherit;
 
-        public SnapshotImpl(LogLevel logLevel) {
+        private Capture(Thread owner, LogLevel logLevel, boolean inherit) {
+            this.owner = owner;
             this.logLevel = logLevel;
+            this.inherit = inherit;
         }
     }
 
-    private static class OutputEventDestination implements StandardOutputListener {
+    private static class OutputEventDestination {
         private final OutputEventListener listener;
         private final String category;
         private final TimeProvider timeProvider;
@@ -133,8 +193,8 @@ abstract class PrintStreamLoggingSystem implements LoggingSystem {
             this.timeProvider = timeProvider;
         }
 
-        public void onOutput(CharSequence output) {
-            listener.onOutput(new StyledTextOutputEvent(timeProvider.getCurrentTime(), category, output.toString()));
+        public void onOutput(CharSequence output, LogLevel logLevel) {
+            listener.onOutput(new StyledTextOutputEvent(timeProvider.getCurrentTime(), category, logLevel, output.toString()));
         }
     }
 }
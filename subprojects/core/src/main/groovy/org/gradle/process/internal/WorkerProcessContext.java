@@ -17,6 +17,7 @@
 package org.gradle.process.internal;
 
 import org.gradle.messaging.remote.ObjectConnection;
+import org.gradle.messaging.remote.internal.ParameterSerializerRegistry;
 
 public interface WorkerProcessContext {
     /**
@@ -34,5 +35,11 @@ public interface WorkerProcessContext {
      */
     ObjectConnection getServerConnection();
 
+    /**
+     * Returns the registry of the serializers used for the parameters of the messages sent by this worker process. The registry is shared by
+     * all connections of the worker process.
+     */
+    ParameterSerializerRegistry getParameterSerializerRegistry();
+
     ClassLoader getApplicationClassLoader();
 }
@@ -21,6 +21,7 @@ import org.gradle.messaging.remote.Address;
 import org.gradle.messaging.remote.MessagingClient;
 import org.gradle.messaging.remote.ObjectConnection;
 import org.gradle.messaging.remote.internal.MessagingServices;
+import org.gradle.messaging.remote.internal.ParameterSerializerRegistry;
 import org.gradle.process.internal.WorkerProcessContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,7 +49,7 @@ public class ActionExecutionWorker implements Action<WorkerContext>, Serializabl
     }
 
     public void execute(final WorkerContext workerContext) {
-        MessagingServices messagingServices = createClient();
+        final MessagingServices messagingServices = createClient();
         try {
             final MessagingClient client = messagingServices.get(MessagingClient.class);
             final ObjectConnection clientConnection = client.getConnection(serverAddress);
@@ -59,6 +60,10 @@ public class ActionExecutionWorker implements Action<WorkerContext>, Serializabl
                         return clientConnection;
                     }
 
+                    public ParameterSerializerRegistry getParameterSerializerRegistry() {
+                        return messagingServices.get(ParameterSerializerRegistry.class);
+                    }
+
                     public ClassLoader getApplicationClassLoader() {
                         return workerContext.getApplicationClassLoader();
                     }
@@ -54,11 +54,14 @@ public class HtmlReportRenderer {
             @Override
             public void writeTo(T model, File file) {
                 super.writeTo(model, file);
-                for (URL resource : resources) {
-                    String name = StringUtils.substringAfterLast(resource.getPath(), "/");
-                    File destFile = new File(file.getParentFile(), name);
-                    if (!destFile.exists()) {
-                        GFileUtils.copyURLToFile(resource, destFile);
+                // Pages may be written concurrently
+                synchronized (resources) {
+                    for (URL resource : resources) {
+                        String name = StringUtils.substringAfterLast(resource.getPath(), "/");
+                        File destFile = new File(file.getParentFile(), name);
+                        if (!destFile.exists()) {
+                            GFileUtils.copyURLToFile(resource, destFile);
+                        }
                     }
                 }
             }
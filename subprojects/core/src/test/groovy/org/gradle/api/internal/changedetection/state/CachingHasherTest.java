@@ -16,17 +16,25 @@
 package org.gradle.api.internal.changedetection.state;
 
 import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.internal.Factory;
 import org.gradle.messaging.serialize.Serializer;
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider;
 import org.jmock.Expectations;
+import org.jmock.States;
+import org.jmock.api.Action;
+import org.jmock.api.Invocation;
 import org.jmock.integration.junit4.JMock;
 import org.jmock.integration.junit4.JUnit4Mockery;
+import org.jmock.lib.action.CustomAction;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.gradle.util.Matchers.reflectionEquals;
 import static org.hamcrest.Matchers.*;
@@ -41,6 +49,7 @@ public class CachingHasherTest {
     private final PersistentIndexedCache<File, CachingHasher.FileInfo> cache = context.mock(
             PersistentIndexedCache.class);
     private final TaskArtifactStateCacheAccess cacheAccess = context.mock(TaskArtifactStateCacheAccess.class);
+    private final States cacheLock = context.states("cacheLock").startsAs("released");
     private final byte[] hash = "hash".getBytes();
     private final File file = tmpDir.createFile("testfile").write("content");
     private CachingHasher hasher;
@@ -105,4 +114,58 @@ public class CachingHasherTest {
 
         assertThat(hasher.hash(file), sameInstance(hash));
     }
+
+    @Test
+    public void hashesOnlyChangedFilesOfABatch() {
+        final File unchanged = tmpDir.createFile("unchanged").write("content");
+        final byte[] unchangedHash = "unchanged".getBytes();
+        context.checking(new Expectations() {{
+            one(cacheAccess).useCache(with(notNullValue(String.class)), with(notNullValue(Factory.class)));
+            will(runFactoryWithLock());
+            one(cache).get(file);
+            when(cacheLock.is("acquired"));
+            will(returnValue(null));
+            one(cache).get(unchanged);
+            when(cacheLock.is("acquired"));
+            will(returnValue(new CachingHasher.FileInfo(unchangedHash, unchanged.length(), unchanged.lastModified())));
+            one(delegate).hash(Collections.singletonList(file));
+            will(returnValue(Collections.singletonList(hash)));
+            one(cache).put(with(equalTo(file)), with(reflectionEquals(new CachingHasher.FileInfo(hash, file.length(),
+                    file.lastModified()))));
+            when(cacheLock.is("acquired"));
+        }});
+
+        List<byte[]> hashes = hasher.hash(Arrays.asList(file, unchanged));
+        assertThat(hashes.size(), equalTo(2));
+        assertThat(hashes.get(0), sameInstance(hash));
+        assertThat(hashes.get(1), sameInstance(unchangedHash));
+    }
+
+    @Test
+    public void doesNotHashBatchWhenNoFilesHaveChanged() {
+        context.checking(new Expectations() {{
+            one(cacheAccess).useCache(with(notNullValue(String.class)), with(notNullValue(Factory.class)));
+            will(runFactoryWithLock());
+            one(cache).get(file);
+            when(cacheLock.is("acquired"));
+            will(returnValue(new CachingHasher.FileInfo(hash, file.length(), file.lastModified())));
+        }});
+
+        List<byte[]> hashes = hasher.hash(Collections.singletonList(file));
+        assertThat(hashes.size(), equalTo(1));
+        assertThat(hashes.get(0), sameInstance(hash));
+    }
+
+    private Action runFactoryWithLock() {
+        return new CustomAction("run factory with cache lock") {
+            public Object invoke(Invocation invocation) throws Throwable {
+                cacheLock.become("acquired");
+                try {
+                    return ((Factory<?>) invocation.getParameter(1)).create();
+                } finally {
+                    cacheLock.become("released");
+                }
+            }
+        };
+    }
 }
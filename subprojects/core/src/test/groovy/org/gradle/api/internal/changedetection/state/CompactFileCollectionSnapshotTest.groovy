@@ -0,0 +1,158 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state
+
+import org.gradle.api.internal.file.collections.SimpleFileCollection
+import org.gradle.util.ChangeListener
+import spock.lang.Specification
+
+class CompactFileCollectionSnapshotTest extends Specification {
+    final ChangeListener<String> listener = Mock()
+
+    def "survives serialization"() {
+        def original = snapshot(file("a/b/1.txt", 1), file("a/b/2.txt", 2), dir("a/b"), missing("a/c"))
+
+        when:
+        def copy = serializeAndDeserialize(original)
+
+        then:
+        copy.files.files == original.files.files
+
+        when:
+        changes(copy, original)
+
+        then:
+        0 * listener._
+    }
+
+    def "survives serialization of paths longer than 64KB"() {
+        def longName = "a" * 70000
+        def original = snapshot(file("dir/${longName}", 1), dir("${longName}/dir"))
+
+        when:
+        def serializer = new CompactFileCollectionSnapshot.SnapshotSerializer()
+        def outStr = new ByteArrayOutputStream()
+        serializer.write(outStr, original)
+        def copy = serializer.read(new ByteArrayInputStream(outStr.toByteArray()))
+
+        then:
+        copy.files.files == original.files.files
+
+        when:
+        changes(copy, serializeAndDeserialize(original))
+
+        then:
+        0 * listener._
+    }
+
+    def "reports added, removed and changed files"() {
+        def original = snapshot(file("a/1.txt", 1), file("a/2.txt", 2), dir("b"))
+        def current = snapshot(file("a/2.txt", 3), file("a/3.txt", 4), dir("b"))
+
+        when:
+        changes(current, original)
+
+        then:
+        1 * listener.removed(path("a/1.txt"))
+        1 * listener.changed(path("a/2.txt"))
+        1 * listener.added(path("a/3.txt"))
+        0 * listener._
+    }
+
+    def "reports change of file type"() {
+        def original = snapshot(file("a", 1))
+        def current = snapshot(dir("a"))
+
+        when:
+        changes(current, original)
+
+        then:
+        1 * listener.changed(path("a"))
+        0 * listener._
+    }
+
+    def "compares with a snapshot of another type by path"() {
+        def original = Stub(FileCollectionSnapshot) {
+            getFiles() >> new SimpleFileCollection(new File(path("a/1.txt")), new File(path("a/2.txt")))
+        }
+        def current = snapshot(file("a/2.txt", 2), file("a/3.txt", 3))
+
+        when:
+        changes(current, original)
+
+        then:
+        1 * listener.removed(path("a/1.txt"))
+        1 * listener.changed(path("a/2.txt"))
+        1 * listener.added(path("a/3.txt"))
+        0 * listener._
+    }
+
+    def "keeps files in the root directory"() {
+        def root = File.listRoots()[0].absolutePath
+        def path = root + "file.txt"
+        def builder = new CompactFileCollectionSnapshot.Builder()
+        builder.add(path, CompactFileCollectionSnapshot.FILE, hash(1))
+
+        expect:
+        builder.build().files.files == [new File(path)] as Set
+    }
+
+    private void changes(CompactFileCollectionSnapshot current, FileCollectionSnapshot original) {
+        def iterator = current.iterateChangesSince(original)
+        def more = true
+        while (more) {
+            more = iterator.next(listener)
+        }
+    }
+
+    private static CompactFileCollectionSnapshot serializeAndDeserialize(CompactFileCollectionSnapshot snapshot) {
+        def outStr = new ByteArrayOutputStream()
+        def outObj = new ObjectOutputStream(outStr)
+        outObj.writeObject(snapshot)
+        outObj.close()
+        def inObj = new ObjectInputStream(new ByteArrayInputStream(outStr.toByteArray()))
+        return inObj.readObject()
+    }
+
+    private static CompactFileCollectionSnapshot snapshot(List... entries) {
+        def builder = new CompactFileCollectionSnapshot.Builder()
+        entries.each { builder.add(it[0], it[1], it[2]) }
+        return builder.build()
+    }
+
+    private static String path(String relativePath) {
+        return new File("base", relativePath).absolutePath
+    }
+
+    private static byte[] hash(int value) {
+        byte[] hash = new byte[16]
+        hash[0] = value
+        return hash
+    }
+
+    private static List file(String relativePath, int hashValue) {
+        [path(relativePath), CompactFileCollectionSnapshot.FILE, hash(hashValue)]
+    }
+
+    private static List dir(String relativePath) {
+        [path(relativePath), CompactFileCollectionSnapshot.DIRECTORY, null]
+    }
+
+    private static List missing(String relativePath) {
+        [path(relativePath), CompactFileCollectionSnapshot.MISSING, null]
+    }
+}
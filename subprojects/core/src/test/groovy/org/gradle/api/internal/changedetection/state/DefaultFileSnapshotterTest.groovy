@@ -16,6 +16,10 @@
 package org.gradle.api.internal.changedetection.state
 import org.gradle.api.file.FileCollection
 import org.gradle.api.file.FileTree
+import org.gradle.api.file.FileVisitDetails
+import org.gradle.api.file.FileVisitor
+import org.gradle.api.internal.file.archive.ZipFileTree
+import org.gradle.api.internal.file.collections.FileTreeAdapter
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.gradle.util.ChangeListener
@@ -327,10 +331,54 @@ public class DefaultFileSnapshotterTest extends Specification {
         0 * _
     }
 
+    def archiveEntriesAreSnapshotWithoutExtractingThem() {
+        given:
+        TestFile zip = tmpDir.file('test.zip')
+        TestFile expandDir = tmpDir.file('expanded')
+        TestFile contentDir = tmpDir.createDir('content')
+        contentDir.file('file1').text = 'content'
+        contentDir.zipTo(zip)
+
+        when:
+        def snapshot = snapshotter.snapshot(new FileTreeAdapter(new ZipFileTree(zip, expandDir)))
+
+        then:
+        snapshot.files.files.collect { it.name } == ['file1']
+        !expandDir.exists()
+    }
+
+    def archiveEntryHasChangedWhenArchiveContentHasChanged() {
+        given:
+        TestFile zip = tmpDir.file('test.zip')
+        TestFile expandDir = tmpDir.file('expanded')
+        TestFile contentDir = tmpDir.createDir('content')
+        contentDir.file('file1').text = 'content'
+        contentDir.zipTo(zip)
+        def tree = new FileTreeAdapter(new ZipFileTree(zip, expandDir))
+
+        when:
+        FileCollectionSnapshot original = snapshotter.snapshot(tree)
+        contentDir.file('file1').text = 'new content'
+        contentDir.zipTo(zip)
+        zip.setLastModified(zip.lastModified() + 2000)
+        FileCollectionSnapshot modified = snapshotter.snapshot(tree)
+        modified.iterateChangesSince(original).next(listener)
+
+        then:
+        1 * listener.changed({ it.endsWith('file1') })
+        _ * listener.stopped >> false
+        _ * listener.resumeAfter >> null
+    }
+
     private FileCollection files(File... files) {
-        FileTree collection = Mock(FileTree.class)
-        _ * collection.asFileTree >> collection
-        _ * collection.iterator() >> (files as List).iterator()
+        FileTree collection
+        collection = [
+                getAsFileTree: { collection },
+                visit: { FileVisitor visitor ->
+                    files.each { file -> visitor.visitFile([getFile: { file }] as FileVisitDetails) }
+                    collection
+                }
+        ] as FileTree
         return collection
     }
     
@@ -50,4 +50,10 @@ class DefaultTaskArtifactStateCacheAccessTest extends Specification {
         1 * backingIndexedCache.get("key")
         0 * _._
     }
+
+    def "creates a single cache per cache name"() {
+        expect:
+        cacheAccess.createCache("some-cache", String, Integer).is(cacheAccess.createCache("some-cache", String, Integer))
+        !cacheAccess.createCache("some-cache", String, Integer).is(cacheAccess.createCache("other-cache", String, Integer))
+    }
 }
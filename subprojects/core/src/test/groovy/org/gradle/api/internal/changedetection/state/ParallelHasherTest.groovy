@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state
+
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.concurrent.ExecutorFactory
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class ParallelHasherTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    final Hasher hasher = new DefaultHasher()
+    final DefaultExecutorFactory executorFactory = new DefaultExecutorFactory()
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "hashes files concurrently and returns hashes in file order"() {
+        def files = (1..100).collect { tmpDir.createFile("file$it").write("content $it") }
+        def parallelHasher = new ParallelHasher(hasher, executorFactory, 4)
+
+        when:
+        def hashes = parallelHasher.hash(files)
+
+        then:
+        hashes.size() == files.size()
+        files.eachWithIndex { file, i -> assert hashes[i] as List == hasher.hash(file) as List }
+    }
+
+    def "uses the same executor for each batch"() {
+        ExecutorFactory countingExecutorFactory = Mock()
+        def files = (1..100).collect { tmpDir.createFile("file$it").write("content $it") }
+        def parallelHasher = new ParallelHasher(hasher, countingExecutorFactory, 4)
+
+        when:
+        parallelHasher.hash(files)
+        parallelHasher.hash(files)
+
+        then:
+        1 * countingExecutorFactory.create(_) >> executorFactory.create("hasher")
+        0 * countingExecutorFactory._
+    }
+
+    def "hashes small batches on the calling thread"() {
+        ExecutorFactory executorFactory = Mock()
+        def files = (1..3).collect { tmpDir.createFile("file$it").write("content $it") }
+        def parallelHasher = new ParallelHasher(hasher, executorFactory, 4)
+
+        when:
+        def hashes = parallelHasher.hash(files)
+
+        then:
+        hashes.collect { it as List } == hasher.hash(files).collect { it as List }
+        0 * executorFactory._
+    }
+
+    def "propagates failure to hash a file"() {
+        Hasher failingHasher = Mock()
+        def files = (1..100).collect { tmpDir.file("file$it") }
+        def failure = new RuntimeException("broken")
+        def parallelHasher = new ParallelHasher(failingHasher, executorFactory, 4)
+
+        given:
+        _ * failingHasher.hash(_ as File) >> { throw failure }
+
+        when:
+        parallelHasher.hash(files)
+
+        then:
+        RuntimeException e = thrown()
+        e == failure
+    }
+}
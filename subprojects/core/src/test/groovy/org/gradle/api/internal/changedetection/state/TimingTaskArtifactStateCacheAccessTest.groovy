@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state
+
+import org.gradle.internal.Factory
+import spock.lang.Specification
+
+class TimingTaskArtifactStateCacheAccessTest extends Specification {
+    final TaskArtifactStateCacheAccess delegate = Mock()
+    final TimingTaskArtifactStateCacheAccess cacheAccess = new TimingTaskArtifactStateCacheAccess(delegate)
+
+    def "records time spent waiting for the cache lock"() {
+        Runnable action = Mock()
+
+        when:
+        cacheAccess.useCache("some operation", action)
+
+        then:
+        1 * delegate.useCache("some operation", _ as Runnable) >> { String name, Runnable wrapped ->
+            Thread.sleep(50)
+            wrapped.run()
+        }
+        1 * action.run()
+        cacheAccess.lockWaitTime >= 40
+    }
+
+    def "does not record time spent in the cache action"() {
+        Factory<String> action = Mock()
+
+        when:
+        def result = cacheAccess.useCache("some operation", action)
+
+        then:
+        result == "result"
+        1 * delegate.useCache("some operation", _ as Factory) >> { String name, Factory wrapped -> wrapped.create() }
+        1 * action.create() >> {
+            Thread.sleep(50)
+            "result"
+        }
+        cacheAccess.lockWaitTime < 40
+    }
+
+    def "records time spent reacquiring the cache lock after a long running operation"() {
+        Runnable action = Mock()
+
+        when:
+        cacheAccess.longRunningOperation("some operation", action)
+
+        then:
+        1 * delegate.longRunningOperation("some operation", _ as Runnable) >> { String name, Runnable wrapped ->
+            wrapped.run()
+            Thread.sleep(50)
+        }
+        1 * action.run()
+        cacheAccess.lockWaitTime >= 40
+    }
+}
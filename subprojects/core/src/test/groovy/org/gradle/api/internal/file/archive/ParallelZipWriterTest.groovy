@@ -0,0 +1,150 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive
+
+import org.apache.tools.zip.UnixStat
+import org.apache.tools.zip.ZipOutputStream
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import java.util.zip.ZipEntry
+import java.util.zip.ZipException
+import java.util.zip.ZipFile
+
+class ParallelZipWriterTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    final executorFactory = new DefaultExecutorFactory()
+    final executor = executorFactory.create("compress")
+    final zipFile = tmpDir.file("test.zip")
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "writes entries in the order they are added"() {
+        given:
+        def writer = new ParallelZipWriter(zipFile, ZipOutputStream.DEFLATED, executor)
+        def contents = [:]
+
+        when:
+        writer.putDirectory("dir", 1000, UnixStat.DIR_FLAG | 0755)
+        100.times { i ->
+            def content = "content of file $i " * (i * 100)
+            contents["dir/file$i"] = content
+            def stream = writer.putFile("dir/file$i", 1000, UnixStat.FILE_FLAG | 0644)
+            stream << content
+            stream.close()
+        }
+        writer.close()
+        def zip = new ZipFile(zipFile)
+
+        then:
+        zip.entries().collect { it.name } == ["dir/"] + (0..99).collect { "dir/file$it" }
+        contents.every { name, content -> zip.getInputStream(zip.getEntry(name)).text == content }
+        zip.getEntry("dir/file1").method == ZipEntry.DEFLATED
+
+        cleanup:
+        zip?.close()
+    }
+
+    def "compresses large entries directly into the file"() {
+        given:
+        def writer = new ParallelZipWriter(zipFile, method, executor)
+        def large = ("large " * (ParallelZipWriter.MAX_BUFFERED_ENTRY_SIZE / 3)).bytes
+
+        when:
+        ["before", "large", "after"].each { name ->
+            def stream = writer.putFile(name, 1000, UnixStat.FILE_FLAG | 0644)
+            stream.write(name == "large" ? large : name.bytes)
+            stream.close()
+        }
+        writer.close()
+        def zip = new ZipFile(zipFile)
+
+        then:
+        zip.entries().collect { it.name } == ["before", "large", "after"]
+        zip.getInputStream(zip.getEntry("before")).text == "before"
+        zip.getInputStream(zip.getEntry("large")).bytes == large
+        zip.getInputStream(zip.getEntry("after")).text == "after"
+        zip.getEntry("large").method == method
+
+        cleanup:
+        zip?.close()
+
+        where:
+        method << [ZipOutputStream.DEFLATED, ZipOutputStream.STORED]
+    }
+
+    def "deflates entries which do not become smaller when compressed"() {
+        given:
+        def writer = new ParallelZipWriter(zipFile, ZipOutputStream.DEFLATED, executor)
+        def content = new byte[1000]
+        new Random(1).nextBytes(content)
+
+        when:
+        def stream = writer.putFile("random.bin", 1000, UnixStat.FILE_FLAG | 0644)
+        stream.write(content)
+        stream.close()
+        writer.close()
+        def zip = new ZipFile(zipFile)
+
+        then:
+        zip.getEntry("random.bin").method == ZipEntry.DEFLATED
+        zip.getInputStream(zip.getEntry("random.bin")).bytes == content
+
+        cleanup:
+        zip?.close()
+    }
+
+    def "abort discards pending entries and does not write the central directory"() {
+        given:
+        def writer = new ParallelZipWriter(zipFile, ZipOutputStream.DEFLATED, executor)
+
+        when:
+        10.times { i ->
+            def stream = writer.putFile("file$i", 1000, UnixStat.FILE_FLAG | 0644)
+            stream << "content of file $i " * 1000
+            stream.close()
+        }
+        writer.abort()
+        executor.stop()
+        new ZipFile(zipFile)
+
+        then:
+        thrown(ZipException)
+    }
+
+    def "writes unix permissions of entries"() {
+        given:
+        def writer = new ParallelZipWriter(zipFile, ZipOutputStream.DEFLATED, executor)
+
+        when:
+        writer.putDirectory("dir", 1000, UnixStat.DIR_FLAG | 0750)
+        writer.putFile("dir/script", 1000, UnixStat.FILE_FLAG | 0755).close()
+        writer.close()
+        def zip = new org.apache.tools.zip.ZipFile(zipFile)
+
+        then:
+        zip.getEntry("dir/").unixMode == (UnixStat.DIR_FLAG | 0750)
+        zip.getEntry("dir/script").unixMode == (UnixStat.FILE_FLAG | 0755)
+
+        cleanup:
+        zip?.close()
+    }
+}
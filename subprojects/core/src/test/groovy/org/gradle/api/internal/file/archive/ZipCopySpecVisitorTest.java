@@ -24,6 +24,9 @@ import org.gradle.api.internal.file.copy.ArchiveCopyAction;
 import org.gradle.api.internal.file.copy.ZipDeflatedCompressor;
 import org.gradle.api.internal.file.copy.ReadableCopySpec;
 import org.gradle.api.internal.file.copy.ZipStoredCompressor;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
 import org.gradle.test.fixtures.file.TestFile;
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider;
 import org.hamcrest.Description;
@@ -53,7 +56,7 @@ public class ZipCopySpecVisitorTest {
     private final JUnit4Mockery context = new JUnit4Mockery();
     private final ArchiveCopyAction copyAction = context.mock(ZipCopyAction.class);
     private final ReadableCopySpec copySpec = context.mock(ReadableCopySpec.class);
-    private final ZipCopySpecVisitor visitor = new ZipCopySpecVisitor();
+    private final ZipCopySpecVisitor visitor = new ZipCopySpecVisitor(new DefaultExecutorFactory());
     private TestFile zipFile;
 
     @Before
@@ -144,6 +147,33 @@ public class ZipCopySpecVisitorTest {
         }
     }
 
+    @Test
+    public void stopsExecutorWhenAddingElementFails() {
+        final ExecutorFactory executorFactory = context.mock(ExecutorFactory.class);
+        final StoppableExecutor executor = context.mock(StoppableExecutor.class);
+        ZipCopySpecVisitor visitor = new ZipCopySpecVisitor(executorFactory);
+
+        context.checking(new Expectations() {{
+            one(executorFactory).create(with(notNullValue(String.class)));
+            will(returnValue(executor));
+        }});
+
+        visitor.startVisit(copyAction);
+        visitor.visitSpec(copySpec);
+
+        context.checking(new Expectations() {{
+            one(executor).stop();
+        }});
+
+        Throwable failure = new RuntimeException("broken");
+        try {
+            visitor.visitFile(brokenFile("dir/file1", failure));
+            fail();
+        } catch (GradleException e) {
+            assertThat(e.getCause(), sameInstance(failure));
+        }
+    }
+
     private void zip(FileVisitDetails... files) {
         visitor.startVisit(copyAction);
         visitor.visitSpec(copySpec);
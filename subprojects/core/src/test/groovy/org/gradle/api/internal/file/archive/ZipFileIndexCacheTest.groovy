@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.file.archive
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class ZipFileIndexCacheTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def "reuses index until ZIP file changes"() {
+        def cache = new ZipFileIndexCache()
+        def zip = zip("a.zip", "file1.txt")
+
+        expect:
+        def index = cache.get(zip)
+        cache.get(zip).is(index)
+
+        when:
+        zip("a.zip", "file1.txt", "file2.txt")
+        zip.setLastModified(zip.lastModified() + 2000)
+
+        then:
+        def newIndex = cache.get(zip)
+        !newIndex.is(index)
+        newIndex.entries*.name == ["file1.txt", "file2.txt"]
+    }
+
+    def "discards least recently used indexes when the bound is exceeded"() {
+        def cache = new ZipFileIndexCache(300)
+        def zip1 = zip("a.zip", "file1.txt")
+        def zip2 = zip("b.zip", "file2.txt")
+        def zip3 = zip("c.zip", "file3.txt")
+
+        when:
+        def index1 = cache.get(zip1)
+        cache.get(zip2)
+        cache.get(zip1)
+        cache.get(zip3)
+
+        then:
+        cache.size() == 2
+        cache.get(zip1).is(index1)
+    }
+
+    def "discards all indexes when stopped"() {
+        def cache = new ZipFileIndexCache()
+        def zip = zip("a.zip", "file1.txt")
+        def index = cache.get(zip)
+
+        when:
+        cache.stop()
+
+        then:
+        cache.size() == 0
+        !cache.get(zip).is(index)
+    }
+
+    def zip(String name, String... entries) {
+        def contents = tmpDir.createDir("${name}-contents")
+        entries.each { contents.file(it).text = it }
+        return contents.zipTo(tmpDir.file(name))
+    }
+}
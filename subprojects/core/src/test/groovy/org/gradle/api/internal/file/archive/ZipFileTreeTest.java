@@ -17,12 +17,15 @@ package org.gradle.api.internal.file.archive;
 
 import org.gradle.api.GradleException;
 import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.EmptyFileVisitor;
+import org.gradle.api.file.FileVisitDetails;
 import org.gradle.test.fixtures.file.TestFile;
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider;
 import org.gradle.util.Resources;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -66,6 +69,40 @@ public class ZipFileTreeTest {
         assertCanStopVisiting(tree);
     }
 
+    @Test
+    public void reusesExtractedFilesUntilZipFileChanges() {
+        TestFile file = rootDir.file("subdir/file1.txt").write("content");
+        file.setLastModified(1000000L);
+        rootDir.zipTo(zipFile);
+        zipFile.setLastModified(2000000L);
+
+        TestFile extracted = extractFile();
+        assertThat(extracted.getText(), equalTo("content"));
+
+        // An extracted file is not extracted again while the ZIP file is not changed
+        extracted.write("changed");
+        assertThat(extractFile().getText(), equalTo("changed"));
+
+        // Replace the entry with content of the same size and timestamp
+        file.write("updated").setLastModified(1000000L);
+        zipFile.delete();
+        rootDir.zipTo(zipFile);
+        zipFile.setLastModified(3000000L);
+
+        assertThat(extractFile().getText(), equalTo("updated"));
+    }
+
+    private TestFile extractFile() {
+        final File[] extracted = new File[1];
+        tree.visit(new EmptyFileVisitor() {
+            @Override
+            public void visitFile(FileVisitDetails fileDetails) {
+                extracted[0] = fileDetails.getFile();
+            }
+        });
+        return new TestFile(extracted[0]);
+    }
+
     @Test
     public void isEmptyWhenZipFileDoesNotExist() {
         assertVisits(tree, EMPTY_LIST, EMPTY_LIST);
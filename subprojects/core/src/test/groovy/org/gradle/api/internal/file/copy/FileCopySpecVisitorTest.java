@@ -16,13 +16,18 @@
 
 package org.gradle.api.internal.file.copy;
 
+import org.gradle.api.Action;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.RelativePath;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
+import org.gradle.api.tasks.incremental.InputFile;
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider;
 import org.jmock.Expectations;
+import org.jmock.api.Invocation;
 import org.jmock.integration.junit4.JMock;
 import org.jmock.integration.junit4.JUnit4Mockery;
+import org.jmock.lib.action.CustomAction;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -30,8 +35,10 @@ import org.junit.runner.RunWith;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
@@ -61,6 +68,40 @@ public class FileCopySpecVisitorTest {
         visitor.visitFile(file(new RelativePath(true, "subdir", "anotherfile.txt"), new File(destDir, "subdir/anotherfile.txt")));
     }
 
+    @Test
+    public void skipsUnchangedFilesWhenIncremental() {
+        tmpDir.createFile("dest/unchanged.txt");
+        File changedSource = tmpDir.createFile("src/changed.txt");
+        File unchangedSource = tmpDir.createFile("src/unchanged.txt");
+
+        visitor.startVisit(action(destDir, incrementalChanges(changedSource)));
+        visitor.visitSpec(spec());
+
+        visitor.visitFile(sourceFile(new RelativePath(true, "changed.txt"), changedSource, new File(destDir, "changed.txt")));
+        visitor.visitFile(sourceFile(new RelativePath(true, "unchanged.txt"), unchangedSource, null));
+    }
+
+    @Test
+    public void copiesUnchangedFilesWhenTargetIsMissing() {
+        File unchangedSource = tmpDir.createFile("src/unchanged.txt");
+
+        visitor.startVisit(action(destDir, incrementalChanges()));
+        visitor.visitSpec(spec());
+
+        visitor.visitFile(sourceFile(new RelativePath(true, "unchanged.txt"), unchangedSource, new File(destDir, "unchanged.txt")));
+    }
+
+    @Test
+    public void copiesUnchangedFilesWhenSpecHasCopyActions() {
+        tmpDir.createFile("dest/unchanged.txt");
+        File unchangedSource = tmpDir.createFile("src/unchanged.txt");
+
+        visitor.startVisit(action(destDir, incrementalChanges()));
+        visitor.visitSpec(spec(context.mock(Action.class)));
+
+        visitor.visitFile(sourceFile(new RelativePath(true, "unchanged.txt"), unchangedSource, new File(destDir, "unchanged.txt")));
+    }
+
     @Test
     public void testThrowsExceptionWhenNoDestinationSet() {
         try {
@@ -72,14 +113,72 @@ public class FileCopySpecVisitorTest {
     }
 
     private FileCopyAction action(final File destDir) {
+        return action(destDir, new SourceFileChanges());
+    }
+
+    private FileCopyAction action(final File destDir, final SourceFileChanges changes) {
         final FileCopyAction action = context.mock(FileCopyAction.class);
         context.checking(new Expectations(){{
             allowing(action).getDestinationDir();
             will(returnValue(destDir));
+            allowing(action).getSourceFileChanges();
+            will(returnValue(changes));
         }});
         return action;
     }
 
+    private ReadableCopySpec spec(final Action... actions) {
+        final ReadableCopySpec spec = context.mock(ReadableCopySpec.class);
+        context.checking(new Expectations(){{
+            allowing(spec).getAllCopyActions();
+            will(returnValue(Arrays.asList(actions)));
+        }});
+        return spec;
+    }
+
+    private SourceFileChanges incrementalChanges(final File... outOfDate) {
+        final IncrementalTaskInputs inputs = context.mock(IncrementalTaskInputs.class);
+        context.checking(new Expectations(){{
+            allowing(inputs).isIncremental();
+            will(returnValue(true));
+            one(inputs).outOfDate(with(notNullValue(Action.class)));
+            will(new CustomAction("notify out of date files") {
+                public Object invoke(Invocation invocation) {
+                    Action<InputFile> action = (Action<InputFile>) invocation.getParameter(0);
+                    for (File file : outOfDate) {
+                        action.execute(inputFile(file));
+                    }
+                    return null;
+                }
+            });
+            one(inputs).removed(with(notNullValue(Action.class)));
+        }});
+        return new SourceFileChanges(inputs);
+    }
+
+    private InputFile inputFile(final File file) {
+        final InputFile inputFile = context.mock(InputFile.class, file.getName());
+        context.checking(new Expectations(){{
+            allowing(inputFile).getFile();
+            will(returnValue(file));
+        }});
+        return inputFile;
+    }
+
+    private FileVisitDetails sourceFile(final RelativePath relativePath, final File sourceFile, final File targetFile) {
+        final SourceFileDetails details = context.mock(SourceFileDetails.class, relativePath.getPathString());
+        context.checking(new Expectations(){{
+            allowing(details).getRelativePath();
+            will(returnValue(relativePath));
+            allowing(details).getSourceFile();
+            will(returnValue(sourceFile));
+            if (targetFile != null) {
+                one(details).copyTo(targetFile);
+            }
+        }});
+        return details;
+    }
+
     private FileVisitDetails file(final RelativePath relativePath, final File targetFile) {
         final FileVisitDetails details = context.mock(FileVisitDetails.class, relativePath.getPathString());
         context.checking(new Expectations(){{
@@ -15,10 +15,12 @@
  */
 package org.gradle.api.internal.file.copy;
 
+import org.gradle.api.Action;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.FileVisitor;
 import org.gradle.api.file.RelativePath;
 import org.gradle.api.internal.file.collections.DirectoryFileTree;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
 import org.gradle.test.fixtures.file.TestFile;
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider;
 import org.jmock.Expectations;
@@ -31,6 +33,7 @@ import org.junit.runner.RunWith;
 
 import java.io.File;
 import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -116,6 +119,34 @@ public class SyncCopySpecVisitorTest {
         destDir.assertHasDescendants();
     }
 
+    @Test
+    public void doesNotDeleteExtraFilesWhenNoSourceFilesRemovedSincePreviousExecution() {
+        TestFile destDir = tmpDir.createDir("dest");
+        destDir.createFile("included.txt");
+        destDir.createFile("extra.txt");
+
+        visitor.startVisit(action(destDir, incrementalChanges()));
+        visitor.visitSpec(spec());
+        visitor.visitFile(file("included.txt"));
+        visitor.endVisit();
+
+        destDir.assertHasDescendants("included.txt", "extra.txt");
+    }
+
+    @Test
+    public void deletesExtraFilesWhenIncrementalAndSpecHasCopyActions() {
+        TestFile destDir = tmpDir.createDir("dest");
+        destDir.createFile("included.txt");
+        destDir.createFile("extra.txt");
+
+        visitor.startVisit(action(destDir, incrementalChanges()));
+        visitor.visitSpec(spec(context.mock(Action.class)));
+        visitor.visitFile(file("included.txt"));
+        visitor.endVisit();
+
+        destDir.assertHasDescendants("included.txt");
+    }
+
     @Test
     public void didWorkWhenDelegateDidWork() {
         context.checking(new Expectations() {{
@@ -138,16 +169,47 @@ public class SyncCopySpecVisitorTest {
     }
 
     private FileCopyAction action(final File destDir) {
+        return action(destDir, new SourceFileChanges());
+    }
+
+    private FileCopyAction action(final File destDir, final SourceFileChanges changes) {
         final FileCopyAction action = context.mock(FileCopyAction.class);
 
         context.checking(new Expectations() {{
             allowing(action).getDestinationDir();
             will(returnValue(destDir));
+            allowing(action).getSourceFileChanges();
+            will(returnValue(changes));
         }});
 
         return action;
     }
 
+    private ReadableCopySpec spec(final Action... actions) {
+        final ReadableCopySpec spec = context.mock(ReadableCopySpec.class);
+
+        context.checking(new Expectations() {{
+            allowing(spec).getAllCopyActions();
+            will(returnValue(Arrays.asList(actions)));
+            allowing(delegate).visitSpec(spec);
+        }});
+
+        return spec;
+    }
+
+    private SourceFileChanges incrementalChanges() {
+        final IncrementalTaskInputs inputs = context.mock(IncrementalTaskInputs.class);
+
+        context.checking(new Expectations() {{
+            allowing(inputs).isIncremental();
+            will(returnValue(true));
+            allowing(inputs).outOfDate(with(notNullValue(Action.class)));
+            allowing(inputs).removed(with(notNullValue(Action.class)));
+        }});
+
+        return new SourceFileChanges(inputs);
+    }
+
     private FileVisitDetails file(final String path) {
         return file(RelativePath.parse(true, path));
     }
@@ -21,6 +21,7 @@ import org.gradle.api.internal.classpath.DefaultModuleRegistry;
 import org.gradle.api.internal.classpath.DefaultPluginModuleRegistry;
 import org.gradle.api.internal.classpath.ModuleRegistry;
 import org.gradle.api.internal.classpath.PluginModuleRegistry;
+import org.gradle.api.internal.file.archive.ZipFileIndexCache;
 import org.gradle.cache.internal.CacheFactory;
 import org.gradle.cache.internal.DefaultCacheFactory;
 import org.gradle.cache.internal.DefaultFileLockManager;
@@ -38,6 +39,7 @@ import org.gradle.logging.ProgressLoggerFactory;
 import org.gradle.logging.internal.DefaultLoggingManagerFactory;
 import org.gradle.logging.internal.DefaultProgressLoggerFactory;
 import org.gradle.messaging.remote.MessagingServer;
+import org.gradle.messaging.remote.internal.ParameterSerializerRegistry;
 import org.gradle.util.ClassLoaderFactory;
 import org.gradle.util.DefaultClassLoaderFactory;
 import org.junit.Test;
@@ -55,6 +57,11 @@ public class GlobalServicesRegistryTest {
                 DefaultCommandLineConverter.class));
     }
 
+    @Test
+    public void providesAZipFileIndexCache() {
+        assertThat(registry.get(ZipFileIndexCache.class), instanceOf(ZipFileIndexCache.class));
+    }
+
     @Test
     public void providesACacheFactoryFactory() {
         assertThat(registry.getFactory(CacheFactory.class), instanceOf(DefaultCacheFactory.class));
@@ -110,6 +117,11 @@ public class GlobalServicesRegistryTest {
         assertThat(registry.get(MessagingServer.class), instanceOf(MessagingServer.class));
     }
 
+    @Test
+    public void providesAParameterSerializerRegistry() {
+        assertThat(registry.get(ParameterSerializerRegistry.class), instanceOf(ParameterSerializerRegistry.class));
+    }
+
     @Test
     public void providesAClassGenerator() {
         assertThat(registry.get(ClassGenerator.class), instanceOf(AsmBackedClassGenerator.class));
@@ -28,6 +28,27 @@ class ProjectStateInternalSpec extends Specification {
 		stateString { executed(new Error("bang")) } == "FAILED (bang)"
 	}
 	
+	def "knows whether it is executing on the current thread"() {
+		def state = new ProjectStateInternal()
+		def otherThread = false
+
+		when:
+		state.executing = true
+		def thread = new Thread({ otherThread = state.executingOnCurrentThread })
+		thread.start()
+		thread.join()
+
+		then:
+		state.executingOnCurrentThread
+		!otherThread
+
+		when:
+		state.executing = false
+
+		then:
+		!state.executingOnCurrentThread
+	}
+	
 	String stateString(Closure closure) {
 		def state = ConfigureUtil.configure(closure, new ProjectStateInternal())
 		def matcher = state.toString() =~ /^project state '(.*?)'$/
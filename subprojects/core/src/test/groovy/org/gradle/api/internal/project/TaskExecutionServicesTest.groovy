@@ -22,6 +22,7 @@ import org.gradle.api.invocation.Gradle
 import org.gradle.cache.CacheRepository
 import org.gradle.cache.DirectoryCacheBuilder
 import org.gradle.cache.PersistentCache
+import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.internal.reflect.Instantiator
 import org.gradle.internal.service.ServiceRegistry
 import org.gradle.listener.ListenerManager
@@ -40,8 +41,11 @@ class TaskExecutionServicesTest extends Specification {
         Instantiator instantiator = Mock();
         DirectoryCacheBuilder cacheBuilder = Mock()
         PersistentCache cache = Mock()
+        ExecutorFactory executorFactory = Mock()
         _ * parent.get(ListenerManager) >> listenerManager
+        _ * parent.get(ExecutorFactory) >> executorFactory
         _ * parent.get(StartParameter) >> startParameter
+        _ * gradle.startParameter >> startParameter
         _ * parent.get(CacheRepository) >> cacheRepository
         _ * parent.get(Instantiator) >> instantiator
         _ * cacheRepository.cache(!null) >> cacheBuilder
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.execution
+
+import org.gradle.api.internal.TaskInternal
+import org.gradle.api.internal.changedetection.state.TaskDurationRepository
+import org.gradle.api.internal.tasks.TaskExecuter
+import org.gradle.api.internal.tasks.TaskStateInternal
+import spock.lang.Specification
+
+class RecordTaskDurationTaskExecuterTest extends Specification {
+    final TaskExecuter target = Mock()
+    final TaskInternal task = Mock()
+    final TaskStateInternal state = Mock()
+    final TaskDurationRepository repository = Mock()
+    final RecordTaskDurationTaskExecuter executer = new RecordTaskDurationTaskExecuter(repository, target)
+
+    def "records duration after executing task"() {
+        given:
+        state.didWork >> true
+
+        when:
+        executer.execute(task, state)
+
+        then:
+        1 * target.execute(task, state)
+
+        then:
+        1 * repository.setDuration(task, { it >= 0 })
+        0 * repository._
+        0 * target._
+    }
+
+    def "does not record duration when task did no work"() {
+        given:
+        state.didWork >> false
+
+        when:
+        executer.execute(task, state)
+
+        then:
+        1 * target.execute(task, state)
+        0 * repository._
+    }
+
+    def "does not record duration when task fails"() {
+        given:
+        state.didWork >> true
+        state.failure >> new RuntimeException()
+
+        when:
+        executer.execute(task, state)
+
+        then:
+        1 * target.execute(task, state)
+        0 * repository._
+    }
+
+    def "does not record duration when execution fails"() {
+        def failure = new RuntimeException()
+
+        when:
+        executer.execute(task, state)
+
+        then:
+        1 * target.execute(task, state) >> { throw failure }
+        0 * repository._
+
+        and:
+        RuntimeException e = thrown()
+        e == failure
+    }
+}
@@ -23,6 +23,9 @@ import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
 import org.gradle.api.internal.file.copy.FileCopyActionImpl
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs
+
+import static org.hamcrest.Matchers.notNullValue
 
 @RunWith (org.jmock.integration.junit4.JMock)
 public class CopyTest extends AbstractTaskTest {
@@ -53,6 +56,21 @@ public class CopyTest extends AbstractTaskTest {
 
         copyTask.copy()
     }
+
+    @Test public void providesSourceFileChangesToActionOnIncrementalExecute() {
+        IncrementalTaskInputs inputs = context.mock(IncrementalTaskInputs.class)
+
+        context.checking {
+            allowing(inputs).isIncremental(); will(returnValue(false))
+            exactly(2).of(action).setSourceFileChanges(withParam(notNullValue()))
+            one(action).hasSource(); will(returnValue(true))
+            one(action).getDestinationDir(); will(returnValue(new File('dest')))
+            one(action).execute()
+            one(action).getDidWork()
+        }
+
+        copyTask.copy(inputs)
+    }
     
     @Test public void usesConventionValuesForDestDirWhenNotSpecified() {
         copyTask.conventionMapping.destinationDir = { new File('convention') }
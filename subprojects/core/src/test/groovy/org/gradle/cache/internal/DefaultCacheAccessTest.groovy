@@ -43,7 +43,7 @@ class DefaultCacheAccessTest extends Specification {
         manager.open(Shared)
 
         then:
-        1 * lockManager.lock(lockFile, Shared, "<display-name>") >> lock
+        1 * lockManager.lock(lockFile, Shared, "<display-name>", "", null) >> lock
         0 * _._
 
         when:
@@ -78,7 +78,7 @@ class DefaultCacheAccessTest extends Specification {
         manager.useCache("some operation", action)
 
         then:
-        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation") >> lock
+        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation", _) >> lock
 
         and:
         1 * action.create()
@@ -92,7 +92,7 @@ class DefaultCacheAccessTest extends Specification {
         Factory<String> action = Mock()
 
         given:
-        1 * lockManager.lock(lockFile, Exclusive, "<display-name>") >> lock
+        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "", _) >> lock
         manager.open(Exclusive)
         def cache = manager.newCache(targetFile, String, Integer)
 
@@ -137,7 +137,7 @@ class DefaultCacheAccessTest extends Specification {
         cache instanceof MultiProcessSafePersistentIndexedCache
 
         and:
-        1 * lockManager.lock(lockFile, Exclusive, _, _) >> lock
+        1 * lockManager.lock(lockFile, Exclusive, _, _, _) >> lock
     }
 
     def "can use cache instance during cache action"() {
@@ -154,7 +154,7 @@ class DefaultCacheAccessTest extends Specification {
         1 * action.create() >> {
             canAccess cache
         }
-        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation") >> lock
+        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation", _) >> lock
         _ * lock.readFile(_)
 
         and:
@@ -181,7 +181,7 @@ class DefaultCacheAccessTest extends Specification {
             canAccess cache
         }
         1 * longRunningAction.create()
-        2 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation") >> lock
+        2 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation", _) >> lock
         _ * lock.readFile(_)
         _ * lock.writeFile(_)
         2 * lock.close()
@@ -223,12 +223,12 @@ class DefaultCacheAccessTest extends Specification {
             cannotAccess cache
         }
 
-        2 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation") >> lock
+        2 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation", _) >> lock
         _ * lock.readFile(_)
         _ * lock.writeFile(_)
         2 * lock.close()
 
-        2 * lockManager.lock(lockFile, Exclusive, "<display-name>", "nested operation") >> anotherLock
+        2 * lockManager.lock(lockFile, Exclusive, "<display-name>", "nested operation", _) >> anotherLock
         _ * anotherLock.readFile(_)
         _ * anotherLock.writeFile(_)
         2 * anotherLock.close()
@@ -259,7 +259,7 @@ class DefaultCacheAccessTest extends Specification {
         manager.useCache("some operation", action)
 
         then:
-        _ * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation") >> lock
+        _ * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation", _) >> lock
         1 * action.create() >> {
             manager.longRunningOperation("nested", longRunningAction)
         }
@@ -281,7 +281,7 @@ class DefaultCacheAccessTest extends Specification {
         manager.useCache("some operation", action)
 
         then:
-        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation") >> lock
+        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation", _) >> lock
 
         and:
         1 * action.create() >> {
@@ -301,7 +301,7 @@ class DefaultCacheAccessTest extends Specification {
         }
 
         and:
-        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "nested 2") >> lock
+        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "nested 2", _) >> lock
 
         and:
         1 * nestedAction.create() >> {
@@ -309,7 +309,7 @@ class DefaultCacheAccessTest extends Specification {
         }
 
         and:
-        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation") >> lock
+        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation", _) >> lock
         _ * lock.readFile(_)
         _ * lock.writeFile(_)
         2 * lock.close()
@@ -342,7 +342,7 @@ class DefaultCacheAccessTest extends Specification {
         1 * nestedAction.create() >> {
             cannotAccess cache
         }
-        2 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation") >> lock
+        2 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation", _) >> lock
         _ * lock.readFile(_)
         _ * lock.writeFile(_)
         2 * lock.close()
@@ -369,7 +369,7 @@ class DefaultCacheAccessTest extends Specification {
         1 * nestedAction.create() >> {
             canAccess cache
         }
-        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation") >> lock
+        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation", _) >> lock
         _ * lock.readFile(_)
         _ * lock.writeFile(_)
         1 * lock.close()
@@ -390,7 +390,7 @@ class DefaultCacheAccessTest extends Specification {
         1 * action.create() >> {
             canAccess cache
         }
-        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation") >> lock
+        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "some operation", _) >> lock
         _ * lock.readFile(_)
 
         and:
@@ -402,7 +402,7 @@ class DefaultCacheAccessTest extends Specification {
 
     def "closes caches on close when initial lock mode is not none"() {
         given:
-        1 * lockManager.lock(lockFile, Exclusive, "<display-name>") >> lock
+        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "", _) >> lock
         _ * lock.readFile(_) >> {Factory factory -> factory.create()}
         _ * lock.writeFile(_) >> {Runnable runnable -> runnable.run()}
 
@@ -422,6 +422,82 @@ class DefaultCacheAccessTest extends Specification {
         0 * _._
     }
 
+    def "releases exclusive lock at the end of the current cache action when another process requests the lock"() {
+        Runnable whenContended = null
+        Factory<String> action = Mock()
+
+        given:
+        lockManager.lock(lockFile, Exclusive, "<display-name>", "", _) >> { whenContended = it[4]; lock }
+        manager.open(Exclusive)
+
+        when:
+        manager.useCache("some operation", action)
+
+        then:
+        1 * action.create() >> {
+            whenContended.run()
+            return null
+        }
+
+        then:
+        1 * lock.close()
+        0 * _._
+
+        when:
+        manager.useCache("other operation", action)
+
+        then:
+        1 * lockManager.lock(lockFile, Exclusive, "<display-name>", "other operation", _) >> lock
+        1 * action.create()
+        0 * _._
+    }
+
+    def "releases exclusive lock at the end of the outermost cache action when another process requests the lock during a nested cache action"() {
+        Runnable whenContended = null
+        Factory<String> action = Mock()
+        Factory<String> nestedAction = Mock()
+
+        given:
+        lockManager.lock(lockFile, Exclusive, "<display-name>", "", _) >> { whenContended = it[4]; lock }
+        manager.open(Exclusive)
+        def cache = manager.newCache(targetFile, String, Integer)
+
+        when:
+        manager.useCache("some operation", action)
+
+        then:
+        1 * action.create() >> {
+            manager.useCache("nested", nestedAction)
+            canAccess cache
+            return null
+        }
+        1 * nestedAction.create() >> {
+            whenContended.run()
+            return null
+        }
+        _ * lock.readFile(_)
+
+        then:
+        _ * lock.writeFile(_)
+        1 * lock.close()
+        0 * _._
+    }
+
+    def "releases exclusive lock immediately when another process requests the lock and the cache is not in use"() {
+        Runnable whenContended = null
+
+        given:
+        lockManager.lock(lockFile, Exclusive, "<display-name>", "", _) >> { whenContended = it[4]; lock }
+        manager.open(Exclusive)
+
+        when:
+        whenContended.run()
+
+        then:
+        1 * lock.close()
+        0 * _._
+    }
+
     def canAccess(def cache) {
         try {
             cache.get("key")
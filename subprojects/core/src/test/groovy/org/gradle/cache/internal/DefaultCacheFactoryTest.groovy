@@ -19,11 +19,11 @@ import org.gradle.CacheUsage
 import org.gradle.api.Action
 import org.gradle.cache.CacheValidator
 import org.gradle.messaging.serialize.DefaultSerializer
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
-import spock.lang.Specification
 
-class DefaultCacheFactoryTest extends Specification {
+class DefaultCacheFactoryTest extends ConcurrentSpec {
     @Rule
     public final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
     final Action<?> opened = Mock()
@@ -414,4 +414,28 @@ class DefaultCacheFactoryTest extends Specification {
         validator.isValid() >>> [false, true]
         cache != null
     }
+
+    public void "can open cache in another directory while a cache is being initialized"() {
+        def factory = factoryFactory.create()
+        def initializer = {
+            instant.initStarted
+            thread.blockUntil.otherOpened
+            instant.initFinished
+        } as Action
+
+        when:
+        async {
+            start {
+                factory.open(tmpDir.file("a"), null, CacheUsage.ON, null, [:], FileLockManager.LockMode.Exclusive, initializer)
+            }
+            start {
+                thread.blockUntil.initStarted
+                factory.open(tmpDir.file("b"), null, CacheUsage.ON, null, [:], FileLockManager.LockMode.Exclusive, null)
+                instant.otherOpened
+            }
+        }
+
+        then:
+        instant.otherOpened < instant.initFinished
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.cache.internal
+
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class DefaultFileLockContentionHandlerTest extends Specification {
+    final handler = new DefaultFileLockContentionHandler(new DefaultExecutorFactory())
+
+    def cleanup() {
+        handler.stop()
+    }
+
+    def "notifies the owner of a lock when the lock is requested"() {
+        def contended = new CountDownLatch(1)
+
+        given:
+        handler.start(12, { contended.countDown() } as Runnable)
+        handler.start(13, { throw new AssertionError("Unexpected request") } as Runnable)
+
+        when:
+        handler.pingOwner(handler.reservePort(), 12)
+
+        then:
+        contended.await(20, TimeUnit.SECONDS)
+    }
+
+    def "does not notify the owner once it has stopped listening for requests"() {
+        def contended = new CountDownLatch(2)
+        def other = new CountDownLatch(1)
+
+        given:
+        handler.start(12, { contended.countDown() } as Runnable)
+        handler.start(13, { other.countDown() } as Runnable)
+        handler.stop(12)
+
+        when:
+        handler.pingOwner(handler.reservePort(), 12)
+        handler.pingOwner(handler.reservePort(), 13)
+
+        then:
+        other.await(20, TimeUnit.SECONDS)
+        contended.count == 2
+    }
+
+    def "ignores requests once stopped"() {
+        given:
+        def port = handler.reservePort()
+        handler.stop()
+
+        when:
+        handler.pingOwner(port, 12)
+
+        then:
+        noExceptionThrown()
+    }
+}
@@ -456,6 +456,8 @@ class DefaultFileLockManagerTest extends Specification {
             assert str.readByte() == 2
             assert str.readUTF() == processIdentifier
             assert str.readUTF() == operationalName
+            assert str.readInt() == -1
+            str.readLong()
             assert str.read() < 0
         }
     }
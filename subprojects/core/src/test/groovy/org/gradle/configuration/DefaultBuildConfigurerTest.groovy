@@ -48,6 +48,26 @@ class DefaultBuildConfigurerTest extends Specification {
         1 * child2.evaluate()
     }
 
+    def "configures build for parallel mode"() {
+        def child1 = Mock(ProjectInternal)
+        def child2 = Mock(ProjectInternal)
+
+        given:
+        _ * startParameter.isParallelConfiguration() >> true
+        _ * rootProject.allprojects >> [rootProject, child1, child2]
+        _ * child1.parent >> rootProject
+        _ * child2.parent >> rootProject
+
+        when:
+        configurer.configure(gradle)
+
+        then:
+        1 * gradle.addProjectEvaluationListener(_ as ProjectDependencies2TaskResolver);
+        1 * rootProject.evaluate()
+        1 * child1.evaluate()
+        1 * child2.evaluate()
+    }
+
     def "configures build for on demand mode"() {
         when:
         configurer.configure(gradle)
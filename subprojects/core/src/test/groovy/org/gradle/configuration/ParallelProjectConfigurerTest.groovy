@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.configuration
+
+import org.gradle.api.internal.project.ProjectInternal
+import spock.lang.Specification
+import spock.lang.Timeout
+
+class ParallelProjectConfigurerTest extends Specification {
+    final List<String> evaluated = Collections.synchronizedList([])
+    final configurer = new ParallelProjectConfigurer(4)
+
+    def "evaluates all projects"() {
+        def root = project(null, ":")
+        def a = project(root, ":a")
+        def b = project(root, ":b")
+        def c = project(root, ":c")
+
+        when:
+        configurer.configure([root, a, b, c])
+
+        then:
+        evaluated as Set == [":", ":a", ":b", ":c"] as Set
+    }
+
+    def "evaluates parent project before its children"() {
+        def root = project(null, ":")
+        def a = project(root, ":a")
+        def child1 = project(a, ":a:child1")
+        def child2 = project(a, ":a:child2")
+        def b = project(root, ":b")
+
+        when:
+        configurer.configure([root, a, child1, child2, b])
+
+        then:
+        evaluated.size() == 5
+        evaluated.first() == ":"
+        evaluated.indexOf(":a") < evaluated.indexOf(":a:child1")
+        evaluated.indexOf(":a") < evaluated.indexOf(":a:child2")
+    }
+
+    def "does not evaluate further projects once a project fails"() {
+        def failure = new RuntimeException("broken")
+        def root = project(null, ":")
+        def a = Mock(ProjectInternal)
+        def child = project(a, ":a:child")
+        _ * a.parent >> root
+        _ * a.evaluate() >> { throw failure }
+
+        when:
+        configurer.configure([root, a, child])
+
+        then:
+        RuntimeException e = thrown()
+        e == failure
+        evaluated == [":"]
+    }
+
+    @Timeout(10)
+    def "does not evaluate further projects once a project fails with an error"() {
+        def failure = new AssertionError("broken")
+        def root = project(null, ":")
+        def a = Mock(ProjectInternal)
+        def child = project(a, ":a:child")
+        def b = project(root, ":b")
+        def bChild = project(b, ":b:child")
+        _ * a.parent >> root
+        _ * a.evaluate() >> { throw failure }
+
+        when:
+        configurer.configure([root, a, child, b, bChild])
+
+        then:
+        AssertionError e = thrown()
+        e == failure
+        !evaluated.contains(":a:child")
+    }
+
+    def "rejects invalid number of workers"() {
+        when:
+        new ParallelProjectConfigurer(0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def project(ProjectInternal parent, String path) {
+        def project = Mock(ProjectInternal)
+        _ * project.parent >> parent
+        _ * project.evaluate() >> {
+            evaluated << path
+            project
+        }
+        return project
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.configuration
+
+import org.gradle.api.CircularReferenceException
+import org.gradle.api.InvalidUserDataException
+import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.ProjectStateInternal
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+
+class ParallelProjectEvaluatorTest extends ConcurrentSpec {
+    final Map<ProjectInternal, Closure> scripts = [:]
+    final Map<ProjectInternal, ProjectStateInternal> states = [:]
+    final delegate = { ProjectInternal project, ProjectStateInternal state ->
+        state.executing = true
+        try {
+            scripts[project]?.call()
+        } finally {
+            state.executing = false
+            state.executed()
+        }
+    } as ProjectEvaluator
+    final evaluator = new ParallelProjectEvaluator(delegate)
+    final root = project(null, ":")
+    final a = project(root, ":a")
+    final b = project(root, ":b")
+    final child = project(a, ":a:child")
+
+    def "evaluates project once"() {
+        def count = 0
+        scripts[a] = { count++ }
+
+        when:
+        evaluate(a)
+        evaluate(a)
+
+        then:
+        count == 1
+        states[a].executed
+    }
+
+    def "thread waits for project that is being evaluated by another thread"() {
+        scripts[a] = {
+            instant.aStarted
+            thread.block()
+            instant.aFinished
+        }
+
+        when:
+        async {
+            start {
+                evaluate(a)
+            }
+            start {
+                thread.blockUntil.aStarted
+                evaluate(a)
+                instant.waited
+            }
+        }
+
+        then:
+        instant.waited > instant.aFinished
+    }
+
+    def "does not start evaluating project while its parent is being evaluated by another thread"() {
+        scripts[a] = {
+            instant.parentStarted
+            thread.block()
+            instant.parentFinished
+        }
+        scripts[child] = {
+            instant.childStarted
+        }
+
+        when:
+        async {
+            start {
+                evaluate(a)
+            }
+            start {
+                thread.blockUntil.parentStarted
+                evaluate(child)
+            }
+        }
+
+        then:
+        instant.childStarted > instant.parentFinished
+    }
+
+    def "projects that do not depend on each other are evaluated concurrently"() {
+        scripts[a] = {
+            instant.aStarted
+            thread.blockUntil.bStarted
+        }
+        scripts[b] = {
+            instant.bStarted
+            thread.blockUntil.aStarted
+        }
+
+        when:
+        async {
+            start {
+                evaluate(a)
+            }
+            start {
+                evaluate(b)
+            }
+        }
+
+        then:
+        states[a].executed
+        states[b].executed
+    }
+
+    def "evaluates child project inline when parent declares an evaluation dependency on it"() {
+        scripts[a] = {
+            evaluate(child)
+            assert states[child].executed
+        }
+
+        when:
+        evaluate(a)
+
+        then:
+        states[a].executed
+        states[child].executed
+    }
+
+    def "fails when threads wait for each other"() {
+        def failure = null
+        scripts[a] = {
+            instant.aStarted
+            thread.blockUntil.bStarted
+            evaluate(b)
+        }
+        scripts[b] = {
+            instant.bStarted
+            thread.blockUntil.aStarted
+            thread.block()
+            try {
+                evaluate(a)
+            } catch (CircularReferenceException e) {
+                failure = e
+            }
+        }
+
+        when:
+        async {
+            start {
+                evaluate(a)
+            }
+            start {
+                evaluate(b)
+            }
+        }
+
+        then:
+        failure != null
+        states[a].executed
+        states[b].executed
+    }
+
+    def "project can configure itself, its descendants and projects it depends on"() {
+        scripts[a] = {
+            evaluator.beforeConfiguringProject(a)
+            evaluator.beforeConfiguringProject(child)
+            evaluate(b)
+            evaluator.beforeConfiguringProject(b)
+        }
+
+        when:
+        evaluate(a)
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "fails when project configures a project it does not depend on"() {
+        def failure = null
+        scripts[a] = {
+            try {
+                evaluator.beforeConfiguringProject(b)
+            } catch (InvalidUserDataException e) {
+                failure = e
+            }
+        }
+
+        when:
+        evaluate(a)
+
+        then:
+        failure != null
+    }
+
+    def "allows any project to be configured outside project evaluation"() {
+        when:
+        evaluator.beforeConfiguringProject(a)
+        evaluator.beforeConfiguringProject(b)
+
+        then:
+        noExceptionThrown()
+    }
+
+    def evaluate(ProjectInternal project) {
+        evaluator.evaluate(project, states[project])
+    }
+
+    def project(ProjectInternal parent, String path) {
+        def project = Stub(ProjectInternal) {
+            getParent() >> parent
+            getPath() >> path
+        }
+        states[project] = new ProjectStateInternal()
+        return project
+    }
+}
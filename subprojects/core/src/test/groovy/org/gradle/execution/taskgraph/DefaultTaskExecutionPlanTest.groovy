@@ -19,6 +19,7 @@ package org.gradle.execution.taskgraph
 import org.gradle.api.CircularReferenceException
 import org.gradle.api.Task
 import org.gradle.api.internal.TaskInternal
+import org.gradle.api.internal.changedetection.state.TaskDurationRepository
 import org.gradle.api.internal.project.DefaultProject
 import org.gradle.api.specs.Spec
 import org.gradle.api.tasks.TaskDependency
@@ -546,6 +547,58 @@ public class DefaultTaskExecutionPlanTest extends Specification {
         executedTasks == [c]
     }
 
+    def "returns ready tasks with the longest chain of dependents first when prioritising longest paths"() {
+        given:
+        Task a = task("a");
+        Task b = task("b");
+        Task c = task("c", dependsOn: [b]);
+        TaskDurationRepository durations = Mock()
+
+        when:
+        addToGraphAndPopulate([a, c])
+        executionPlan.prioritiseLongestPaths(durations)
+
+        then:
+        executedTasks == [b, a, c]
+    }
+
+    def "uses previous task durations when prioritising longest paths"() {
+        given:
+        Task a = task("a");
+        Task b = task("b");
+        Task c = task("c", dependsOn: [b]);
+        TaskDurationRepository durations = Mock()
+
+        and:
+        durations.getPreviousDuration(a) >> 100L
+        durations.getPreviousDuration(b) >> 10L
+        durations.getPreviousDuration(c) >> 20L
+
+        when:
+        addToGraphAndPopulate([a, c])
+        executionPlan.prioritiseLongestPaths(durations)
+
+        then:
+        executedTasks == [a, b, c]
+    }
+
+    def "clear discards longest path prioritisation"() {
+        given:
+        Task a = task("a");
+        Task b = task("b");
+        Task c = task("c", dependsOn: [b]);
+        TaskDurationRepository durations = Mock()
+
+        when:
+        addToGraphAndPopulate([a, c])
+        executionPlan.prioritiseLongestPaths(durations)
+        executionPlan.clear()
+        addToGraphAndPopulate([a, c])
+
+        then:
+        executedTasks == [a, b, c]
+    }
+
     def "one parallel task per project is allowed"() {
         given:
         //2 projects, 2 tasks each
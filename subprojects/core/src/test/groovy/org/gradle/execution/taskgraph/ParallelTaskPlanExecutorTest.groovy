@@ -0,0 +1,106 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution.taskgraph
+
+import org.gradle.api.Project
+import org.gradle.api.Task
+import org.gradle.api.execution.TaskExecutionListener
+import org.gradle.api.internal.TaskInternal
+import org.gradle.api.internal.changedetection.state.TaskDurationRepository
+import org.gradle.api.internal.changedetection.state.TimingTaskArtifactStateCacheAccess
+import org.gradle.api.tasks.TaskState
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CyclicBarrier
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+@Timeout(60)
+class ParallelTaskPlanExecutorTest extends Specification {
+    final TimingTaskArtifactStateCacheAccess cacheAccess = Mock()
+    final TaskDurationRepository durations = Mock()
+    final TaskWorkerStatisticsListener statisticsListener = Mock()
+    final TaskExecutionPlan plan = Mock()
+    final TaskExecutionListener listener = Mock()
+    final executor = new ParallelTaskPlanExecutor(cacheAccess, durations, statisticsListener, 4)
+    final queue = new ConcurrentLinkedQueue<TaskInfo>()
+    final List<Task> tasks = []
+
+    def setup() {
+        _ * cacheAccess.longRunningOperation(_, _) >> { String description, Runnable action -> action.run() }
+        _ * plan.getTaskToExecute() >> { queue.poll() }
+        _ * plan.getTasks() >> tasks
+    }
+
+    def "executes independent tasks concurrently"() {
+        def barrier = new CyclicBarrier(2)
+        def a = task(":a:compile", ":a") { barrier.await(10, TimeUnit.SECONDS) }
+        def b = task(":b:compile", ":b") { barrier.await(10, TimeUnit.SECONDS) }
+
+        when:
+        executor.process(plan, listener)
+
+        then:
+        a.executionFailure == null
+        b.executionFailure == null
+        1 * plan.taskComplete(a)
+        1 * plan.taskComplete(b)
+        2 * statisticsListener.workerFinished(_)
+    }
+
+    def "notifies the task execution listener one task at a time"() {
+        def barrier = new CyclicBarrier(2)
+        def a = task(":a:compile", ":a") { barrier.await(10, TimeUnit.SECONDS) }
+        def b = task(":b:compile", ":b") { barrier.await(10, TimeUnit.SECONDS) }
+        def active = new AtomicInteger()
+        def maxActive = new AtomicInteger()
+        def notify = {
+            maxActive.set(Math.max(maxActive.get(), active.incrementAndGet()))
+            Thread.sleep(100)
+            active.decrementAndGet()
+        }
+
+        when:
+        executor.process(plan, listener)
+
+        then:
+        2 * listener.beforeExecute(_) >> { notify() }
+        2 * listener.afterExecute(_, _) >> { notify() }
+        a.executionFailure == null
+        b.executionFailure == null
+        maxActive.get() == 1
+    }
+
+    private TaskInfo task(String path, String projectPath, Closure action) {
+        def project = Stub(Project) {
+            getPath() >> projectPath
+        }
+        def state = Stub(TaskState)
+        def task = Stub(TaskInternal) {
+            getPath() >> path
+            getProject() >> project
+            getState() >> state
+            executeWithoutThrowingTaskFailure() >> { action.call() }
+        }
+        def taskInfo = new TaskInfo(task)
+        queue.add(taskInfo)
+        tasks.add(task)
+        return taskInfo
+    }
+}
@@ -17,15 +17,18 @@
 package org.gradle.execution.taskgraph;
 
 
-import org.gradle.api.internal.changedetection.state.TaskArtifactStateCacheAccess
+import org.gradle.api.internal.changedetection.state.TaskDurationRepository
+import org.gradle.api.internal.changedetection.state.TimingTaskArtifactStateCacheAccess
 import spock.lang.Specification
 
 public class TaskPlanExecutorFactoryTest extends Specification {
-    final TaskArtifactStateCacheAccess cache = Mock()
+    final TimingTaskArtifactStateCacheAccess cache = Mock()
+    final TaskDurationRepository durations = Mock()
+    final TaskWorkerStatisticsListener listener = Mock()
 
     def "creates a default executor"() {
         when:
-        def factory = new TaskPlanExecutorFactory(cache, 0)
+        def factory = new TaskPlanExecutorFactory(cache, durations, listener, 0)
 
         then:
         factory.create().class == DefaultTaskPlanExecutor
@@ -33,7 +36,7 @@ public class TaskPlanExecutorFactoryTest extends Specification {
 
     def "creates a parallel executor"() {
         when:
-        def factory = new TaskPlanExecutorFactory(cache, parallelExecuterCount)
+        def factory = new TaskPlanExecutorFactory(cache, durations, listener, parallelExecuterCount)
 
         then:
         factory.create().class == ParallelTaskPlanExecutor
@@ -153,6 +153,42 @@ class PrintStreamLoggingSystemTest extends Specification {
         0 * listener._
     }
 
+    def capturesStartedByDifferentThreadsDoNotRestoreEachOthersState() {
+        def snapshot1 = null
+        def snapshot2 = null
+        def other = new Thread({ snapshot2 = loggingSystem.on(LogLevel.INFO) })
+        snapshot1 = loggingSystem.on(LogLevel.QUIET)
+        other.start()
+        other.join()
+
+        when:
+        loggingSystem.restore(snapshot1)
+        loggingSystem.restore(snapshot2)
+        stream.println('info')
+
+        then:
+        original.toString() == withEOL('info')
+        0 * listener._
+    }
+
+    def routesTextToTheLevelOfTheCapturingThread() {
+        loggingSystem.on(LogLevel.QUIET)
+        def other = new Thread({
+            def snapshot = loggingSystem.on(LogLevel.INFO)
+            stream.println('other')
+            loggingSystem.restore(snapshot)
+        })
+
+        when:
+        other.start()
+        other.join()
+        stream.println('main')
+
+        then:
+        1 * listener.onOutput({it instanceof StyledTextOutputEvent && it.logLevel == LogLevel.INFO && it.spans[0].text == withEOL('other')})
+        1 * listener.onOutput({it instanceof StyledTextOutputEvent && it.logLevel == LogLevel.QUIET && it.spans[0].text == withEOL('main')})
+    }
+
     private String withEOL(String value) {
         return String.format('%s%n', value)
     }
@@ -21,6 +21,7 @@ import org.gradle.messaging.remote.Address;
 import org.gradle.messaging.remote.MessagingClient;
 import org.gradle.messaging.remote.ObjectConnection;
 import org.gradle.messaging.remote.internal.MessagingServices;
+import org.gradle.messaging.remote.internal.ParameterSerializerRegistry;
 import org.gradle.process.internal.WorkerProcessContext;
 import org.gradle.util.JUnit4GroovyMockery;
 import org.jmock.Expectations;
@@ -41,6 +42,7 @@ public class ActionExecutionWorkerTest {
     private final ObjectConnection connection = context.mock(ObjectConnection.class);
     private final MessagingServices messagingServices = context.mock(MessagingServices.class);
     private final MessagingClient client = context.mock(MessagingClient.class);
+    private final ParameterSerializerRegistry serializerRegistry = context.mock(ParameterSerializerRegistry.class);
     private final WorkerContext workerContext = context.mock(WorkerContext.class);
     private final Address serverAddress = context.mock(Address.class);
     private final ClassLoader appClassLoader = new ClassLoader() {
@@ -76,9 +78,13 @@ public class ActionExecutionWorkerTest {
         context.checking(new Expectations() {{
             allowing(workerContext).getApplicationClassLoader();
             will(returnValue(appClassLoader));
+
+            allowing(messagingServices).get(ParameterSerializerRegistry.class);
+            will(returnValue(serializerRegistry));
         }});
 
         assertThat(collector.get().getServerConnection(), sameInstance(connection));
+        assertThat(collector.get().getParameterSerializerRegistry(), sameInstance(serializerRegistry));
         assertThat(collector.get().getApplicationClassLoader(), sameInstance(appClassLoader));
         assertThat(collector.get().getWorkerId(), equalTo((Object) 12));
         assertThat(collector.get().getDisplayName(), equalTo("<display name>"));
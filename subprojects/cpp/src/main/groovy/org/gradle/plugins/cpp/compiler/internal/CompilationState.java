@@ -0,0 +1,176 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugins.cpp.compiler.internal;
+
+import org.gradle.api.UncheckedIOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * The state of an incremental compilation: the options used to compile each translation unit, and the files each
+ * translation unit was built from. A translation unit is up-to-date when none of the source or header files it was
+ * compiled from have changed since it was compiled.
+ */
+public class CompilationState {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompilationState.class);
+    private static final int FORMAT_VERSION = 1;
+
+    private final List<String> options = new ArrayList<String>();
+    private final Map<File, List<FileState>> units = new LinkedHashMap<File, List<FileState>>();
+
+    /**
+     * Reads the state from the given file. Returns an empty state when the file does not exist or cannot be read.
+     */
+    public static CompilationState read(File file) {
+        CompilationState state = new CompilationState();
+        if (!file.isFile()) {
+            return state;
+        }
+        try {
+            DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                if (inputStream.readInt() != FORMAT_VERSION) {
+                    return new CompilationState();
+                }
+                int optionCount = inputStream.readInt();
+                for (int i = 0; i < optionCount; i++) {
+                    state.options.add(inputStream.readUTF());
+                }
+                int unitCount = inputStream.readInt();
+                for (int i = 0; i < unitCount; i++) {
+                    File source = new File(inputStream.readUTF());
+                    int fileCount = inputStream.readInt();
+                    List<FileState> files = new ArrayList<FileState>(fileCount);
+                    for (int j = 0; j < fileCount; j++) {
+                        files.add(new FileState(new File(inputStream.readUTF()), inputStream.readLong(), inputStream.readLong()));
+                    }
+                    state.units.put(source, files);
+                }
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            LOGGER.info(String.format("Could not read compilation state from %s. Recompiling all source files.", file), e);
+            return new CompilationState();
+        }
+        return state;
+    }
+
+    public synchronized void write(File file) {
+        try {
+            DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            try {
+                outputStream.writeInt(FORMAT_VERSION);
+                outputStream.writeInt(options.size());
+                for (String option : options) {
+                    outputStream.writeUTF(option);
+                }
+                outputStream.writeInt(units.size());
+                for (Map.Entry<File, List<FileState>> entry : units.entrySet()) {
+                    outputStream.writeUTF(entry.getKey().getAbsolutePath());
+                    outputStream.writeInt(entry.getValue().size());
+                    for (FileState fileState : entry.getValue()) {
+                        outputStream.writeUTF(fileState.file.getAbsolutePath());
+                        outputStream.writeLong(fileState.length);
+                        outputStream.writeLong(fileState.lastModified);
+                    }
+                }
+            } finally {
+                outputStream.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Could not write compilation state to %s.", file), e);
+        }
+    }
+
+    public synchronized List<String> getOptions() {
+        return new ArrayList<String>(options);
+    }
+
+    /**
+     * Discards the state of all translation units and records the given options.
+     */
+    public synchronized void reset(List<String> options) {
+        this.options.clear();
+        this.options.addAll(options);
+        units.clear();
+    }
+
+    public synchronized Set<File> getSourceFiles() {
+        return new LinkedHashSet<File>(units.keySet());
+    }
+
+    /**
+     * Returns true when the given translation unit has been compiled and none of the files it was compiled from have changed since.
+     */
+    public synchronized boolean isUpToDate(File source) {
+        List<FileState> files = units.get(source);
+        if (files == null) {
+            return false;
+        }
+        for (FileState fileState : files) {
+            if (!fileState.isCurrent()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public synchronized void remove(File source) {
+        units.remove(source);
+    }
+
+    /**
+     * Records that the given translation unit has been compiled.
+     *
+     * @param source The state of the source file, taken before compilation started.
+     * @param dependencies The other files the translation unit was compiled from.
+     */
+    public void compiled(FileState source, Collection<File> dependencies) {
+        List<FileState> files = new ArrayList<FileState>(dependencies.size() + 1);
+        files.add(source);
+        for (File dependency : dependencies) {
+            files.add(FileState.of(dependency));
+        }
+        synchronized (this) {
+            units.put(source.file, files);
+        }
+    }
+
+    public static class FileState {
+        private final File file;
+        private final long length;
+        private final long lastModified;
+
+        private FileState(File file, long length, long lastModified) {
+            this.file = file;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        public static FileState of(File file) {
+            return new FileState(file, file.length(), file.lastModified());
+        }
+
+        boolean isCurrent() {
+            return file.length() == length && file.lastModified() == lastModified;
+        }
+    }
+}
@@ -43,6 +43,7 @@ class GppCompileSpec implements CompileSpec, StandardCppCompiler, CompileTaskAwa
     String outputFileName
     String baseName
     String extension
+    int maxParallelCompilers = Runtime.runtime.availableProcessors()
     private final Compiler<? super GppCompileSpec> compiler
     private final ProjectInternal project
     private final ConfigurableFileCollection libs
@@ -65,6 +66,7 @@ class GppCompileSpec implements CompileSpec, StandardCppCompiler, CompileTaskAwa
 
         task.onlyIf { !task.inputs.files.empty }
         task.outputs.file { getOutputFile() }
+        task.outputs.dir { getObjectFileDir() }
 
         // problem: will break if a source set is removed
         binary.sourceSets.withType(CppSourceSet).all { from(it) }
@@ -82,6 +84,10 @@ class GppCompileSpec implements CompileSpec, StandardCppCompiler, CompileTaskAwa
         project.file "$project.buildDir/compileWork/$name"
     }
 
+    File getObjectFileDir() {
+        project.file "$project.buildDir/objectFiles/$name"
+    }
+
     Iterable<File> getLibs() {
         return libs
     }
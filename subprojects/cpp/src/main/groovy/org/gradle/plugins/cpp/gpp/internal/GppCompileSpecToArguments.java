@@ -19,20 +19,35 @@ package org.gradle.plugins.cpp.gpp.internal;
 import org.gradle.internal.os.OperatingSystem;
 import org.gradle.plugins.binaries.model.LibraryCompileSpec;
 import org.gradle.api.internal.tasks.compile.ArgCollector;
-import org.gradle.api.internal.tasks.compile.CompileSpecToArguments;
 import org.gradle.plugins.cpp.gpp.GppCompileSpec;
 
 import java.io.File;
 
-public class GppCompileSpecToArguments implements CompileSpecToArguments<GppCompileSpec> {
+public class GppCompileSpecToArguments {
 
-    public void collectArguments(GppCompileSpec spec, ArgCollector collector) {
+    /**
+     * Collects the arguments used to compile each translation unit of the given spec.
+     */
+    public void collectCompileArguments(GppCompileSpec spec, ArgCollector collector) {
+        collector.args("-c");
+        if (spec instanceof LibraryCompileSpec && !OperatingSystem.current().isWindows()) {
+            collector.args("-fPIC");
+        }
+        for (File file : spec.getIncludeRoots()) {
+            collector.args("-I");
+            collector.args(file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Collects the arguments used to link the given object files into the output file of the given spec.
+     */
+    public void collectLinkArguments(GppCompileSpec spec, Iterable<File> objectFiles, ArgCollector collector) {
         collector.args("-o", spec.getOutputFile().getAbsolutePath());
         if (spec instanceof LibraryCompileSpec) {
             LibraryCompileSpec librarySpec = (LibraryCompileSpec) spec;
             collector.args("-shared");
             if (!OperatingSystem.current().isWindows()) {
-                collector.args("-fPIC");
                 if (OperatingSystem.current().isMacOsX()) {
                     collector.args("-Wl,-install_name," + librarySpec.getInstallName());
                 } else {
@@ -40,11 +55,7 @@ public class GppCompileSpecToArguments implements CompileSpecToArguments<GppComp
                 }
             }
         }
-        for (File file : spec.getIncludeRoots()) {
-            collector.args("-I");
-            collector.args(file.getAbsolutePath());
-        }
-        for (File file : spec.getSource()) {
+        for (File file : objectFiles) {
             collector.args(file.getAbsolutePath());
         }
         for (File file : spec.getLibs()) {
@@ -16,29 +16,211 @@
 
 package org.gradle.plugins.cpp.gpp.internal;
 
-import org.gradle.internal.Factory;
+import groovy.lang.Closure;
+import org.gradle.api.internal.tasks.compile.ArgCollector;
 import org.gradle.api.internal.tasks.compile.ArgWriter;
-import org.gradle.plugins.cpp.compiler.internal.CommandLineCppCompiler;
+import org.gradle.api.internal.tasks.compile.CompileSpecToArguments;
+import org.gradle.api.internal.tasks.compile.ExecSpecBackedArgCollector;
+import org.gradle.api.internal.tasks.compile.SimpleWorkResult;
+import org.gradle.api.tasks.WorkResult;
+import org.gradle.internal.Factory;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
 import org.gradle.plugins.cpp.compiler.internal.CommandLineCppCompilerArgumentsToOptionFile;
+import org.gradle.plugins.cpp.compiler.internal.CompilationState;
+import org.gradle.plugins.cpp.compiler.internal.CppCompiler;
 import org.gradle.plugins.cpp.gpp.GppCompileSpec;
 import org.gradle.process.internal.ExecAction;
+import org.gradle.util.GFileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public class GppCompiler extends CommandLineCppCompiler<GppCompileSpec> {
+/**
+ * Compiles each translation unit of a spec to an object file, then links the object files. Translation units are compiled
+ * in parallel, and only those whose source file or included headers have changed since they were last compiled are recompiled.
+ */
+public class GppCompiler implements CppCompiler<GppCompileSpec> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GppCompiler.class);
+    private static final String STATE_FILE_NAME = "compilation-state.bin";
+    private static final Set<String> SOURCE_EXTENSIONS = new HashSet<String>(Arrays.asList("c", "cc", "cp", "cpp", "cxx", "c++"));
 
-    public GppCompiler(File executable, Factory<ExecAction> execActionFactory, boolean useCommandFile) {
-        super(executable, execActionFactory, useCommandFile ? viaCommandFile() : withoutCommandFile());
+    private final File executable;
+    private final Factory<ExecAction> execActionFactory;
+    private final ExecutorFactory executorFactory;
+    private final boolean useCommandFile;
+    private final GppCompileSpecToArguments toArguments = new GppCompileSpecToArguments();
+    private final GppDependencyFileParser dependencyFileParser = new GppDependencyFileParser();
+
+    public GppCompiler(File executable, Factory<ExecAction> execActionFactory, ExecutorFactory executorFactory, boolean useCommandFile) {
+        this.executable = executable;
+        this.execActionFactory = execActionFactory;
+        this.executorFactory = executorFactory;
+        this.useCommandFile = useCommandFile;
     }
 
-    private static GppCompileSpecToArguments withoutCommandFile() {
-        return new GppCompileSpecToArguments();
+    public WorkResult execute(GppCompileSpec spec) {
+        ensureDirsExist(spec.getWorkDir(), spec.getObjectFileDir(), spec.getOutputFile().getParentFile());
+
+        File stateFile = new File(spec.getWorkDir(), STATE_FILE_NAME);
+        CompilationState state = CompilationState.read(stateFile);
+
+        List<File> linkInputs = new ArrayList<File>();
+        Set<File> sources = new LinkedHashSet<File>();
+        for (File file : spec.getSource()) {
+            if (isTranslationUnit(file)) {
+                sources.add(file);
+                linkInputs.add(objectFileFor(spec, file));
+            } else {
+                linkInputs.add(file);
+            }
+        }
+
+        for (File source : state.getSourceFiles()) {
+            if (!sources.contains(source)) {
+                state.remove(source);
+                GFileUtils.deleteQuietly(objectFileFor(spec, source));
+                GFileUtils.deleteQuietly(dependencyFileFor(spec, source));
+            }
+        }
+
+        List<String> options = new ArrayList<String>();
+        options.add(executable.getAbsolutePath());
+        options.addAll(createCompileAction(spec).getArgs());
+        if (!options.equals(state.getOptions())) {
+            state.reset(options);
+        }
+
+        List<File> staleSources = new ArrayList<File>();
+        for (File source : sources) {
+            if (!objectFileFor(spec, source).isFile() || !state.isUpToDate(source)) {
+                staleSources.add(source);
+            }
+        }
+        LOGGER.info("Compiling {} of {} source files for {}.", new Object[]{staleSources.size(), sources.size(), spec.getName()});
+
+        try {
+            compile(spec, staleSources, state);
+        } finally {
+            state.write(stateFile);
+        }
+
+        link(spec, linkInputs);
+        return new SimpleWorkResult(true);
+    }
+
+    private void compile(final GppCompileSpec spec, List<File> sources, final CompilationState state) {
+        if (sources.isEmpty()) {
+            return;
+        }
+        final Queue<File> queue = new ConcurrentLinkedQueue<File>(sources);
+        final AtomicBoolean failed = new AtomicBoolean();
+        int workers = Math.max(1, Math.min(spec.getMaxParallelCompilers(), sources.size()));
+        StoppableExecutor executor = executorFactory.create(String.format("compiler for %s", spec.getName()));
+        try {
+            for (int i = 0; i < workers; i++) {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        File source;
+                        while (!failed.get() && (source = queue.poll()) != null) {
+                            try {
+                                compile(spec, source, state);
+                            } catch (RuntimeException e) {
+                                failed.set(true);
+                                throw e;
+                            }
+                        }
+                    }
+                });
+            }
+        } finally {
+            // Rethrows the first compilation failure
+            executor.stop();
+        }
     }
 
-    private static CommandLineCppCompilerArgumentsToOptionFile<GppCompileSpec> viaCommandFile() {
-        return new CommandLineCppCompilerArgumentsToOptionFile<GppCompileSpec>(
-            ArgWriter.unixStyleFactory(), new GppCompileSpecToArguments()
-        );
+    private void compile(GppCompileSpec spec, File source, CompilationState state) {
+        File objectFile = objectFileFor(spec, source);
+        File dependencyFile = dependencyFileFor(spec, source);
+        state.remove(source);
+        GFileUtils.deleteQuietly(objectFile);
+        GFileUtils.mkdirs(objectFile.getParentFile());
+
+        CompilationState.FileState sourceState = CompilationState.FileState.of(source);
+        ExecAction compiler = createCompileAction(spec);
+        compiler.args("-MMD", "-MF", dependencyFile.getAbsolutePath());
+        compiler.args("-o", objectFile.getAbsolutePath());
+        compiler.args(source.getAbsolutePath());
+        compiler.execute();
+
+        List<File> dependencies = dependencyFileParser.parse(dependencyFile, spec.getWorkDir());
+        dependencies.remove(source);
+        state.compiled(sourceState, dependencies);
     }
 
+    private void link(GppCompileSpec spec, final List<File> inputs) {
+        CompileSpecToArguments<GppCompileSpec> linkArguments = new CompileSpecToArguments<GppCompileSpec>() {
+            public void collectArguments(GppCompileSpec spec, ArgCollector collector) {
+                toArguments.collectLinkArguments(spec, inputs, collector);
+            }
+        };
+        if (useCommandFile) {
+            linkArguments = new CommandLineCppCompilerArgumentsToOptionFile<GppCompileSpec>(ArgWriter.unixStyleFactory(), linkArguments);
+        }
+
+        ExecAction linker = createAction(spec);
+        linkArguments.collectArguments(spec, new ExecSpecBackedArgCollector(linker));
+        applySettings(spec, linker);
+        linker.execute();
+    }
+
+    private ExecAction createCompileAction(GppCompileSpec spec) {
+        ExecAction compiler = createAction(spec);
+        toArguments.collectCompileArguments(spec, new ExecSpecBackedArgCollector(compiler));
+        applySettings(spec, compiler);
+        return compiler;
+    }
+
+    private ExecAction createAction(GppCompileSpec spec) {
+        ExecAction action = execActionFactory.create();
+        action.executable(executable);
+        action.workingDir(spec.getWorkDir());
+        return action;
+    }
+
+    private void applySettings(GppCompileSpec spec, ExecAction action) {
+        for (Closure closure : spec.getSettings()) {
+            closure.call(action);
+        }
+    }
+
+    private static boolean isTranslationUnit(File file) {
+        String name = file.getName();
+        int index = name.lastIndexOf('.');
+        return index > 0 && SOURCE_EXTENSIONS.contains(name.substring(index + 1).toLowerCase());
+    }
+
+    private static File objectFileFor(GppCompileSpec spec, File source) {
+        return outputFileFor(spec, source, ".o");
+    }
+
+    private static File dependencyFileFor(GppCompileSpec spec, File source) {
+        return outputFileFor(spec, source, ".d");
+    }
+
+    private static File outputFileFor(GppCompileSpec spec, File source, String extension) {
+        // Source files from different directories may have the same name, so group the output files by source directory
+        String dirName = Integer.toHexString(source.getParentFile().getAbsolutePath().hashCode());
+        return new File(new File(spec.getObjectFileDir(), dirName), source.getName() + extension);
+    }
+
+    private void ensureDirsExist(File... dirs) {
+        for (File dir : dirs) {
+            GFileUtils.mkdirs(dir);
+        }
+    }
 }
@@ -18,6 +18,7 @@ package org.gradle.plugins.cpp.gpp.internal;
 import org.gradle.api.Transformer;
 import org.gradle.api.internal.tasks.compile.Compiler;
 import org.gradle.internal.Factory;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.os.OperatingSystem;
 import org.gradle.plugins.binaries.model.Binary;
 import org.gradle.plugins.cpp.compiler.internal.CommandLineCppCompilerAdapter;
@@ -44,13 +45,15 @@ public class GppCompilerAdapter extends CommandLineCppCompilerAdapter<GppCompile
     private String version;
 
     private final Transformer<String, File> versionDeterminer;
+    private final ExecutorFactory executorFactory;
 
-    public GppCompilerAdapter(OperatingSystem operatingSystem, Factory<ExecAction> execActionFactory) {
-        this(operatingSystem, execActionFactory, new GppVersionDeterminer());
+    public GppCompilerAdapter(OperatingSystem operatingSystem, Factory<ExecAction> execActionFactory, ExecutorFactory executorFactory) {
+        this(operatingSystem, execActionFactory, executorFactory, new GppVersionDeterminer());
     }
 
-    GppCompilerAdapter(OperatingSystem operatingSystem, Factory<ExecAction> execActionFactory, Transformer<String, File> versionDeterminer) {
+    GppCompilerAdapter(OperatingSystem operatingSystem, Factory<ExecAction> execActionFactory, ExecutorFactory executorFactory, Transformer<String, File> versionDeterminer) {
         super(EXECUTABLE, operatingSystem, execActionFactory);
+        this.executorFactory = executorFactory;
         this.versionDeterminer = versionDeterminer;
     }
 
@@ -83,7 +86,7 @@ public class GppCompilerAdapter extends CommandLineCppCompilerAdapter<GppCompile
             throw new IllegalStateException(String.format("Unable to determine major g++ version from version number %s.", version), e);
         }
 
-        return new GppCompiler(getExecutable(), getExecActionFactory(), majorVersion >= 4);
+        return new GppCompiler(getExecutable(), getExecActionFactory(), executorFactory, majorVersion >= 4);
     }
 
     private String getVersion() {
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugins.cpp.gpp.internal;
+
+import org.gradle.util.GFileUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the make style dependency files generated by g++ when given the {@code -MMD} option. The first rule of such a file has the
+ * object file as its target and the source file followed by each header file it includes as its prerequisites.
+ */
+public class GppDependencyFileParser {
+
+    /**
+     * Returns the prerequisites of the first rule in the given dependency file, with relative paths resolved against the given directory.
+     */
+    public List<File> parse(File dependencyFile, File baseDir) {
+        String content = GFileUtils.readFile(dependencyFile);
+        List<File> prerequisites = new ArrayList<File>();
+        boolean inPrerequisites = false;
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= content.length(); i++) {
+            char ch = i < content.length() ? content.charAt(i) : '\n';
+            if (ch == '\\' && i + 1 < content.length()) {
+                char next = content.charAt(i + 1);
+                if (next == ' ' || next == '#') {
+                    token.append(next);
+                    i++;
+                    continue;
+                }
+                if (next == '\n' || next == '\r') {
+                    // Line continuation
+                    i++;
+                    if (next == '\r' && i + 1 < content.length() && content.charAt(i + 1) == '\n') {
+                        i++;
+                    }
+                    ch = ' ';
+                }
+            } else if (ch == '$' && i + 1 < content.length() && content.charAt(i + 1) == '$') {
+                token.append('$');
+                i++;
+                continue;
+            }
+            if (!Character.isWhitespace(ch)) {
+                token.append(ch);
+                continue;
+            }
+            if (token.length() > 0) {
+                if (inPrerequisites) {
+                    prerequisites.add(resolve(token.toString(), baseDir));
+                } else if (token.charAt(token.length() - 1) == ':') {
+                    inPrerequisites = true;
+                }
+                token.setLength(0);
+            }
+            if (inPrerequisites && (ch == '\n' || ch == '\r')) {
+                // End of the first rule
+                break;
+            }
+        }
+        return prerequisites;
+    }
+
+    private static File resolve(String path, File baseDir) {
+        File file = new File(path);
+        return file.isAbsolute() ? file : new File(baseDir, path);
+    }
+}
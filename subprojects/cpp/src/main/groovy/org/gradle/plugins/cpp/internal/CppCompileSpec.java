@@ -27,6 +27,16 @@ public interface CppCompileSpec extends StandardCppCompiler, BinaryCompileSpec {
 
     File getWorkDir();
 
+    /**
+     * The directory to write the object file for each translation unit to.
+     */
+    File getObjectFileDir();
+
+    /**
+     * The maximum number of translation units to compile concurrently.
+     */
+    int getMaxParallelCompilers();
+
     // This needs to go
     List<Closure> getSettings();
 
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugins.cpp.compiler.internal
+
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class CompilationStateTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    final state = new CompilationState()
+    TestFile source
+    TestFile header
+
+    def setup() {
+        source = tmpDir.createFile("main.cpp")
+        header = tmpDir.createFile("hello.h")
+        state.reset(["g++", "-c"])
+    }
+
+    def "translation unit is up-to-date until its source file or one of its headers changes"() {
+        given:
+        state.compiled(CompilationState.FileState.of(source), [header])
+
+        expect:
+        state.isUpToDate(source)
+
+        when:
+        header << "void hello();"
+
+        then:
+        !state.isUpToDate(source)
+
+        when:
+        state.compiled(CompilationState.FileState.of(source), [header])
+        source << "int main() {}"
+
+        then:
+        !state.isUpToDate(source)
+    }
+
+    def "translation unit is out-of-date when a header it includes is removed"() {
+        given:
+        state.compiled(CompilationState.FileState.of(source), [header])
+
+        when:
+        header.delete()
+
+        then:
+        !state.isUpToDate(source)
+    }
+
+    def "translation unit which has not been compiled is out-of-date"() {
+        expect:
+        !state.isUpToDate(source)
+    }
+
+    def "can write and read state"() {
+        given:
+        state.compiled(CompilationState.FileState.of(source), [header])
+        def file = tmpDir.file("state.bin")
+
+        when:
+        state.write(file)
+        def read = CompilationState.read(file)
+
+        then:
+        read.options == ["g++", "-c"]
+        read.sourceFiles == [source] as Set
+        read.isUpToDate(source)
+    }
+
+    def "reads empty state when file does not exist or cannot be read"() {
+        def file = tmpDir.file("state.bin")
+
+        expect:
+        CompilationState.read(file).sourceFiles.empty
+
+        when:
+        file.text = "broken"
+
+        then:
+        CompilationState.read(file).sourceFiles.empty
+        CompilationState.read(file).options.empty
+    }
+
+    def "reset discards the state of all translation units"() {
+        given:
+        state.compiled(CompilationState.FileState.of(source), [header])
+
+        when:
+        state.reset(["g++", "-c", "-O2"])
+
+        then:
+        state.options == ["g++", "-c", "-O2"]
+        !state.isUpToDate(source)
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugins.cpp.gpp.internal
+
+import org.gradle.internal.Factory
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.plugins.cpp.gpp.GppCompileSpec
+import org.gradle.process.internal.ExecAction
+import org.gradle.process.internal.ExecException
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class GppCompilerTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    final executorFactory = new DefaultExecutorFactory()
+    final GppCompileSpec spec = Stub()
+    final List<File> sources = []
+    final List<File> includeRoots = []
+    final Map<File, List<File>> headers = [:]
+    final Set<File> failing = []
+    final List<File> compiled = []
+    final Map<File, File> objectFiles = [:]
+    final List<List<String>> linked = []
+    final GppCompiler compiler = new GppCompiler(new File("g++"), { execAction() } as Factory, executorFactory, false)
+
+    def setup() {
+        spec.name >> "main"
+        spec.workDir >> tmpDir.file("work")
+        spec.objectFileDir >> tmpDir.file("objects")
+        spec.outputFile >> tmpDir.file("binaries/main")
+        spec.source >> { sources }
+        spec.includeRoots >> { includeRoots }
+        spec.libs >> []
+        spec.settings >> []
+        spec.maxParallelCompilers >> 2
+    }
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "compiles only the translation units whose source file or included headers have changed"() {
+        def header1 = header("one.h")
+        def source1 = source("one.cpp", header1)
+        def source2 = source("two.cpp", header("two.h"))
+
+        when:
+        compiler.execute(spec)
+
+        then:
+        compiled as Set == [source1, source2] as Set
+        linked.last().containsAll([objectFiles[source1], objectFiles[source2]]*.absolutePath)
+
+        when:
+        compiled.clear()
+        compiler.execute(spec)
+
+        then:
+        compiled.empty
+        linked.last().containsAll([objectFiles[source1], objectFiles[source2]]*.absolutePath)
+
+        when:
+        header1 << "void other();"
+        compiler.execute(spec)
+
+        then:
+        compiled == [source1]
+
+        when:
+        compiled.clear()
+        source2 << "int other() { return 0; }"
+        compiler.execute(spec)
+
+        then:
+        compiled == [source2]
+    }
+
+    def "recompiles all translation units when the compiler options change"() {
+        def source1 = source("one.cpp")
+        def source2 = source("two.cpp")
+        compiler.execute(spec)
+        compiled.clear()
+
+        when:
+        includeRoots << tmpDir.createDir("include")
+        compiler.execute(spec)
+
+        then:
+        compiled as Set == [source1, source2] as Set
+    }
+
+    def "removes the object file of a source file that has been removed"() {
+        def source1 = source("one.cpp")
+        def source2 = source("two.cpp")
+        compiler.execute(spec)
+        def objectFile = objectFiles[source2]
+        assert objectFile.file
+
+        when:
+        compiled.clear()
+        sources.remove(source2)
+        compiler.execute(spec)
+
+        then:
+        compiled.empty
+        !objectFile.exists()
+        linked.last().contains(objectFiles[source1].absolutePath)
+        !linked.last().contains(objectFile.absolutePath)
+    }
+
+    def "recompiles a translation unit whose compilation failed"() {
+        def source1 = source("one.cpp")
+        compiler.execute(spec)
+        def objectFile = objectFiles[source1]
+
+        when:
+        compiled.clear()
+        source1 << "broken"
+        failing << source1
+        compiler.execute(spec)
+
+        then:
+        thrown(ExecException)
+        !objectFile.exists()
+
+        when:
+        compiled.clear()
+        failing.clear()
+        compiler.execute(spec)
+
+        then:
+        compiled == [source1]
+        objectFile.file
+    }
+
+    def "recompiles a translation unit whose object file has been removed"() {
+        def source1 = source("one.cpp")
+        compiler.execute(spec)
+
+        when:
+        compiled.clear()
+        objectFiles[source1].delete()
+        compiler.execute(spec)
+
+        then:
+        compiled == [source1]
+    }
+
+    private TestFile header(String name) {
+        return tmpDir.createFile("src/${name}")
+    }
+
+    private TestFile source(String name, TestFile... includes) {
+        def file = tmpDir.file("src/${name}")
+        file.text = "int main() { return 0; }"
+        sources << file
+        headers[file] = includes as List
+        return file
+    }
+
+    /**
+     * Returns an action that behaves like g++: compiling a source file writes its object file and dependency file, and linking is recorded.
+     */
+    private ExecAction execAction() {
+        List<String> args = []
+        ExecAction action = Stub()
+        action.args(*_) >> { arguments ->
+            args.addAll(arguments.flatten()*.toString())
+            return action
+        }
+        action.getArgs() >> { args }
+        action.execute() >> {
+            if (!args.contains("-MF")) {
+                linked << args
+                return null
+            }
+            File source = new File(args.last())
+            synchronized (compiled) {
+                compiled << source
+            }
+            if (failing.contains(source)) {
+                throw new ExecException("compilation of ${source.name} failed")
+            }
+            File objectFile = new File(args[args.indexOf("-o") + 1])
+            File dependencyFile = new File(args[args.indexOf("-MF") + 1])
+            synchronized (objectFiles) {
+                objectFiles[source] = objectFile
+            }
+            objectFile.text = "object"
+            dependencyFile.text = "${objectFile.absolutePath}: ${([source] + headers[source])*.absolutePath.join(' ')}\n"
+            return null
+        }
+        return action
+    }
+}
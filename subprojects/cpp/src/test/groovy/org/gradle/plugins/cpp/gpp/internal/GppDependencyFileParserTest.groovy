@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugins.cpp.gpp.internal
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class GppDependencyFileParserTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    final parser = new GppDependencyFileParser()
+
+    String getDir() {
+        tmpDir.testDirectory.absolutePath
+    }
+
+    def "returns the prerequisites of the first rule"() {
+        def file = tmpDir.file("main.d")
+        file.text = "$dir/build/main.o: $dir/src/main.cpp $dir/src/hello.h \\\n $dir/include/other.h\n$dir/src/hello.h:\n"
+
+        expect:
+        parser.parse(file, tmpDir.file("work")) == [tmpDir.file("src/main.cpp"), tmpDir.file("src/hello.h"), tmpDir.file("include/other.h")]
+    }
+
+    def "handles escaped characters and windows line endings"() {
+        def file = tmpDir.file("main.d")
+        file.text = "$dir/build/main.o: $dir/src/some\\ dir/main.cpp \\\r\n $dir/src/cost\$\$.h $dir/src/\\#1.h\r\n"
+
+        expect:
+        parser.parse(file, tmpDir.file("work")) == [tmpDir.file("src/some dir/main.cpp"), tmpDir.file("src/cost\$.h"), tmpDir.file("src/#1.h")]
+    }
+
+    def "resolves relative paths against the base directory"() {
+        def file = tmpDir.file("main.d")
+        file.text = "main.o: main.cpp headers/hello.h"
+
+        expect:
+        parser.parse(file, tmpDir.testDirectory) == [tmpDir.file("main.cpp"), tmpDir.file("headers/hello.h")]
+    }
+}
@@ -28,6 +28,7 @@ import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 
 import java.security.Principal
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.zip.GZIPOutputStream
 import javax.servlet.http.HttpServletRequest
 import javax.servlet.http.HttpServletResponse
@@ -83,16 +84,35 @@ class HttpServer extends ExternalResource {
     boolean sendLastModified = true
     boolean sendSha1Header = false
 
+    /**
+     * Simulated network latency, in milliseconds, added to each request. Useful for benchmarking concurrent downloads locally.
+     */
+    int latency = 0
+
+    private final AtomicInteger activeRequests = new AtomicInteger()
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger()
+
     HttpServer() {
         HandlerCollection handlers = new HandlerCollection()
         handlers.addHandler(new AbstractHandler() {
             void handle(String target, HttpServletRequest request, HttpServletResponse response, int dispatch) {
                 println("handling http request: $request.method $target")
+                int active = activeRequests.incrementAndGet()
+                while (true) {
+                    int max = maxConcurrentRequests.get()
+                    if (active <= max || maxConcurrentRequests.compareAndSet(max, active)) {
+                        break
+                    }
+                }
+                if (latency > 0) {
+                    Thread.sleep(latency)
+                }
             }
         })
         handlers.addHandler(collection)
         handlers.addHandler(new AbstractHandler() {
             void handle(String target, HttpServletRequest request, HttpServletResponse response, int dispatch) {
+                activeRequests.decrementAndGet()
                 if (request.handled) {
                     return
                 }
@@ -173,6 +193,8 @@ class HttpServer extends ExternalResource {
             realm = null
             failure = null
             expectedUserAgent = null
+            latency = 0
+            maxConcurrentRequests.set(0)
             expections.clear()
             collection.setHandlers()
         }
@@ -580,6 +602,13 @@ class HttpServer extends ExternalResource {
         })
     }
 
+    /**
+     * Returns the largest number of requests that this server has handled at the same time.
+     */
+    int getMaxConcurrentRequests() {
+        return maxConcurrentRequests.get()
+    }
+
     int getPort() {
         return server.connectors[0].localPort
     }
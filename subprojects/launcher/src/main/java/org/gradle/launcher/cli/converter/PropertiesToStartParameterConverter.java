@@ -29,6 +29,7 @@ import static org.gradle.launcher.daemon.configuration.GradleProperties.isTrue;
 public class PropertiesToStartParameterConverter {
     public StartParameter convert(Map<String, String> properties, StartParameter startParameter) {
         startParameter.setConfigureOnDemand(isTrue(properties.get(GradleProperties.CONFIGURE_ON_DEMAND_PROPERTY)));
+        startParameter.setParallelConfiguration(isTrue(properties.get(GradleProperties.PARALLEL_CONFIGURATION_PROPERTY)));
 
         String parallel = properties.get(GradleProperties.PARALLEL_PROPERTY);
         if (isTrue(parallel)) {
@@ -19,6 +19,7 @@ import com.google.common.io.Files;
 import org.gradle.api.logging.LogLevel;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
+import org.gradle.initialization.DefaultGradleLauncherFactory;
 import org.gradle.launcher.bootstrap.EntryPoint;
 import org.gradle.launcher.bootstrap.ExecutionListener;
 import org.gradle.launcher.daemon.configuration.DaemonServerConfiguration;
@@ -117,7 +118,12 @@ public class DaemonMain extends EntryPoint {
             daemon.requestStopOnIdleTimeout(configuration.getIdleTimeout(), TimeUnit.MILLISECONDS);
             LOGGER.info("Daemon hit idle timeout (" + configuration.getIdleTimeout() + "ms), stopping...");
         } finally {
-            daemon.stop();
+            try {
+                daemon.stop();
+            } finally {
+                // Stops the processes, such as test workers, that are kept alive for reuse by later builds
+                daemonServices.get(DefaultGradleLauncherFactory.class).stop();
+            }
         }
     }
 
@@ -79,6 +79,10 @@ public class DaemonServices extends DefaultServiceRegistry {
         return new File(get(DaemonDir.class).getVersionedDir(), fileName);
     }
 
+    protected DefaultGradleLauncherFactory createGradleLauncherFactory() {
+        return new DefaultGradleLauncherFactory(loggingServices);
+    }
+
     protected Daemon createDaemon() {
         return new Daemon(
                 new DaemonTcpServerConnector(),
@@ -86,7 +90,7 @@ public class DaemonServices extends DefaultServiceRegistry {
                 get(DaemonContext.class),
                 "password",
                 new DefaultDaemonCommandExecuter(
-                        new DefaultGradleLauncherFactory(loggingServices),
+                        get(DefaultGradleLauncherFactory.class),
                         get(ProcessEnvironment.class),
                         loggingManager,
                         getDaemonLogFile()),
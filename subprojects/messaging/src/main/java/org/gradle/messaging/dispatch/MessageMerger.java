@@ -0,0 +1,31 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.messaging.dispatch;
+
+/**
+ * Combines 2 consecutive messages into a single message. Implementations must be thread-safe.
+ */
+public interface MessageMerger<T> {
+    /**
+     * Merges the given messages.
+     *
+     * @param first The first message.
+     * @param second The message that follows the first message.
+     * @return A message equivalent to dispatching the first message and then the second message, or null if the messages cannot be merged.
+     */
+    T merge(T first, T second);
+}
@@ -17,6 +17,7 @@ package org.gradle.messaging.remote;
 
 import org.gradle.internal.concurrent.AsyncStoppable;
 import org.gradle.messaging.dispatch.Dispatch;
+import org.gradle.messaging.dispatch.MessageMerger;
 import org.gradle.messaging.dispatch.MethodInvocation;
 
 /**
@@ -49,6 +50,15 @@ public interface ObjectConnection extends AsyncStoppable {
      */
     void addIncoming(Class<?> type, Dispatch<? super MethodInvocation> dispatch);
 
+    /**
+     * Registers a merger for outgoing messages on the given type. Consecutive method calls on the type that are waiting to be sent to the
+     * peer are merged into a single method call before they are sent. Method calls are never held back waiting for another call to merge with.
+     *
+     * @param type The type.
+     * @param merger The merger to use for method calls on this type.
+     */
+    void mergeOutgoing(Class<?> type, MessageMerger<MethodInvocation> merger);
+
     /**
      * Commences a graceful stop of this connection. Stops accepting outgoing messages. Requests that the peer stop
      * sending incoming messages.
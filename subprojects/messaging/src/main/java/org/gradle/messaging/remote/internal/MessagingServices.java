@@ -27,6 +27,7 @@ import org.gradle.messaging.dispatch.DiscardingFailureHandler;
 import org.gradle.messaging.dispatch.MethodInvocation;
 import org.gradle.messaging.remote.MessagingClient;
 import org.gradle.messaging.remote.MessagingServer;
+import org.gradle.messaging.remote.internal.hub.DefaultMethodArgsSerializer;
 import org.gradle.messaging.remote.internal.hub.InterHubMessageSerializer;
 import org.gradle.messaging.remote.internal.hub.MessageHubBackedClient;
 import org.gradle.messaging.remote.internal.hub.MessageHubBackedServer;
@@ -55,6 +56,8 @@ import java.util.UUID;
  *
  * <li>{@link IncomingBroadcast}</li>
  *
+ * <li>{@link ParameterSerializerRegistry}</li>
+ *
  * </ul>
  */
 public class MessagingServices extends DefaultServiceRegistry implements Stoppable {
@@ -137,14 +140,20 @@ public class MessagingServices extends DefaultServiceRegistry implements Stoppab
         return incomingConnector;
     }
 
+    protected DefaultMethodArgsSerializer createMethodArgsSerializer() {
+        return new DefaultMethodArgsSerializer(
+                messageClassLoader,
+                new JavaSerializer<Object[]>(
+                        messageClassLoader));
+    }
+
     protected InterHubMessageSerializer createInterHubSerializer() {
         return new InterHubMessageSerializer(
                 new TypeSafeSerializer<MethodInvocation>(
                         MethodInvocation.class,
                         new MethodInvocationSerializer(
                                 messageClassLoader,
-                                new JavaSerializer<Object[]>(
-                                        messageClassLoader))));
+                                get(DefaultMethodArgsSerializer.class))));
     }
 
     protected MessagingClient createMessagingClient() {
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.messaging.remote.internal;
+
+import org.gradle.internal.concurrent.ThreadSafe;
+import org.gradle.messaging.serialize.DataStreamBackedSerializer;
+
+/**
+ * A global registry of the serializers to use for the parameters of outgoing method calls, instead of Java serialization. The registrations
+ * apply to every connection created by the {@link MessagingServices} which provides this registry, including the connections which already
+ * exist.
+ */
+@ThreadSafe
+public interface ParameterSerializerRegistry {
+    /**
+     * Registers a serializer to use for outgoing method parameters of exactly the given type. Subtypes are not included.
+     *
+     * <p>The peer creates its own instance of the serializer using its public no-args constructor, so the serializer must not hold
+     * any state, and the peer does not need to register it.</p>
+     *
+     * @param type The parameter type.
+     * @param serializer The serializer to use for parameters of this type.
+     */
+    <T> void useParameterSerializer(Class<T> type, DataStreamBackedSerializer<T> serializer);
+}
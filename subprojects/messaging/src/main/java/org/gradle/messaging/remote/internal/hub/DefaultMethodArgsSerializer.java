@@ -0,0 +1,167 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.messaging.remote.internal.hub;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.gradle.messaging.remote.internal.ParameterSerializerRegistry;
+import org.gradle.messaging.serialize.DataStreamBackedSerializer;
+import org.gradle.messaging.serialize.ObjectReader;
+import org.gradle.messaging.serialize.ObjectWriter;
+import org.gradle.messaging.serialize.kryo.KryoAwareSerializer;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializes the arguments of method invocations. When every argument has a serializer registered for its exact type, the arguments are
+ * written using these serializers. Otherwise, all of the arguments are written using the fallback serializer.
+ *
+ * <p>A serializer is identified in the stream by its class name, the first time it is used on a stream. The reader creates its own instance
+ * using the public no-args constructor of the serializer, so the serializers do not need to be registered by the reader. This means that
+ * a serializer must not hold any state.</p>
+ */
+public class DefaultMethodArgsSerializer implements KryoAwareSerializer<Object[]>, ParameterSerializerRegistry {
+    private static final byte FALLBACK = 0;
+    private static final byte REGISTERED = 1;
+    private static final int NULL_ARG = 0;
+    private final ClassLoader classLoader;
+    private final KryoAwareSerializer<Object[]> fallbackSerializer;
+    private final Map<Class<?>, DataStreamBackedSerializer<?>> serializers = new ConcurrentHashMap<Class<?>, DataStreamBackedSerializer<?>>();
+
+    public DefaultMethodArgsSerializer(ClassLoader classLoader, KryoAwareSerializer<Object[]> fallbackSerializer) {
+        this.classLoader = classLoader;
+        this.fallbackSerializer = fallbackSerializer;
+    }
+
+    public <T> void useParameterSerializer(Class<T> type, DataStreamBackedSerializer<T> serializer) {
+        serializers.put(type, serializer);
+    }
+
+    public ObjectReader<Object[]> newReader(Input input) {
+        return new ArgsReader(input, fallbackSerializer.newReader(input));
+    }
+
+    public ObjectWriter<Object[]> newWriter(Output output) {
+        return new ArgsWriter(output, fallbackSerializer.newWriter(output));
+    }
+
+    private class ArgsWriter implements ObjectWriter<Object[]> {
+        private final Output output;
+        private final DataOutput dataOutput;
+        private final ObjectWriter<Object[]> fallbackWriter;
+        private final Map<Class<?>, Integer> serializerIds = new HashMap<Class<?>, Integer>();
+
+        public ArgsWriter(Output output, ObjectWriter<Object[]> fallbackWriter) {
+            this.output = output;
+            // Writes straight through to the buffer of the output
+            this.dataOutput = new DataOutputStream(output);
+            this.fallbackWriter = fallbackWriter;
+        }
+
+        public void write(Object[] args) throws Exception {
+            DataStreamBackedSerializer<Object>[] argSerializers = findSerializers(args);
+            if (argSerializers == null) {
+                output.writeByte(FALLBACK);
+                fallbackWriter.write(args);
+                return;
+            }
+
+            output.writeByte(REGISTERED);
+            output.writeInt(args.length, true);
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] == null) {
+                    output.writeInt(NULL_ARG, true);
+                    continue;
+                }
+                writeSerializer(argSerializers[i]);
+                argSerializers[i].write(dataOutput, args[i]);
+            }
+        }
+
+        private DataStreamBackedSerializer<Object>[] findSerializers(Object[] args) {
+            DataStreamBackedSerializer<Object>[] argSerializers = new DataStreamBackedSerializer[args.length];
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] == null) {
+                    continue;
+                }
+                argSerializers[i] = (DataStreamBackedSerializer<Object>) serializers.get(args[i].getClass());
+                if (argSerializers[i] == null) {
+                    return null;
+                }
+            }
+            return argSerializers;
+        }
+
+        private void writeSerializer(DataStreamBackedSerializer<?> serializer) {
+            Class<?> serializerType = serializer.getClass();
+            Integer serializerId = serializerIds.get(serializerType);
+            if (serializerId == null) {
+                serializerId = serializerIds.size() + 1;
+                serializerIds.put(serializerType, serializerId);
+                output.writeInt(serializerId, true);
+                output.writeString(serializerType.getName());
+            } else {
+                output.writeInt(serializerId, true);
+            }
+        }
+    }
+
+    private class ArgsReader implements ObjectReader<Object[]> {
+        private final Input input;
+        private final DataInput dataInput;
+        private final ObjectReader<Object[]> fallbackReader;
+        private final Map<Integer, DataStreamBackedSerializer<?>> serializersById = new HashMap<Integer, DataStreamBackedSerializer<?>>();
+
+        public ArgsReader(Input input, ObjectReader<Object[]> fallbackReader) {
+            this.input = input;
+            this.dataInput = new DataInputStream(input);
+            this.fallbackReader = fallbackReader;
+        }
+
+        public Object[] read() throws Exception {
+            byte format = input.readByte();
+            if (format == FALLBACK) {
+                return fallbackReader.read();
+            }
+
+            Object[] args = new Object[input.readInt(true)];
+            for (int i = 0; i < args.length; i++) {
+                int serializerId = input.readInt(true);
+                if (serializerId != NULL_ARG) {
+                    args[i] = readSerializer(serializerId).read(dataInput);
+                }
+            }
+            return args;
+        }
+
+        private DataStreamBackedSerializer<?> readSerializer(int serializerId) throws Exception {
+            DataStreamBackedSerializer<?> serializer = serializersById.get(serializerId);
+            if (serializer == null) {
+                Class<?> serializerType = classLoader.loadClass(input.readString());
+                serializer = serializerType.asSubclass(DataStreamBackedSerializer.class).newInstance();
+                serializersById.put(serializerId, serializer);
+            }
+            return serializer;
+        }
+    }
+}
@@ -19,14 +19,20 @@ package org.gradle.messaging.remote.internal.hub;
 import org.gradle.api.Action;
 import org.gradle.internal.concurrent.AsyncStoppable;
 import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.concurrent.StoppableExecutor;
+import org.gradle.messaging.dispatch.BatchDispatch;
 import org.gradle.messaging.dispatch.Dispatch;
+import org.gradle.messaging.dispatch.MessageMerger;
 import org.gradle.messaging.remote.internal.Connection;
 import org.gradle.messaging.remote.internal.hub.protocol.*;
 import org.gradle.messaging.remote.internal.hub.queue.EndPointQueue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -41,6 +47,8 @@ public class MessageHub implements AsyncStoppable {
     private final String displayName;
     private final Action<? super Throwable> errorHandler;
     private final Lock lock = new ReentrantLock();
+    private final Condition outgoingSpace = lock.newCondition();
+    private final Map<ChannelIdentifier, MessageMerger<Object>> mergers = new ConcurrentHashMap<ChannelIdentifier, MessageMerger<Object>>();
     private State state = State.Running;
     private final IncomingQueue incomingQueue = new IncomingQueue(lock);
     private final OutgoingQueue outgoingQueue = new OutgoingQueue(incomingQueue, lock);
@@ -58,7 +66,8 @@ public class MessageHub implements AsyncStoppable {
     /**
      * <p>Adds a {@link Dispatch} implementation that can be used to send outgoing messages on the given channel. The returned value is thread-safe.</p>
      *
-     * <p>All messages sent via the dispatch are forwarded to exactly one connection.</p>
+     * <p>All messages sent via the dispatch are forwarded to exactly one connection. When too many messages are waiting to be sent to the connections,
+     * the dispatch blocks until the connections have caught up.</p>
      */
     public <T> Dispatch<T> getOutgoing(final String channelName, final Class<T> type) {
         lock.lock();
@@ -70,6 +79,20 @@ public class MessageHub implements AsyncStoppable {
         }
     }
 
+    /**
+     * Adds a merger for outgoing messages on the given channel. Consecutive messages on the channel that are waiting to be sent to a connection are
+     * merged before they are sent. Messages are never held back waiting for a message to merge with.
+     */
+    public <T> void addOutgoingMerger(String channelName, MessageMerger<T> merger) {
+        lock.lock();
+        try {
+            assertRunning("add outgoing merger");
+            mergers.put(new ChannelIdentifier(channelName), (MessageMerger<Object>) merger);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Adds a handler for messages on the given channel. The handler may implement any of the following:
      *
@@ -162,6 +185,7 @@ public class MessageHub implements AsyncStoppable {
                 connections.requestStop();
             } finally {
                 state = State.Stopping;
+                outgoingSpace.signalAll();
             }
         } finally {
             lock.unlock();
@@ -242,6 +266,7 @@ public class MessageHub implements AsyncStoppable {
                     lock.lock();
                     try {
                         connectionState.receiveFinished();
+                        outgoingSpace.signalAll();
                     } finally {
                         lock.unlock();
                     }
@@ -271,22 +296,24 @@ public class MessageHub implements AsyncStoppable {
                         lock.lock();
                         try {
                             queue.take(messages);
+                            outgoingSpace.signalAll();
                         } finally {
                             lock.unlock();
                         }
-                        for (Object message : messages) {
-                            InterHubMessage channelMessage = (InterHubMessage) message;
-                            connection.dispatch(channelMessage);
-                            if (message instanceof EndOfStream) {
-                                return;
-                            }
+                        List<InterHubMessage> batch = merge(messages);
+                        int endOfStream = indexOfEndOfStream(batch);
+                        if (endOfStream >= 0) {
+                            dispatch(batch.subList(0, endOfStream + 1));
+                            return;
                         }
+                        dispatch(batch);
                         messages.clear();
                     }
                 } finally {
                     lock.lock();
                     try {
                         connectionState.dispatchFinished();
+                        outgoingSpace.signalAll();
                     } finally {
                         lock.unlock();
                     }
@@ -295,6 +322,50 @@ public class MessageHub implements AsyncStoppable {
                 errorHandler.execute(t);
             }
         }
+
+        private void dispatch(List<InterHubMessage> batch) {
+            if (connection instanceof BatchDispatch) {
+                ((BatchDispatch<InterHubMessage>) connection).dispatchAll(batch);
+            } else {
+                for (InterHubMessage message : batch) {
+                    connection.dispatch(message);
+                }
+            }
+        }
+
+        private int indexOfEndOfStream(List<InterHubMessage> batch) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.get(i) instanceof EndOfStream) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private List<InterHubMessage> merge(List<InterHubMessage> messages) {
+            if (mergers.isEmpty()) {
+                return messages;
+            }
+            List<InterHubMessage> merged = new ArrayList<InterHubMessage>(messages.size());
+            ChannelMessage previous = null;
+            for (InterHubMessage message : messages) {
+                if (previous != null && message instanceof ChannelMessage) {
+                    ChannelMessage channelMessage = (ChannelMessage) message;
+                    MessageMerger<Object> merger = mergers.get(channelMessage.getChannel());
+                    if (merger != null && channelMessage.getChannel().equals(previous.getChannel())) {
+                        Object payload = merger.merge(previous.getPayload(), channelMessage.getPayload());
+                        if (payload != null) {
+                            previous = new ChannelMessage(previous.getChannel(), payload);
+                            merged.set(merged.size() - 1, previous);
+                            continue;
+                        }
+                    }
+                }
+                merged.add(message);
+                previous = message instanceof ChannelMessage ? (ChannelMessage) message : null;
+            }
+            return merged;
+        }
     }
 
     private class ChannelDispatch<T> implements Dispatch<T> {
@@ -315,6 +386,15 @@ public class MessageHub implements AsyncStoppable {
             lock.lock();
             try {
                 assertRunning("dispatch message");
+                while (outgoingQueue.isFull()) {
+                    try {
+                        outgoingSpace.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw UncheckedException.throwAsUncheckedException(e);
+                    }
+                    assertRunning("dispatch message");
+                }
                 outgoingQueue.dispatch(new ChannelMessage(channelIdentifier, message));
             } finally {
                 lock.unlock();
@@ -19,6 +19,7 @@ package org.gradle.messaging.remote.internal.hub;
 import org.gradle.internal.CompositeStoppable;
 import org.gradle.internal.concurrent.ThreadSafe;
 import org.gradle.messaging.dispatch.Dispatch;
+import org.gradle.messaging.dispatch.MessageMerger;
 import org.gradle.messaging.dispatch.MethodInvocation;
 import org.gradle.messaging.dispatch.ProxyDispatchAdapter;
 import org.gradle.messaging.dispatch.ReflectionDispatch;
@@ -49,6 +50,10 @@ public class MessageHubBackedObjectConnection implements ObjectConnection {
         return adapter.getSource();
     }
 
+    public void mergeOutgoing(Class<?> type, MessageMerger<MethodInvocation> merger) {
+        hub.addOutgoingMerger(type.getName(), merger);
+    }
+
     public void requestStop() {
         hub.requestStop();
     }
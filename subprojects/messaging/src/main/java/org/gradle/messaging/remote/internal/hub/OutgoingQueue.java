@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.concurrent.locks.Lock;
 
 class OutgoingQueue extends MultiEndPointQueue {
+    static final int MAX_QUEUED_MESSAGES = 1000;
     private final IncomingQueue incomingQueue;
 
     OutgoingQueue(IncomingQueue incomingQueue, Lock lock) {
@@ -38,6 +39,14 @@ class OutgoingQueue extends MultiEndPointQueue {
         dispatch(new EndOfStream());
     }
 
+    /**
+     * Returns true when there are too many messages waiting to be sent by the connections, and dispatchers should wait for space in this queue.
+     * Never returns true when there are no connections to send the messages.
+     */
+    boolean isFull() {
+        return hasEndpoints() && getQueuedCount() >= MAX_QUEUED_MESSAGES;
+    }
+
     void discardQueued() {
         List<InterHubMessage> rejected = new ArrayList<InterHubMessage>();
         drain(rejected);
@@ -52,6 +52,17 @@ public class MultiEndPointQueue implements Dispatch<InterHubMessage> {
         queue.dispatch(new EndOfStream());
     }
 
+    /**
+     * Returns the number of messages that are waiting for an endpoint.
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public boolean hasEndpoints() {
+        return !endpoints.isEmpty();
+    }
+
     public void drain(Collection<InterHubMessage> drainTo) {
         drainTo.addAll(queue);
         queue.clear();
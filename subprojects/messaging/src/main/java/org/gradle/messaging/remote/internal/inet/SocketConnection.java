@@ -19,6 +19,7 @@ package org.gradle.messaging.remote.internal.inet;
 import com.google.common.base.Objects;
 import org.gradle.internal.CompositeStoppable;
 import org.gradle.internal.UncheckedException;
+import org.gradle.messaging.dispatch.BatchDispatch;
 import org.gradle.messaging.remote.Address;
 import org.gradle.messaging.remote.internal.Connection;
 import org.gradle.messaging.remote.internal.MessageIOException;
@@ -36,8 +37,10 @@ import java.nio.channels.ClosedSelectorException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.List;
 
-public class SocketConnection<T> implements Connection<T> {
+public class SocketConnection<T> implements Connection<T>, BatchDispatch<T> {
+    private static final int BUFFER_SIZE = 64 * 1024;
     private final SocketChannel socket;
     private final SocketInetAddress localAddress;
     private final SocketInetAddress remoteAddress;
@@ -116,6 +119,20 @@ public class SocketConnection<T> implements Connection<T> {
         }
     }
 
+    public void dispatchAll(List<? extends T> messages) {
+        T current = null;
+        try {
+            // Write all messages before flushing, so that the batch is sent using as few socket writes as possible
+            for (T message : messages) {
+                current = message;
+                objectWriter.write(message);
+            }
+            outstr.flush();
+        } catch (Exception e) {
+            throw new MessageIOException(String.format("Could not write message %s to '%s'.", current, remoteAddress), e);
+        }
+    }
+
     public void requestStop() {
         CompositeStoppable.stoppable(instr).stop();
     }
@@ -134,7 +151,7 @@ public class SocketConnection<T> implements Connection<T> {
             this.socket = socket;
             selector = Selector.open();
             socket.register(selector, SelectionKey.OP_READ);
-            buffer = ByteBuffer.allocateDirect(4096);
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
             buffer.limit(0);
         }
 
@@ -144,7 +161,7 @@ public class SocketConnection<T> implements Connection<T> {
             if (nread <= 0) {
                 return nread;
             }
-            return readBuffer[0];
+            return readBuffer[0] & 0xff;
         }
 
         @Override
@@ -154,20 +171,7 @@ public class SocketConnection<T> implements Connection<T> {
             }
 
             if (buffer.remaining() == 0) {
-                try {
-                    selector.select();
-                } catch (ClosedSelectorException e) {
-                    return -1;
-                }
-                if (!selector.isOpen()) {
-                    return -1;
-                }
-
-                buffer.clear();
-                int nread = socket.read(buffer);
-                buffer.flip();
-
-                if (nread < 0) {
+                if (!fillBuffer()) {
                     return -1;
                 }
             }
@@ -177,6 +181,34 @@ public class SocketConnection<T> implements Connection<T> {
             return count;
         }
 
+        private boolean fillBuffer() throws IOException {
+            buffer.clear();
+            try {
+                while (true) {
+                    if (!selector.isOpen()) {
+                        return false;
+                    }
+                    // Try to read first, and only wait for the socket to become readable when nothing is available. This saves a select()
+                    // call for each read when the peer is sending faster than we are reading
+                    int nread = socket.read(buffer);
+                    if (nread < 0) {
+                        return false;
+                    }
+                    if (nread > 0) {
+                        return true;
+                    }
+                    try {
+                        selector.select();
+                        selector.selectedKeys().clear();
+                    } catch (ClosedSelectorException e) {
+                        return false;
+                    }
+                }
+            } finally {
+                buffer.flip();
+            }
+        }
+
         @Override
         public void close() throws IOException {
             selector.close();
@@ -193,7 +225,7 @@ public class SocketConnection<T> implements Connection<T> {
             this.socket = socket;
             selector = Selector.open();
             socket.register(selector, SelectionKey.OP_WRITE);
-            buffer = ByteBuffer.allocateDirect(4096);
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
         }
 
         @Override
@@ -204,32 +236,38 @@ public class SocketConnection<T> implements Connection<T> {
 
         @Override
         public void write(byte[] src, int offset, int max) throws IOException {
-            int remaining = max;
-            int currentPos = offset;
-            while (remaining > 0) {
-                int count = Math.min(remaining, buffer.remaining());
-                if (count > 0) {
-                    buffer.put(src, currentPos, count);
-                    remaining -= count;
-                    currentPos += count;
-                }
-                if (buffer.remaining() == 0) {
-                    flush();
-                }
+            if (max <= buffer.remaining()) {
+                buffer.put(src, offset, max);
+                return;
             }
+
+            // Does not fit in the buffer: write the buffered bytes and the given bytes together using a gathering write, rather than
+            // copying the given bytes through the buffer one chunk at a time
+            buffer.flip();
+            writeFully(buffer, ByteBuffer.wrap(src, offset, max));
+            buffer.clear();
         }
 
         @Override
         public void flush() throws IOException {
             buffer.flip();
-            while (buffer.remaining() > 0) {
-                selector.select();
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer... buffers) throws IOException {
+            ByteBuffer last = buffers[buffers.length - 1];
+            while (last.remaining() > 0) {
                 if (!selector.isOpen()) {
                     throw new EOFException();
                 }
-                socket.write(buffer);
+                // Try to write first, and only wait for the socket to become writable when it cannot accept any more bytes
+                long nwritten = socket.write(buffers);
+                if (nwritten == 0) {
+                    selector.select();
+                    selector.selectedKeys().clear();
+                }
             }
-            buffer.clear();
         }
 
         @Override
@@ -45,4 +45,9 @@ class MessagingServicesTest extends Specification {
         expect:
         services.get(OutgoingBroadcast.class) != null
     }
+
+    def "provides a parameter serializer registry"() {
+        expect:
+        services.get(ParameterSerializerRegistry.class) != null
+    }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.messaging.remote.internal.hub
+
+import com.esotericsoftware.kryo.io.Input
+import com.esotericsoftware.kryo.io.Output
+import org.gradle.messaging.serialize.DataStreamBackedSerializer
+import org.gradle.messaging.serialize.kryo.JavaSerializer
+import spock.lang.Specification
+
+class DefaultMethodArgsSerializerTest extends Specification {
+    final classLoader = getClass().classLoader
+    final writeSerializer = new DefaultMethodArgsSerializer(classLoader, new JavaSerializer<Object[]>(classLoader))
+    final readSerializer = new DefaultMethodArgsSerializer(classLoader, new JavaSerializer<Object[]>(classLoader))
+
+    def "uses registered serializers for arguments"() {
+        given:
+        writeSerializer.useParameterSerializer(String, new StringSerializer())
+        writeSerializer.useParameterSerializer(Long, new LongSerializer())
+
+        when:
+        def result = deserialize(serialize(["a", 12L] as Object[]))
+
+        then:
+        result == ["a", 12L] as Object[]
+    }
+
+    def "uses fallback serializer for all arguments when an argument has no registered serializer"() {
+        given:
+        writeSerializer.useParameterSerializer(String, new StringSerializer())
+
+        when:
+        def serialized = serialize(["a", 12L] as Object[])
+        def result = deserialize(serialized)
+
+        then:
+        result == ["a", 12L] as Object[]
+        serialized.length == javaSerialized(["a", 12L] as Object[]).length
+    }
+
+    def "does not use serializer registered for supertype"() {
+        given:
+        writeSerializer.useParameterSerializer(Object, new StringSerializer())
+
+        when:
+        def result = deserialize(serialize(["a"] as Object[]))
+
+        then:
+        result == ["a"] as Object[]
+    }
+
+    def "handles null arguments"() {
+        given:
+        writeSerializer.useParameterSerializer(String, new StringSerializer())
+
+        when:
+        def result = deserialize(serialize([null, "a", null] as Object[]))
+
+        then:
+        result == [null, "a", null] as Object[]
+    }
+
+    def "replaces a serializer that has already been used with an integer ID"() {
+        given:
+        writeSerializer.useParameterSerializer(String, new StringSerializer())
+
+        when:
+        def serialized = serialize(["a"] as Object[], ["b"] as Object[])
+        def result = deserializeMultiple(serialized, 2)
+
+        then:
+        result[0] == ["a"] as Object[]
+        result[1] == ["b"] as Object[]
+        serialized.length == serialize(["a"] as Object[]).length + 6
+    }
+
+    def "registered serializers produce much smaller output than Java serialization"() {
+        given:
+        writeSerializer.useParameterSerializer(String, new StringSerializer())
+        writeSerializer.useParameterSerializer(Long, new LongSerializer())
+        def args = (1..100).collect { ["output line $it".toString(), it as Long] as Object[] }
+
+        when:
+        def serialized = serialize(args as Object[][])
+        def javaSerialized = javaSerialized(args as Object[][])
+
+        then:
+        deserializeMultiple(serialized, 100) == args
+        serialized.length * 3 < javaSerialized.length
+    }
+
+    def serialize(Object[]... args) {
+        return serialize(writeSerializer, args)
+    }
+
+    def javaSerialized(Object[]... args) {
+        return serialize(new DefaultMethodArgsSerializer(classLoader, new JavaSerializer<Object[]>(classLoader)), args)
+    }
+
+    def serialize(DefaultMethodArgsSerializer serializer, Object[]... args) {
+        def outStr = new ByteArrayOutputStream()
+        def output = new Output(outStr)
+        def writer = serializer.newWriter(output)
+        args.each {
+            writer.write(it)
+        }
+        output.flush()
+        return outStr.toByteArray()
+    }
+
+    def deserialize(byte[] data) {
+        return readSerializer.newReader(new Input(data)).read()
+    }
+
+    def deserializeMultiple(byte[] data, int count) {
+        def reader = readSerializer.newReader(new Input(data))
+        def result = []
+        count.times {
+            result << reader.read()
+        }
+        return result
+    }
+
+    static class StringSerializer extends DataStreamBackedSerializer<String> {
+        @Override
+        String read(DataInput dataInput) {
+            return dataInput.readUTF()
+        }
+
+        @Override
+        void write(DataOutput dataOutput, String value) {
+            dataOutput.writeUTF(value)
+        }
+    }
+
+    static class LongSerializer extends DataStreamBackedSerializer<Long> {
+        @Override
+        Long read(DataInput dataInput) {
+            return dataInput.readLong()
+        }
+
+        @Override
+        void write(DataOutput dataOutput, Long value) {
+            dataOutput.writeLong(value)
+        }
+    }
+}
@@ -17,7 +17,10 @@
 package org.gradle.messaging.remote.internal.hub
 
 import org.gradle.api.Action
+import org.gradle.internal.UncheckedException
+import org.gradle.messaging.dispatch.BatchDispatch
 import org.gradle.messaging.dispatch.Dispatch
+import org.gradle.messaging.dispatch.MessageMerger
 import org.gradle.messaging.remote.internal.Connection
 import org.gradle.messaging.remote.internal.hub.protocol.ChannelIdentifier
 import org.gradle.messaging.remote.internal.hub.protocol.ChannelMessage
@@ -191,6 +194,154 @@ class MessageHubTest extends ConcurrentSpec {
         connection.stop()
     }
 
+    def "outgoing messages queued while connection is busy are dispatched to connection as a batch"() {
+        BatchDispatch<InterHubMessage> outgoing = Mock()
+        def connection = new MockBatchingConnection(outgoing)
+
+        given:
+        hub.addConnection(connection)
+
+        when:
+        def dispatcher = hub.getOutgoing("channel", String)
+        operation.dispatch {
+            dispatcher.dispatch("message1")
+            thread.blockUntil.firstBatchStarted
+            dispatcher.dispatch("message2")
+            dispatcher.dispatch("message3")
+            instant.queued
+        }
+        thread.blockUntil.secondBatchDispatched
+
+        then:
+        1 * outgoing.dispatchAll({ it*.payload == ["message1"] }) >> {
+            instant.firstBatchStarted
+            thread.blockUntil.queued
+        }
+        1 * outgoing.dispatchAll({ it*.payload == ["message2", "message3"] }) >> {
+            instant.secondBatchDispatched
+        }
+        0 * _._
+
+        cleanup:
+        connection.stop()
+    }
+
+    def "merges consecutive outgoing messages queued for connection"() {
+        BatchDispatch<InterHubMessage> outgoing = Mock()
+        def connection = new MockBatchingConnection(outgoing)
+        def merger = { String first, String second -> first.length() + second.length() > 4 ? null : first + second } as MessageMerger
+
+        given:
+        hub.addOutgoingMerger("channel", merger)
+        hub.addConnection(connection)
+
+        when:
+        def dispatcher = hub.getOutgoing("channel", String)
+        def other = hub.getOutgoing("other", String)
+        operation.dispatch {
+            dispatcher.dispatch("a")
+            thread.blockUntil.firstBatchStarted
+            dispatcher.dispatch("b")
+            dispatcher.dispatch("c")
+            other.dispatch("d")
+            other.dispatch("e")
+            dispatcher.dispatch("f")
+            dispatcher.dispatch("ghi")
+            dispatcher.dispatch("jk")
+            instant.queued
+        }
+        thread.blockUntil.secondBatchDispatched
+
+        then:
+        1 * outgoing.dispatchAll({ it*.payload == ["a"] }) >> {
+            instant.firstBatchStarted
+            thread.blockUntil.queued
+        }
+        1 * outgoing.dispatchAll({ it*.payload == ["bc", "d", "e", "fghi", "jk"] }) >> {
+            instant.secondBatchDispatched
+        }
+        0 * _._
+
+        cleanup:
+        connection.stop()
+    }
+
+    def "dispatch blocks while too many outgoing messages are queued for connection"() {
+        BatchDispatch<InterHubMessage> outgoing = Mock()
+        def connection = new MockBatchingConnection(outgoing)
+
+        given:
+        hub.addConnection(connection)
+
+        when:
+        def dispatcher = hub.getOutgoing("channel", Long)
+        operation.dispatch {
+            dispatcher.dispatch(0L)
+            thread.blockUntil.firstBatchStarted
+            OutgoingQueue.MAX_QUEUED_MESSAGES.times { dispatcher.dispatch(it + 1L) }
+            instant.queueFull
+            dispatcher.dispatch(OutgoingQueue.MAX_QUEUED_MESSAGES + 1L)
+            instant.lastMessageDispatched
+        }
+        thread.blockUntil.lastBatchDispatched
+
+        then:
+        1 * outgoing.dispatchAll({ it*.payload == [0L] }) >> {
+            instant.firstBatchStarted
+            thread.blockUntil.queueFull
+            thread.block()
+            instant.firstBatchFinished
+        }
+        1 * outgoing.dispatchAll({ it*.payload == (1..OutgoingQueue.MAX_QUEUED_MESSAGES).collect { it as Long } })
+        1 * outgoing.dispatchAll({ it*.payload == [OutgoingQueue.MAX_QUEUED_MESSAGES + 1L] }) >> {
+            instant.lastBatchDispatched
+        }
+        0 * _._
+
+        and:
+        instant.lastMessageDispatched > instant.firstBatchFinished
+
+        cleanup:
+        connection.stop()
+    }
+
+    def "dispatch fails and keeps the thread interrupted when interrupted while too many outgoing messages are queued"() {
+        BatchDispatch<InterHubMessage> outgoing = Mock()
+        def connection = new MockBatchingConnection(outgoing)
+        def failure = null
+        def interrupted = false
+
+        given:
+        hub.addConnection(connection)
+        outgoing.dispatchAll({ it*.payload == [0L] }) >> {
+            instant.firstBatchStarted
+            thread.blockUntil.interruptChecked
+        }
+
+        when:
+        def dispatcher = hub.getOutgoing("channel", Long)
+        operation.dispatch {
+            dispatcher.dispatch(0L)
+            thread.blockUntil.firstBatchStarted
+            OutgoingQueue.MAX_QUEUED_MESSAGES.times { dispatcher.dispatch(it + 1L) }
+            Thread.currentThread().interrupt()
+            try {
+                dispatcher.dispatch(OutgoingQueue.MAX_QUEUED_MESSAGES + 1L)
+            } catch (UncheckedException e) {
+                failure = e.cause
+            }
+            interrupted = Thread.interrupted()
+            instant.interruptChecked
+        }
+
+        then:
+        failure instanceof InterruptedException
+        interrupted
+
+        cleanup:
+        connection.stop()
+    }
+
     def "each outgoing message is dispatched to exactly one connection"() {
         def messages = new CopyOnWriteArrayList()
         Dispatch<InterHubMessage> outgoing = Mock()
@@ -652,6 +803,35 @@ class MessageHubTest extends ConcurrentSpec {
         }
     }
 
+    private static class MockBatchingConnection implements Connection<InterHubMessage>, BatchDispatch<InterHubMessage> {
+        private final BatchDispatch<InterHubMessage> dispatch
+        private final BlockingQueue<InterHubMessage> incoming = new LinkedBlockingQueue<>()
+
+        MockBatchingConnection(BatchDispatch<InterHubMessage> dispatch) {
+            this.dispatch = dispatch
+        }
+
+        void dispatch(InterHubMessage message) {
+            dispatch.dispatch(message)
+        }
+
+        void dispatchAll(List<? extends InterHubMessage> messages) {
+            dispatch.dispatchAll(messages)
+        }
+
+        InterHubMessage receive() {
+            return incoming.take()
+        }
+
+        void requestStop() {
+            throw new UnsupportedOperationException()
+        }
+
+        void stop() {
+            incoming.put(new EndOfStream())
+        }
+    }
+
     private static class TestConnection implements Connection<InterHubMessage> {
         private final BlockingQueue<InterHubMessage> incoming = new LinkedBlockingQueue<>()
         private final BlockingQueue<InterHubMessage> outgoing = new LinkedBlockingQueue<>()
@@ -180,5 +180,30 @@ class TcpConnectorTest extends ConcurrentSpec {
         connection?.stop()
         acceptor?.stop()
     }
-}
 
+    def "can send batches of messages larger than the connection buffers"() {
+        def largeMessage = "a large message " * 20000
+
+        when:
+        def acceptor = incomingConnector.accept({ ConnectEvent<Connection<Object>> event ->
+            def connection = event.connection
+            def messages = []
+            3.times { messages << connection.receive() }
+            connection.dispatchAll(messages)
+            connection.stop()
+        } as Action, serializer, false)
+
+        def connection = outgoingConnector.connect(acceptor.address, serializer)
+        connection.dispatchAll(["first", largeMessage, "last"])
+
+        then:
+        connection.receive() == "first"
+        connection.receive() == largeMessage
+        connection.receive() == "last"
+        connection.receive() == null
+
+        cleanup:
+        connection?.stop()
+        acceptor?.stop()
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.performance
+
+import org.gradle.performance.fixture.AbstractPerformanceTest
+import org.gradle.performance.fixture.TestProjectLocator
+import org.junit.Rule
+import org.junit.rules.ExternalResource
+import org.mortbay.jetty.Server
+import org.mortbay.jetty.bio.SocketConnector
+import org.mortbay.jetty.handler.ResourceHandler
+import spock.lang.Unroll
+
+import static org.gradle.performance.fixture.DataAmount.kbytes
+import static org.gradle.performance.fixture.Duration.millis
+
+/**
+ * Resolves a large dependency graph from a remote repository. The warm-up run populates the dependency cache, so that the measured runs
+ * load all module meta-data from the cache.
+ */
+class CachedDependencyResolutionPerformanceTest extends AbstractPerformanceTest {
+    @Rule RepositoryHttpServer server = new RepositoryHttpServer()
+
+    @Unroll("Project '#testProject' dependency report using cached meta-data")
+    def "dependency report using cached meta-data"() {
+        given:
+        server.serve(new File(new TestProjectLocator().findProjectDir(testProject), "mavenRepo"))
+        runner.testProject = testProject
+        runner.tasksToRun = ['dependencyReport']
+        runner.args = ["-Dorg.gradle.performance.repositoryUrl=${server.uri}"]
+        runner.maxExecutionTimeRegression = maxExecutionTimeRegression
+        runner.maxMemoryRegression = maxMemoryRegression
+
+        when:
+        def result = runner.run()
+
+        then:
+        result.assertCurrentVersionHasNotRegressed()
+
+        where:
+        testProject               | maxExecutionTimeRegression | maxMemoryRegression
+        "lotReleasedDependencies" | millis(1000)               | kbytes(3000)
+    }
+
+    static class RepositoryHttpServer extends ExternalResource {
+        final Server server = new Server(0)
+        final ResourceHandler handler = new ResourceHandler()
+
+        void serve(File repositoryDir) {
+            handler.resourceBase = repositoryDir.absolutePath
+            server.start()
+        }
+
+        @Override
+        protected void before() {
+            server.addConnector(new SocketConnector())
+            server.addHandler(handler)
+        }
+
+        @Override
+        protected void after() {
+            server.stop()
+        }
+
+        URI getUri() {
+            return new URI("http://localhost:${server.connectors[0].localPort}/")
+        }
+    }
+}
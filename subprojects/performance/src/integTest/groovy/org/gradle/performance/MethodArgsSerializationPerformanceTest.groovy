@@ -0,0 +1,100 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.performance
+
+import com.esotericsoftware.kryo.io.Output
+import org.gradle.api.internal.tasks.testing.DefaultTestMethodDescriptor
+import org.gradle.api.internal.tasks.testing.DefaultTestOutputEvent
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent
+import org.gradle.api.internal.tasks.testing.TestStartEvent
+import org.gradle.api.internal.tasks.testing.worker.TestEventSerializers
+import org.gradle.api.tasks.testing.TestOutputEvent
+import org.gradle.api.tasks.testing.TestResult
+import org.gradle.internal.id.CompositeIdGenerator
+import org.gradle.messaging.remote.internal.hub.DefaultMethodArgsSerializer
+import org.gradle.messaging.serialize.kryo.JavaSerializer
+import org.gradle.performance.fixture.MeasuredOperation
+import spock.lang.Specification
+
+/**
+ * Compares the encoding of the events sent by a test worker using the registered serializers with the encoding using Java serialization.
+ */
+class MethodArgsSerializationPerformanceTest extends Specification {
+    static final int TESTS = 1000
+    static final int RUNS = 20
+    final ClassLoader classLoader = getClass().classLoader
+
+    def "registered serializers are smaller and faster than Java serialization for test events"() {
+        given:
+        def events = testEvents()
+        def javaSerializer = new DefaultMethodArgsSerializer(classLoader, new JavaSerializer<Object[]>(classLoader))
+        def registeredSerializer = new DefaultMethodArgsSerializer(classLoader, new JavaSerializer<Object[]>(classLoader))
+        TestEventSerializers.registerWith(registeredSerializer)
+
+        when:
+        def javaSize = serialize(javaSerializer, events)
+        def registeredSize = serialize(registeredSerializer, events)
+
+        // Warm up both encodings before measuring them
+        RUNS.times {
+            serialize(javaSerializer, events)
+            serialize(registeredSerializer, events)
+        }
+        def javaTime = measure(javaSerializer, events)
+        def registeredTime = measure(registeredSerializer, events)
+        println "Java serialization: $javaSize bytes, ${javaTime.executionTime.format()}"
+        println "Registered serializers: $registeredSize bytes, ${registeredTime.executionTime.format()}"
+
+        then:
+        javaTime.exception == null
+        registeredTime.exception == null
+        registeredSize * 3 < javaSize
+        registeredTime.executionTime < javaTime.executionTime
+    }
+
+    private MeasuredOperation measure(DefaultMethodArgsSerializer serializer, List<Object[]> events) {
+        return MeasuredOperation.measure {
+            RUNS.times {
+                serialize(serializer, events)
+            }
+        }
+    }
+
+    private int serialize(DefaultMethodArgsSerializer serializer, List<Object[]> events) {
+        def outStr = new ByteArrayOutputStream()
+        def output = new Output(outStr)
+        def writer = serializer.newWriter(output)
+        events.each {
+            writer.write(it)
+        }
+        output.flush()
+        return outStr.size()
+    }
+
+    private List<Object[]> testEvents() {
+        def events = []
+        def workerId = new CompositeIdGenerator.CompositeId("Gradle Worker 1", 2L)
+        TESTS.times {
+            def id = new CompositeIdGenerator.CompositeId(workerId, it as Long)
+            events << ([new DefaultTestMethodDescriptor(id, "org.gradle.SomeTest", "test$it"), new TestStartEvent(1000L + it, workerId)] as Object[])
+            events << ([id, new DefaultTestOutputEvent(TestOutputEvent.Destination.StdOut, "output from test $it\n")] as Object[])
+            events << ([id, new TestCompleteEvent(2000L + it, TestResult.ResultType.SUCCESS)] as Object[])
+        }
+        return events
+    }
+}
@@ -45,5 +45,6 @@ class UpToDateBuildPerformanceTest extends AbstractPerformanceTest {
         "small"           | millis(500)
         "multi"           | millis(1000)
         "lotDependencies" | millis(1000)
+        "largeSrc"        | millis(2000)
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ${packageName};
+
+import static org.junit.Assert.*;
+
+public class ${testClassName} {
+
+    private final ${productionClassName} production = new ${productionClassName}("value");
+
+<% 100.times { index ->  %>
+    @org.junit.Test
+    public void test${index}() {
+        assertEquals(production.getProperty(), <% if (index % 2 == 0) { %>"value"<% } else { %>"other value"<% } %>);
+    }
+<% } %>
+}
@@ -89,6 +89,43 @@ class IncrementalJavaCompileIntegrationTest extends AbstractIntegrationTest {
         file("build/dependency-cache/dependencies.txt").assertExists();
     }
 
+    @Test
+    public void recompilesOnlyChangedAndDependentSourcesWhenIncremental() {
+        file("build.gradle").writelns(
+                "apply plugin: 'java'",
+                "compileJava.options.incremental = true"
+        );
+        writeShortInterface();
+        writeTestClass();
+        file("src/main/java/Unrelated.java").writelns(
+                "class Unrelated {",
+                "}"
+        );
+
+        executer.withTasks("classes").run();
+
+        def personClass = file("build/classes/main/Person.class").assertIsFile()
+        def unrelatedClass = file("build/classes/main/Unrelated.class").assertIsFile()
+        long personTimestamp = personClass.lastModified()
+        long unrelatedTimestamp = unrelatedClass.lastModified()
+
+        // file system time stamp may not see change without this wait
+        Thread.sleep(1000L);
+
+        // Change interface without changing its API, only the interface and its dependents should be recompiled
+        file("src/main/java/IPerson.java").text += "// some comment"
+        executer.withTasks("classes").run();
+
+        personClass.assertIsFile()
+        assert personClass.lastModified() != personTimestamp
+        assert unrelatedClass.lastModified() == unrelatedTimestamp
+
+        // Update interface, compile should fail because the dependent class is recompiled
+        writeLongInterface();
+        ExecutionFailure failure = executer.withTasks("classes").runWithFailure();
+        failure.assertHasDescription("Execution failed for task ':compileJava'.");
+    }
+
     private void writeShortInterface() {
         file("src/main/java/IPerson.java").writelns(
                 "interface IPerson {",
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks;
+
+import org.gradle.api.internal.project.PluginServiceRegistry;
+import org.gradle.api.internal.tasks.compile.daemon.CompilerDaemonManager;
+import org.gradle.api.internal.tasks.testing.worker.TestWorkerManager;
+import org.gradle.internal.service.DefaultServiceRegistry;
+import org.gradle.internal.service.ServiceRegistry;
+
+/**
+ * Contributes the services of the JVM plugins that outlive a single build, such as the worker processes that are kept alive for reuse.
+ */
+public class JvmPluginServiceRegistry implements PluginServiceRegistry {
+    public ServiceRegistry createGlobalServices() {
+        return new GlobalServices();
+    }
+
+    private static class GlobalServices extends DefaultServiceRegistry {
+        protected CompilerDaemonManager createCompilerDaemonManager() {
+            return new CompilerDaemonManager();
+        }
+
+        protected TestWorkerManager createTestWorkerManager() {
+            return new TestWorkerManager();
+        }
+    }
+}
@@ -65,7 +65,7 @@ public class GroovyCompilerFactory {
                 Compiler<GroovyJavaJointCompileSpec> groovyCompiler = new ApiGroovyCompiler(javaCompiler);
                 CompilerDaemonFactory daemonFactory;
                 if (groovyOptions.isFork()) {
-                    daemonFactory = CompilerDaemonManager.getInstance();
+                    daemonFactory = project.getServices().get(CompilerDaemonManager.class);
                 } else {
                     daemonFactory = InProcessCompilerDaemonFactory.getInstance();
                 }
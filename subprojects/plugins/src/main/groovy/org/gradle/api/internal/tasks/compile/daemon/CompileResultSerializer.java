@@ -0,0 +1,57 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.daemon;
+
+import org.gradle.messaging.remote.internal.Message;
+import org.gradle.messaging.serialize.DataStreamBackedSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Serializes the result of a compilation sent by a compiler daemon. Only a failure is sent using Java serialization.
+ */
+public class CompileResultSerializer extends DataStreamBackedSerializer<CompileResult> {
+    @Override
+    public CompileResult read(DataInput dataInput) throws Exception {
+        boolean didWork = dataInput.readBoolean();
+        int exceptionLength = dataInput.readInt();
+        if (exceptionLength < 0) {
+            return new CompileResult(didWork, null);
+        }
+        byte[] serialized = new byte[exceptionLength];
+        dataInput.readFully(serialized);
+        Throwable exception = (Throwable) Message.receive(new ByteArrayInputStream(serialized), getClass().getClassLoader());
+        return new CompileResult(didWork, exception);
+    }
+
+    @Override
+    public void write(DataOutput dataOutput, CompileResult value) throws IOException {
+        dataOutput.writeBoolean(value.getDidWork());
+        if (value.getException() == null) {
+            dataOutput.writeInt(-1);
+            return;
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Message.send(value.getException(), outputStream);
+        dataOutput.writeInt(outputStream.size());
+        dataOutput.write(outputStream.toByteArray());
+    }
+}
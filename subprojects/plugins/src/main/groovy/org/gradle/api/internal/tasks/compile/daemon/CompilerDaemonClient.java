@@ -19,10 +19,12 @@ import net.jcip.annotations.ThreadSafe;
 
 import org.gradle.api.internal.tasks.compile.CompileSpec;
 import org.gradle.api.internal.tasks.compile.Compiler;
+import org.gradle.api.logging.LogLevel;
 import org.gradle.internal.Stoppable;
 import org.gradle.internal.UncheckedException;
 import org.gradle.process.internal.WorkerProcess;
 
+import java.io.File;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.locks.Lock;
@@ -31,13 +33,21 @@ import java.util.concurrent.locks.ReentrantLock;
 @ThreadSafe
 public class CompilerDaemonClient implements CompilerDaemon, CompilerDaemonClientProtocol, Stoppable {
     private final DaemonForkOptions forkOptions;
+    private final File workingDir;
+    private final LogLevel logLevel;
     private final WorkerProcess workerProcess;
     private final CompilerDaemonServerProtocol server;
     private final BlockingQueue<CompileResult> compileResults = new SynchronousQueue<CompileResult>();
     private final Lock lock = new ReentrantLock(true);
+    // guarded by lock
+    private int compileCount;
+    private long coldCompileTimeMillis;
+    private long warmCompileTimeMillis;
 
-    public CompilerDaemonClient(DaemonForkOptions forkOptions, WorkerProcess workerProcess, CompilerDaemonServerProtocol server) {
+    public CompilerDaemonClient(DaemonForkOptions forkOptions, File workingDir, LogLevel logLevel, WorkerProcess workerProcess, CompilerDaemonServerProtocol server) {
         this.forkOptions = forkOptions;
+        this.workingDir = workingDir;
+        this.logLevel = logLevel;
         this.workerProcess = workerProcess;
         this.server = server;
     }
@@ -46,18 +56,71 @@ public class CompilerDaemonClient implements CompilerDaemon, CompilerDaemonClien
         // currently we just allow a single compilation thread at a time (per compiler daemon)
         // one problem to solve when allowing multiple threads is how to deal with memory requirements specified by compile tasks
         lock.lock();
+        long start = System.currentTimeMillis();
         try {
             server.execute(compiler, spec);
             return compileResults.take();
         } catch (InterruptedException e) {
             throw UncheckedException.throwAsUncheckedException(e);
         } finally {
+            recordCompileTime(System.currentTimeMillis() - start);
             lock.unlock();
         }
     }
 
-    public boolean isCompatibleWith(DaemonForkOptions required) {
-        return forkOptions.isCompatibleWith(required);
+    private void recordCompileTime(long millis) {
+        if (compileCount++ == 0) {
+            coldCompileTimeMillis = millis;
+        } else {
+            warmCompileTimeMillis += millis;
+        }
+    }
+
+    public DaemonForkOptions getForkOptions() {
+        return forkOptions;
+    }
+
+    /**
+     * Returns the number of compilations executed by this daemon, including the first (cold) one.
+     */
+    public int getCompileCount() {
+        lock.lock();
+        try {
+            return compileCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the time taken by the first compilation executed by this daemon, while its JVM and compiler classes were still cold.
+     */
+    public long getColdCompileTimeMillis() {
+        lock.lock();
+        try {
+            return coldCompileTimeMillis;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total time taken by all but the first compilation executed by this daemon.
+     */
+    public long getWarmCompileTimeMillis() {
+        lock.lock();
+        try {
+            return warmCompileTimeMillis;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns true when this daemon can execute a compilation that requires the given fork options, working directory and log level.
+     */
+    public boolean isCompatibleWith(DaemonForkOptions required, File workingDir, LogLevel logLevel) {
+        return forkOptions.isCompatibleWith(required) && this.workingDir.equals(workingDir) && this.logLevel == logLevel;
     }
 
     public void stop() {
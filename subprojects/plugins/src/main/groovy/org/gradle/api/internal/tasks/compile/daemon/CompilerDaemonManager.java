@@ -19,73 +19,188 @@ import net.jcip.annotations.ThreadSafe;
 
 import org.gradle.BuildAdapter;
 import org.gradle.BuildResult;
+import org.gradle.api.internal.GradleInternal;
 import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.logging.LogLevel;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.internal.CompositeStoppable;
+import org.gradle.internal.Stoppable;
+import org.gradle.internal.TrueTimeProvider;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
 import org.gradle.internal.jvm.Jvm;
 import org.gradle.process.internal.JavaExecHandleBuilder;
 import org.gradle.process.internal.WorkerProcess;
 import org.gradle.process.internal.WorkerProcessBuilder;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Controls the lifecycle of the compiler daemon and provides access to it.
+ * Controls the lifecycle of the compiler daemons and provides access to them.
+ *
+ * <p>By default, the compiler daemons are stopped at the end of each build. When the {@value #REUSE_PROPERTY} system property is set to
+ * {@code true}, which is intended for long-lived build processes such as the Gradle daemon, they are instead kept alive and reused by
+ * later builds, until they are evicted by the {@link CompilerDaemonPool}. An evictor thread then stops each daemon once its idle timeout
+ * expires, even when no build is running. The heap budget is applied when a build finishes.</p>
+ *
+ * <p>This is a global service, so the compiler daemons that are kept alive are stopped when the build process stops.</p>
  */
 @ThreadSafe
-public class CompilerDaemonManager implements CompilerDaemonFactory {
+public class CompilerDaemonManager implements CompilerDaemonFactory, Stoppable {
+    public static final String REUSE_PROPERTY = "org.gradle.compiler.daemon.reuse";
+    public static final String IDLE_TIMEOUT_PROPERTY = "org.gradle.compiler.daemon.idletimeout";
+    public static final String MAX_HEAP_SIZE_PROPERTY = "org.gradle.compiler.daemon.maxheapmb";
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000;
+    public static final int DEFAULT_MAX_HEAP_SIZE_MB = 1024;
+
     private static final Logger LOGGER = Logging.getLogger(CompilerDaemonManager.class);
-    private static final CompilerDaemonManager INSTANCE = new CompilerDaemonManager();
-    
-    private final List<CompilerDaemonClient> clients = new ArrayList<CompilerDaemonClient>();
 
-    public static CompilerDaemonManager getInstance() {
-        return INSTANCE;
+    private final boolean reuseAcrossBuilds;
+    private final CompilerDaemonPool clients;
+    private final ExecutorFactory executorFactory;
+    private StoppableExecutor evictor;
+    private boolean stopping;
+    private GradleInternal currentBuild;
+
+    public CompilerDaemonManager() {
+        this(Boolean.getBoolean(REUSE_PROPERTY), new CompilerDaemonPool(Long.getLong(IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT_MILLIS),
+                Integer.getInteger(MAX_HEAP_SIZE_PROPERTY, DEFAULT_MAX_HEAP_SIZE_MB), new TrueTimeProvider()), new DefaultExecutorFactory());
+    }
+
+    CompilerDaemonManager(boolean reuseAcrossBuilds, CompilerDaemonPool clients, ExecutorFactory executorFactory) {
+        this.reuseAcrossBuilds = reuseAcrossBuilds;
+        this.clients = clients;
+        this.executorFactory = executorFactory;
     }
 
     public synchronized CompilerDaemon getDaemon(ProjectInternal project, DaemonForkOptions forkOptions) {
-        if (clients.isEmpty()) {
-            registerStopOnBuildFinished(project);
+        if (currentBuild != project.getGradle()) {
+            currentBuild = project.getGradle();
+            registerBuildFinishedListener(project);
         }
 
-        for (CompilerDaemonClient client: clients) {
-            if (client.isCompatibleWith(forkOptions)) {
-                return client;
+        File workingDir = project.getRootProject().getProjectDir();
+        LogLevel logLevel = project.getGradle().getStartParameter().getLogLevel();
+        CompilerDaemonClient client = clients.get(forkOptions, workingDir, logLevel);
+        if (client == null) {
+            client = startDaemon(project, forkOptions, workingDir, logLevel);
+            clients.add(client);
+            if (reuseAcrossBuilds) {
+                startEvictor();
+                notifyAll();
             }
         }
-
-        CompilerDaemonClient client = startDaemon(project, forkOptions);
-        clients.add(client);
         return client;
     }
 
-    public synchronized void stop() {
-        LOGGER.info("Stopping {} Gradle compiler daemon(s).", clients.size());
-        CompositeStoppable.stoppable(clients).stop();
-        LOGGER.info("Stopped {} Gradle compiler daemon(s).", clients.size());
-        clients.clear();
+    public void stop() {
+        StoppableExecutor evictor;
+        synchronized (this) {
+            stopping = true;
+            notifyAll();
+            evictor = this.evictor;
+        }
+        if (evictor != null) {
+            evictor.stop();
+        }
+        synchronized (this) {
+            stop(clients.removeAll());
+        }
+    }
+
+    synchronized void buildFinished() {
+        // don't hold on to the build's object graph between builds
+        currentBuild = null;
+        if (reuseAcrossBuilds) {
+            stop(clients.evict());
+            LOGGER.info("Keeping {} Gradle compiler daemon(s) alive for reuse.", clients.size());
+        } else {
+            stop(clients.removeAll());
+        }
+    }
+
+    private void startEvictor() {
+        if (evictor != null || stopping) {
+            return;
+        }
+        evictor = executorFactory.create("Compiler daemon evictor");
+        evictor.execute(new Runnable() {
+            public void run() {
+                evictIdleDaemons();
+            }
+        });
+    }
+
+    /**
+     * Stops each daemon once it has been idle for longer than the idle timeout, until this manager is stopped. A daemon that is compiling
+     * is stopped once its compilation has finished.
+     */
+    private void evictIdleDaemons() {
+        while (true) {
+            List<CompilerDaemonClient> stopped;
+            synchronized (this) {
+                long millisUntilNextEviction = clients.getMillisUntilNextIdleEviction();
+                while (!stopping && millisUntilNextEviction != 0) {
+                    try {
+                        // waits until notified when there are no daemons
+                        wait(Math.max(0, millisUntilNextEviction));
+                    } catch (InterruptedException e) {
+                        throw UncheckedException.throwAsUncheckedException(e);
+                    }
+                    millisUntilNextEviction = clients.getMillisUntilNextIdleEviction();
+                }
+                if (stopping) {
+                    return;
+                }
+                stopped = clients.evictIdle();
+            }
+            // Stop the daemons without holding the lock, so that builds can get other daemons meanwhile
+            stop(stopped);
+        }
+    }
+
+    private void stop(List<CompilerDaemonClient> stopped) {
+        LOGGER.info("Stopping {} Gradle compiler daemon(s).", stopped.size());
+        logStatistics(stopped);
+        CompositeStoppable.stoppable(stopped).stop();
+        LOGGER.info("Stopped {} Gradle compiler daemon(s).", stopped.size());
+    }
+
+    private void logStatistics(List<CompilerDaemonClient> stopped) {
+        if (!LOGGER.isInfoEnabled()) {
+            return;
+        }
+        for (CompilerDaemonClient client : stopped) {
+            int warmCompiles = client.getCompileCount() - 1;
+            if (warmCompiles < 0) {
+                continue;
+            }
+            LOGGER.info("Gradle compiler daemon with fork options {}: first (cold) compilation took {}ms, {} later (warm) compilation(s) took {}ms on average.",
+                    client.getForkOptions(), client.getColdCompileTimeMillis(), warmCompiles, warmCompiles == 0 ? 0 : client.getWarmCompileTimeMillis() / warmCompiles);
+        }
     }
 
-    private void registerStopOnBuildFinished(ProjectInternal project) {
+    private void registerBuildFinishedListener(ProjectInternal project) {
         project.getGradle().addBuildListener(new BuildAdapter() {
             @Override
             public void buildFinished(BuildResult result) {
-                stop();
+                CompilerDaemonManager.this.buildFinished();
             }
         });
     }
 
-    private CompilerDaemonClient startDaemon(ProjectInternal project, DaemonForkOptions forkOptions) {
+    private CompilerDaemonClient startDaemon(ProjectInternal project, DaemonForkOptions forkOptions, File workingDir, LogLevel logLevel) {
         LOGGER.info("Starting Gradle compiler daemon with fork options {}.", forkOptions);
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug(forkOptions.toString());
         }
 
         WorkerProcessBuilder builder = project.getServices().getFactory(WorkerProcessBuilder.class).create();
-        builder.setLogLevel(project.getGradle().getStartParameter().getLogLevel()); // NOTE: might make sense to respect per-compile-task log level
+        builder.setLogLevel(logLevel); // NOTE: might make sense to respect per-compile-task log level
         builder.applicationClasspath(forkOptions.getClasspath());
         builder.sharedPackages(forkOptions.getSharedPackages());
         File toolsJar = Jvm.current().getToolsJar();
@@ -96,11 +211,11 @@ public class CompilerDaemonManager implements CompilerDaemonFactory {
         javaCommand.setMinHeapSize(forkOptions.getMinHeapSize());
         javaCommand.setMaxHeapSize(forkOptions.getMaxHeapSize());
         javaCommand.setJvmArgs(forkOptions.getJvmArgs());
-        javaCommand.setWorkingDir(project.getRootProject().getProjectDir());
+        javaCommand.setWorkingDir(workingDir);
         WorkerProcess process = builder.worker(new CompilerDaemonServer()).build();
         process.start();
         CompilerDaemonServerProtocol server = process.getConnection().addOutgoing(CompilerDaemonServerProtocol.class);
-        CompilerDaemonClient client = new CompilerDaemonClient(forkOptions, process, server);
+        CompilerDaemonClient client = new CompilerDaemonClient(forkOptions, workingDir, logLevel, process, server);
         process.getConnection().addIncoming(CompilerDaemonClientProtocol.class, client);
 
         LOGGER.info("Started Gradle compiler daemon with fork options {}.", forkOptions);
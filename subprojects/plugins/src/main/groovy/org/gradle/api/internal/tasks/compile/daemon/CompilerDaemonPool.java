@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.daemon;
+
+import org.gradle.api.logging.LogLevel;
+import org.gradle.internal.TimeProvider;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Holds the compiler daemons that are kept alive between builds, and decides which of them to evict. A daemon is evicted once it
+ * has not been used for longer than the idle timeout, or, least recently used first, while the combined maximum heap of the
+ * retained daemons exceeds the heap budget.
+ *
+ * <p>This class is not thread-safe.</p>
+ */
+public class CompilerDaemonPool {
+    /**
+     * The heap size assumed for a daemon whose fork options do not specify a maximum heap size.
+     */
+    public static final int ASSUMED_DEFAULT_HEAP_SIZE_MB = 256;
+
+    private final long idleTimeoutMillis;
+    private final int maxTotalHeapSizeMb;
+    private final TimeProvider timeProvider;
+    // Ordered from least to most recently used
+    private final LinkedHashMap<CompilerDaemonClient, Long> lastUsed = new LinkedHashMap<CompilerDaemonClient, Long>(16, 0.75f, true);
+
+    public CompilerDaemonPool(long idleTimeoutMillis, int maxTotalHeapSizeMb, TimeProvider timeProvider) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxTotalHeapSizeMb = maxTotalHeapSizeMb;
+        this.timeProvider = timeProvider;
+    }
+
+    /**
+     * Returns a daemon compatible with the given fork options, working directory and log level, marking it as used, or null if there
+     * is no such daemon.
+     */
+    public CompilerDaemonClient get(DaemonForkOptions forkOptions, File workingDir, LogLevel logLevel) {
+        CompilerDaemonClient compatible = null;
+        for (CompilerDaemonClient client : lastUsed.keySet()) {
+            if (client.isCompatibleWith(forkOptions, workingDir, logLevel)) {
+                compatible = client;
+                break;
+            }
+        }
+        if (compatible != null) {
+            lastUsed.put(compatible, timeProvider.getCurrentTime());
+        }
+        return compatible;
+    }
+
+    public void add(CompilerDaemonClient client) {
+        lastUsed.put(client, timeProvider.getCurrentTime());
+    }
+
+    public int size() {
+        return lastUsed.size();
+    }
+
+    /**
+     * Returns the number of milliseconds until the least recently used daemon exceeds the idle timeout, 0 when a daemon has already exceeded
+     * it, or -1 when there are no daemons.
+     */
+    public long getMillisUntilNextIdleEviction() {
+        if (lastUsed.isEmpty()) {
+            return -1;
+        }
+        long leastRecentlyUsed = lastUsed.values().iterator().next();
+        return Math.max(0, leastRecentlyUsed + idleTimeoutMillis + 1 - timeProvider.getCurrentTime());
+    }
+
+    /**
+     * Removes the daemons that have been idle for longer than the idle timeout. The caller is responsible for stopping them.
+     */
+    public List<CompilerDaemonClient> evictIdle() {
+        List<CompilerDaemonClient> evicted = new ArrayList<CompilerDaemonClient>();
+        long now = timeProvider.getCurrentTime();
+        Iterator<Map.Entry<CompilerDaemonClient, Long>> iterator = lastUsed.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<CompilerDaemonClient, Long> entry = iterator.next();
+            if (now - entry.getValue() > idleTimeoutMillis) {
+                iterator.remove();
+                evicted.add(entry.getKey());
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Removes the daemons that should no longer be kept alive, because they have been idle for too long or exceed the heap budget. The
+     * caller is responsible for stopping them.
+     */
+    public List<CompilerDaemonClient> evict() {
+        List<CompilerDaemonClient> evicted = evictIdle();
+        int totalHeapSizeMb = 0;
+        for (CompilerDaemonClient client : lastUsed.keySet()) {
+            totalHeapSizeMb += heapSizeMb(client);
+        }
+        Iterator<Map.Entry<CompilerDaemonClient, Long>> iterator = lastUsed.entrySet().iterator();
+        while (totalHeapSizeMb > maxTotalHeapSizeMb && iterator.hasNext()) {
+            CompilerDaemonClient client = iterator.next().getKey();
+            iterator.remove();
+            evicted.add(client);
+            totalHeapSizeMb -= heapSizeMb(client);
+        }
+        return evicted;
+    }
+
+    /**
+     * Removes all daemons. The caller is responsible for stopping them.
+     */
+    public List<CompilerDaemonClient> removeAll() {
+        List<CompilerDaemonClient> all = new ArrayList<CompilerDaemonClient>(lastUsed.keySet());
+        lastUsed.clear();
+        return all;
+    }
+
+    private static int heapSizeMb(CompilerDaemonClient client) {
+        int maxHeapSizeMb = client.getForkOptions().getMaxHeapSizeMb();
+        return maxHeapSizeMb == -1 ? ASSUMED_DEFAULT_HEAP_SIZE_MB : maxHeapSizeMb;
+    }
+}
@@ -35,6 +35,7 @@ public class CompilerDaemonServer implements Action<WorkerProcessContext>, Compi
     private volatile CountDownLatch stop;
     
     public void execute(WorkerProcessContext context) {
+        context.getParameterSerializerRegistry().useParameterSerializer(CompileResult.class, new CompileResultSerializer());
         client = context.getServerConnection().addOutgoing(CompilerDaemonClientProtocol.class);
         stop = new CountDownLatch(1);
         context.getServerConnection().addIncoming(CompilerDaemonServerProtocol.class, this);
@@ -39,7 +39,7 @@ public class DaemonJavaCompiler implements Compiler<JavaCompileSpec> {
         DaemonForkOptions daemonForkOptions = new DaemonForkOptions(
                 forkOptions.getMemoryInitialSize(), forkOptions.getMemoryMaximumSize(), forkOptions.getJvmArgs(),
                 Collections.<File>emptyList(), Collections.singleton("com.sun.tools.javac"));
-        CompilerDaemon daemon = CompilerDaemonManager.getInstance().getDaemon(project, daemonForkOptions);
+        CompilerDaemon daemon = project.getServices().get(CompilerDaemonManager.class).getDaemon(project, daemonForkOptions);
         CompileResult result = daemon.execute(delegate, spec);
         if (result.isSuccess()) {
             return result;
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental;
+
+import java.util.*;
+
+/**
+ * The class-level dependency graph of the output of a Java compilation. Classes are identified by their internal names
+ * (e.g. {@code org/gradle/Foo$Bar}), source files by their absolute paths.
+ */
+public class ClassDependencyInfo {
+    private final Map<String, String> classToSource;
+    private final Map<String, Set<String>> dependents;
+    private final Set<String> classesWithConstants;
+    private final Map<String, Set<String>> sourceToClasses = new HashMap<String, Set<String>>();
+
+    public ClassDependencyInfo(Map<String, String> classToSource, Map<String, Set<String>> dependents, Set<String> classesWithConstants) {
+        this.classToSource = classToSource;
+        this.dependents = dependents;
+        this.classesWithConstants = classesWithConstants;
+        for (Map.Entry<String, String> entry : classToSource.entrySet()) {
+            Set<String> classes = sourceToClasses.get(entry.getValue());
+            if (classes == null) {
+                classes = new TreeSet<String>();
+                sourceToClasses.put(entry.getValue(), classes);
+            }
+            classes.add(entry.getKey());
+        }
+    }
+
+    /**
+     * Returns the source file each class was compiled from.
+     */
+    public Map<String, String> getClassToSource() {
+        return classToSource;
+    }
+
+    /**
+     * Returns, for each class, the classes that reference it.
+     */
+    public Map<String, Set<String>> getDependents() {
+        return dependents;
+    }
+
+    /**
+     * Returns the classes that declare compile-time constants, which the compiler may inline into other classes without leaving a reference behind.
+     */
+    public Set<String> getClassesWithConstants() {
+        return classesWithConstants;
+    }
+
+    public Set<String> getClassesForSource(String sourcePath) {
+        Set<String> classes = sourceToClasses.get(sourcePath);
+        return classes == null ? Collections.<String>emptySet() : classes;
+    }
+
+    /**
+     * Determines which classes are affected by the given changed and removed source files: the classes compiled from those files and all
+     * of their transitive dependents, together with any other classes compiled from the same source files as an affected class.
+     *
+     * @return The affected classes, or null when the dependency information is not sufficient to decide and all sources must be recompiled.
+     */
+    public Set<String> getAffectedClasses(Collection<String> changedSources) {
+        Set<String> affected = new LinkedHashSet<String>();
+        LinkedList<String> queue = new LinkedList<String>();
+        for (String source : changedSources) {
+            for (String className : getClassesForSource(source)) {
+                if (classesWithConstants.contains(className)) {
+                    return null;
+                }
+                queue.add(className);
+            }
+        }
+        while (!queue.isEmpty()) {
+            String className = queue.removeFirst();
+            if (!affected.add(className)) {
+                continue;
+            }
+            String source = classToSource.get(className);
+            if (source == null) {
+                return null;
+            }
+            queue.addAll(getClassesForSource(source));
+            Set<String> classDependents = dependents.get(className);
+            if (classDependents != null) {
+                queue.addAll(classDependents);
+            }
+        }
+        return affected;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental;
+
+import org.gradle.internal.UncheckedException;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.Remapper;
+import org.objectweb.asm.commons.RemappingClassAdapter;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Extracts the class-level dependency graph from the class files of a compilation's destination directory.
+ */
+public class ClassDependencyInfoExtractor {
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    /**
+     * @param classesDir The destination directory of the compilation.
+     * @param sources The source files of the compilation, keyed by their path relative to their source directory.
+     */
+    public ClassDependencyInfo extract(File classesDir, Map<String, File> sources) {
+        Map<String, ClassInfo> classes = new HashMap<String, ClassInfo>();
+        visitClassFiles(classesDir, classes);
+
+        Map<String, String> classToSource = new HashMap<String, String>();
+        Map<String, Set<String>> dependents = new HashMap<String, Set<String>>();
+        Set<String> classesWithConstants = new HashSet<String>();
+        for (ClassInfo classInfo : classes.values()) {
+            File source = sources.get(classInfo.getRelativeSourcePath());
+            if (source != null) {
+                classToSource.put(classInfo.name, source.getAbsolutePath());
+            }
+            if (classInfo.hasConstants) {
+                classesWithConstants.add(classInfo.name);
+            }
+            for (String dependency : classInfo.dependencies) {
+                if (dependency.equals(classInfo.name) || !classes.containsKey(dependency)) {
+                    continue;
+                }
+                Set<String> classDependents = dependents.get(dependency);
+                if (classDependents == null) {
+                    classDependents = new HashSet<String>();
+                    dependents.put(dependency, classDependents);
+                }
+                classDependents.add(classInfo.name);
+            }
+        }
+        return new ClassDependencyInfo(classToSource, dependents, classesWithConstants);
+    }
+
+    private void visitClassFiles(File dir, Map<String, ClassInfo> classes) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                visitClassFiles(file, classes);
+            } else if (file.getName().endsWith(CLASS_FILE_EXTENSION)) {
+                ClassInfo classInfo = readClass(file);
+                classes.put(classInfo.name, classInfo);
+            }
+        }
+    }
+
+    private ClassInfo readClass(File classFile) {
+        try {
+            InputStream inputStream = new BufferedInputStream(new FileInputStream(classFile));
+            try {
+                ClassInfo classInfo = new ClassInfo();
+                new ClassReader(inputStream).accept(new RemappingClassAdapter(new ClassInfoVisitor(classInfo), new DependencyCollector(classInfo.dependencies)), ClassReader.SKIP_FRAMES);
+                return classInfo;
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    private static class ClassInfo {
+        String name;
+        String sourceFile;
+        boolean hasConstants;
+        final Set<String> dependencies = new HashSet<String>();
+
+        String getRelativeSourcePath() {
+            int packageEnd = name.lastIndexOf('/');
+            String packagePath = name.substring(0, packageEnd + 1);
+            if (sourceFile != null) {
+                return packagePath + sourceFile;
+            }
+            // Compiled without debug information: assume the top level class is named after its source file
+            String simpleName = name.substring(packageEnd + 1);
+            int nestedStart = simpleName.indexOf('$');
+            return packagePath + (nestedStart > 0 ? simpleName.substring(0, nestedStart) : simpleName) + ".java";
+        }
+    }
+
+    private static class ClassInfoVisitor extends ClassVisitor {
+        private final ClassInfo classInfo;
+
+        public ClassInfoVisitor(ClassInfo classInfo) {
+            super(Opcodes.ASM4);
+            this.classInfo = classInfo;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            classInfo.name = name;
+        }
+
+        @Override
+        public void visitSource(String source, String debug) {
+            classInfo.sourceFile = source;
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+            if (value != null && (access & Opcodes.ACC_STATIC) != 0 && (access & Opcodes.ACC_FINAL) != 0) {
+                classInfo.hasConstants = true;
+            }
+            // Return visitors, so that the remapping adapter also visits the types referenced by fields and method bodies
+            return new FieldVisitor(Opcodes.ASM4) {
+            };
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+            return new MethodVisitor(Opcodes.ASM4) {
+            };
+        }
+    }
+
+    private static class DependencyCollector extends Remapper {
+        private final Set<String> dependencies;
+
+        public DependencyCollector(Set<String> dependencies) {
+            this.dependencies = dependencies;
+        }
+
+        @Override
+        public String map(String typeName) {
+            dependencies.add(typeName);
+            return typeName;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental;
+
+import org.gradle.messaging.serialize.Serializer;
+
+import java.io.*;
+import java.util.*;
+
+public class ClassDependencyInfoSerializer implements Serializer<ClassDependencyInfo> {
+    public ClassDependencyInfo read(InputStream instr) throws Exception {
+        DataInputStream input = new DataInputStream(instr);
+        int classCount = input.readInt();
+        Map<String, String> classToSource = new HashMap<String, String>(classCount);
+        for (int i = 0; i < classCount; i++) {
+            classToSource.put(input.readUTF(), input.readUTF());
+        }
+        int dependencyCount = input.readInt();
+        Map<String, Set<String>> dependents = new HashMap<String, Set<String>>(dependencyCount);
+        for (int i = 0; i < dependencyCount; i++) {
+            dependents.put(input.readUTF(), readSet(input));
+        }
+        Set<String> classesWithConstants = readSet(input);
+        return new ClassDependencyInfo(classToSource, dependents, classesWithConstants);
+    }
+
+    public void write(OutputStream outstr, ClassDependencyInfo value) throws Exception {
+        DataOutputStream output = new DataOutputStream(outstr);
+        output.writeInt(value.getClassToSource().size());
+        for (Map.Entry<String, String> entry : value.getClassToSource().entrySet()) {
+            output.writeUTF(entry.getKey());
+            output.writeUTF(entry.getValue());
+        }
+        output.writeInt(value.getDependents().size());
+        for (Map.Entry<String, Set<String>> entry : value.getDependents().entrySet()) {
+            output.writeUTF(entry.getKey());
+            writeSet(output, entry.getValue());
+        }
+        writeSet(output, value.getClassesWithConstants());
+        output.flush();
+    }
+
+    private Set<String> readSet(DataInputStream input) throws IOException {
+        int size = input.readInt();
+        Set<String> set = new HashSet<String>(size);
+        for (int i = 0; i < size; i++) {
+            set.add(input.readUTF());
+        }
+        return set;
+    }
+
+    private void writeSet(DataOutputStream output, Set<String> set) throws IOException {
+        output.writeInt(set.size());
+        for (String value : set) {
+            output.writeUTF(value);
+        }
+    }
+}
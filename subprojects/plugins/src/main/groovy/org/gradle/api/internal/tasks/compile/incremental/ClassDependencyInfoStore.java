@@ -0,0 +1,58 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental;
+
+import org.gradle.api.internal.changedetection.state.TaskArtifactStateCacheAccess;
+import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.internal.Factory;
+
+/**
+ * Stores the {@link ClassDependencyInfo} of each compile task in the task artifact state cache.
+ */
+public class ClassDependencyInfoStore {
+    private final TaskArtifactStateCacheAccess cacheAccess;
+    private final PersistentIndexedCache<String, ClassDependencyInfo> cache;
+
+    public ClassDependencyInfoStore(TaskArtifactStateCacheAccess cacheAccess) {
+        this.cacheAccess = cacheAccess;
+        this.cache = cacheAccess.createCache("classDependencies", String.class, ClassDependencyInfo.class, new ClassDependencyInfoSerializer());
+    }
+
+    public ClassDependencyInfo get(final String taskPath) {
+        return cacheAccess.useCache("read class dependencies", new Factory<ClassDependencyInfo>() {
+            public ClassDependencyInfo create() {
+                return cache.get(taskPath);
+            }
+        });
+    }
+
+    public void put(final String taskPath, final ClassDependencyInfo info) {
+        cacheAccess.useCache("store class dependencies", new Runnable() {
+            public void run() {
+                cache.put(taskPath, info);
+            }
+        });
+    }
+
+    public void remove(final String taskPath) {
+        cacheAccess.useCache("remove class dependencies", new Runnable() {
+            public void run() {
+                cache.remove(taskPath);
+            }
+        });
+    }
+}
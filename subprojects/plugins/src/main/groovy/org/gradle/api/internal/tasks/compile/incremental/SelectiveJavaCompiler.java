@@ -0,0 +1,152 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental;
+
+import org.gradle.api.Action;
+import org.gradle.api.file.EmptyFileVisitor;
+import org.gradle.api.file.FileVisitDetails;
+import org.gradle.api.internal.file.collections.SimpleFileCollection;
+import org.gradle.api.internal.tasks.compile.Compiler;
+import org.gradle.api.internal.tasks.compile.JavaCompileSpec;
+import org.gradle.api.internal.tasks.compile.SimpleWorkResult;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.tasks.WorkResult;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
+import org.gradle.api.tasks.incremental.InputFile;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Recompiles only the changed source files and the source files of the classes that transitively depend on them, using the
+ * {@link ClassDependencyInfo} recorded by the previous compilation. Falls back to a full recompilation whenever the change
+ * cannot be attributed to individual source files.
+ */
+public class SelectiveJavaCompiler {
+    private static final Logger LOGGER = Logging.getLogger(SelectiveJavaCompiler.class);
+
+    private final Compiler<JavaCompileSpec> compiler;
+    private final Compiler<JavaCompileSpec> fullRecompiler;
+    private final ClassDependencyInfoStore store;
+    private final ClassDependencyInfoExtractor extractor;
+    private final String taskPath;
+
+    /**
+     * @param compiler The compiler to use for a partial recompilation. Must not remove any classes from the destination directory.
+     * @param fullRecompiler The compiler to use for a full recompilation. Must remove stale classes from the destination directory.
+     */
+    public SelectiveJavaCompiler(Compiler<JavaCompileSpec> compiler, Compiler<JavaCompileSpec> fullRecompiler, ClassDependencyInfoStore store,
+                                 ClassDependencyInfoExtractor extractor, String taskPath) {
+        this.compiler = compiler;
+        this.fullRecompiler = fullRecompiler;
+        this.store = store;
+        this.extractor = extractor;
+        this.taskPath = taskPath;
+    }
+
+    public WorkResult execute(JavaCompileSpec spec, IncrementalTaskInputs inputs) {
+        Map<String, File> sources = collectSources(spec);
+        final Set<File> changed = new LinkedHashSet<File>();
+        final Set<File> removed = new LinkedHashSet<File>();
+        inputs.outOfDate(new Action<InputFile>() {
+            public void execute(InputFile inputFile) {
+                changed.add(inputFile.getFile());
+            }
+        });
+        inputs.removed(new Action<InputFile>() {
+            public void execute(InputFile inputFile) {
+                removed.add(inputFile.getFile());
+            }
+        });
+
+        ClassDependencyInfo previous = inputs.isIncremental() ? store.get(taskPath) : null;
+        // Forget the dependency information until the compilation has succeeded, so that a failed compilation is followed by a full one
+        store.remove(taskPath);
+
+        WorkResult result;
+        Set<File> sourcesToCompile = previous == null ? null : getSourcesToCompile(previous, new HashSet<File>(sources.values()), changed, removed, spec.getDestinationDir());
+        if (sourcesToCompile == null) {
+            result = fullRecompiler.execute(spec);
+        } else if (sourcesToCompile.isEmpty()) {
+            LOGGER.info("No source files of {} need to be recompiled.", taskPath);
+            result = new SimpleWorkResult(!removed.isEmpty());
+        } else {
+            LOGGER.info("Recompiling {} source file(s) of {}.", sourcesToCompile.size(), taskPath);
+            List<File> classpath = new ArrayList<File>();
+            classpath.add(spec.getDestinationDir());
+            for (File file : spec.getClasspath()) {
+                classpath.add(file);
+            }
+            spec.setSource(new SimpleFileCollection(sourcesToCompile));
+            spec.setClasspath(classpath);
+            result = compiler.execute(spec);
+        }
+
+        store.put(taskPath, extractor.extract(spec.getDestinationDir(), sources));
+        return result;
+    }
+
+    /**
+     * Returns the source files to recompile, after deleting the classes that are affected by the changes, or null if all sources must be recompiled.
+     */
+    private Set<File> getSourcesToCompile(ClassDependencyInfo previous, Set<File> sources, Set<File> changed, Set<File> removed, File destinationDir) {
+        List<String> changedSources = new ArrayList<String>();
+        for (File file : changed) {
+            if (!sources.contains(file)) {
+                LOGGER.info("Full recompilation is required because {} is not a source file.", file);
+                return null;
+            }
+            changedSources.add(file.getAbsolutePath());
+        }
+        for (File file : removed) {
+            String path = file.getAbsolutePath();
+            if (previous.getClassesForSource(path).isEmpty() && !file.getName().endsWith(".java")) {
+                LOGGER.info("Full recompilation is required because {} is not a source file.", file);
+                return null;
+            }
+            changedSources.add(path);
+        }
+
+        Set<String> affectedClasses = previous.getAffectedClasses(changedSources);
+        if (affectedClasses == null) {
+            LOGGER.info("Full recompilation is required because the changes cannot be attributed to individual classes.");
+            return null;
+        }
+
+        Set<File> sourcesToCompile = new LinkedHashSet<File>(changed);
+        for (String className : affectedClasses) {
+            File source = new File(previous.getClassToSource().get(className));
+            if (sources.contains(source)) {
+                sourcesToCompile.add(source);
+            }
+            new File(destinationDir, className + ".class").delete();
+        }
+        return sourcesToCompile;
+    }
+
+    private Map<String, File> collectSources(JavaCompileSpec spec) {
+        final Map<String, File> sources = new HashMap<String, File>();
+        spec.getSource().getAsFileTree().visit(new EmptyFileVisitor() {
+            @Override
+            public void visitFile(FileVisitDetails fileDetails) {
+                sources.put(fileDetails.getRelativePath().getPathString(), fileDetails.getFile());
+            }
+        });
+        return sources;
+    }
+}
@@ -47,4 +47,11 @@ public interface TestFramework {
      * executed before starting each worker process.
      */
     Action<WorkerProcessBuilder> getWorkerConfigurationAction();
+
+    /**
+     * Returns an action which is used to perform the framework specific configuration of a worker process which loads the test classes in a
+     * separate ClassLoader to the test framework, such as a reusable worker. This action is executed instead of {@link
+     * #getWorkerConfigurationAction()}.
+     */
+    Action<WorkerProcessBuilder> getReusableWorkerConfigurationAction();
 }
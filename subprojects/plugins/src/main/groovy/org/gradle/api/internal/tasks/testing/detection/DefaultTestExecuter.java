@@ -16,21 +16,32 @@
 
 package org.gradle.api.internal.tasks.testing.detection;
 
+import org.gradle.api.Action;
 import org.gradle.api.file.FileTree;
 import org.gradle.api.internal.tasks.testing.TestClassProcessor;
 import org.gradle.api.internal.tasks.testing.TestFramework;
 import org.gradle.api.internal.tasks.testing.TestResultProcessor;
 import org.gradle.api.internal.tasks.testing.WorkerTestClassProcessorFactory;
+import org.gradle.api.internal.tasks.testing.incremental.TestClassDependencyLog;
 import org.gradle.api.internal.tasks.testing.processors.MaxNParallelTestClassProcessor;
 import org.gradle.api.internal.tasks.testing.processors.RestartEveryNTestClassProcessor;
+import org.gradle.api.internal.tasks.testing.processors.SelectiveTestClassProcessor;
+import org.gradle.api.internal.tasks.testing.processors.TestClassDurations;
 import org.gradle.api.internal.tasks.testing.processors.TestMainAction;
 import org.gradle.api.internal.tasks.testing.worker.ForkingTestClassProcessor;
+import org.gradle.api.internal.tasks.testing.worker.ReusingTestClassProcessor;
+import org.gradle.api.internal.tasks.testing.worker.TestEventSerializers;
+import org.gradle.api.internal.tasks.testing.worker.TestWorkerManager;
+import org.gradle.api.specs.Spec;
 import org.gradle.api.tasks.testing.Test;
 import org.gradle.internal.Factory;
 import org.gradle.internal.TrueTimeProvider;
 import org.gradle.messaging.actor.ActorFactory;
+import org.gradle.messaging.remote.internal.ParameterSerializerRegistry;
 import org.gradle.process.internal.WorkerProcessBuilder;
 
+import java.io.File;
+
 /**
  * The default test class scanner factory.
  *
@@ -39,19 +50,36 @@ import org.gradle.process.internal.WorkerProcessBuilder;
 public class DefaultTestExecuter implements TestExecuter {
     private final Factory<WorkerProcessBuilder> workerFactory;
     private final ActorFactory actorFactor;
+    private final Factory<TestWorkerManager> workerManagerFactory;
+    private final ParameterSerializerRegistry parameterSerializerRegistry;
 
-    public DefaultTestExecuter(Factory<WorkerProcessBuilder> workerFactory, ActorFactory actorFactor) {
+    public DefaultTestExecuter(Factory<WorkerProcessBuilder> workerFactory, ActorFactory actorFactor, Factory<TestWorkerManager> workerManagerFactory,
+                               ParameterSerializerRegistry parameterSerializerRegistry) {
         this.workerFactory = workerFactory;
         this.actorFactor = actorFactor;
+        this.workerManagerFactory = workerManagerFactory;
+        this.parameterSerializerRegistry = parameterSerializerRegistry;
     }
 
-    public void execute(final Test testTask, TestResultProcessor testResultProcessor) {
+    public void execute(final Test testTask, Spec<? super String> testClassSpec, TestClassDurations previousDurations, TestResultProcessor testResultProcessor) {
+        // The registry is global, so registering the serializers again for each test task has no effect
+        TestEventSerializers.registerWith(parameterSerializerRegistry);
         final TestFramework testFramework = testTask.getTestFramework();
         final WorkerTestClassProcessorFactory testInstanceFactory = testFramework.getProcessorFactory();
+        final File dependencyLogDir = testTask.isIncremental() ? new File(testTask.getBinResultsDir(), TestClassDependencyLog.LOG_DIR_NAME) : null;
+        final TestWorkerManager workerManager = workerManagerFactory.create();
         final Factory<TestClassProcessor> forkingProcessorFactory = new Factory<TestClassProcessor>() {
             public TestClassProcessor create() {
+                if (workerManager.isReuseWorkers()) {
+                    return new ReusingTestClassProcessor(workerManager, testTask.getProject().getGradle(), workerFactory, testInstanceFactory,
+                            testTask, testTask.getClasspath(), testFramework.getReusableWorkerConfigurationAction(), testTask.getForkEvery());
+                }
+                // Recording the dependencies loads the test classes in a separate ClassLoader to the test framework, as a reusable worker does
+                Action<WorkerProcessBuilder> workerConfigurationAction = dependencyLogDir != null
+                        ? testFramework.getReusableWorkerConfigurationAction()
+                        : testFramework.getWorkerConfigurationAction();
                 return new ForkingTestClassProcessor(workerFactory, testInstanceFactory, testTask,
-                        testTask.getClasspath(), testFramework.getWorkerConfigurationAction());
+                        testTask.getClasspath(), workerConfigurationAction, dependencyLogDir);
             }
         };
         Factory<TestClassProcessor> reforkingProcessorFactory = new Factory<TestClassProcessor>() {
@@ -61,7 +89,8 @@ public class DefaultTestExecuter implements TestExecuter {
         };
 
         TestClassProcessor processor = new MaxNParallelTestClassProcessor(testTask.getMaxParallelForks(),
-                reforkingProcessorFactory, actorFactor);
+                reforkingProcessorFactory, actorFactor, previousDurations);
+        processor = new SelectiveTestClassProcessor(processor, testClassSpec);
 
         final FileTree testClassFiles = testTask.getCandidateClassFiles();
 
@@ -17,11 +17,13 @@
 package org.gradle.api.internal.tasks.testing.detection;
 
 import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+import org.gradle.api.internal.tasks.testing.processors.TestClassDurations;
+import org.gradle.api.specs.Spec;
 import org.gradle.api.tasks.testing.Test;
 
 /**
  * @author Tom Eyckmans
  */
 public interface TestExecuter {
-    void execute(Test testTask, TestResultProcessor testResultProcessor);
+    void execute(Test testTask, Spec<? super String> testClassSpec, TestClassDurations previousDurations, TestResultProcessor testResultProcessor);
 }
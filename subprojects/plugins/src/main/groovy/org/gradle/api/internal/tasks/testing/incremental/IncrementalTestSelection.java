@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.incremental;
+
+import org.gradle.api.Action;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.specs.Spec;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
+import org.gradle.api.tasks.incremental.InputFile;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Selects the test classes to execute, given the changes to the inputs of a test task and the dependencies recorded by its previous
+ * execution. A test class is executed unless it passed in the previous execution and none of the classes it depends on have changed.
+ */
+public class IncrementalTestSelection implements Spec<String> {
+    private static final Logger LOGGER = Logging.getLogger(IncrementalTestSelection.class);
+
+    private final TestClassDependencies dependencies;
+    private final Set<String> unaffectedTestClasses;
+
+    IncrementalTestSelection(TestClassDependencies dependencies, Set<String> unaffectedTestClasses) {
+        this.dependencies = dependencies;
+        this.unaffectedTestClasses = unaffectedTestClasses;
+    }
+
+    /**
+     * Determines the test classes to execute. Returns null when all test classes must be executed.
+     *
+     * @param previous The dependencies recorded by the previous execution.
+     * @param failedTestClasses The test classes that failed in the previous execution.
+     * @param inputs The changes to the inputs of the test task.
+     * @param classDirs The directories that contain the classes used by the tests.
+     * @param sourceDirs The source directories of the tests. Changes to these are ignored, as they show up as changed classes.
+     */
+    public static IncrementalTestSelection select(TestClassDependencies previous, Set<String> failedTestClasses, IncrementalTaskInputs inputs,
+                                                  Collection<File> classDirs, Collection<File> sourceDirs) {
+        if (!inputs.isIncremental()) {
+            LOGGER.info("All tests will be executed because the inputs cannot be compared to the previous execution.");
+            return null;
+        }
+        final Set<File> changedFiles = new LinkedHashSet<File>();
+        Action<InputFile> collector = new Action<InputFile>() {
+            public void execute(InputFile inputFile) {
+                changedFiles.add(inputFile.getFile());
+            }
+        };
+        inputs.outOfDate(collector);
+        inputs.removed(collector);
+
+        Set<String> changedClasses = new HashSet<String>();
+        for (File file : changedFiles) {
+            if (isUnder(file, sourceDirs)) {
+                continue;
+            }
+            String className = toClassName(file, classDirs);
+            if (className == null) {
+                LOGGER.info("All tests will be executed because {} is not a class file.", file);
+                return null;
+            }
+            changedClasses.add(className);
+        }
+
+        Set<String> unaffected = previous.getTestClasses();
+        unaffected.removeAll(previous.getAffectedTestClasses(changedClasses));
+        unaffected.removeAll(changedClasses);
+        unaffected.removeAll(failedTestClasses);
+        return new IncrementalTestSelection(previous, unaffected);
+    }
+
+    private static boolean isUnder(File file, Collection<File> dirs) {
+        String path = file.getAbsolutePath();
+        for (File dir : dirs) {
+            if (path.startsWith(dir.getAbsolutePath() + File.separator)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String toClassName(File file, Collection<File> classDirs) {
+        String path = file.getAbsolutePath();
+        if (!path.endsWith(".class")) {
+            return null;
+        }
+        for (File dir : classDirs) {
+            String prefix = dir.getAbsolutePath() + File.separator;
+            if (path.startsWith(prefix)) {
+                String relativePath = path.substring(prefix.length(), path.length() - ".class".length());
+                return relativePath.replace(File.separatorChar, '.');
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the test classes whose results from the previous execution are still valid, and which are not executed again.
+     */
+    public Set<String> getUnaffectedTestClasses() {
+        return unaffectedTestClasses;
+    }
+
+    public boolean isSatisfiedBy(String testClassName) {
+        return !unaffectedTestClasses.contains(testClassName);
+    }
+
+    /**
+     * Writes the recorded dependencies of the test classes that are not executed again to the given directory.
+     */
+    public void retainDependencies(File dir) {
+        dependencies.retain(unaffectedTestClasses, dir);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.incremental;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A ClassLoader which records the names of the classes it defines, in the order they are loaded.
+ */
+public class RecordingClassLoader extends URLClassLoader {
+    private final List<String> loadedClasses = new ArrayList<String>();
+
+    public RecordingClassLoader(List<URL> classPath, ClassLoader parent) {
+        super(classPath.toArray(new URL[classPath.size()]), parent);
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        Class<?> type = super.findClass(name);
+        synchronized (loadedClasses) {
+            loadedClasses.add(name);
+        }
+        return type;
+    }
+
+    /**
+     * Returns the names of the classes loaded since the previous call.
+     */
+    public List<String> takeLoadedClasses() {
+        synchronized (loadedClasses) {
+            List<String> names = new ArrayList<String>(loadedClasses);
+            loadedClasses.clear();
+            return names;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.incremental;
+
+import org.gradle.api.UncheckedIOException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The dependency logs written by the test workers of a test execution.
+ */
+public class TestClassDependencies {
+    private final List<TestClassDependencyLog> logs;
+
+    public TestClassDependencies(List<TestClassDependencyLog> logs) {
+        this.logs = logs;
+    }
+
+    /**
+     * Reads the logs from the given directory. Returns an empty set of logs when the directory does not exist.
+     */
+    public static TestClassDependencies read(File dir) {
+        List<TestClassDependencyLog> logs = new ArrayList<TestClassDependencyLog>();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isFile()) {
+                    logs.add(TestClassDependencyLog.read(file));
+                }
+            }
+        }
+        return new TestClassDependencies(logs);
+    }
+
+    /**
+     * Returns the test classes that have a recorded set of dependencies.
+     */
+    public Set<String> getTestClasses() {
+        Set<String> testClasses = new HashSet<String>();
+        for (TestClassDependencyLog log : logs) {
+            testClasses.addAll(log.getTestClasses());
+        }
+        return testClasses;
+    }
+
+    public Set<String> getAffectedTestClasses(Set<String> changedClasses) {
+        Set<String> affected = new HashSet<String>();
+        for (TestClassDependencyLog log : logs) {
+            affected.addAll(log.getAffectedTestClasses(changedClasses));
+        }
+        return affected;
+    }
+
+    /**
+     * Writes the dependencies of the given test classes to the given directory, so they can be used by the next execution.
+     */
+    public void retain(Set<String> testClasses, File dir) {
+        for (TestClassDependencyLog log : logs) {
+            TestClassDependencyLog retained = log.retain(testClasses);
+            if (retained.getTestClasses().isEmpty()) {
+                continue;
+            }
+            try {
+                dir.mkdirs();
+                retained.write(File.createTempFile("worker", ".bin", dir));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.incremental;
+
+import org.gradle.api.UncheckedIOException;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * The classes loaded by a test worker, in the order the worker loaded them, split into entries. An entry holds the classes that were
+ * loaded while a test class executed, or, for an entry without a test class, the classes that were loaded between test classes.
+ *
+ * <p>A test class is considered to depend on the classes of its own entry and of all earlier entries, as those were already loaded by the
+ * time it executed. Classes loaded after the last test class are considered to be dependencies of every test class, as some test frameworks
+ * only execute the tests once all test classes have been received.</p>
+ */
+public class TestClassDependencyLog {
+    /**
+     * The name of the directory, relative to the binary results directory, that holds the logs of the test workers.
+     */
+    public static final String LOG_DIR_NAME = "dependencies";
+    private static final int LOG_VERSION = 1;
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    public void add(String testClassName, List<String> loadedClasses) {
+        entries.add(new Entry(testClassName, loadedClasses));
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public Set<String> getTestClasses() {
+        Set<String> testClasses = new HashSet<String>();
+        for (Entry entry : entries) {
+            if (entry.testClassName != null) {
+                testClasses.add(entry.testClassName);
+            }
+        }
+        return testClasses;
+    }
+
+    /**
+     * Returns the test classes of this log that depend on any of the given classes.
+     */
+    public Set<String> getAffectedTestClasses(Set<String> changedClasses) {
+        int lastTestClass = -1;
+        int firstChanged = -1;
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            if (entry.testClassName != null) {
+                lastTestClass = i;
+            }
+            if (firstChanged < 0 && !Collections.disjoint(entry.loadedClasses, changedClasses)) {
+                firstChanged = i;
+            }
+        }
+        Set<String> affected = new HashSet<String>();
+        if (firstChanged < 0) {
+            return affected;
+        }
+        int first = firstChanged > lastTestClass ? 0 : firstChanged;
+        for (Entry entry : entries.subList(first, entries.size())) {
+            if (entry.testClassName != null) {
+                affected.add(entry.testClassName);
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Returns a copy of this log which only names the given test classes. The classes loaded by the other test classes are kept, as the
+     * retained test classes may depend on them.
+     */
+    public TestClassDependencyLog retain(Set<String> testClasses) {
+        TestClassDependencyLog retained = new TestClassDependencyLog();
+        for (Entry entry : entries) {
+            retained.add(testClasses.contains(entry.testClassName) ? entry.testClassName : null, entry.loadedClasses);
+        }
+        return retained;
+    }
+
+    public void write(File file) {
+        try {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            try {
+                output.writeInt(LOG_VERSION);
+                output.writeInt(entries.size());
+                for (Entry entry : entries) {
+                    output.writeBoolean(entry.testClassName != null);
+                    if (entry.testClassName != null) {
+                        output.writeUTF(entry.testClassName);
+                    }
+                    output.writeInt(entry.loadedClasses.size());
+                    for (String loadedClass : entry.loadedClasses) {
+                        output.writeUTF(loadedClass);
+                    }
+                }
+            } finally {
+                output.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static TestClassDependencyLog read(File file) {
+        TestClassDependencyLog log = new TestClassDependencyLog();
+        try {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                int version = input.readInt();
+                if (version != LOG_VERSION) {
+                    throw new IllegalArgumentException(String.format("Unexpected dependency log version %d found in %s.", version, file));
+                }
+                int entryCount = input.readInt();
+                for (int i = 0; i < entryCount; i++) {
+                    String testClassName = input.readBoolean() ? input.readUTF() : null;
+                    int loadedClassCount = input.readInt();
+                    List<String> loadedClasses = new ArrayList<String>(loadedClassCount);
+                    for (int j = 0; j < loadedClassCount; j++) {
+                        loadedClasses.add(input.readUTF());
+                    }
+                    log.add(testClassName, loadedClasses);
+                }
+            } finally {
+                input.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return log;
+    }
+
+    public static class Entry {
+        private final String testClassName;
+        private final List<String> loadedClasses;
+
+        private Entry(String testClassName, List<String> loadedClasses) {
+            this.testClassName = testClassName;
+            this.loadedClasses = loadedClasses;
+        }
+
+        /**
+         * Returns the test class that loaded the classes of this entry, or null if the classes were not loaded by a test class.
+         */
+        public String getTestClassName() {
+            return testClassName;
+        }
+
+        public List<String> getLoadedClasses() {
+            return loadedClasses;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.incremental;
+
+import org.gradle.api.UncheckedIOException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Records the classes loaded by a {@link RecordingClassLoader} as a test worker executes test classes. The JVM does not attribute a loaded class to
+ * the code that caused it to be loaded, so each test class is assigned the classes that were first loaded while it executed.
+ *
+ * <p>Not thread-safe.</p>
+ */
+public class TestClassDependencyRecorder {
+    private final RecordingClassLoader classLoader;
+    private final TestClassDependencyLog log = new TestClassDependencyLog();
+
+    public TestClassDependencyRecorder(RecordingClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Records the classes loaded since the previous call. Uses the given test class name, or null if the classes were loaded outside of a
+     * test class.
+     */
+    public void record(String testClassName) {
+        List<String> newClasses = classLoader.takeLoadedClasses();
+        if (testClassName != null || !newClasses.isEmpty()) {
+            log.add(testClassName, newClasses);
+        }
+    }
+
+    /**
+     * Writes the recorded classes to a new log file in the given directory.
+     */
+    public void writeTo(File dir) {
+        try {
+            dir.mkdirs();
+            log.write(File.createTempFile("worker", ".bin", dir));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
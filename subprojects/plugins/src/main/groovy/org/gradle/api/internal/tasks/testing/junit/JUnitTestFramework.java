@@ -73,6 +73,17 @@ public class JUnitTestFramework implements TestFramework {
         };
     }
 
+    public Action<WorkerProcessBuilder> getReusableWorkerConfigurationAction() {
+        final Action<WorkerProcessBuilder> workerConfigurationAction = getWorkerConfigurationAction();
+        return new Action<WorkerProcessBuilder>() {
+            public void execute(WorkerProcessBuilder workerProcessBuilder) {
+                workerConfigurationAction.execute(workerProcessBuilder);
+                // JUnit's API refers to Hamcrest, so a reusable worker must load both with the same ClassLoader
+                workerProcessBuilder.sharedPackages("org.hamcrest");
+            }
+        };
+    }
+
     public JUnitOptions getOptions() {
         return options;
     }
@@ -60,6 +60,13 @@ public class ClassTestResults extends CompositeTestResults {
         return results;
     }
 
+    /**
+     * Discards the individual results of the tests of this class. The aggregated counts and durations, and the failed tests, are kept.
+     */
+    public void discardTestResults() {
+        results.clear();
+    }
+
     public TestResult addTest(String testName, long duration) {
         TestResult test = new TestResult(testName, duration, this);
         results.add(test);
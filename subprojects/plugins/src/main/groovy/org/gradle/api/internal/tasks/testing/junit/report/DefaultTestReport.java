@@ -22,6 +22,9 @@ import org.gradle.api.internal.tasks.testing.junit.result.TestMethodResult;
 import org.gradle.api.internal.tasks.testing.junit.result.TestResultsProvider;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
 import org.gradle.reporting.HtmlReportRenderer;
 import org.gradle.util.Clock;
 
@@ -29,12 +32,29 @@ import java.io.File;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Generates the HTML test report while streaming the test results. Each class page is rendered, on a small pool of worker threads, as soon
+ * as the results of the class have been read. Only the aggregated results required for the overview and package pages are kept in memory
+ * for the whole of the report generation.
+ */
 public class DefaultTestReport implements TestReporter {
+    public static final int DEFAULT_MAX_THREADS = 4;
     private final HtmlReportRenderer htmlRenderer = new HtmlReportRenderer();
     private final static Logger LOG = Logging.getLogger(DefaultTestReport.class);
+    private final ExecutorFactory executorFactory;
+    private final int maxThreads;
+
+    public DefaultTestReport(ExecutorFactory executorFactory) {
+        this(executorFactory, DEFAULT_MAX_THREADS);
+    }
 
-    public DefaultTestReport() {
+    public DefaultTestReport(ExecutorFactory executorFactory, int maxThreads) {
+        this.executorFactory = executorFactory;
+        this.maxThreads = maxThreads;
         htmlRenderer.requireResource(getClass().getResource("/org/gradle/reporting/report.js"));
         htmlRenderer.requireResource(getClass().getResource("/org/gradle/reporting/base-style.css"));
         htmlRenderer.requireResource(getClass().getResource("/org/gradle/reporting/css3-pie-1.0beta3.htc"));
@@ -45,33 +65,71 @@ public class DefaultTestReport implements TestReporter {
         LOG.info("Generating HTML test report...");
 
         Clock clock = new Clock();
-        AllTestResults model = loadModelFromProvider(resultsProvider);
-        generateFiles(model, resultsProvider, reportDir);
+        AllTestResults model = generateClassFiles(resultsProvider, reportDir);
+        generateSummaryFiles(model, reportDir);
         LOG.info("Finished generating test html results (" + clock.getTime() + ")");
     }
 
-    private AllTestResults loadModelFromProvider(TestResultsProvider resultsProvider) {
+    private AllTestResults generateClassFiles(final TestResultsProvider resultsProvider, File reportDir) {
         final AllTestResults model = new AllTestResults();
-        resultsProvider.visitClasses(new Action<TestClassResult>() {
-            public void execute(TestClassResult classResult) {
-                model.addTestClass(classResult.getClassName());
-                List<TestMethodResult> collectedResults = classResult.getResults();
-                for (TestMethodResult collectedResult : collectedResults) {
-                    final TestResult testResult = model.addTest(classResult.getClassName(), collectedResult.getName(), collectedResult.getDuration());
-                    if (collectedResult.getResultType() == org.gradle.api.tasks.testing.TestResult.ResultType.SKIPPED) {
-                        testResult.ignored();
-                    } else {
-                        List<Throwable> failures = collectedResult.getExceptions();
-                        for (Throwable throwable : failures) {
-                            testResult.addFailure(throwable.getMessage(), stackTrace(throwable));
-                        }
-                    }
+        final ClassPageWriter pageWriter = maxThreads > 1 ? new ParallelClassPageWriter(resultsProvider, reportDir) : new ClassPageWriter(resultsProvider, reportDir);
+        try {
+            resultsProvider.visitClasses(new Action<TestClassResult>() {
+                public void execute(TestClassResult classResult) {
+                    ClassTestResults classResults = loadClass(classResult);
+                    pageWriter.write(classResults);
+                    addClassSummary(model, classResults);
                 }
-            }
-        });
+            });
+        } finally {
+            pageWriter.stop();
+        }
+        pageWriter.rethrowFailure();
         return model;
     }
 
+    /**
+     * Loads the full results of the given class, including the stack traces of its failures.
+     */
+    private ClassTestResults loadClass(TestClassResult classResult) {
+        AllTestResults classModel = new AllTestResults();
+        ClassTestResults classResults = classModel.addTestClass(classResult.getClassName());
+        List<TestMethodResult> collectedResults = classResult.getResults();
+        for (TestMethodResult collectedResult : collectedResults) {
+            final TestResult testResult = classModel.addTest(classResult.getClassName(), collectedResult.getName(), collectedResult.getDuration());
+            if (collectedResult.getResultType() == org.gradle.api.tasks.testing.TestResult.ResultType.SKIPPED) {
+                testResult.ignored();
+            } else {
+                List<Throwable> failures = collectedResult.getExceptions();
+                for (Throwable throwable : failures) {
+                    testResult.addFailure(throwable.getMessage(), stackTrace(throwable));
+                }
+            }
+        }
+        return classResults;
+    }
+
+    /**
+     * Adds the given class to the aggregated results, without its passed tests and without the messages and stack traces of its failures.
+     */
+    private void addClassSummary(AllTestResults model, ClassTestResults classResults) {
+        ClassTestResults summary = model.addTestClass(classResults.getName());
+        for (TestResult test : classResults.getTestResults()) {
+            TestResult testSummary = model.addTest(classResults.getName(), test.getName(), test.getDuration());
+            switch (test.getResultType()) {
+                case SKIPPED:
+                    testSummary.ignored();
+                    break;
+                case FAILURE:
+                    testSummary.addFailure(null, null);
+                    break;
+                default:
+                    break;
+            }
+        }
+        summary.discardTestResults();
+    }
+
     private String stackTrace(Throwable throwable) {
         try {
             StringWriter stringWriter = new StringWriter();
@@ -88,14 +146,11 @@ public class DefaultTestReport implements TestReporter {
         }
     }
 
-    private void generateFiles(AllTestResults model, TestResultsProvider resultsProvider, File reportDir) {
+    private void generateSummaryFiles(AllTestResults model, File reportDir) {
         try {
             generatePage(model, new OverviewPageRenderer(), new File(reportDir, "index.html"));
             for (PackageTestResults packageResults : model.getPackages()) {
                 generatePage(packageResults, new PackagePageRenderer(), new File(reportDir, packageResults.getName() + ".html"));
-                for (ClassTestResults classResults : packageResults.getClasses()) {
-                    generatePage(classResults, new ClassPageRenderer(classResults.getName(), resultsProvider), new File(reportDir, classResults.getName() + ".html"));
-                }
             }
         } catch (Exception e) {
             throw new GradleException(String.format("Could not generate test report to '%s'.", reportDir), e);
@@ -105,4 +160,99 @@ public class DefaultTestReport implements TestReporter {
     private <T extends CompositeTestResults> void generatePage(T model, PageRenderer<T> renderer, File outputFile) throws Exception {
         htmlRenderer.renderer(renderer).writeTo(model, outputFile);
     }
+
+    /**
+     * Renders class pages in the calling thread.
+     */
+    private class ClassPageWriter {
+        protected final TestResultsProvider resultsProvider;
+        protected final File reportDir;
+        protected final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        ClassPageWriter(TestResultsProvider resultsProvider, File reportDir) {
+            this.resultsProvider = resultsProvider;
+            this.reportDir = reportDir;
+        }
+
+        public void write(ClassTestResults classResults) {
+            render(classResults);
+            rethrowFailure();
+        }
+
+        protected void render(ClassTestResults classResults) {
+            if (failure.get() != null) {
+                return;
+            }
+            try {
+                generatePage(classResults, new ClassPageRenderer(classResults.getName(), resultsProvider), new File(reportDir, classResults.getName() + ".html"));
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        }
+
+        public void stop() {
+        }
+
+        public void rethrowFailure() {
+            Throwable throwable = failure.get();
+            if (throwable != null) {
+                throw new GradleException(String.format("Could not generate test report to '%s'.", reportDir), throwable);
+            }
+        }
+    }
+
+    /**
+     * Renders class pages on a pool of worker threads. The number of classes waiting to be rendered is bounded, so that reading the results
+     * cannot run arbitrarily far ahead of the rendering.
+     */
+    private class ParallelClassPageWriter extends ClassPageWriter implements Runnable {
+        private final ClassTestResults endOfQueue = new ClassTestResults("", null);
+        private final BlockingQueue<ClassTestResults> queue = new ArrayBlockingQueue<ClassTestResults>(2 * maxThreads);
+        private final StoppableExecutor executor;
+
+        ParallelClassPageWriter(TestResultsProvider resultsProvider, File reportDir) {
+            super(resultsProvider, reportDir);
+            executor = executorFactory.create("Test report writer");
+            for (int i = 0; i < maxThreads; i++) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void write(ClassTestResults classResults) {
+            put(classResults);
+        }
+
+        public void run() {
+            while (true) {
+                ClassTestResults classResults;
+                try {
+                    classResults = queue.take();
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+                if (classResults == endOfQueue) {
+                    return;
+                }
+                // Keep draining the queue after a failure, so that the reader is never blocked
+                render(classResults);
+            }
+        }
+
+        @Override
+        public void stop() {
+            for (int i = 0; i < maxThreads; i++) {
+                put(endOfQueue);
+            }
+            executor.stop();
+        }
+
+        private void put(ClassTestResults classResults) {
+            try {
+                queue.put(classResults);
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+    }
 }
@@ -23,20 +23,21 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.Writer;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AggregateTestResultsProvider implements TestResultsProvider {
     private static final Logger LOGGER = LoggerFactory.getLogger(AggregateTestResultsProvider.class);
     private final Iterable<File> binaryResultDirs;
-    private Map<String, TestResultsProvider> classOutputProviders;
+    // The outputs may be read by other threads while the classes are being visited
+    private final Map<String, TestResultsProvider> classOutputProviders = new ConcurrentHashMap<String, TestResultsProvider>();
 
     public AggregateTestResultsProvider(Iterable<File> binaryResultDirs) {
         this.binaryResultDirs = binaryResultDirs;
     }
 
     public void visitClasses(final Action<? super TestClassResult> visitor) {
-        classOutputProviders = new HashMap<String, TestResultsProvider>();
+        classOutputProviders.clear();
         for (File dir : binaryResultDirs) {
             final BinaryResultBackedTestResultsProvider provider = new BinaryResultBackedTestResultsProvider(dir);
             provider.visitClasses(new Action<TestClassResult>() {
@@ -20,71 +20,214 @@ import org.gradle.api.UncheckedIOException;
 import org.gradle.api.tasks.testing.TestOutputEvent;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.*;
 
 /**
- * Assembles test results. Keeps a copy of the results in memory to provide them later and spools test output to file.
+ * Spools test output to a single append-only file, and keeps an index of the regions of that file that hold the output of each test class
+ * and destination. The index is written to a separate file once all output has been received.
  *
  * by Szczepan Faber, created at: 11/13/12
  */
 public class TestOutputSerializer {
-    private final File resultsDir;
-    private final CachingFileWriter cachingFileWriter;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final File outputsFile;
+    private final File indexFile;
+    private Map<String, List<Region>> index;
+    private OutputStream output;
+    private long outputLength;
 
     public TestOutputSerializer(File resultsDir) {
-        //TODO SF calculate number of open files based on parallel forks
-        this(resultsDir, new CachingFileWriter(10));
+        this.outputsFile = new File(resultsDir, "output.bin");
+        this.indexFile = new File(resultsDir, "output.bin.idx");
+    }
+
+    private static String key(String className, TestOutputEvent.Destination destination) {
+        return destination.ordinal() + className;
     }
 
-    private TestOutputSerializer(File resultsDir, CachingFileWriter cachingFileWriter) {
-        this.resultsDir = resultsDir;
-        this.cachingFileWriter = cachingFileWriter;
+    public boolean hasOutput(String className, TestOutputEvent.Destination destination) {
+        return getIndex().containsKey(key(className, destination));
     }
 
-    private File outputsFile(String className, TestOutputEvent.Destination destination) {
-        return destination == TestOutputEvent.Destination.StdOut ? standardOutputFile(className) : standardErrorFile(className);
+    /**
+     * Writes the output of the given class to the given writer. May be called concurrently.
+     */
+    public void writeOutputs(String className, TestOutputEvent.Destination destination, Writer writer) {
+        List<Region> regions = getIndex().get(key(className, destination));
+        if (regions == null) {
+            return;
+        }
+        try {
+            FileInputStream inputStream = new FileInputStream(outputsFile);
+            try {
+                FileChannel channel = inputStream.getChannel();
+                ByteBuffer bytes = ByteBuffer.allocate(READ_BUFFER_SIZE);
+                CharBuffer chars = CharBuffer.allocate(READ_BUFFER_SIZE);
+                for (Region region : regions) {
+                    copyRegion(channel, region, bytes, chars, writer);
+                }
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private File standardErrorFile(String className) {
-        return new File(resultsDir, className + ".stderr");
+    private void copyRegion(FileChannel channel, Region region, ByteBuffer bytes, CharBuffer chars, Writer writer) throws IOException {
+        // Each region holds whole messages, so it can be decoded independently of the others
+        CharsetDecoder decoder = UTF8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        long position = region.start;
+        long end = region.start + region.length;
+        bytes.clear();
+        while (position < end) {
+            int limit = (int) Math.min(bytes.remaining(), end - position);
+            ByteBuffer slice = bytes.duplicate();
+            slice.limit(slice.position() + limit);
+            int read = channel.read(slice, position);
+            if (read < 0) {
+                throw new EOFException(String.format("Unexpected end of test output file %s.", outputsFile));
+            }
+            position += read;
+            bytes.position(bytes.position() + read);
+            bytes.flip();
+            decode(decoder, bytes, chars, writer, false);
+            bytes.compact();
+        }
+        bytes.flip();
+        decode(decoder, bytes, chars, writer, true);
+        chars.clear();
+        decoder.flush(chars);
+        writeChars(chars, writer);
     }
 
-    private File standardOutputFile(String className) {
-        return new File(resultsDir, className + ".stdout");
+    private void decode(CharsetDecoder decoder, ByteBuffer bytes, CharBuffer chars, Writer writer, boolean endOfInput) throws IOException {
+        while (true) {
+            chars.clear();
+            CoderResult result = decoder.decode(bytes, chars, endOfInput);
+            writeChars(chars, writer);
+            if (!result.isOverflow()) {
+                return;
+            }
+        }
     }
 
-    public boolean hasOutput(String className, TestOutputEvent.Destination destination){
-        return outputsFile(className, destination).exists();
+    private void writeChars(CharBuffer chars, Writer writer) throws IOException {
+        chars.flip();
+        writer.write(chars.array(), chars.arrayOffset(), chars.remaining());
     }
 
-    public void writeOutputs(String className, TestOutputEvent.Destination destination, Writer writer) {
-        final File file = outputsFile(className, destination);
-        if (!file.exists()) {
-            return;
+    public void finishOutputs() {
+        try {
+            if (output != null) {
+                output.close();
+                output = null;
+            }
+            writeIndex(getIndex());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void onOutput(String className, TestOutputEvent.Destination destination, String message) {
+        try {
+            if (output == null) {
+                output = new BufferedOutputStream(new FileOutputStream(outputsFile));
+                outputLength = 0;
+                index = new HashMap<String, List<Region>>();
+            }
+            byte[] bytes = message.getBytes(UTF8);
+            output.write(bytes);
+            addRegion(key(className, destination), bytes.length);
+            outputLength += bytes.length;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void addRegion(String key, long length) {
+        List<Region> regions = index.get(key);
+        if (regions == null) {
+            regions = new ArrayList<Region>();
+            index.put(key, regions);
+        }
+        if (!regions.isEmpty()) {
+            Region last = regions.get(regions.size() - 1);
+            if (last.start + last.length == outputLength) {
+                last.length += length;
+                return;
+            }
+        }
+        regions.add(new Region(outputLength, length));
+    }
+
+    private synchronized Map<String, List<Region>> getIndex() {
+        if (index == null) {
+            index = readIndex();
+        }
+        return index;
+    }
+
+    private Map<String, List<Region>> readIndex() {
+        Map<String, List<Region>> index = new HashMap<String, List<Region>>();
+        if (!indexFile.isFile()) {
+            return index;
         }
         try {
-            Reader reader = new InputStreamReader(new BufferedInputStream(new FileInputStream(file)), "UTF-8");
+            DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
             try {
-                char[] buffer = new char[2048];
-                while (true) {
-                    int read = reader.read(buffer);
-                    if (read < 0) {
-                        return;
+                int keyCount = input.readInt();
+                for (int i = 0; i < keyCount; i++) {
+                    String key = input.readUTF();
+                    int regionCount = input.readInt();
+                    List<Region> regions = new ArrayList<Region>(regionCount);
+                    for (int j = 0; j < regionCount; j++) {
+                        regions.add(new Region(input.readLong(), input.readLong()));
                     }
-                    writer.write(buffer, 0, read);
+                    index.put(key, regions);
                 }
             } finally {
-                reader.close();
+                input.close();
             }
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
+        return index;
     }
 
-    public void finishOutputs() {
-        cachingFileWriter.closeAll();
+    private void writeIndex(Map<String, List<Region>> index) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+        try {
+            output.writeInt(index.size());
+            for (Map.Entry<String, List<Region>> entry : index.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeInt(entry.getValue().size());
+                for (Region region : entry.getValue()) {
+                    output.writeLong(region.start);
+                    output.writeLong(region.length);
+                }
+            }
+        } finally {
+            output.close();
+        }
     }
 
-    public void onOutput(String className, TestOutputEvent.Destination destination, String message) {
-        cachingFileWriter.write(outputsFile(className, destination), message);
+    private static class Region {
+        final long start;
+        long length;
+
+        Region(long start, long length) {
+            this.start = start;
+            this.length = length;
+        }
     }
-}
\ No newline at end of file
+}
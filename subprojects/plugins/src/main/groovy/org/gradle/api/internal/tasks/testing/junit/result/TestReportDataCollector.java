@@ -20,9 +20,11 @@ import org.gradle.api.Action;
 import org.gradle.api.tasks.testing.*;
 
 import java.io.File;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Assembles test results. Keeps a copy of the results in memory to provide them later and spools test output to file.
@@ -45,6 +47,28 @@ public class TestReportDataCollector implements TestListener, TestOutputListener
         this.resultSerializer = resultSerializer;
     }
 
+    /**
+     * Adds the results and output of the given test classes from a previous test execution. Should be called before any tests are executed.
+     */
+    public void carryForward(final TestResultsProvider previous, final Set<String> classNames) {
+        previous.visitClasses(new Action<TestClassResult>() {
+            public void execute(TestClassResult classResult) {
+                String className = classResult.getClassName();
+                if (!classNames.contains(className)) {
+                    return;
+                }
+                results.put(className, classResult);
+                for (TestOutputEvent.Destination destination : TestOutputEvent.Destination.values()) {
+                    if (previous.hasOutput(className, destination)) {
+                        StringWriter output = new StringWriter();
+                        previous.writeOutputs(className, destination, output);
+                        outputSerializer.onOutput(className, destination, output.toString());
+                    }
+                }
+            }
+        });
+    }
+
     public void beforeSuite(TestDescriptor suite) {
     }
 
@@ -27,26 +27,49 @@ import org.gradle.messaging.actor.ActorFactory;
 import org.gradle.messaging.dispatch.DispatchException;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
 
 /**
- * Manages a set of parallel TestClassProcessors. Uses a simple round-robin algorithm to assign test classes to
- * processors.
+ * Manages a set of parallel TestClassProcessors. Uses the durations of test classes recorded by a previous execution to balance the
+ * test classes across the processors.
+ *
+ * <p>Each class is assigned to the processor with the least estimated work, and adds its duration to that estimate. A class whose
+ * duration is not known is assumed to take the mean of the known durations, and is assigned as soon as it is received, so that the
+ * processors start work while the test classes are still being scanned. When no durations are known, this distributes the classes
+ * round-robin.</p>
+ *
+ * <p>Classes whose durations are known are assigned longest first. A class is held back while some longer known class has not been
+ * received yet, so that a long class which is found late by the scan still starts ahead of the shorter classes. Any classes still held
+ * back when the scan is complete are assigned on stop.</p>
  */
 public class MaxNParallelTestClassProcessor implements TestClassProcessor {
     private final int maxProcessors;
     private final Factory<TestClassProcessor> factory;
     private final ActorFactory actorFactory;
+    private final TestClassDurations durations;
     private TestResultProcessor resultProcessor;
-    private int pos;
     private List<TestClassProcessor> processors = new ArrayList<TestClassProcessor>();
+    private List<Long> estimatedWork = new ArrayList<Long>();
     private List<Actor> actors = new ArrayList<Actor>();
     private Actor resultProcessorActor;
+    private final List<String> expectedLongestFirst;
+    private final Set<String> received = new HashSet<String>();
+    private final PriorityQueue<HeldBackClass> heldBack = new PriorityQueue<HeldBackClass>();
+    private int nextExpected;
 
     public MaxNParallelTestClassProcessor(int maxProcessors, Factory<TestClassProcessor> factory, ActorFactory actorFactory) {
+        this(maxProcessors, factory, actorFactory, new TestClassDurations());
+    }
+
+    public MaxNParallelTestClassProcessor(int maxProcessors, Factory<TestClassProcessor> factory, ActorFactory actorFactory, TestClassDurations durations) {
         this.maxProcessors = maxProcessors;
         this.factory = factory;
         this.actorFactory = actorFactory;
+        this.durations = durations;
+        this.expectedLongestFirst = durations.getClassNamesLongestFirst();
     }
 
     public void startProcessing(TestResultProcessor resultProcessor) {
@@ -55,26 +78,75 @@ public class MaxNParallelTestClassProcessor implements TestClassProcessor {
     }
 
     public void processTestClass(TestClassRunInfo testClass) {
-        TestClassProcessor processor;
+        Long duration = durations.getDuration(testClass.getTestClassName());
+        if (duration == null) {
+            // Count each class as at least one unit of work, so that classes with no duration are spread across the processors
+            assign(testClass, Math.max(1, durations.getMeanDuration()));
+            return;
+        }
+        received.add(testClass.getTestClassName());
+        heldBack.add(new HeldBackClass(testClass, duration));
+        assignHeldBack(false);
+    }
+
+    /**
+     * Assigns the held back classes, longest first, that are at least as long as the longest known class not received yet, or all of them.
+     */
+    private void assignHeldBack(boolean all) {
+        while (nextExpected < expectedLongestFirst.size() && received.contains(expectedLongestFirst.get(nextExpected))) {
+            nextExpected++;
+        }
+        long longestExpected = nextExpected < expectedLongestFirst.size() ? durations.getDuration(expectedLongestFirst.get(nextExpected)) : 0;
+        while (!heldBack.isEmpty() && (all || heldBack.peek().duration >= longestExpected)) {
+            HeldBackClass next = heldBack.poll();
+            assign(next.testClass, Math.max(1, next.duration));
+        }
+    }
+
+    private void assign(TestClassRunInfo testClass, long work) {
+        int index;
         if (processors.size() < maxProcessors) {
-            processor = factory.create();
+            TestClassProcessor processor = factory.create();
             Actor actor = actorFactory.createActor(processor);
             processor = actor.getProxy(TestClassProcessor.class);
             actors.add(actor);
             processors.add(processor);
+            estimatedWork.add(0L);
             processor.startProcessing(resultProcessor);
+            index = processors.size() - 1;
         } else {
-            processor = processors.get(pos);
-            pos = (pos + 1) % processors.size();
+            index = 0;
+            for (int i = 1; i < estimatedWork.size(); i++) {
+                if (estimatedWork.get(i) < estimatedWork.get(index)) {
+                    index = i;
+                }
+            }
         }
-        processor.processTestClass(testClass);
+        estimatedWork.set(index, estimatedWork.get(index) + work);
+        processors.get(index).processTestClass(testClass);
     }
 
     public void stop() {
+        assignHeldBack(true);
         try {
             CompositeStoppable.stoppable(processors).add(actors).add(resultProcessorActor).stop();
         } catch (DispatchException e) {
             throw UncheckedException.throwAsUncheckedException(e.getCause());
         }
     }
+
+    private static class HeldBackClass implements Comparable<HeldBackClass> {
+        private final TestClassRunInfo testClass;
+        private final long duration;
+
+        private HeldBackClass(TestClassRunInfo testClass, long duration) {
+            this.testClass = testClass;
+            this.duration = duration;
+        }
+
+        public int compareTo(HeldBackClass other) {
+            // Longest first
+            return duration > other.duration ? -1 : duration < other.duration ? 1 : 0;
+        }
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.processors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The durations of test classes, as recorded by a previous execution of the tests.
+ */
+public class TestClassDurations {
+    private final Map<String, Long> durations;
+    private final long meanDuration;
+
+    public TestClassDurations() {
+        this(Collections.<String, Long>emptyMap());
+    }
+
+    public TestClassDurations(Map<String, Long> durations) {
+        this.durations = new HashMap<String, Long>(durations);
+        long total = 0;
+        for (Long duration : durations.values()) {
+            total += duration;
+        }
+        meanDuration = durations.isEmpty() ? 0 : total / durations.size();
+    }
+
+    /**
+     * Returns the recorded duration of the given class, in milliseconds, or null if the duration of the class is not known.
+     */
+    public Long getDuration(String className) {
+        return durations.get(className);
+    }
+
+    /**
+     * Returns the mean of the recorded durations, in milliseconds, or 0 if no durations were recorded.
+     */
+    public long getMeanDuration() {
+        return meanDuration;
+    }
+
+    /**
+     * Returns the names of the classes whose durations are known, longest first.
+     */
+    public List<String> getClassNamesLongestFirst() {
+        List<String> names = new ArrayList<String>(durations.keySet());
+        Collections.sort(names, new Comparator<String>() {
+            public int compare(String name1, String name2) {
+                return durations.get(name2).compareTo(durations.get(name1));
+            }
+        });
+        return names;
+    }
+}
@@ -62,6 +62,10 @@ public class TestNGTestFramework implements TestFramework {
         };
     }
 
+    public Action<WorkerProcessBuilder> getReusableWorkerConfigurationAction() {
+        return getWorkerConfigurationAction();
+    }
+
     public TestNGOptions getOptions() {
         return options;
     }
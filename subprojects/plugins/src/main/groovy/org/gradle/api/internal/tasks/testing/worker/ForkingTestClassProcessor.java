@@ -18,6 +18,7 @@ package org.gradle.api.internal.tasks.testing.worker;
 
 import org.gradle.api.Action;
 import org.gradle.internal.Factory;
+import org.gradle.internal.classpath.DefaultClassPath;
 import org.gradle.api.internal.tasks.testing.TestClassProcessor;
 import org.gradle.api.internal.tasks.testing.TestClassRunInfo;
 import org.gradle.api.internal.tasks.testing.TestResultProcessor;
@@ -27,6 +28,8 @@ import org.gradle.process.internal.WorkerProcess;
 import org.gradle.process.internal.WorkerProcessBuilder;
 
 import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
 
 public class ForkingTestClassProcessor implements TestClassProcessor {
     private final Factory<WorkerProcessBuilder> workerFactory;
@@ -34,16 +37,28 @@ public class ForkingTestClassProcessor implements TestClassProcessor {
     private final JavaForkOptions options;
     private final Iterable<File> classPath;
     private final Action<WorkerProcessBuilder> buildConfigAction;
+    private final File dependencyLogDir;
     private RemoteTestClassProcessor remoteProcessor;
     private WorkerProcess workerProcess;
     private TestResultProcessor resultProcessor;
 
     public ForkingTestClassProcessor(Factory<WorkerProcessBuilder> workerFactory, WorkerTestClassProcessorFactory processorFactory, JavaForkOptions options, Iterable<File> classPath, Action<WorkerProcessBuilder> buildConfigAction) {
+        this(workerFactory, processorFactory, options, classPath, buildConfigAction, null);
+    }
+
+    /**
+     * @param dependencyLogDir The directory to write the classes loaded by each test class to, or null if these should not be recorded. When
+     * recorded, the test classes are loaded in a separate ClassLoader to the test framework, so the given action must share the packages of the
+     * test framework.
+     */
+    public ForkingTestClassProcessor(Factory<WorkerProcessBuilder> workerFactory, WorkerTestClassProcessorFactory processorFactory, JavaForkOptions options, Iterable<File> classPath, Action<WorkerProcessBuilder> buildConfigAction,
+                                     File dependencyLogDir) {
         this.workerFactory = workerFactory;
         this.processorFactory = processorFactory;
         this.options = options;
         this.classPath = classPath;
         this.buildConfigAction = buildConfigAction;
+        this.dependencyLogDir = dependencyLogDir;
     }
 
     public void startProcessing(TestResultProcessor resultProcessor) {
@@ -55,9 +70,14 @@ public class ForkingTestClassProcessor implements TestClassProcessor {
             WorkerProcessBuilder builder = workerFactory.create();
             builder.applicationClasspath(classPath);
             builder.setLoadApplicationInSystemClassLoader(true);
-            builder.worker(new TestWorker(processorFactory));
             options.copyTo(builder.getJavaCommand());
             buildConfigAction.execute(builder);
+            if (dependencyLogDir == null) {
+                builder.worker(new TestWorker(processorFactory));
+            } else {
+                builder.worker(new TestWorker(processorFactory, dependencyLogDir, builder.getSharedPackages(),
+                        new ArrayList<URL>(new DefaultClassPath(classPath).getAsURLs())));
+            }
             
             workerProcess = builder.build();
             workerProcess.start();
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Finds the jars of a test classpath that contain the test framework. The packages contained by each jar are cached, keyed by the path of the jar,
+ * and are only read again when the jar's timestamp or size changes.
+ */
+@ThreadSafe
+public class FrameworkClasspathScanner {
+    private final ConcurrentMap<File, JarPackages> jars = new ConcurrentHashMap<File, JarPackages>();
+
+    /**
+     * Returns the jars of the given classpath that contain classes of the given shared packages, or of their sub-packages.
+     */
+    public List<File> getFrameworkClasspath(Iterable<File> classPath, Collection<String> sharedPackages) {
+        List<String> prefixes = new ArrayList<String>();
+        for (String sharedPackage : sharedPackages) {
+            prefixes.add(sharedPackage.replace('.', '/') + "/");
+        }
+        List<File> frameworkClasspath = new ArrayList<File>();
+        for (File file : classPath) {
+            if (file.isFile() && getPackages(file).containsAnyWithPrefix(prefixes)) {
+                frameworkClasspath.add(file);
+            }
+        }
+        return frameworkClasspath;
+    }
+
+    private JarPackages getPackages(File jarFile) {
+        File key = jarFile.getAbsoluteFile();
+        long lastModified = key.lastModified();
+        long length = key.length();
+        JarPackages packages = jars.get(key);
+        if (packages == null || packages.lastModified != lastModified || packages.length != length) {
+            packages = new JarPackages(lastModified, length, readPackages(key));
+            jars.put(key, packages);
+        }
+        return packages;
+    }
+
+    private static Set<String> readPackages(File jarFile) {
+        Set<String> packages = new HashSet<String>();
+        try {
+            ZipFile zipFile = new ZipFile(jarFile);
+            try {
+                Enumeration<? extends ZipEntry> entries = zipFile.entries();
+                while (entries.hasMoreElements()) {
+                    String name = entries.nextElement().getName();
+                    packages.add(name.substring(0, name.lastIndexOf('/') + 1));
+                }
+            } finally {
+                zipFile.close();
+            }
+        } catch (IOException e) {
+            // Not a jar, so cannot contain the test framework
+        }
+        return packages;
+    }
+
+    private static class JarPackages {
+        final long lastModified;
+        final long length;
+        // The directory of each entry of the jar, with a trailing slash
+        final Set<String> packages;
+
+        JarPackages(long lastModified, long length, Set<String> packages) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.packages = packages;
+        }
+
+        boolean containsAnyWithPrefix(List<String> prefixes) {
+            for (String packageName : packages) {
+                for (String prefix : prefixes) {
+                    if (packageName.startsWith(prefix)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
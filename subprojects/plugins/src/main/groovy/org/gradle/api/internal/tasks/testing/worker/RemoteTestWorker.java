@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.internal.tasks.testing.TestClassRunInfo;
+import org.gradle.api.internal.tasks.testing.WorkerTestClassProcessorFactory;
+
+import java.net.URL;
+import java.util.List;
+
+/**
+ * The protocol of a test worker process that can execute the tests of several test tasks, one session after the other.
+ *
+ * @see ReusableTestWorker
+ */
+public interface RemoteTestWorker {
+    /**
+     * Starts a session, which executes test classes using a processor created by the given factory. The test classes and their dependencies are
+     * loaded from the given classpath. Does not block.
+     */
+    void startSession(WorkerTestClassProcessorFactory factory, List<URL> applicationClassPath);
+
+    /**
+     * Does not block.
+     */
+    void processTestClass(TestClassRunInfo testClass);
+
+    /**
+     * Finishes the current session. The worker notifies {@link RemoteTestResultProcessor#sessionCompleted()} once all results of the
+     * session have been sent. Does not block.
+     */
+    void endSession();
+
+    /**
+     * Stops the worker process. Does not block.
+     */
+    void stop();
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.Action;
+import org.gradle.api.internal.tasks.testing.TestClassProcessor;
+import org.gradle.api.internal.tasks.testing.TestClassRunInfo;
+import org.gradle.api.internal.tasks.testing.WorkerTestClassProcessorFactory;
+import org.gradle.internal.CompositeStoppable;
+import org.gradle.internal.TrueTimeProvider;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.id.IdGenerator;
+import org.gradle.internal.service.DefaultServiceRegistry;
+import org.gradle.listener.ContextClassLoaderProxy;
+import org.gradle.messaging.remote.ObjectConnection;
+import org.gradle.process.internal.WorkerProcessContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A test worker that stays alive between test tasks. The tests of each session are loaded in a fresh ClassLoader, from the classpath given for
+ * the session, so that the test classes and their dependencies are reloaded for each session. Only the classes of the shared packages, which hold
+ * the test framework, are loaded once by the application ClassLoader of the worker process and are reused by all sessions.
+ */
+public class ReusableTestWorker implements Action<WorkerProcessContext>, RemoteTestWorker, Serializable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReusableTestWorker.class);
+    private final List<String> sharedPackages;
+    private CountDownLatch completed;
+    private WorkerProcessContext workerProcessContext;
+    private DefaultServiceRegistry testServices;
+    private RemoteTestResultProcessor resultProcessor;
+    private TestClassProcessor processor;
+    private ClassLoader sessionClassLoader;
+    private Properties systemProperties;
+
+    public ReusableTestWorker(Collection<String> sharedPackages) {
+        this.sharedPackages = new ArrayList<String>(sharedPackages);
+    }
+
+    public void execute(WorkerProcessContext workerProcessContext) {
+        LOGGER.info("{} waiting for tests.", workerProcessContext.getDisplayName());
+
+        this.workerProcessContext = workerProcessContext;
+        completed = new CountDownLatch(1);
+
+        System.setProperty(TestWorker.WORKER_ID_SYS_PROPERTY, workerProcessContext.getWorkerId().toString());
+
+        testServices = new TestWorker.TestFrameworkServiceRegistry(workerProcessContext);
+        ObjectConnection serverConnection = workerProcessContext.getServerConnection();
+        TestEventSerializers.registerWith(workerProcessContext.getParameterSerializerRegistry());
+        serverConnection.mergeOutgoing(RemoteTestResultProcessor.class, new TestOutputEventMerger());
+        resultProcessor = serverConnection.addOutgoing(RemoteTestResultProcessor.class);
+        serverConnection.addIncoming(RemoteTestWorker.class, this);
+
+        try {
+            try {
+                completed.await();
+            } catch (InterruptedException e) {
+                throw new UncheckedException(e);
+            }
+        } finally {
+            LOGGER.info("{} stopping.", workerProcessContext.getDisplayName());
+            testServices.close();
+        }
+    }
+
+    public void startSession(WorkerTestClassProcessorFactory factory, List<URL> applicationClassPath) {
+        Thread.currentThread().setName("Test worker");
+        LOGGER.info("{} executing tests.", workerProcessContext.getDisplayName());
+
+        systemProperties = (Properties) System.getProperties().clone();
+
+        TestClassProcessor targetProcessor = factory.create(testServices);
+        IdGenerator<Object> idGenerator = testServices.get(IdGenerator.class);
+        targetProcessor = new WorkerTestClassProcessor(targetProcessor, idGenerator.generateId(),
+                workerProcessContext.getDisplayName(), new TrueTimeProvider());
+        sessionClassLoader = createSessionClassLoader(applicationClassPath);
+        ContextClassLoaderProxy<TestClassProcessor> proxy = new ContextClassLoaderProxy<TestClassProcessor>(
+                TestClassProcessor.class, targetProcessor, sessionClassLoader);
+        processor = proxy.getSource();
+        processor.startProcessing(resultProcessor);
+    }
+
+    private ClassLoader createSessionClassLoader(List<URL> applicationClassPath) {
+        ClassLoader sharedClasses = TestWorker.createSharedClassesClassLoader(workerProcessContext, sharedPackages);
+        return new URLClassLoader(applicationClassPath.toArray(new URL[applicationClassPath.size()]), sharedClasses);
+    }
+
+    public void processTestClass(TestClassRunInfo testClass) {
+        Thread.currentThread().setName("Test worker");
+        try {
+            processor.processTestClass(testClass);
+        } finally {
+            // Clean the interrupted status
+            Thread.interrupted();
+        }
+    }
+
+    public void endSession() {
+        Thread.currentThread().setName("Test worker");
+        try {
+            processor.stop();
+        } finally {
+            // Clean out anything the tests might have changed, before the next session starts
+            processor = null;
+            // Release the jars of the session's classpath, where the JVM supports it
+            CompositeStoppable.stoppable(sessionClassLoader).stop();
+            sessionClassLoader = null;
+            System.setSecurityManager(null);
+            System.setProperties(systemProperties);
+            LOGGER.info("{} finished executing tests.", workerProcessContext.getDisplayName());
+            resultProcessor.sessionCompleted();
+        }
+    }
+
+    public void stop() {
+        completed.countDown();
+    }
+}
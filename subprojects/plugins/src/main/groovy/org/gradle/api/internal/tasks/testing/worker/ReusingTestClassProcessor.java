@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.Action;
+import org.gradle.api.internal.tasks.testing.TestClassProcessor;
+import org.gradle.api.internal.tasks.testing.TestClassRunInfo;
+import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+import org.gradle.api.internal.tasks.testing.WorkerTestClassProcessorFactory;
+import org.gradle.api.invocation.Gradle;
+import org.gradle.internal.Factory;
+import org.gradle.internal.classpath.DefaultClassPath;
+import org.gradle.process.JavaForkOptions;
+import org.gradle.process.internal.WorkerProcessBuilder;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+
+/**
+ * Executes test classes in a test worker obtained from the {@link TestWorkerManager}, rather than in a new worker process.
+ */
+public class ReusingTestClassProcessor implements TestClassProcessor {
+    private final TestWorkerManager workerManager;
+    private final Gradle build;
+    private final Factory<WorkerProcessBuilder> workerFactory;
+    private final WorkerTestClassProcessorFactory processorFactory;
+    private final JavaForkOptions options;
+    private final Iterable<File> classPath;
+    private final Action<WorkerProcessBuilder> buildConfigAction;
+    private final long forkEvery;
+    private TestWorkerClient worker;
+    private TestResultProcessor resultProcessor;
+
+    public ReusingTestClassProcessor(TestWorkerManager workerManager, Gradle build, Factory<WorkerProcessBuilder> workerFactory,
+                                     WorkerTestClassProcessorFactory processorFactory, JavaForkOptions options, Iterable<File> classPath,
+                                     Action<WorkerProcessBuilder> buildConfigAction, long forkEvery) {
+        this.workerManager = workerManager;
+        this.build = build;
+        this.workerFactory = workerFactory;
+        this.processorFactory = processorFactory;
+        this.options = options;
+        this.classPath = classPath;
+        this.buildConfigAction = buildConfigAction;
+        this.forkEvery = forkEvery;
+    }
+
+    public void startProcessing(TestResultProcessor resultProcessor) {
+        this.resultProcessor = resultProcessor;
+    }
+
+    public void processTestClass(TestClassRunInfo testClass) {
+        if (worker == null) {
+            WorkerProcessBuilder builder = workerFactory.create();
+            options.copyTo(builder.getJavaCommand());
+            buildConfigAction.execute(builder);
+            // The worker process only loads the test framework, so that it can be reused by test tasks with a different classpath
+            builder.applicationClasspath(workerManager.getFrameworkClasspath(classPath, builder.getSharedPackages()));
+            builder.setLoadApplicationInSystemClassLoader(true);
+            builder.worker(new ReusableTestWorker(builder.getSharedPackages()));
+
+            worker = workerManager.acquire(build, builder);
+            worker.startSession(processorFactory, new ArrayList<URL>(new DefaultClassPath(classPath).getAsURLs()), resultProcessor);
+        }
+
+        worker.processTestClass(testClass);
+    }
+
+    public void stop() {
+        if (worker != null) {
+            boolean completed = false;
+            try {
+                worker.endSession();
+                completed = true;
+            } finally {
+                // A worker that has executed forkEvery test classes is replaced, as it would be without reuse
+                workerManager.release(worker, !completed || (forkEvery > 0 && worker.getClassCount() >= forkEvery));
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.internal.tasks.testing.*;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.gradle.api.tasks.testing.TestResult;
+import org.gradle.internal.id.CompositeIdGenerator;
+import org.gradle.messaging.remote.internal.Message;
+import org.gradle.messaging.remote.internal.ParameterSerializerRegistry;
+import org.gradle.messaging.serialize.DataStreamBackedSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Serializers for the messages exchanged with test workers. Test workers send many small events, which are much cheaper to send using these
+ * serializers than using Java serialization.
+ */
+public class TestEventSerializers {
+    private static final byte NULL = 0;
+    private static final byte COMPOSITE_ID = 1;
+    private static final byte LONG_ID = 2;
+    private static final byte STRING_ID = 3;
+    private static final byte OTHER_ID = 4;
+
+    public static void registerWith(ParameterSerializerRegistry registry) {
+        registry.useParameterSerializer(CompositeIdGenerator.CompositeId.class, new IdSerializer());
+        registry.useParameterSerializer(DefaultTestClassRunInfo.class, new TestClassRunInfoSerializer());
+        registry.useParameterSerializer(DefaultTestSuiteDescriptor.class, new TestSuiteDescriptorSerializer());
+        registry.useParameterSerializer(DefaultTestClassDescriptor.class, new TestClassDescriptorSerializer());
+        registry.useParameterSerializer(DefaultTestDescriptor.class, new TestDescriptorSerializer());
+        registry.useParameterSerializer(DefaultTestMethodDescriptor.class, new TestMethodDescriptorSerializer());
+        registry.useParameterSerializer(TestStartEvent.class, new TestStartEventSerializer());
+        registry.useParameterSerializer(TestCompleteEvent.class, new TestCompleteEventSerializer());
+        registry.useParameterSerializer(DefaultTestOutputEvent.class, new TestOutputEventSerializer());
+    }
+
+    private static void writeId(DataOutput dataOutput, Object id) throws IOException {
+        if (id == null) {
+            dataOutput.writeByte(NULL);
+        } else if (id instanceof CompositeIdGenerator.CompositeId) {
+            CompositeIdGenerator.CompositeId compositeId = (CompositeIdGenerator.CompositeId) id;
+            dataOutput.writeByte(COMPOSITE_ID);
+            writeId(dataOutput, compositeId.getScope());
+            writeId(dataOutput, compositeId.getId());
+        } else if (id instanceof Long) {
+            dataOutput.writeByte(LONG_ID);
+            dataOutput.writeLong((Long) id);
+        } else if (id instanceof String) {
+            dataOutput.writeByte(STRING_ID);
+            writeString(dataOutput, (String) id);
+        } else {
+            // Not expected, but test frameworks may use their own ids
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            Message.send(id, outputStream);
+            dataOutput.writeByte(OTHER_ID);
+            dataOutput.writeInt(outputStream.size());
+            dataOutput.write(outputStream.toByteArray());
+        }
+    }
+
+    private static Object readId(DataInput dataInput) throws Exception {
+        byte type = dataInput.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case COMPOSITE_ID:
+                Object scope = readId(dataInput);
+                return new CompositeIdGenerator.CompositeId(scope, readId(dataInput));
+            case LONG_ID:
+                return dataInput.readLong();
+            case STRING_ID:
+                return readString(dataInput);
+            case OTHER_ID:
+                byte[] serialized = new byte[dataInput.readInt()];
+                dataInput.readFully(serialized);
+                return Message.receive(new ByteArrayInputStream(serialized), TestEventSerializers.class.getClassLoader());
+            default:
+                throw new IllegalArgumentException(String.format("Unexpected test id type %s.", type));
+        }
+    }
+
+    // Unlike writeUTF(), has no limit on the length of the string
+    private static void writeString(DataOutput dataOutput, String value) throws IOException {
+        if (value == null) {
+            dataOutput.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes("UTF-8");
+        dataOutput.writeInt(bytes.length);
+        dataOutput.write(bytes);
+    }
+
+    private static String readString(DataInput dataInput) throws IOException {
+        int length = dataInput.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        dataInput.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    private static <T extends Enum<T>> void writeEnum(DataOutput dataOutput, T value) throws IOException {
+        dataOutput.writeByte(value == null ? -1 : value.ordinal());
+    }
+
+    private static <T extends Enum<T>> T readEnum(DataInput dataInput, Class<T> type) throws IOException {
+        byte ordinal = dataInput.readByte();
+        return ordinal < 0 ? null : type.getEnumConstants()[ordinal];
+    }
+
+    public static class IdSerializer extends DataStreamBackedSerializer<CompositeIdGenerator.CompositeId> {
+        @Override
+        public CompositeIdGenerator.CompositeId read(DataInput dataInput) throws Exception {
+            return (CompositeIdGenerator.CompositeId) readId(dataInput);
+        }
+
+        @Override
+        public void write(DataOutput dataOutput, CompositeIdGenerator.CompositeId value) throws IOException {
+            writeId(dataOutput, value);
+        }
+    }
+
+    public static class TestClassRunInfoSerializer extends DataStreamBackedSerializer<DefaultTestClassRunInfo> {
+        @Override
+        public DefaultTestClassRunInfo read(DataInput dataInput) throws Exception {
+            return new DefaultTestClassRunInfo(readString(dataInput));
+        }
+
+        @Override
+        public void write(DataOutput dataOutput, DefaultTestClassRunInfo value) throws IOException {
+            writeString(dataOutput, value.getTestClassName());
+        }
+    }
+
+    public static class TestSuiteDescriptorSerializer extends DataStreamBackedSerializer<DefaultTestSuiteDescriptor> {
+        @Override
+        public DefaultTestSuiteDescriptor read(DataInput dataInput) throws Exception {
+            Object id = readId(dataInput);
+            return new DefaultTestSuiteDescriptor(id, readString(dataInput));
+        }
+
+        @Override
+        public void write(DataOutput dataOutput, DefaultTestSuiteDescriptor value) throws IOException {
+            writeId(dataOutput, value.getId());
+            writeString(dataOutput, value.getName());
+        }
+    }
+
+    public static class TestClassDescriptorSerializer extends DataStreamBackedSerializer<DefaultTestClassDescriptor> {
+        @Override
+        public DefaultTestClassDescriptor read(DataInput dataInput) throws Exception {
+            Object id = readId(dataInput);
+            return new DefaultTestClassDescriptor(id, readString(dataInput));
+        }
+
+        @Override
+        public void write(DataOutput dataOutput, DefaultTestClassDescriptor value) throws IOException {
+            writeId(dataOutput, value.getId());
+            writeString(dataOutput, value.getClassName());
+        }
+    }
+
+    public static class TestDescriptorSerializer extends DataStreamBackedSerializer<DefaultTestDescriptor> {
+        @Override
+        public DefaultTestDescriptor read(DataInput dataInput) throws Exception {
+            Object id = readId(dataInput);
+            String className = readString(dataInput);
+            return new DefaultTestDescriptor(id, className, readString(dataInput));
+        }
+
+        @Override
+        public void write(DataOutput dataOutput, DefaultTestDescriptor value) throws IOException {
+            writeId(dataOutput, value.getId());
+            writeString(dataOutput, value.getClassName());
+            writeString(dataOutput, value.getName());
+        }
+    }
+
+    public static class TestMethodDescriptorSerializer extends DataStreamBackedSerializer<DefaultTestMethodDescriptor> {
+        @Override
+        public DefaultTestMethodDescriptor read(DataInput dataInput) throws Exception {
+            Object id = readId(dataInput);
+            String className = readString(dataInput);
+            return new DefaultTestMethodDescriptor(id, className, readString(dataInput));
+        }
+
+        @Override
+        public void write(DataOutput dataOutput, DefaultTestMethodDescriptor value) throws IOException {
+            writeId(dataOutput, value.getId());
+            writeString(dataOutput, value.getClassName());
+            writeString(dataOutput, value.getName());
+        }
+    }
+
+    public static class TestStartEventSerializer extends DataStreamBackedSerializer<TestStartEvent> {
+        @Override
+        public TestStartEvent read(DataInput dataInput) throws Exception {
+            long startTime = dataInput.readLong();
+            return new TestStartEvent(startTime, readId(dataInput));
+        }
+
+        @Override
+        public void write(DataOutput dataOutput, TestStartEvent value) throws IOException {
+            dataOutput.writeLong(value.getStartTime());
+            writeId(dataOutput, value.getParentId());
+        }
+    }
+
+    public static class TestCompleteEventSerializer extends DataStreamBackedSerializer<TestCompleteEvent> {
+        @Override
+        public TestCompleteEvent read(DataInput dataInput) throws Exception {
+            long endTime = dataInput.readLong();
+            return new TestCompleteEvent(endTime, readEnum(dataInput, TestResult.ResultType.class));
+        }
+
+        @Override
+        public void write(DataOutput dataOutput, TestCompleteEvent value) throws IOException {
+            dataOutput.writeLong(value.getEndTime());
+            writeEnum(dataOutput, value.getResultType());
+        }
+    }
+
+    public static class TestOutputEventSerializer extends DataStreamBackedSerializer<DefaultTestOutputEvent> {
+        @Override
+        public DefaultTestOutputEvent read(DataInput dataInput) throws Exception {
+            TestOutputEvent.Destination destination = readEnum(dataInput, TestOutputEvent.Destination.class);
+            return new DefaultTestOutputEvent(destination, readString(dataInput));
+        }
+
+        @Override
+        public void write(DataOutput dataOutput, DefaultTestOutputEvent value) throws IOException {
+            writeEnum(dataOutput, value.getDestination());
+            writeString(dataOutput, value.getMessage());
+        }
+    }
+}
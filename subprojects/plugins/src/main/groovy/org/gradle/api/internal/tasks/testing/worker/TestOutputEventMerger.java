@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.internal.tasks.testing.DefaultTestOutputEvent;
+import org.gradle.api.internal.tasks.testing.TestResultProcessor;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.gradle.internal.UncheckedException;
+import org.gradle.messaging.dispatch.MessageMerger;
+import org.gradle.messaging.dispatch.MethodInvocation;
+
+import java.lang.reflect.Method;
+
+/**
+ * Merges consecutive {@link TestResultProcessor#output(Object, TestOutputEvent)} calls for the same test and destination, so that tests which
+ * write many small pieces of output send fewer messages.
+ */
+public class TestOutputEventMerger implements MessageMerger<MethodInvocation> {
+    static final int MAX_MERGED_LENGTH = 8192;
+    private static final Method OUTPUT_METHOD;
+
+    static {
+        try {
+            OUTPUT_METHOD = TestResultProcessor.class.getMethod("output", Object.class, TestOutputEvent.class);
+        } catch (NoSuchMethodException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    public MethodInvocation merge(MethodInvocation first, MethodInvocation second) {
+        if (!first.getMethod().equals(OUTPUT_METHOD) || !second.getMethod().equals(OUTPUT_METHOD)) {
+            return null;
+        }
+        Object testId = first.getArguments()[0];
+        if (!testId.equals(second.getArguments()[0])) {
+            return null;
+        }
+        TestOutputEvent firstEvent = (TestOutputEvent) first.getArguments()[1];
+        TestOutputEvent secondEvent = (TestOutputEvent) second.getArguments()[1];
+        if (firstEvent.getDestination() != secondEvent.getDestination()) {
+            return null;
+        }
+        if (firstEvent.getMessage().length() + secondEvent.getMessage().length() > MAX_MERGED_LENGTH) {
+            return null;
+        }
+        TestOutputEvent merged = new DefaultTestOutputEvent(firstEvent.getDestination(), firstEvent.getMessage() + secondEvent.getMessage());
+        return new MethodInvocation(OUTPUT_METHOD, new Object[]{testId, merged});
+    }
+}
@@ -21,6 +21,8 @@ import org.gradle.api.internal.tasks.testing.TestClassProcessor;
 import org.gradle.api.internal.tasks.testing.TestClassRunInfo;
 import org.gradle.api.internal.tasks.testing.TestResultProcessor;
 import org.gradle.api.internal.tasks.testing.WorkerTestClassProcessorFactory;
+import org.gradle.api.internal.tasks.testing.incremental.RecordingClassLoader;
+import org.gradle.api.internal.tasks.testing.incremental.TestClassDependencyRecorder;
 import org.gradle.internal.TrueTimeProvider;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.concurrent.DefaultExecutorFactory;
@@ -35,22 +37,50 @@ import org.gradle.messaging.actor.ActorFactory;
 import org.gradle.messaging.actor.internal.DefaultActorFactory;
 import org.gradle.messaging.remote.ObjectConnection;
 import org.gradle.process.internal.WorkerProcessContext;
+import org.gradle.util.DefaultClassLoaderFactory;
+import org.gradle.util.FilteringClassLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.Serializable;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
 public class TestWorker implements Action<WorkerProcessContext>, RemoteTestClassProcessor, Serializable {
     private static final Logger LOGGER = LoggerFactory.getLogger(TestWorker.class);
     public static final String WORKER_ID_SYS_PROPERTY = "org.gradle.test.worker";
     private final WorkerTestClassProcessorFactory factory;
+    private final File dependencyLogDir;
+    private final List<String> sharedPackages;
+    private final List<URL> applicationClassPath;
     private CountDownLatch completed;
     private TestClassProcessor processor;
     private TestResultProcessor resultProcessor;
+    private TestClassDependencyRecorder dependencyRecorder;
 
     public TestWorker(WorkerTestClassProcessorFactory factory) {
         this.factory = factory;
+        this.dependencyLogDir = null;
+        this.sharedPackages = Collections.emptyList();
+        this.applicationClassPath = Collections.emptyList();
+    }
+
+    /**
+     * Creates a worker which records the classes loaded by each test class. The test classes are loaded from the given classpath by a
+     * {@link RecordingClassLoader}, and only the classes of the shared packages are loaded by the application ClassLoader.
+     *
+     * @param dependencyLogDir The directory to write the classes loaded by each test class to.
+     */
+    public TestWorker(WorkerTestClassProcessorFactory factory, File dependencyLogDir, Collection<String> sharedPackages, List<URL> applicationClassPath) {
+        this.factory = factory;
+        this.dependencyLogDir = dependencyLogDir;
+        this.sharedPackages = new ArrayList<String>(sharedPackages);
+        this.applicationClassPath = new ArrayList<URL>(applicationClassPath);
     }
 
     public void execute(final WorkerProcessContext workerProcessContext) {
@@ -83,11 +113,20 @@ public class TestWorker implements Action<WorkerProcessContext>, RemoteTestClass
 
         targetProcessor = new WorkerTestClassProcessor(targetProcessor, idGenerator.generateId(),
                 workerProcessContext.getDisplayName(), new TrueTimeProvider());
+        ClassLoader testClassLoader = workerProcessContext.getApplicationClassLoader();
+        if (dependencyLogDir != null) {
+            RecordingClassLoader recordingClassLoader = new RecordingClassLoader(applicationClassPath,
+                    createSharedClassesClassLoader(workerProcessContext, sharedPackages));
+            dependencyRecorder = new TestClassDependencyRecorder(recordingClassLoader);
+            testClassLoader = recordingClassLoader;
+        }
         ContextClassLoaderProxy<TestClassProcessor> proxy = new ContextClassLoaderProxy<TestClassProcessor>(
-                TestClassProcessor.class, targetProcessor, workerProcessContext.getApplicationClassLoader());
+                TestClassProcessor.class, targetProcessor, testClassLoader);
         processor = proxy.getSource();
 
         ObjectConnection serverConnection = workerProcessContext.getServerConnection();
+        TestEventSerializers.registerWith(workerProcessContext.getParameterSerializerRegistry());
+        serverConnection.mergeOutgoing(TestResultProcessor.class, new TestOutputEventMerger());
         this.resultProcessor = serverConnection.addOutgoing(TestResultProcessor.class);
         serverConnection.addIncoming(RemoteTestClassProcessor.class, this);
     }
@@ -99,11 +138,17 @@ public class TestWorker implements Action<WorkerProcessContext>, RemoteTestClass
 
     public void processTestClass(final TestClassRunInfo testClass) {
         Thread.currentThread().setName("Test worker");
+        if (dependencyRecorder != null) {
+            dependencyRecorder.record(null);
+        }
         try {
             processor.processTestClass(testClass);
         } finally {
             // Clean the interrupted status
             Thread.interrupted();
+            if (dependencyRecorder != null) {
+                dependencyRecorder.record(testClass.getTestClassName());
+            }
         }
     }
 
@@ -111,12 +156,27 @@ public class TestWorker implements Action<WorkerProcessContext>, RemoteTestClass
         Thread.currentThread().setName("Test worker");
         try {
             processor.stop();
+            if (dependencyRecorder != null) {
+                dependencyRecorder.record(null);
+                dependencyRecorder.writeTo(dependencyLogDir);
+            }
         } finally {
             completed.countDown();
         }
     }
 
-    private static class TestFrameworkServiceRegistry extends DefaultServiceRegistry {
+    /**
+     * Creates a ClassLoader which exposes only the classes of the given packages, and their sub-packages, from the application ClassLoader.
+     */
+    static ClassLoader createSharedClassesClassLoader(WorkerProcessContext workerProcessContext, Collection<String> sharedPackages) {
+        FilteringClassLoader sharedClasses = new DefaultClassLoaderFactory().createFilteringClassLoader(workerProcessContext.getApplicationClassLoader());
+        for (String sharedPackage : sharedPackages) {
+            sharedClasses.allowPackage(sharedPackage);
+        }
+        return sharedClasses;
+    }
+
+    static class TestFrameworkServiceRegistry extends DefaultServiceRegistry {
         private final WorkerProcessContext workerProcessContext;
 
         public TestFrameworkServiceRegistry(WorkerProcessContext workerProcessContext) {
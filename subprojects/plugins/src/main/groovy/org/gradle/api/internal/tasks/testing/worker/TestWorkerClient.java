@@ -0,0 +1,207 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import net.jcip.annotations.ThreadSafe;
+import org.gradle.api.internal.tasks.testing.*;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.gradle.internal.Stoppable;
+import org.gradle.internal.UncheckedException;
+import org.gradle.process.internal.WorkerProcess;
+
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The build process side of a {@link ReusableTestWorker}. Forwards the results of the current session to the result processor of the
+ * session.
+ */
+@ThreadSafe
+public class TestWorkerClient implements RemoteTestResultProcessor, Stoppable {
+    private final TestWorkerKey key;
+    private final WorkerProcess process;
+    private final RemoteTestWorker worker;
+    private final Lock lock = new ReentrantLock();
+    private final Condition condition = lock.newCondition();
+    private volatile TestResultProcessor resultProcessor;
+    private boolean sessionRunning;
+    private boolean exited;
+    private Throwable exitFailure;
+    private int sessionCount;
+    private int classCount;
+
+    public TestWorkerClient(TestWorkerKey key, WorkerProcess process, RemoteTestWorker worker) {
+        this.key = key;
+        this.process = process;
+        this.worker = worker;
+    }
+
+    public TestWorkerKey getKey() {
+        return key;
+    }
+
+    public boolean isAlive() {
+        lock.lock();
+        try {
+            return !exited;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getSessionCount() {
+        lock.lock();
+        try {
+            return sessionCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of test classes this worker has executed, over all sessions.
+     */
+    public int getClassCount() {
+        lock.lock();
+        try {
+            return classCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void startSession(WorkerTestClassProcessorFactory factory, List<URL> applicationClassPath, TestResultProcessor resultProcessor) {
+        lock.lock();
+        try {
+            sessionRunning = true;
+            sessionCount++;
+            this.resultProcessor = resultProcessor;
+        } finally {
+            lock.unlock();
+        }
+        worker.startSession(factory, applicationClassPath);
+    }
+
+    public void processTestClass(TestClassRunInfo testClass) {
+        lock.lock();
+        try {
+            classCount++;
+        } finally {
+            lock.unlock();
+        }
+        worker.processTestClass(testClass);
+    }
+
+    /**
+     * Finishes the current session, blocking until all of its results have been received.
+     */
+    public void endSession() {
+        worker.endSession();
+        lock.lock();
+        try {
+            while (sessionRunning && !exited) {
+                try {
+                    condition.await();
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+            }
+            if (sessionRunning) {
+                // The process stopped before the session completed
+                sessionRunning = false;
+                resultProcessor = null;
+                if (exitFailure != null) {
+                    throw UncheckedException.throwAsUncheckedException(exitFailure);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void sessionCompleted() {
+        lock.lock();
+        try {
+            sessionRunning = false;
+            resultProcessor = null;
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void started(TestDescriptorInternal test, TestStartEvent event) {
+        resultProcessor.started(test, event);
+    }
+
+    public void completed(Object testId, TestCompleteEvent event) {
+        resultProcessor.completed(testId, event);
+    }
+
+    public void output(Object testId, TestOutputEvent event) {
+        resultProcessor.output(testId, event);
+    }
+
+    public void failure(Object testId, Throwable result) {
+        resultProcessor.failure(testId, result);
+    }
+
+    /**
+     * Waits for the worker process to exit. Called by a separate thread for the whole life of the worker.
+     */
+    void waitForExit() {
+        Throwable failure = null;
+        try {
+            process.waitForStop();
+        } catch (Throwable t) {
+            failure = t;
+        }
+        lock.lock();
+        try {
+            exited = true;
+            exitFailure = failure;
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void stop() {
+        if (isAlive()) {
+            worker.stop();
+        }
+        lock.lock();
+        try {
+            while (!exited) {
+                try {
+                    condition.await();
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+            }
+            if (exitFailure != null) {
+                throw UncheckedException.throwAsUncheckedException(exitFailure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.api.logging.LogLevel;
+import org.gradle.process.internal.JavaExecHandleBuilder;
+import org.gradle.process.internal.WorkerProcessBuilder;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Identifies the test worker processes that can be used in place of the process described by a {@link WorkerProcessBuilder}. Two processes
+ * are interchangeable when they run with the same JVM, JVM arguments, environment and working directory, and have the same application
+ * classpath and shared packages. The application classpath of a test worker contains the test framework only, as the test classpath is
+ * loaded separately for each session.
+ */
+public class TestWorkerKey {
+    private final String executable;
+    private final List<String> jvmArgs;
+    private final Map<String, String> environment = new HashMap<String, String>();
+    private final File workingDir;
+    private final List<File> applicationClasspath;
+    private final Set<String> sharedPackages;
+    private final LogLevel logLevel;
+
+    public TestWorkerKey(WorkerProcessBuilder builder) {
+        JavaExecHandleBuilder javaCommand = builder.getJavaCommand();
+        executable = javaCommand.getExecutable();
+        jvmArgs = new ArrayList<String>(javaCommand.getAllJvmArgs());
+        for (Map.Entry<String, Object> entry : javaCommand.getEnvironment().entrySet()) {
+            environment.put(entry.getKey(), String.valueOf(entry.getValue()));
+        }
+        workingDir = javaCommand.getWorkingDir();
+        applicationClasspath = new ArrayList<File>(builder.getApplicationClasspath());
+        sharedPackages = new HashSet<String>(builder.getSharedPackages());
+        logLevel = builder.getLogLevel();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        TestWorkerKey other = (TestWorkerKey) obj;
+        return executable.equals(other.executable)
+                && jvmArgs.equals(other.jvmArgs)
+                && environment.equals(other.environment)
+                && workingDir.equals(other.workingDir)
+                && applicationClasspath.equals(other.applicationClasspath)
+                && sharedPackages.equals(other.sharedPackages)
+                && logLevel == other.logLevel;
+    }
+
+    @Override
+    public int hashCode() {
+        return executable.hashCode() ^ jvmArgs.hashCode() ^ applicationClasspath.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{executable=%s, jvmArgs=%s, workingDir=%s, applicationClasspath=%s, sharedPackages=%s}", executable, jvmArgs,
+                workingDir, applicationClasspath, sharedPackages);
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import net.jcip.annotations.ThreadSafe;
+import org.gradle.BuildAdapter;
+import org.gradle.BuildResult;
+import org.gradle.api.invocation.Gradle;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.internal.Stoppable;
+import org.gradle.internal.TrueTimeProvider;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
+import org.gradle.process.internal.WorkerProcess;
+import org.gradle.process.internal.WorkerProcessBuilder;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Controls the lifecycle of the reusable test workers and provides access to them.
+ *
+ * <p>Test workers are only reused when the {@value #REUSE_PROPERTY} system property is set to {@code true}, which is intended for
+ * long-lived build processes such as the Gradle daemon. An idle worker is then kept alive, across test tasks and across builds, until it is
+ * evicted by the {@link TestWorkerPool}. While there are idle workers, an evictor thread stops each of them once its idle timeout expires, even
+ * when no build is running. The manager is a global service, which stops the idle workers when the build process stops.</p>
+ */
+@ThreadSafe
+public class TestWorkerManager implements Stoppable {
+    public static final String REUSE_PROPERTY = "org.gradle.test.worker.reuse";
+    public static final String IDLE_TIMEOUT_PROPERTY = "org.gradle.test.worker.idletimeout";
+    public static final String MAX_IDLE_WORKERS_PROPERTY = "org.gradle.test.worker.maxidle";
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000;
+    public static final int DEFAULT_MAX_IDLE_WORKERS = 4;
+
+    private static final Logger LOGGER = Logging.getLogger(TestWorkerManager.class);
+    private final boolean reuseWorkers;
+    private final TestWorkerPool idleWorkers;
+    private final ExecutorFactory executorFactory;
+    private final FrameworkClasspathScanner frameworkClasspathScanner = new FrameworkClasspathScanner();
+    private StoppableExecutor processWatchers;
+    private StoppableExecutor evictor;
+    private boolean stopping;
+    private Gradle currentBuild;
+
+    public TestWorkerManager() {
+        this(Boolean.getBoolean(REUSE_PROPERTY),
+                new TestWorkerPool(Long.getLong(IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT_MILLIS),
+                        Integer.getInteger(MAX_IDLE_WORKERS_PROPERTY, DEFAULT_MAX_IDLE_WORKERS), new TrueTimeProvider()),
+                new DefaultExecutorFactory());
+    }
+
+    TestWorkerManager(boolean reuseWorkers, TestWorkerPool idleWorkers, ExecutorFactory executorFactory) {
+        this.reuseWorkers = reuseWorkers;
+        this.idleWorkers = idleWorkers;
+        this.executorFactory = executorFactory;
+    }
+
+    public boolean isReuseWorkers() {
+        return reuseWorkers;
+    }
+
+    /**
+     * Returns the jars of the given classpath that contain classes of the given shared packages, or of their sub-packages.
+     */
+    public List<File> getFrameworkClasspath(Iterable<File> classPath, Collection<String> sharedPackages) {
+        return frameworkClasspathScanner.getFrameworkClasspath(classPath, sharedPackages);
+    }
+
+    /**
+     * Returns an idle worker matching the given builder, or starts a new worker using the given builder. The worker must be handed
+     * back using {@link #release(TestWorkerClient, boolean)}.
+     */
+    public TestWorkerClient acquire(Gradle build, WorkerProcessBuilder builder) {
+        TestWorkerKey key = new TestWorkerKey(builder);
+        synchronized (this) {
+            if (currentBuild != build) {
+                currentBuild = build;
+                registerBuildFinishedListener(build);
+            }
+            TestWorkerClient client = idleWorkers.take(key);
+            if (client != null) {
+                LOGGER.info("Reusing test worker with key {}.", key);
+                return client;
+            }
+        }
+        // Start the process without holding the lock, so that parallel forks start concurrently
+        return startWorker(key, builder);
+    }
+
+    /**
+     * Hands back a worker, once its session has finished. The worker is kept for reuse, unless it should be retired or it has stopped.
+     */
+    public void release(TestWorkerClient client, boolean retire) {
+        List<TestWorkerClient> stopped;
+        synchronized (this) {
+            if (!client.isAlive()) {
+                return;
+            }
+            if (retire) {
+                stopped = Collections.singletonList(client);
+            } else {
+                stopped = idleWorkers.add(client);
+                startEvictor();
+                notifyAll();
+            }
+        }
+        stop(stopped);
+    }
+
+    public void stop() {
+        List<TestWorkerClient> stopped;
+        StoppableExecutor evictor;
+        synchronized (this) {
+            stopping = true;
+            notifyAll();
+            stopped = idleWorkers.removeAll();
+            evictor = this.evictor;
+        }
+        if (evictor != null) {
+            evictor.stop();
+        }
+        stop(stopped);
+    }
+
+    void buildFinished() {
+        synchronized (this) {
+            // don't hold on to the build's object graph between builds
+            currentBuild = null;
+            LOGGER.info("Keeping {} test worker(s) alive for reuse.", idleWorkers.size());
+        }
+    }
+
+    private void startEvictor() {
+        if (evictor != null || stopping) {
+            return;
+        }
+        evictor = executorFactory.create("Test worker evictor");
+        evictor.execute(new Runnable() {
+            public void run() {
+                evictIdleWorkers();
+            }
+        });
+    }
+
+    /**
+     * Stops each idle worker once it has been idle for longer than the idle timeout, until this manager is stopped.
+     */
+    private void evictIdleWorkers() {
+        while (true) {
+            List<TestWorkerClient> stopped;
+            synchronized (this) {
+                long millisUntilNextEviction = idleWorkers.getMillisUntilNextEviction();
+                while (!stopping && millisUntilNextEviction != 0) {
+                    try {
+                        // waits until notified when there are no idle workers
+                        wait(Math.max(0, millisUntilNextEviction));
+                    } catch (InterruptedException e) {
+                        throw UncheckedException.throwAsUncheckedException(e);
+                    }
+                    millisUntilNextEviction = idleWorkers.getMillisUntilNextEviction();
+                }
+                if (stopping) {
+                    return;
+                }
+                stopped = idleWorkers.evict();
+            }
+            stop(stopped);
+        }
+    }
+
+    private void stop(List<TestWorkerClient> stopped) {
+        for (TestWorkerClient client : stopped) {
+            LOGGER.info("Stopping test worker with key {}, after {} session(s) and {} test class(es).", client.getKey(), client.getSessionCount(), client.getClassCount());
+            try {
+                client.stop();
+            } catch (Throwable t) {
+                LOGGER.info(String.format("Test worker with key %s failed.", client.getKey()), t);
+            }
+        }
+    }
+
+    private void registerBuildFinishedListener(Gradle build) {
+        build.addBuildListener(new BuildAdapter() {
+            @Override
+            public void buildFinished(BuildResult result) {
+                TestWorkerManager.this.buildFinished();
+            }
+        });
+    }
+
+    private TestWorkerClient startWorker(TestWorkerKey key, WorkerProcessBuilder builder) {
+        LOGGER.info("Starting test worker with key {}.", key);
+        WorkerProcess process = builder.build();
+        process.start();
+        RemoteTestWorker worker = process.getConnection().addOutgoing(RemoteTestWorker.class);
+        final TestWorkerClient client = new TestWorkerClient(key, process, worker);
+        process.getConnection().addIncoming(RemoteTestResultProcessor.class, client);
+        getProcessWatchers().execute(new Runnable() {
+            public void run() {
+                client.waitForExit();
+            }
+        });
+        return client;
+    }
+
+    private synchronized StoppableExecutor getProcessWatchers() {
+        if (processWatchers == null) {
+            processWatchers = executorFactory.create("Test worker process watcher");
+        }
+        return processWatchers;
+    }
+}
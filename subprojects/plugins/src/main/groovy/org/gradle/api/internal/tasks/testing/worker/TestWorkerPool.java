@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.worker;
+
+import org.gradle.internal.TimeProvider;
+
+import java.util.*;
+
+/**
+ * Holds the idle test workers, and decides which of them to evict. A worker is evicted once it has been idle for longer than the idle
+ * timeout, or, least recently used first, while there are more idle workers than allowed.
+ *
+ * <p>This class is not thread-safe.</p>
+ */
+public class TestWorkerPool {
+    private final long idleTimeoutMillis;
+    private final int maxIdleWorkers;
+    private final TimeProvider timeProvider;
+    // Ordered from least to most recently released
+    private final LinkedHashMap<TestWorkerClient, Long> idleSince = new LinkedHashMap<TestWorkerClient, Long>();
+
+    public TestWorkerPool(long idleTimeoutMillis, int maxIdleWorkers, TimeProvider timeProvider) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxIdleWorkers = maxIdleWorkers;
+        this.timeProvider = timeProvider;
+    }
+
+    /**
+     * Removes and returns the most recently released live worker with the given key, or null if there is no such worker. Workers whose
+     * process has exited are discarded.
+     */
+    public TestWorkerClient take(TestWorkerKey key) {
+        TestWorkerClient match = null;
+        Iterator<TestWorkerClient> iterator = idleSince.keySet().iterator();
+        while (iterator.hasNext()) {
+            TestWorkerClient client = iterator.next();
+            if (!client.isAlive()) {
+                iterator.remove();
+            } else if (client.getKey().equals(key)) {
+                match = client;
+            }
+        }
+        if (match != null) {
+            idleSince.remove(match);
+        }
+        return match;
+    }
+
+    /**
+     * Adds an idle worker. Returns the workers that were evicted to make room for it. The caller is responsible for stopping them.
+     */
+    public List<TestWorkerClient> add(TestWorkerClient client) {
+        idleSince.put(client, timeProvider.getCurrentTime());
+        List<TestWorkerClient> evicted = new ArrayList<TestWorkerClient>();
+        Iterator<TestWorkerClient> iterator = idleSince.keySet().iterator();
+        while (idleSince.size() > maxIdleWorkers) {
+            evicted.add(iterator.next());
+            iterator.remove();
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return idleSince.size();
+    }
+
+    /**
+     * Returns the number of milliseconds until the next worker should be evicted by {@link #evict()}, 0 when a worker should be evicted now, or
+     * -1 when there are no idle workers.
+     */
+    public long getMillisUntilNextEviction() {
+        if (idleSince.isEmpty()) {
+            return -1;
+        }
+        long leastRecentlyReleased = idleSince.values().iterator().next();
+        return Math.max(0, leastRecentlyReleased + idleTimeoutMillis + 1 - timeProvider.getCurrentTime());
+    }
+
+    /**
+     * Removes the workers that have been idle for too long. The caller is responsible for stopping them.
+     */
+    public List<TestWorkerClient> evict() {
+        List<TestWorkerClient> evicted = new ArrayList<TestWorkerClient>();
+        long now = timeProvider.getCurrentTime();
+        Iterator<Map.Entry<TestWorkerClient, Long>> iterator = idleSince.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<TestWorkerClient, Long> entry = iterator.next();
+            if (now - entry.getValue() > idleTimeoutMillis) {
+                iterator.remove();
+                evicted.add(entry.getKey());
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Removes all workers. The caller is responsible for stopping them.
+     */
+    public List<TestWorkerClient> removeAll() {
+        List<TestWorkerClient> all = new ArrayList<TestWorkerClient>(idleSince.keySet());
+        idleSince.clear();
+        return all;
+    }
+}
@@ -39,6 +39,7 @@ import java.io.File;
 @Deprecated
 public class Compile extends AbstractCompile {
     private Compiler<JavaCompileSpec> javaCompiler;
+    private final Compiler<JavaCompileSpec> delegatingCompiler;
     private File dependencyCacheDir;
     private final CompileOptions compileOptions = new CompileOptions();
 
@@ -51,12 +52,17 @@ public class Compile extends AbstractCompile {
         ProjectInternal projectInternal = (ProjectInternal) getProject();
         TemporaryFileProvider tempFileProvider = projectInternal.getServices().get(TemporaryFileProvider.class);
         JavaCompilerFactory defaultCompilerFactory = new DefaultJavaCompilerFactory(projectInternal, tempFileProvider, antBuilderFactory, inProcessCompilerFactory);
-        Compiler<JavaCompileSpec> delegatingCompiler = new DelegatingJavaCompiler(defaultCompilerFactory);
+        delegatingCompiler = new DelegatingJavaCompiler(defaultCompilerFactory);
         javaCompiler = new IncrementalJavaCompiler(delegatingCompiler, antBuilderFactory, getOutputs());
     }
 
     @TaskAction
     protected void compile() {
+        WorkResult result = javaCompiler.execute(createSpec());
+        setDidWork(result.getDidWork());
+    }
+
+    DefaultJavaCompileSpec createSpec() {
         DefaultJavaCompileSpec spec = new DefaultJavaCompileSpec();
         spec.setSource(getSource());
         spec.setDestinationDir(getDestinationDir());
@@ -65,8 +71,14 @@ public class Compile extends AbstractCompile {
         spec.setSourceCompatibility(getSourceCompatibility());
         spec.setTargetCompatibility(getTargetCompatibility());
         spec.setCompileOptions(compileOptions);
-        WorkResult result = javaCompiler.execute(spec);
-        setDidWork(result.getDidWork());
+        return spec;
+    }
+
+    /**
+     * Returns the compiler that compiles the given sources without first removing stale classes from the destination directory.
+     */
+    Compiler<JavaCompileSpec> getDelegatingCompiler() {
+        return delegatingCompiler;
     }
 
     @OutputDirectory
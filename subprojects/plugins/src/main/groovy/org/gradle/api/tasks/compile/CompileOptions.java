@@ -18,6 +18,7 @@ package org.gradle.api.tasks.compile;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import org.gradle.api.Incubating;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.Nested;
 import org.gradle.api.tasks.Optional;
@@ -35,7 +36,7 @@ public class CompileOptions extends AbstractOptions {
     private static final long serialVersionUID = 0;
 
     private static final ImmutableSet<String> EXCLUDE_FROM_ANT_PROPERTIES =
-            ImmutableSet.of("debugOptions", "forkOptions", "compilerArgs", "dependOptions", "useDepend", "useAnt");
+            ImmutableSet.of("debugOptions", "forkOptions", "compilerArgs", "dependOptions", "useDepend", "useAnt", "incremental");
 
     private boolean failOnError = true;
 
@@ -75,6 +76,8 @@ public class CompileOptions extends AbstractOptions {
 
     private boolean useAnt;
 
+    private boolean incremental;
+
     /**
      * Tells whether to fail the build when compilation fails. Defaults to {@code true}.
      */
@@ -426,6 +429,37 @@ public class CompileOptions extends AbstractOptions {
         this.compilerArgs = compilerArgs;
     }
 
+    /**
+     * Tells whether to recompile only the changed source files and the source files that depend on them, rather than the whole
+     * source set. The dependencies between classes are derived from the compiled bytecode. Whenever they cannot be trusted,
+     * for example after a classpath change or a change to a class that declares compile-time constants, all sources are recompiled.
+     * Only takes effect for {@link JavaCompile} tasks. Defaults to {@code false}.
+     */
+    @Incubating
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Tells whether to recompile only the changed source files and the source files that depend on them.
+     * Only takes effect for {@link JavaCompile} tasks. Defaults to {@code false}.
+     */
+    // @Input not recognized if there is only an "is" method
+    @Incubating
+    @Input
+    public boolean getIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Sets whether to recompile only the changed source files and the source files that depend on them.
+     * Only takes effect for {@link JavaCompile} tasks. Defaults to {@code false}.
+     */
+    @Incubating
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
     /**
      * Tells whether to use the Ant javac task over Gradle's own Java compiler integration.
      * Defaults to {@code false}.
@@ -16,8 +16,34 @@
 
 package org.gradle.api.tasks.compile;
 
+import org.gradle.api.internal.changedetection.state.TaskArtifactStateCacheAccess;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.internal.tasks.compile.incremental.ClassDependencyInfoExtractor;
+import org.gradle.api.internal.tasks.compile.incremental.ClassDependencyInfoStore;
+import org.gradle.api.internal.tasks.compile.incremental.SelectiveJavaCompiler;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.WorkResult;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
+
 /**
  * Compiles Java source files.
  */
 public class JavaCompile extends Compile {
+    /**
+     * Compiles the source files. When {@link CompileOptions#isIncremental()} is set, only the changed source files and the source files
+     * that depend on them are recompiled.
+     */
+    @TaskAction
+    protected void compile(IncrementalTaskInputs inputs) {
+        if (!getOptions().isIncremental()) {
+            compile();
+            return;
+        }
+
+        TaskArtifactStateCacheAccess cacheAccess = ((ProjectInternal) getProject()).getServices().get(TaskArtifactStateCacheAccess.class);
+        SelectiveJavaCompiler compiler = new SelectiveJavaCompiler(getDelegatingCompiler(), getJavaCompiler(),
+                new ClassDependencyInfoStore(cacheAccess), new ClassDependencyInfoExtractor(), getPath());
+        WorkResult result = compiler.execute(createSpec(), inputs);
+        setDidWork(result.getDidWork());
+    }
 }
@@ -17,6 +17,7 @@
 package org.gradle.api.tasks.testing;
 
 import groovy.lang.Closure;
+import org.gradle.api.Action;
 import org.gradle.api.GradleException;
 import org.gradle.api.Incubating;
 import org.gradle.api.file.FileCollection;
@@ -28,22 +29,33 @@ import org.gradle.api.internal.tasks.testing.TestFramework;
 import org.gradle.api.internal.tasks.testing.TestResultProcessor;
 import org.gradle.api.internal.tasks.testing.detection.DefaultTestExecuter;
 import org.gradle.api.internal.tasks.testing.detection.TestExecuter;
+import org.gradle.api.internal.tasks.testing.incremental.IncrementalTestSelection;
+import org.gradle.api.internal.tasks.testing.incremental.TestClassDependencies;
+import org.gradle.api.internal.tasks.testing.incremental.TestClassDependencyLog;
 import org.gradle.api.internal.tasks.testing.junit.JUnitTestFramework;
 import org.gradle.api.internal.tasks.testing.junit.report.DefaultTestReport;
 import org.gradle.api.internal.tasks.testing.junit.report.TestReporter;
 import org.gradle.api.internal.tasks.testing.junit.result.Binary2JUnitXmlReportGenerator;
+import org.gradle.api.internal.tasks.testing.junit.result.BinaryResultBackedTestResultsProvider;
+import org.gradle.api.internal.tasks.testing.junit.result.TestClassResult;
 import org.gradle.api.internal.tasks.testing.junit.result.TestReportDataCollector;
+import org.gradle.api.internal.tasks.testing.junit.result.TestResultSerializer;
 import org.gradle.api.internal.tasks.testing.logging.*;
+import org.gradle.api.internal.tasks.testing.processors.TestClassDurations;
 import org.gradle.api.internal.tasks.testing.results.TestListenerAdapter;
 import org.gradle.api.internal.tasks.testing.testng.TestNGTestFramework;
+import org.gradle.api.internal.tasks.testing.worker.TestWorkerManager;
 import org.gradle.api.logging.LogLevel;
 import org.gradle.api.specs.Spec;
+import org.gradle.api.specs.Specs;
 import org.gradle.api.tasks.*;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
 import org.gradle.api.tasks.testing.logging.TestLogging;
 import org.gradle.api.tasks.testing.logging.TestLoggingContainer;
 import org.gradle.api.tasks.util.PatternFilterable;
 import org.gradle.api.tasks.util.PatternSet;
 import org.gradle.internal.Factory;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.reflect.Instantiator;
 import org.gradle.listener.ClosureBackedMethodInvocationDispatch;
 import org.gradle.listener.ListenerBroadcast;
@@ -52,6 +64,7 @@ import org.gradle.logging.ConsoleRenderer;
 import org.gradle.logging.ProgressLoggerFactory;
 import org.gradle.logging.StyledTextOutputFactory;
 import org.gradle.messaging.actor.ActorFactory;
+import org.gradle.messaging.remote.internal.ParameterSerializerRegistry;
 import org.gradle.process.JavaForkOptions;
 import org.gradle.process.ProcessForkOptions;
 import org.gradle.process.internal.DefaultJavaForkOptions;
@@ -60,10 +73,7 @@ import org.gradle.util.ConfigureUtil;
 
 import javax.inject.Inject;
 import java.io.File;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 import static java.util.Arrays.asList;
 
@@ -130,6 +140,7 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
     private TestFramework testFramework;
     private boolean testReport = true;
     private boolean scanForTestClasses = true;
+    private boolean incremental;
     private long forkEvery;
     private int maxParallelForks = 1;
     private TestReporter testReporter;
@@ -144,9 +155,14 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
         this.textOutputFactory = textOutputFactory;
         forkOptions = new DefaultJavaForkOptions(fileResolver);
         forkOptions.setEnableAssertions(true);
-        testExecuter = new DefaultTestExecuter(processBuilderFactory, actorFactory);
+        // The worker manager is a global service contributed by the plugins, so is only looked up when the tests are executed
+        testExecuter = new DefaultTestExecuter(processBuilderFactory, actorFactory, new Factory<TestWorkerManager>() {
+            public TestWorkerManager create() {
+                return getServices().get(TestWorkerManager.class);
+            }
+        }, getServices().get(ParameterSerializerRegistry.class));
         testLogging = instantiator.newInstance(DefaultTestLoggingContainer.class, instantiator);
-        testReporter = new DefaultTestReport();
+        testReporter = new DefaultTestReport(getServices().get(ExecutorFactory.class));
     }
 
     /**
@@ -421,8 +437,58 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
         return this;
     }
 
+    /**
+     * Executes the tests. When {@link #isIncremental()} is set, only the test classes which are affected by the changed classes are executed, and
+     * the results of the other test classes are carried forward from the previous execution.
+     */
     @TaskAction
+    protected void executeTests(IncrementalTaskInputs inputs) {
+        if (!isIncremental()) {
+            executeTests();
+            return;
+        }
+
+        File previousResultsDir = new File(getTemporaryDir(), "previousResults");
+        getProject().delete(previousResultsDir);
+        if (!inputs.isIncremental()) {
+            getLogger().info("All tests will be executed because the inputs of {} cannot be compared to its previous execution.", this);
+            executeTests();
+            return;
+        }
+        if (!getBinResultsDir().renameTo(previousResultsDir)) {
+            getLogger().info("All tests will be executed because the results of the previous execution of {} are not available.", this);
+            executeTests();
+            return;
+        }
+
+        try {
+            Set<String> failedTestClasses = new HashSet<String>();
+            TestClassDurations previousDurations = readPreviousResults(previousResultsDir, failedTestClasses);
+            List<File> classDirs = new ArrayList<File>();
+            classDirs.add(getTestClassesDir());
+            for (File file : getClasspath()) {
+                if (file.isDirectory()) {
+                    classDirs.add(file);
+                }
+            }
+            TestClassDependencies dependencies = TestClassDependencies.read(new File(previousResultsDir, TestClassDependencyLog.LOG_DIR_NAME));
+            IncrementalTestSelection selection = IncrementalTestSelection.select(dependencies, failedTestClasses, inputs, classDirs, getTestSrcDirs());
+            runTests(selection, previousDurations, previousResultsDir);
+        } finally {
+            getProject().delete(previousResultsDir);
+        }
+    }
+
     public void executeTests() {
+        File binaryResultsDir = getBinResultsDir();
+        // The durations are only used to balance the test classes across forks
+        TestClassDurations previousDurations = getMaxParallelForks() > 1
+                ? readPreviousResults(binaryResultsDir, new HashSet<String>())
+                : new TestClassDurations();
+        runTests(null, previousDurations, binaryResultsDir);
+    }
+
+    private void runTests(IncrementalTestSelection selection, TestClassDurations previousDurations, File previousResultsDir) {
         LogLevel currentLevel = getCurrentLogLevel();
         TestLogging levelLogging = testLogging.get(currentLevel);
         TestExceptionFormatter exceptionFormatter = getExceptionFormatter(levelLogging);
@@ -435,6 +501,14 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
         getProject().mkdir(binaryResultsDir);
 
         TestReportDataCollector testReportDataCollector = new TestReportDataCollector(binaryResultsDir);
+        Spec<String> testClassSpec = Specs.satisfyAll();
+        if (selection != null) {
+            Set<String> unaffectedTestClasses = selection.getUnaffectedTestClasses();
+            getLogger().info("Using the previous results of {} test class(es) which are not affected by the changes.", unaffectedTestClasses.size());
+            testReportDataCollector.carryForward(new BinaryResultBackedTestResultsProvider(previousResultsDir), unaffectedTestClasses);
+            selection.retainDependencies(new File(binaryResultsDir, TestClassDependencyLog.LOG_DIR_NAME));
+            testClassSpec = selection;
+        }
         addTestListener(testReportDataCollector);
         addTestOutputListener(testReportDataCollector);
 
@@ -445,7 +519,7 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
                 getTestListenerBroadcaster().getSource(), testOutputListenerBroadcaster.getSource());
 
         try {
-            testExecuter.execute(this, resultProcessor);
+            testExecuter.execute(this, testClassSpec, previousDurations, resultProcessor);
         } finally {
             testListenerBroadcaster.removeAll(asList(eventLogger, testReportDataCollector, testCountLogger));
             testOutputListenerBroadcaster.removeAll(asList(eventLogger, testReportDataCollector));
@@ -467,6 +541,31 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
         }
     }
 
+    private TestClassDurations readPreviousResults(File binaryResultsDir, final Set<String> failedTestClasses) {
+        TestResultSerializer serializer = new TestResultSerializer();
+        if (!serializer.hasResults(binaryResultsDir)) {
+            return new TestClassDurations();
+        }
+        final Map<String, Long> durations = new HashMap<String, Long>();
+        try {
+            serializer.read(binaryResultsDir, new Action<TestClassResult>() {
+                public void execute(TestClassResult classResult) {
+                    if (classResult.getFailuresCount() > 0) {
+                        failedTestClasses.add(classResult.getClassName());
+                    }
+                    // A class whose output was received before its first test started has no start time
+                    if (classResult.getStartTime() > 0 && !classResult.getResults().isEmpty()) {
+                        durations.put(classResult.getClassName(), classResult.getDuration());
+                    }
+                }
+            });
+        } catch (Exception e) {
+            getLogger().info("Could not read the test class durations of the previous test execution.", e);
+            return new TestClassDurations();
+        }
+        return new TestClassDurations(durations);
+    }
+
 
     /**
      * Returns the {@link org.gradle.api.tasks.testing.TestListener} broadcaster.  This broadcaster will send messages to all listeners that have been registered with the ListenerManager.
@@ -913,6 +1012,21 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
         this.scanForTestClasses = scanForTestClasses;
     }
 
+    /**
+     * Specifies whether only the test classes affected by changes should be executed. When {@code true}, the classes loaded by each test class
+     * are recorded, and the next execution only executes the test classes which loaded a changed class, which failed, or which are new. The
+     * results of the other test classes are carried forward. Changes to anything other than class files cause all test classes to be executed.
+     * The default value is {@code false}.
+     */
+    @Input @Incubating
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
     /**
      * Returns the maximum number of test classes to execute in a forked test process. The forked test process will be restarted when this limit is reached. The default value is 0 (no maximum).
      *
@@ -27,6 +27,7 @@ import org.gradle.api.tasks.InputFiles;
 import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.SkipWhenEmpty;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.internal.concurrent.ExecutorFactory;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -118,7 +119,7 @@ public class TestReport extends DefaultTask {
     @TaskAction
     void generateReport() {
         TestResultsProvider resultsProvider = new AggregateTestResultsProvider(getTestResultDirs().getFiles());
-        DefaultTestReport testReport = new DefaultTestReport();
+        DefaultTestReport testReport = new DefaultTestReport(getServices().get(ExecutorFactory.class));
         testReport.generateReport(resultsProvider, getDestinationDir());
     }
 }
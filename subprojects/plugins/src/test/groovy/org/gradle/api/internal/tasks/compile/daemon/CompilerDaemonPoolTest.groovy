@@ -0,0 +1,149 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile.daemon
+
+import org.gradle.api.logging.LogLevel
+import org.gradle.internal.TimeProvider
+import org.gradle.process.internal.WorkerProcess
+import spock.lang.Specification
+
+class CompilerDaemonPoolTest extends Specification {
+    final TimeProvider timeProvider = Stub()
+    long now = 1000
+    final CompilerDaemonPool pool = new CompilerDaemonPool(100, 1024, timeProvider)
+    final File workingDir = new File("project")
+
+    def setup() {
+        timeProvider.currentTime >> { now }
+    }
+
+    def "returns compatible daemon"() {
+        def client1 = client("512m")
+        def client2 = client("1g")
+        pool.add(client1)
+        pool.add(client2)
+
+        expect:
+        get("1g") == client2
+        get("256m") == client1
+        get("2g") == null
+    }
+
+    def "does not return daemon with different working directory or log level"() {
+        def client = client("512m")
+        pool.add(client)
+
+        expect:
+        pool.get(new DaemonForkOptions(null, "512m", []), workingDir, LogLevel.LIFECYCLE) == client
+        pool.get(new DaemonForkOptions(null, "512m", []), new File("other"), LogLevel.LIFECYCLE) == null
+        pool.get(new DaemonForkOptions(null, "512m", []), workingDir, LogLevel.DEBUG) == null
+    }
+
+    def "evicts daemons that have been idle for longer than the idle timeout"() {
+        def client1 = client("128m")
+        def client2 = client("128m")
+        pool.add(client1)
+        now += 60
+        pool.add(client2)
+
+        when:
+        now += 60
+        def evicted = pool.evict()
+
+        then:
+        evicted == [client1]
+        pool.size() == 1
+    }
+
+    def "using a daemon resets its idle time"() {
+        def client1 = client("128m")
+        pool.add(client1)
+
+        when:
+        now += 60
+        get("128m")
+        now += 60
+        def evicted = pool.evict()
+
+        then:
+        evicted.empty
+        pool.size() == 1
+    }
+
+    def "evicts least recently used daemons while heap budget is exceeded"() {
+        def client1 = client("512m")
+        def client2 = client("512m")
+        def client3 = client(null)
+        pool.add(client1)
+        pool.add(client2)
+        pool.add(client3)
+        get("512m")
+
+        when:
+        def evicted = pool.evict()
+
+        then:
+        evicted == [client2]
+        pool.size() == 2
+    }
+
+    def "evicts idle daemons without applying heap budget"() {
+        def client1 = client("1g")
+        def client2 = client("1g")
+        pool.add(client1)
+        now += 60
+        pool.add(client2)
+
+        expect:
+        pool.millisUntilNextIdleEviction == 41
+
+        when:
+        now += 41
+
+        then:
+        pool.millisUntilNextIdleEviction == 0
+        pool.evictIdle() == [client1]
+        pool.millisUntilNextIdleEviction == 60
+        pool.evictIdle().empty
+    }
+
+    def "no idle eviction is due when there are no daemons"() {
+        expect:
+        pool.millisUntilNextIdleEviction == -1
+    }
+
+    def "removes all daemons"() {
+        def client1 = client("128m")
+        def client2 = client("128m")
+        pool.add(client1)
+        pool.add(client2)
+
+        expect:
+        pool.removeAll() == [client1, client2]
+        pool.size() == 0
+    }
+
+    private CompilerDaemonClient get(String maxHeapSize) {
+        return pool.get(new DaemonForkOptions(null, maxHeapSize, []), workingDir, LogLevel.LIFECYCLE)
+    }
+
+    private CompilerDaemonClient client(String maxHeapSize) {
+        def options = new DaemonForkOptions(null, maxHeapSize, [])
+        return new CompilerDaemonClient(options, workingDir, LogLevel.LIFECYCLE, Stub(WorkerProcess), Stub(CompilerDaemonServerProtocol))
+    }
+}
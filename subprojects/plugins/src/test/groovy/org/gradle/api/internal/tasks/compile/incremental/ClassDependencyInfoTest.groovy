@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile.incremental
+
+import spock.lang.Specification
+
+class ClassDependencyInfoTest extends Specification {
+    final classToSource = ["A": "A.java", "A\$Inner": "A.java", "B": "B.java", "C": "C.java", "D": "D.java"]
+    final dependents = ["A": ["B"] as Set, "B": ["C"] as Set, "D": ["A\$Inner"] as Set]
+
+    def "affected classes include classes of changed sources and their transitive dependents"() {
+        def info = new ClassDependencyInfo(classToSource, dependents, [] as Set)
+
+        expect:
+        info.getAffectedClasses(["A.java"]) == ["A", "A\$Inner", "B", "C"] as Set
+        info.getAffectedClasses(["C.java"]) == ["C"] as Set
+        info.getAffectedClasses(["New.java"]).empty
+    }
+
+    def "affected classes include all classes of the source of an affected class"() {
+        def info = new ClassDependencyInfo(classToSource, dependents, [] as Set)
+
+        expect:
+        info.getAffectedClasses(["D.java"]) == ["D", "A\$Inner", "A", "B", "C"] as Set
+    }
+
+    def "requires full recompilation when a changed class declares constants"() {
+        def info = new ClassDependencyInfo(classToSource, dependents, ["B"] as Set)
+
+        expect:
+        info.getAffectedClasses(["B.java"]) == null
+        info.getAffectedClasses(["A.java"]) != null
+    }
+
+    def "requires full recompilation when the source of an affected class is unknown"() {
+        def info = new ClassDependencyInfo(classToSource, ["C": ["Unknown"] as Set], [] as Set)
+
+        expect:
+        info.getAffectedClasses(["C.java"]) == null
+    }
+
+    def "can serialize and deserialize"() {
+        def info = new ClassDependencyInfo(classToSource, dependents, ["B"] as Set)
+        def serializer = new ClassDependencyInfoSerializer()
+        def bytes = new ByteArrayOutputStream()
+
+        when:
+        serializer.write(bytes, info)
+        def result = serializer.read(new ByteArrayInputStream(bytes.toByteArray()))
+
+        then:
+        result.classToSource == classToSource
+        result.dependents == dependents
+        result.classesWithConstants == ["B"] as Set
+        result.getClassesForSource("A.java") == ["A", "A\$Inner"] as Set
+    }
+}
@@ -20,9 +20,13 @@ import org.gradle.api.file.FileCollection
 import org.gradle.api.file.FileTree
 import org.gradle.api.internal.tasks.testing.TestFramework
 import org.gradle.api.internal.tasks.testing.TestResultProcessor
+import org.gradle.api.internal.tasks.testing.processors.TestClassDurations
+import org.gradle.api.internal.tasks.testing.worker.TestWorkerManager
+import org.gradle.api.specs.Specs
 import org.gradle.api.tasks.testing.Test
 import org.gradle.messaging.actor.Actor
 import org.gradle.messaging.actor.ActorFactory
+import org.gradle.messaging.remote.internal.ParameterSerializerRegistry
 import spock.lang.Specification
 
 class DefaultTestExecuterTest extends Specification {
@@ -38,7 +42,10 @@ class DefaultTestExecuterTest extends Specification {
     File testClassesDir = Mock()
     FileCollection testClasspath = Mock()
 
-    DefaultTestExecuter executer = new DefaultTestExecuter(workerFactory, actorFactory)
+    TestWorkerManager workerManager = Stub()
+    ParameterSerializerRegistry parameterSerializerRegistry = Mock()
+
+    DefaultTestExecuter executer = new DefaultTestExecuter(workerFactory, actorFactory, { workerManager } as org.gradle.internal.Factory, parameterSerializerRegistry)
 
     def setup() {
         _ * testTask.testFramework >> testFramework
@@ -51,7 +58,7 @@ class DefaultTestExecuterTest extends Specification {
 
     def "testClassDirectory for testclassdetector is configured before executing"() {
         when:
-        executer.execute(testTask, testResultProcessor);
+        executer.execute(testTask, Specs.satisfyAll(), new TestClassDurations(), testResultProcessor);
         then:
         1 * testFramework.getDetector() >> testFrameworkTestDetector
         1 * testTask.getTestClassesDir() >> testClassesDir
@@ -60,9 +67,16 @@ class DefaultTestExecuterTest extends Specification {
 
     def "testClasspath for testclassdetector is configured before executing"() {
         when:
-        executer.execute(testTask, testResultProcessor);
+        executer.execute(testTask, Specs.satisfyAll(), new TestClassDurations(), testResultProcessor);
         then:
         1 * testTask.getClasspath() >> testClasspath
         1 * testFrameworkTestDetector.setTestClasspath(testClasspath)
     }
+
+    def "registers the serializers for test events before executing"() {
+        when:
+        executer.execute(testTask, Specs.satisfyAll(), new TestClassDurations(), testResultProcessor);
+        then:
+        (1.._) * parameterSerializerRegistry.useParameterSerializer(_, _)
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.incremental
+
+import org.gradle.api.Action
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs
+import org.gradle.api.tasks.incremental.InputFile
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class IncrementalTestSelectionTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    final log = new TestClassDependencyLog()
+    TestFile classesDir
+    TestFile sourceDir
+
+    def setup() {
+        classesDir = tmpDir.file("classes")
+        sourceDir = tmpDir.file("src")
+        log.add(null, ["org.Runner"])
+        log.add("org.ATest", ["org.ATest", "org.A"])
+        log.add(null, [])
+        log.add("org.BTest", ["org.BTest", "org.B"])
+        log.add("org.CTest", ["org.CTest"])
+    }
+
+    def "executes affected, changed and previously failed test classes"() {
+        def inputs = inputs(true, [classesDir.file("org/CTest.class"), classesDir.file("org/DTest.class"), sourceDir.file("org/A.java")])
+
+        when:
+        def selection = select(inputs, ["org.ATest"] as Set)
+
+        then:
+        selection.unaffectedTestClasses == ["org.BTest"] as Set
+        !selection.isSatisfiedBy("org.BTest")
+        selection.isSatisfiedBy("org.ATest")
+        selection.isSatisfiedBy("org.CTest")
+        selection.isSatisfiedBy("org.DTest")
+    }
+
+    def "maps class files of nested classes to their class name"() {
+        def inputs = inputs(true, [classesDir.file("org/B\$Inner.class")])
+        log.add("org.DTest", ["org.B\$Inner"])
+
+        expect:
+        select(inputs, [] as Set).unaffectedTestClasses == ["org.ATest", "org.BTest", "org.CTest"] as Set
+    }
+
+    def "executes all test classes when a file other than a class file changes"() {
+        expect:
+        select(inputs(true, [classesDir.file("org/resource.properties")]), [] as Set) == null
+        select(inputs(true, [tmpDir.file("lib.jar")]), [] as Set) == null
+    }
+
+    def "executes all test classes when the changes to the inputs are not known"() {
+        expect:
+        select(inputs(false, []), [] as Set) == null
+    }
+
+    def "retains the dependencies of the unaffected test classes"() {
+        def dependenciesDir = tmpDir.file("dependencies")
+        def selection = select(inputs(true, [classesDir.file("org/C.class")]), ["org.ATest"] as Set)
+
+        when:
+        selection.retainDependencies(dependenciesDir)
+
+        then:
+        TestClassDependencies.read(dependenciesDir).testClasses == ["org.BTest", "org.CTest"] as Set
+    }
+
+    private IncrementalTestSelection select(IncrementalTaskInputs inputs, Set<String> failed) {
+        return IncrementalTestSelection.select(new TestClassDependencies([log]), failed, inputs, [classesDir], [sourceDir])
+    }
+
+    private IncrementalTaskInputs inputs(boolean incremental, List<File> changed) {
+        IncrementalTaskInputs inputs = Stub()
+        inputs.incremental >> incremental
+        inputs.outOfDate(_) >> { Action<InputFile> action ->
+            changed.each { file ->
+                InputFile inputFile = Stub()
+                inputFile.file >> file
+                action.execute(inputFile)
+            }
+        }
+        return inputs
+    }
+}
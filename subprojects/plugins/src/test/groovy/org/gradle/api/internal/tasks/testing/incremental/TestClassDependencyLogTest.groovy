@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.incremental
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class TestClassDependencyLogTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    final log = new TestClassDependencyLog()
+
+    def setup() {
+        log.add(null, ["org.Runner"])
+        log.add("org.ATest", ["org.ATest", "org.A"])
+        log.add(null, [])
+        log.add("org.BTest", ["org.BTest", "org.B"])
+        log.add("org.CTest", ["org.CTest"])
+    }
+
+    def "test classes which loaded a changed class and the test classes executed after them are affected"() {
+        expect:
+        log.getAffectedTestClasses(["org.B"] as Set) == ["org.BTest", "org.CTest"] as Set
+        log.getAffectedTestClasses(["org.A"] as Set) == ["org.ATest", "org.BTest", "org.CTest"] as Set
+        log.getAffectedTestClasses(["org.Other"] as Set).empty
+    }
+
+    def "all test classes are affected by a change to a class loaded before the first test class"() {
+        expect:
+        log.getAffectedTestClasses(["org.Runner"] as Set) == ["org.ATest", "org.BTest", "org.CTest"] as Set
+    }
+
+    def "all test classes are affected by a change to a class loaded after the last test class"() {
+        log.add(null, ["org.Listener"])
+
+        expect:
+        log.getAffectedTestClasses(["org.Listener"] as Set) == ["org.ATest", "org.BTest", "org.CTest"] as Set
+    }
+
+    def "can write and read log"() {
+        def file = tmpDir.file("log.bin")
+
+        when:
+        log.write(file)
+        def read = TestClassDependencyLog.read(file)
+
+        then:
+        read.entries*.testClassName == [null, "org.ATest", null, "org.BTest", "org.CTest"]
+        read.entries*.loadedClasses == [["org.Runner"], ["org.ATest", "org.A"], [], ["org.BTest", "org.B"], ["org.CTest"]]
+    }
+
+    def "retained log keeps the loaded classes of the test classes which are not retained"() {
+        def retained = log.retain(["org.BTest"] as Set)
+
+        expect:
+        retained.testClasses == ["org.BTest"] as Set
+        retained.getAffectedTestClasses(["org.A"] as Set) == ["org.BTest"] as Set
+    }
+}
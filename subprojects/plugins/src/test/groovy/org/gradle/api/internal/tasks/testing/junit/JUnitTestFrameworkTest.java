@@ -24,6 +24,7 @@ import org.gradle.internal.Factory;
 import org.gradle.internal.id.IdGenerator;
 import org.gradle.internal.service.ServiceRegistry;
 import org.gradle.messaging.actor.ActorFactory;
+import org.gradle.process.internal.WorkerProcessBuilder;
 import org.jmock.Expectations;
 import org.junit.Before;
 
@@ -98,6 +99,30 @@ public class JUnitTestFrameworkTest extends AbstractTestFrameworkTest {
         assertThat(testClassProcessor, instanceOf(JUnitTestClassProcessor.class));
     }
 
+    @org.junit.Test
+    public void testSharesHamcrestOnlyWithReusableWorker() {
+        jUnitTestFramework = new JUnitTestFramework(testMock);
+        final WorkerProcessBuilder workerProcessBuilder = context.mock(WorkerProcessBuilder.class);
+
+        context.checking(new Expectations() {{
+            one(workerProcessBuilder).sharedPackages("junit.framework");
+            one(workerProcessBuilder).sharedPackages("junit.extensions");
+            one(workerProcessBuilder).sharedPackages("org.junit");
+        }});
+
+        jUnitTestFramework.getWorkerConfigurationAction().execute(workerProcessBuilder);
+        context.assertIsSatisfied();
+
+        context.checking(new Expectations() {{
+            one(workerProcessBuilder).sharedPackages("junit.framework");
+            one(workerProcessBuilder).sharedPackages("junit.extensions");
+            one(workerProcessBuilder).sharedPackages("org.junit");
+            one(workerProcessBuilder).sharedPackages("org.hamcrest");
+        }});
+
+        jUnitTestFramework.getReusableWorkerConfigurationAction().execute(workerProcessBuilder);
+    }
+
     private void setMocks() {
         jUnitTestFramework.setOptions(jUnitOptionsMock);
     }
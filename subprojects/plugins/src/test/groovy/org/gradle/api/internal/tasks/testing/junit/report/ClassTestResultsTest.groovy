@@ -23,4 +23,20 @@ class ClassTestResultsTest extends Specification {
         new ClassTestResults('org.gradle.Test', null).simpleName == 'Test'
         new ClassTestResults('Test', null).simpleName == 'Test'
     }
+
+    def keepsCountsAndFailuresWhenTestResultsAreDiscarded() {
+        def results = new ClassTestResults('org.gradle.Test', null)
+        results.addTest('test1', 10)
+        def failed = results.addTest('test2', 20)
+        failed.addFailure('message', 'stack trace')
+
+        when:
+        results.discardTestResults()
+
+        then:
+        results.testResults.empty
+        results.testCount == 2
+        results.duration == 30
+        results.failures == [failed] as Set
+    }
 }
@@ -22,6 +22,7 @@ import org.gradle.api.internal.tasks.testing.junit.result.TestResultsProvider
 import org.gradle.api.internal.tasks.testing.logging.SimpleTestResult
 import org.gradle.api.tasks.testing.TestOutputEvent
 import org.gradle.api.tasks.testing.TestResult
+import org.gradle.internal.concurrent.DefaultExecutorFactory
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.gradle.util.ConfigureUtil
@@ -34,7 +35,7 @@ import spock.lang.Specification
 class DefaultTestReportTest extends Specification {
     @Rule
     public final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
-    final DefaultTestReport report = new DefaultTestReport()
+    final DefaultTestReport report = new DefaultTestReport(new DefaultExecutorFactory())
     final TestFile reportDir = tmpDir.file('report')
     final TestFile indexFile = reportDir.file('index.html')
     final TestResultsProvider testResultProvider = Mock()
@@ -122,6 +123,42 @@ class DefaultTestReportTest extends Specification {
         testClassFile.assertHasStandardError('this is\nstandard error')
     }
 
+    def generatesReportForManyClasses() {
+        given:
+        def testTestResults = buildResults {
+            50.times { index ->
+                testClassResult("org.gradle.Test${index}") {
+                    testcase("test1") {
+                        duration = 1
+                    }
+                    testcase("test2") {
+                        duration = 1
+                        failure("something failed", "this is the failure\nat someClass")
+                    }
+                }
+            }
+        }
+
+        when:
+        new DefaultTestReport(new DefaultExecutorFactory(), maxThreads).generateReport(testTestResults, reportDir)
+
+        then:
+        def index = results(indexFile)
+        index.assertHasTests(100)
+        index.assertHasFailures(50)
+        index.assertHasSuccessRate(50)
+        50.times { classIndex ->
+            index.assertHasFailedTest("org.gradle.Test${classIndex}", 'test2')
+            def testClassFile = results(reportDir.file("org.gradle.Test${classIndex}.html"))
+            testClassFile.assertHasTests(2)
+            testClassFile.assertHasFailures(1)
+            testClassFile.assertHasFailure('test2', 'this is the failure\nat someClass\n')
+        }
+
+        where:
+        maxThreads << [1, 4]
+    }
+
     def generatesReportWhenThereAreFailures() {
         given:
         def testTestResults = buildResults {
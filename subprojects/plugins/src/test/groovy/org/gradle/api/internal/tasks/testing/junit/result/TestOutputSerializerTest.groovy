@@ -64,7 +64,39 @@ class TestOutputSerializerTest extends Specification {
         !serializer.hasOutput("Unknown", StdErr)
     }
 
+    def "can read output written by another instance"() {
+        when:
+        serializer.onOutput("Class1", StdOut, "[out]")
+        serializer.onOutput("Class1", StdErr, "[err]")
+        serializer.finishOutputs()
+        def reader = new TestOutputSerializer(temp.testDirectory)
+
+        then:
+        reader.hasOutput("Class1", StdOut)
+        !reader.hasOutput("Class2", StdOut)
+        collectOutput(reader, "Class1", StdOut) == "[out]"
+        collectOutput(reader, "Class1", StdErr) == "[err]"
+    }
+
+    def "reads large output containing multi-byte characters"() {
+        def message = "\u0107\u20ac\ud83d\ude00 some text" * 1000
+
+        when:
+        serializer.onOutput("Class1", StdOut, message)
+        serializer.onOutput("Class2", StdOut, "[out]")
+        serializer.onOutput("Class1", StdOut, message)
+        serializer.finishOutputs()
+
+        then:
+        collectOutput("Class1", StdOut) == message + message
+        collectOutput("Class2", StdOut) == "[out]"
+    }
+
     String collectOutput(String className, TestOutputEvent.Destination destination) {
+        return collectOutput(serializer, className, destination)
+    }
+
+    String collectOutput(TestOutputSerializer serializer, String className, TestOutputEvent.Destination destination) {
         def writer = new StringWriter()
         serializer.writeOutputs(className, destination, writer)
         return writer.toString()
@@ -167,4 +167,137 @@ class MaxNParallelTestClassProcessorTest extends Specification {
         then:
         1 * asyncProcessor2.processTestClass(test)
     }
+
+    def assignsKnownTestClassesLongestFirstToLeastLoadedProcessor() {
+        def durations = new TestClassDurations([slow: 100L, medium: 60L, fast1: 50L, fast2: 40L])
+        def processor = new MaxNParallelTestClassProcessor(2, factory, actorFactory, durations)
+        TestClassProcessor processor1 = Mock()
+        TestClassProcessor processor2 = Mock()
+        TestClassProcessor asyncProcessor1 = Mock()
+        TestClassProcessor asyncProcessor2 = Mock()
+        Actor actor1 = Mock()
+        Actor actor2 = Mock()
+        def received = []
+
+        given:
+        actorFactory.createActor(resultProcessor) >> resultProcessorActor
+        resultProcessorActor.getProxy(TestResultProcessor) >> asyncResultProcessor
+        processor.startProcessing(resultProcessor)
+
+        when:
+        ["slow", "fast1", "fast2", "medium"].each { processor.processTestClass(testClass(it)) }
+
+        then:
+        2 * factory.create() >>> [processor1, processor2]
+        1 * actorFactory.createActor(processor1) >> actor1
+        1 * actorFactory.createActor(processor2) >> actor2
+        1 * actor1.getProxy(TestClassProcessor) >> asyncProcessor1
+        1 * actor2.getProxy(TestClassProcessor) >> asyncProcessor2
+        _ * asyncProcessor1.processTestClass(_) >> { TestClassRunInfo info -> received << "1:${info.testClassName}" }
+        _ * asyncProcessor2.processTestClass(_) >> { TestClassRunInfo info -> received << "2:${info.testClassName}" }
+        received == ["1:slow", "2:medium", "2:fast1", "1:fast2"]
+
+        when:
+        processor.stop()
+
+        then:
+        0 * asyncProcessor1.processTestClass(_)
+        0 * asyncProcessor2.processTestClass(_)
+    }
+
+    def longTestClassFoundLateStartsAheadOfShorterTestClasses() {
+        def durations = new TestClassDurations([a: 30L, b: 30L, c: 30L, long: 100L])
+        def processor = new MaxNParallelTestClassProcessor(2, factory, actorFactory, durations)
+        TestClassProcessor asyncProcessor1 = Mock()
+        TestClassProcessor asyncProcessor2 = Mock()
+        def work = [0L, 0L]
+        def received = []
+
+        given:
+        actorFactory.createActor(resultProcessor) >> resultProcessorActor
+        resultProcessorActor.getProxy(TestResultProcessor) >> asyncResultProcessor
+        factory.create() >>> [Mock(TestClassProcessor), Mock(TestClassProcessor)]
+        actorFactory.createActor(_ as TestClassProcessor) >>> [Stub(Actor) { getProxy(TestClassProcessor) >> asyncProcessor1 }, Stub(Actor) { getProxy(TestClassProcessor) >> asyncProcessor2 }]
+        asyncProcessor1.processTestClass(_) >> { TestClassRunInfo info -> received << info.testClassName; work[0] += durations.getDuration(info.testClassName) }
+        asyncProcessor2.processTestClass(_) >> { TestClassRunInfo info -> received << info.testClassName; work[1] += durations.getDuration(info.testClassName) }
+        processor.startProcessing(resultProcessor)
+
+        when:
+        ["a", "b", "c"].each { processor.processTestClass(testClass(it)) }
+
+        then:
+        received.empty
+
+        when:
+        processor.processTestClass(testClass("long"))
+        processor.stop()
+
+        then:
+        received.first() == "long"
+        received.toSet() == ["long", "a", "b", "c"].toSet()
+        work.max() == 100L
+    }
+
+    def assignsHeldBackTestClassesOnStop() {
+        def durations = new TestClassDurations([found: 10L, missing: 100L])
+        def processor = new MaxNParallelTestClassProcessor(2, factory, actorFactory, durations)
+        TestClassProcessor processor1 = Mock()
+        TestClassProcessor asyncProcessor1 = Mock()
+        Actor actor1 = Mock()
+        def found = testClass("found")
+
+        given:
+        actorFactory.createActor(resultProcessor) >> resultProcessorActor
+        resultProcessorActor.getProxy(TestResultProcessor) >> asyncResultProcessor
+        processor.startProcessing(resultProcessor)
+
+        when:
+        processor.processTestClass(found)
+
+        then:
+        0 * factory.create()
+
+        when:
+        processor.stop()
+
+        then:
+        1 * factory.create() >> processor1
+        1 * actorFactory.createActor(processor1) >> actor1
+        1 * actor1.getProxy(TestClassProcessor) >> asyncProcessor1
+        1 * asyncProcessor1.startProcessing(asyncResultProcessor)
+        1 * asyncProcessor1.processTestClass(found)
+
+        then:
+        1 * asyncProcessor1.stop()
+    }
+
+    def assignsTestClassesWithUnknownDurationsImmediately() {
+        def durations = new TestClassDurations([slow: 100L])
+        def processor = new MaxNParallelTestClassProcessor(2, factory, actorFactory, durations)
+        TestClassProcessor processor1 = Mock()
+        TestClassProcessor asyncProcessor1 = Mock()
+        Actor actor1 = Mock()
+        def unknown = testClass("unknown")
+
+        given:
+        actorFactory.createActor(resultProcessor) >> resultProcessorActor
+        resultProcessorActor.getProxy(TestResultProcessor) >> asyncResultProcessor
+        processor.startProcessing(resultProcessor)
+
+        when:
+        processor.processTestClass(unknown)
+
+        then:
+        1 * factory.create() >> processor1
+        1 * actorFactory.createActor(processor1) >> actor1
+        1 * actor1.getProxy(TestClassProcessor) >> asyncProcessor1
+        1 * asyncProcessor1.startProcessing(asyncResultProcessor)
+        1 * asyncProcessor1.processTestClass(unknown)
+    }
+
+    def testClass(String name) {
+        TestClassRunInfo info = Mock()
+        _ * info.testClassName >> name
+        return info
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.worker
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class FrameworkClasspathScannerTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    final FrameworkClasspathScanner scanner = new FrameworkClasspathScanner()
+
+    def "framework classpath contains the jars that provide the shared packages"() {
+        def junitJar = jar("junit.jar", "org/junit/Test.class")
+        def hamcrestJar = jar("hamcrest.jar", "org/hamcrest/core/Is.class")
+        def appJar = jar("app.jar", "org/example/Test.class")
+        def classesDir = tmpDir.createDir("classes")
+        classesDir.file("org/junit/Other.class").createFile()
+        def missingJar = tmpDir.file("missing.jar")
+
+        expect:
+        scanner.getFrameworkClasspath([classesDir, appJar, junitJar, missingJar, hamcrestJar], ["org.junit", "org.hamcrest"]) == [junitJar, hamcrestJar]
+    }
+
+    def "does not treat a package with a matching name prefix as a shared package"() {
+        def jar = jar("junitx.jar", "org/junitx/Test.class")
+
+        expect:
+        scanner.getFrameworkClasspath([jar], ["org.junit"]) == []
+    }
+
+    def "rescans jar when it changes"() {
+        def contents = tmpDir.createDir("contents")
+        contents.file("org/example/Test.class").createFile()
+        def jar = contents.zipTo(tmpDir.file("lib.jar"))
+
+        expect:
+        scanner.getFrameworkClasspath([jar], ["org.junit"]) == []
+
+        when:
+        contents.file("org/junit/Test.class").createFile()
+        contents.zipTo(jar)
+        jar.setLastModified(jar.lastModified() + 2000)
+
+        then:
+        scanner.getFrameworkClasspath([jar], ["org.junit"]) == [jar]
+    }
+
+    def jar(String name, String entry) {
+        def contents = tmpDir.createDir("${name}-contents")
+        contents.file(entry).createFile()
+        return contents.zipTo(tmpDir.file(name))
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker
+
+import org.gradle.api.internal.tasks.testing.*
+import org.gradle.api.tasks.testing.TestOutputEvent
+import org.gradle.api.tasks.testing.TestResult
+import org.gradle.internal.id.CompositeIdGenerator
+import org.gradle.messaging.serialize.DataStreamBackedSerializer
+import spock.lang.Specification
+
+class TestEventSerializersTest extends Specification {
+    def "serializes composite ids"() {
+        expect:
+        def result = serialize(id, new TestEventSerializers.IdSerializer())
+        result == id
+
+        where:
+        id << [
+                new CompositeIdGenerator.CompositeId(1L, 2L),
+                new CompositeIdGenerator.CompositeId("scope", "id"),
+                new CompositeIdGenerator.CompositeId(new CompositeIdGenerator.CompositeId("worker", 12L), 3L),
+                new CompositeIdGenerator.CompositeId(UUID.randomUUID(), 4L)
+        ]
+    }
+
+    def "serializes test class run info"() {
+        expect:
+        def result = serialize(new DefaultTestClassRunInfo("org.gradle.SomeTest"), new TestEventSerializers.TestClassRunInfoSerializer())
+        result.testClassName == "org.gradle.SomeTest"
+    }
+
+    def "serializes test descriptors"() {
+        def id = new CompositeIdGenerator.CompositeId(1L, 2L)
+
+        expect:
+        def suite = serialize(new DefaultTestSuiteDescriptor(id, "suite"), new TestEventSerializers.TestSuiteDescriptorSerializer())
+        suite.id == id
+        suite.name == "suite"
+
+        def testClass = serialize(new DefaultTestClassDescriptor(id, "org.gradle.SomeTest"), new TestEventSerializers.TestClassDescriptorSerializer())
+        testClass.id == id
+        testClass.className == "org.gradle.SomeTest"
+
+        def test = serialize(new DefaultTestDescriptor(id, "org.gradle.SomeTest", "test"), new TestEventSerializers.TestDescriptorSerializer())
+        test.id == id
+        test.className == "org.gradle.SomeTest"
+        test.name == "test"
+
+        def method = serialize(new DefaultTestMethodDescriptor(id, "org.gradle.SomeTest", "method"), new TestEventSerializers.TestMethodDescriptorSerializer())
+        method.id == id
+        method.className == "org.gradle.SomeTest"
+        method.name == "method"
+    }
+
+    def "serializes test start events"() {
+        expect:
+        def result = serialize(new TestStartEvent(123L, parentId), new TestEventSerializers.TestStartEventSerializer())
+        result.startTime == 123L
+        result.parentId == parentId
+
+        where:
+        parentId << [null, new CompositeIdGenerator.CompositeId(1L, 2L)]
+    }
+
+    def "serializes test complete events"() {
+        expect:
+        def result = serialize(new TestCompleteEvent(123L, resultType), new TestEventSerializers.TestCompleteEventSerializer())
+        result.endTime == 123L
+        result.resultType == resultType
+
+        where:
+        resultType << [null, TestResult.ResultType.SUCCESS, TestResult.ResultType.FAILURE, TestResult.ResultType.SKIPPED]
+    }
+
+    def "serializes test output events"() {
+        expect:
+        def result = serialize(new DefaultTestOutputEvent(destination, message), new TestEventSerializers.TestOutputEventSerializer())
+        result.destination == destination
+        result.message == message
+
+        where:
+        destination                        | message
+        TestOutputEvent.Destination.StdOut | "some output"
+        TestOutputEvent.Destination.StdErr | "é中"
+        TestOutputEvent.Destination.StdOut | "x" * 70000
+    }
+
+    def serialize(Object value, DataStreamBackedSerializer serializer) {
+        def outputStream = new ByteArrayOutputStream()
+        serializer.write(outputStream, value)
+        return serializer.read(new ByteArrayInputStream(outputStream.toByteArray()))
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.worker
+
+import org.gradle.api.internal.tasks.testing.DefaultTestOutputEvent
+import org.gradle.api.internal.tasks.testing.TestCompleteEvent
+import org.gradle.api.internal.tasks.testing.TestResultProcessor
+import org.gradle.api.tasks.testing.TestOutputEvent
+import org.gradle.messaging.dispatch.MethodInvocation
+import spock.lang.Specification
+
+class TestOutputEventMergerTest extends Specification {
+    final TestOutputEventMerger merger = new TestOutputEventMerger()
+
+    def "merges output for same test and destination"() {
+        when:
+        def merged = merger.merge(output("test", TestOutputEvent.Destination.StdOut, "line 1\n"), output("test", TestOutputEvent.Destination.StdOut, "line 2\n"))
+
+        then:
+        merged.method.name == "output"
+        merged.arguments[0] == "test"
+        merged.arguments[1].destination == TestOutputEvent.Destination.StdOut
+        merged.arguments[1].message == "line 1\nline 2\n"
+    }
+
+    def "does not merge output for different tests or destinations"() {
+        expect:
+        merger.merge(output("test", TestOutputEvent.Destination.StdOut, "a"), output("other", TestOutputEvent.Destination.StdOut, "b")) == null
+        merger.merge(output("test", TestOutputEvent.Destination.StdOut, "a"), output("test", TestOutputEvent.Destination.StdErr, "b")) == null
+    }
+
+    def "does not merge output when merged message would be too long"() {
+        def message = "a" * (TestOutputEventMerger.MAX_MERGED_LENGTH - 1)
+
+        expect:
+        merger.merge(output("test", TestOutputEvent.Destination.StdOut, message), output("test", TestOutputEvent.Destination.StdOut, "b")) != null
+        merger.merge(output("test", TestOutputEvent.Destination.StdOut, message), output("test", TestOutputEvent.Destination.StdOut, "bc")) == null
+    }
+
+    def "does not merge other method calls"() {
+        def completed = new MethodInvocation(TestResultProcessor.getMethod("completed", Object, TestCompleteEvent), ["test", new TestCompleteEvent(100)] as Object[])
+
+        expect:
+        merger.merge(output("test", TestOutputEvent.Destination.StdOut, "a"), completed) == null
+        merger.merge(completed, output("test", TestOutputEvent.Destination.StdOut, "a")) == null
+    }
+
+    def output(Object testId, TestOutputEvent.Destination destination, String message) {
+        def method = TestResultProcessor.getMethod("output", Object, TestOutputEvent)
+        return new MethodInvocation(method, [testId, new DefaultTestOutputEvent(destination, message)] as Object[])
+    }
+}
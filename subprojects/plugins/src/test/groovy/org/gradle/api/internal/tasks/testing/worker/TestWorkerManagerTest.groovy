@@ -0,0 +1,62 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.worker
+
+import org.gradle.internal.TrueTimeProvider
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import spock.lang.Specification
+import spock.util.concurrent.BlockingVariable
+
+class TestWorkerManagerTest extends Specification {
+    final executorFactory = new DefaultExecutorFactory()
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "stops idle worker once its idle timeout expires, without waiting for the build to finish"() {
+        def manager = new TestWorkerManager(true, new TestWorkerPool(100, 4, new TrueTimeProvider()), executorFactory)
+        def stoppedAt = new BlockingVariable<Long>(5)
+        def client = Mock(TestWorkerClient)
+        client.isAlive() >> true
+        client.stop() >> { stoppedAt.set(System.currentTimeMillis()) }
+
+        when:
+        def releasedAt = System.currentTimeMillis()
+        manager.release(client, false)
+
+        then:
+        stoppedAt.get() - releasedAt >= 100
+
+        cleanup:
+        manager.stop()
+    }
+
+    def "stops idle workers when stopped"() {
+        def manager = new TestWorkerManager(true, new TestWorkerPool(60000, 4, new TrueTimeProvider()), executorFactory)
+        def client = Mock(TestWorkerClient)
+        client.isAlive() >> true
+        manager.release(client, false)
+
+        when:
+        manager.stop()
+
+        then:
+        1 * client.stop()
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.worker
+
+import org.gradle.api.internal.file.IdentityFileResolver
+import org.gradle.internal.TimeProvider
+import org.gradle.process.internal.WorkerProcess
+import org.gradle.process.internal.WorkerProcessBuilder
+import spock.lang.Specification
+
+class TestWorkerPoolTest extends Specification {
+    final TimeProvider timeProvider = Stub()
+    long now = 1000
+    final TestWorkerPool pool = new TestWorkerPool(100, 2, timeProvider)
+
+    def setup() {
+        timeProvider.currentTime >> { now }
+    }
+
+    def "takes most recently released worker with matching key"() {
+        def client1 = client("a.jar")
+        def client2 = client("b.jar")
+        def client3 = client("a.jar")
+        pool.add(client1)
+        pool.add(client2)
+        pool.add(client3)
+
+        expect:
+        pool.take(key("a.jar")) == client3
+        pool.take(key("a.jar")) == null
+        pool.take(key("b.jar")) == client2
+        pool.take(key("c.jar")) == null
+    }
+
+    def "discards workers whose process has exited"() {
+        def client1 = client("a.jar")
+        pool.add(client1)
+
+        when:
+        client1.waitForExit()
+
+        then:
+        pool.take(key("a.jar")) == null
+        pool.size() == 0
+    }
+
+    def "evicts least recently released workers when there are too many idle workers"() {
+        def client1 = client("a.jar")
+        def client2 = client("a.jar")
+        def client3 = client("b.jar")
+
+        expect:
+        pool.add(client1).empty
+        pool.add(client2).empty
+        pool.add(client3) == [client1]
+        pool.size() == 2
+    }
+
+    def "evicts workers that have been idle for longer than the idle timeout"() {
+        def client1 = client("a.jar")
+        def client2 = client("a.jar")
+        pool.add(client1)
+        now += 60
+        pool.add(client2)
+
+        when:
+        now += 60
+        def evicted = pool.evict()
+
+        then:
+        evicted == [client1]
+        pool.size() == 1
+    }
+
+    def "calculates time until the least recently released worker should be evicted"() {
+        expect:
+        pool.millisUntilNextEviction == -1
+
+        when:
+        pool.add(client("a.jar"))
+        now += 60
+        pool.add(client("b.jar"))
+
+        then:
+        pool.millisUntilNextEviction == 41
+
+        when:
+        now += 41
+
+        then:
+        pool.millisUntilNextEviction == 0
+        pool.evict().size() == 1
+        pool.millisUntilNextEviction == 60
+    }
+
+    def "removes all workers"() {
+        def client1 = client("a.jar")
+        def client2 = client("b.jar")
+        pool.add(client1)
+        pool.add(client2)
+
+        expect:
+        pool.removeAll() == [client1, client2]
+        pool.size() == 0
+    }
+
+    private TestWorkerClient client(String classpath) {
+        return new TestWorkerClient(key(classpath), Stub(WorkerProcess), Stub(RemoteTestWorker))
+    }
+
+    private static TestWorkerKey key(String classpath) {
+        def builder = new WorkerProcessBuilder(new IdentityFileResolver()) {
+            @Override
+            WorkerProcess build() {
+                throw new UnsupportedOperationException()
+            }
+        }
+        builder.javaCommand.workingDir = new File("work").absoluteFile
+        builder.applicationClasspath([new File(classpath)])
+        builder.sharedPackages("org.junit")
+        return new TestWorkerKey(builder)
+    }
+}
@@ -20,6 +20,8 @@ import org.gradle.api.internal.tasks.testing.TestFramework
 import org.gradle.api.internal.tasks.testing.TestResultProcessor
 import org.gradle.api.internal.tasks.testing.detection.TestExecuter
 import org.gradle.api.internal.tasks.testing.junit.report.TestReporter
+import org.gradle.api.internal.tasks.testing.processors.TestClassDurations
+import org.gradle.api.specs.Spec
 import org.gradle.listener.ListenerBroadcast
 import org.gradle.util.HelperUtil
 import spock.lang.Specification
@@ -51,7 +53,7 @@ class TestTaskSpec extends Specification {
         2 * testOutputListenerBroadcaster.add(_)
 
         then:
-        1 * testExecuter.execute(task, _ as TestResultProcessor)
+        1 * testExecuter.execute(task, _ as Spec, _ as TestClassDurations, _ as TestResultProcessor)
 
         then:
         1 * testListenerBroadcaster.removeAll({it.size() == 3})
@@ -59,7 +61,7 @@ class TestTaskSpec extends Specification {
     }
 
     def "removes listeners even if execution fails"() {
-        testExecuter.execute(task, _ as TestResultProcessor) >> { throw new RuntimeException("Boo!")}
+        testExecuter.execute(task, _ as Spec, _ as TestClassDurations, _ as TestResultProcessor) >> { throw new RuntimeException("Boo!")}
 
         when:
         task.executeTests()
@@ -33,7 +33,9 @@ import org.gradle.api.internal.tasks.testing.detection.TestFrameworkDetector;
 import org.gradle.api.internal.tasks.testing.junit.JUnitTestFramework;
 import org.gradle.api.internal.tasks.testing.junit.report.TestReporter;
 import org.gradle.api.internal.tasks.testing.junit.result.TestResultsProvider;
+import org.gradle.api.internal.tasks.testing.processors.TestClassDurations;
 import org.gradle.api.internal.tasks.testing.results.TestListenerAdapter;
+import org.gradle.api.specs.Spec;
 import org.gradle.api.tasks.AbstractConventionTaskTest;
 import org.gradle.process.internal.WorkerProcessBuilder;
 import org.gradle.util.GFileUtils;
@@ -188,9 +190,13 @@ public class TestTest extends AbstractConventionTaskTest {
             public org.gradle.api.Action<WorkerProcessBuilder> getWorkerConfigurationAction() {
                 return null;
             }
+
+            public org.gradle.api.Action<WorkerProcessBuilder> getReusableWorkerConfigurationAction() {
+                return null;
+            }
         });
         context.checking(new Expectations() {{
-            one(testExecuterMock).execute(with(sameInstance(test)), with(notNullValue(TestListenerAdapter.class)));
+            one(testExecuterMock).execute(with(sameInstance(test)), with(notNullValue(Spec.class)), with(notNullValue(TestClassDurations.class)), with(notNullValue(TestListenerAdapter.class)));
         }});
 
         WeakReference<TestFramework> weakRef = new WeakReference<TestFramework>(test.getTestFramework());
@@ -324,7 +330,7 @@ public class TestTest extends AbstractConventionTaskTest {
     private void expectTestsExecuted() {
         expectOptionsBuilt();
         context.checking(new Expectations() {{
-            one(testExecuterMock).execute(with(sameInstance(test)), with(notNullValue(TestListenerAdapter.class)));
+            one(testExecuterMock).execute(with(sameInstance(test)), with(notNullValue(Spec.class)), with(notNullValue(TestClassDurations.class)), with(notNullValue(TestListenerAdapter.class)));
         }});
     }
 
@@ -347,7 +353,7 @@ public class TestTest extends AbstractConventionTaskTest {
 
             ignoring(testDescriptor);
 
-            one(testExecuterMock).execute(with(sameInstance(test)), with(notNullValue(TestListenerAdapter.class)));
+            one(testExecuterMock).execute(with(sameInstance(test)), with(notNullValue(Spec.class)), with(notNullValue(TestClassDurations.class)), with(notNullValue(TestListenerAdapter.class)));
             will(new Action() {
                 public void describeTo(Description description) {
                     description.appendText("fail tests");
@@ -61,7 +61,7 @@ public class ScalaCompilerFactory {
             throw new RuntimeException("Internal error: Failed to load org.gradle.api.internal.tasks.scala.jdk6.ZincScalaCompiler", e);
         }
 
-        CompilerDaemonFactory daemonFactory = CompilerDaemonManager.getInstance();
+        CompilerDaemonFactory daemonFactory = project.getServices().get(CompilerDaemonManager.class);
         scalaCompiler = new DaemonScalaCompiler(project, scalaCompiler, daemonFactory);
         return new NormalizingScalaCompiler(scalaCompiler);
     }